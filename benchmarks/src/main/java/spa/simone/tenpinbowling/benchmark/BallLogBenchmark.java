@@ -0,0 +1,103 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.store.BallLog;
+
+/**
+ * Benchmark of the recovery of a {@link BallLog}: the replay of a night of
+ * random games on 48 lanes (4 players per game, 60 games per lane), with no
+ * snapshot. The score is the number of events replayed per second.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BallLogBenchmark {
+
+	private static final int LANES = 48;
+	private static final int GAMES = 60;
+	private static final int PLAYERS = 4;
+	// the number of balls of the random games generated with the seed 42
+	private static final int EVENTS = 224034;
+
+	private File directory;
+	private int events;
+
+	@Setup
+	public void setUp() throws IOException, ScoreBoardException {
+		directory = Files.createTempDirectory("balllog").toFile();
+		int[][] games = GameMix.RANDOM.games(LANES * GAMES * PLAYERS, 42);
+		try (BallLog log = BallLog.open(directory, Integer.MAX_VALUE)) {
+			int n = 0;
+			for (int lane = 0; lane < LANES; lane++) {
+				for (int game = 0; game < GAMES; game++) {
+					for (int player = 0; player < PLAYERS; player++) {
+						int[] calls = games[n++];
+						for (int i = 0; i < calls.length; i += 3) {
+							log.append(lane, game, player, calls[i], calls[i + 1], calls[i + 2]);
+							events++;
+						}
+					}
+				}
+			}
+		}
+		if (events != EVENTS) {
+			throw new IllegalStateException(events + " events, the benchmark expects " + EVENTS);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		for (File file : directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(EVENTS)
+	public int replay() throws IOException {
+		try (BallLog log = BallLog.open(directory, Integer.MAX_VALUE)) {
+			return log.getScoreBoards().size();
+		}
+	}
+
+}
\ No newline at end of file
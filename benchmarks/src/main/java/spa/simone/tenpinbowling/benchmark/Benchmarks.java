@@ -0,0 +1,53 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The entry point of the benchmarks. It accepts the usual JMH command line
+ * options, and it always adds the GC profiler, so that the allocation rate is
+ * reported alongside the throughput and the average time.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class Benchmarks {
+
+	/**
+	 * The entry point.
+	 * 
+	 * @param args
+	 *           the JMH command line options (e.g. a regexp of the benchmarks
+	 *           to run).
+	 * @throws RunnerException
+	 * @throws CommandLineOptionException
+	 */
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		Options options = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+import spa.simone.tenpinbowling.model.Util;
+import spa.simone.tenpinbowling.store.BulkScorer;
+
+/**
+ * Benchmarks of the {@link BulkScorer} against the scoring of one
+ * {@link ScoreBoardImpl} per game (<code>BulkScorerTest</code> checks that
+ * both give the same results). The score is the number of games scored per
+ * second.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkScorerBenchmark {
+
+	private static final int GAMES = 1 << 16;
+
+	@Param({ "RANDOM", "PERFECT" })
+	private GameMix mix;
+
+	private ScoreBoard[] boards;
+	private byte[][] shots;
+	private int[] finalScores;
+	private int[] strikes;
+	private int[] spares;
+	private int[][] frameScores;
+
+	@Setup
+	public void setUp() throws ScoreBoardException {
+		int[][] games = mix.games(GAMES, 42);
+		boards = new ScoreBoard[GAMES];
+		shots = new byte[BulkScorer.SHOTS][GAMES];
+		for (int i = 0; i < GAMES; i++) {
+			boards[i] = GameMix.play(new ScoreBoardImpl(), games[i]);
+			for (int f = 1; f <= 10; f++) {
+				shots[Util.getIndex(f - 1, 0)][i] = (byte) boards[i].getShot(f, 1);
+				shots[Util.getIndex(f - 1, 1)][i] = (byte) boards[i].getShot(f, 2);
+			}
+			shots[20][i] = (byte) boards[i].getShot(10, 3);
+		}
+		finalScores = new int[GAMES];
+		strikes = new int[GAMES];
+		spares = new int[GAMES];
+		frameScores = new int[10][GAMES];
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAMES)
+	public int[] bulk() {
+		BulkScorer.score(shots, GAMES, finalScores, strikes, spares, 0);
+		return finalScores;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAMES)
+	public int[][] bulkFrames() {
+		BulkScorer.scoreFrames(shots, GAMES, frameScores);
+		return frameScores;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAMES)
+	public int[] perGame() {
+		for (int i = 0; i < GAMES; i++) {
+			ScoreBoard board = boards[i];
+			board.computeFinalScore();
+			finalScores[i] = board.getFinalScore();
+			strikes[i] = board.getStrikes();
+			spares[i] = board.getSpares();
+		}
+		return finalScores;
+	}
+
+}
\ No newline at end of file
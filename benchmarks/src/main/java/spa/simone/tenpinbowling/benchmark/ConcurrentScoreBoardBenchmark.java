@@ -0,0 +1,99 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.model.ConcurrentScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+
+/**
+ * Benchmarks of a {@link ConcurrentScoreBoard} shared by two writers (e.g. the
+ * pinsetter controller and the front-desk correction UI) and four readers
+ * (the displays).
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Group)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentScoreBoardBenchmark {
+
+	private ScoreBoard board;
+
+	@Setup
+	public void setUp() throws ScoreBoardException {
+		board = GameMix.play(new ConcurrentScoreBoard(), GameMix.RANDOM.games(1, 42)[0]);
+	}
+
+	/**
+	 * The state of each writer: it keeps correcting the first shot of the
+	 * frames, which is always a legal change.
+	 */
+	@State(Scope.Thread)
+	public static class Writer {
+
+		private int frame;
+		private int pins;
+
+		int nextFrame() {
+			frame = frame % 9 + 1;
+			return frame;
+		}
+
+		int nextPins() {
+			pins = (pins + 3) % 11;
+			return pins;
+		}
+
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(2)
+	public void setPins(Writer writer) throws ScoreBoardException {
+		int frame = writer.nextFrame();
+		// the second shot is reset first, so that any first shot is legal
+		board.setPins(frame, 2, 0);
+		board.setPins(frame, 1, writer.nextPins());
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(4)
+	public int getFinalScore() {
+		return board.getFinalScore();
+	}
+
+}
\ No newline at end of file
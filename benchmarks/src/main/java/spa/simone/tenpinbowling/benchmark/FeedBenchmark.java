@@ -0,0 +1,103 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.feed.PublishingScoreBoard;
+import spa.simone.tenpinbowling.feed.ScoreBoardDelta;
+import spa.simone.tenpinbowling.feed.Subscription;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+
+/**
+ * Benchmarks of the cost of the change feed on the scoring of random games:
+ * a plain scoreboard, a {@link PublishingScoreBoard} without subscribers, and
+ * one whose subscriber reads every delta after every ball. The score is the
+ * number of games played per second.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedBenchmark {
+
+	private static final int GAMES = 1024;
+
+	private int[][] games;
+	private ScoreBoardDelta delta;
+
+	@Setup
+	public void setUp() {
+		games = GameMix.RANDOM.games(GAMES, 42);
+		delta = new ScoreBoardDelta();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAMES)
+	public int plain() throws ScoreBoardException {
+		int total = 0;
+		for (int[] game : games) {
+			total += GameMix.play(new ScoreBoardImpl(), game).getFinalScore();
+		}
+		return total;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAMES)
+	public int publish() throws ScoreBoardException {
+		int total = 0;
+		for (int[] game : games) {
+			total += GameMix.play(new PublishingScoreBoard(new ScoreBoardImpl()), game)
+					.getFinalScore();
+		}
+		return total;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAMES)
+	public int subscribe() throws ScoreBoardException {
+		int total = 0;
+		for (int[] game : games) {
+			PublishingScoreBoard board = new PublishingScoreBoard(new ScoreBoardImpl());
+			Subscription subscription = board.getFeed().subscribe();
+			for (int i = 0; i < game.length; i += 3) {
+				board.setPins(game[i], game[i + 1], game[i + 2]);
+				subscription.poll(delta);
+			}
+			total += delta.getTotal();
+		}
+		return total;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+import spa.simone.tenpinbowling.store.GameArchive;
+import spa.simone.tenpinbowling.store.GameArchiveWriter;
+
+/**
+ * Benchmark of a report over many finished games (the average final score,
+ * strikes and spares), read from a {@link GameArchive} or parsed from the text
+ * of {@link ScoreBoard#serializeScoreBoard()}. The score is the number of
+ * games read per second.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameArchiveBenchmark {
+
+	private static final int GAMES = 65536;
+
+	private File file;
+	private GameArchive archive;
+	private String[] dump;
+
+	@Setup
+	public void setUp() throws IOException, ScoreBoardException {
+		file = File.createTempFile("games", ".archive");
+		file.delete();
+		int[][] games = GameMix.RANDOM.games(GAMES, 42);
+		dump = new String[GAMES];
+		try (GameArchiveWriter writer = GameArchiveWriter.open(file)) {
+			for (int i = 0; i < GAMES; i++) {
+				ScoreBoard board = GameMix.play(new ScoreBoardImpl(), games[i]);
+				board.setPlayerName("Player" + i);
+				board.computeFinalScore();
+				writer.append(board);
+				dump[i] = board.serializeScoreBoard();
+			}
+		}
+		archive = GameArchive.open(file);
+	}
+
+	@TearDown
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAMES)
+	public long scanArchive() {
+		long total = 0;
+		for (int id = 0; id < archive.size(); id++) {
+			total += archive.getFinalScore(id) + archive.getStrikes(id) + archive.getSpares(id);
+		}
+		return total;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAMES)
+	public long parseText() {
+		long total = 0;
+		for (String text : dump) {
+			total += parse(text, "Final Score: ") + parse(text, "Total Strikes: ")
+					+ parse(text, "Total Spares: ");
+		}
+		return total;
+	}
+
+	private static int parse(String text, String label) {
+		int from = text.indexOf(label) + label.length();
+		return Integer.parseInt(text.substring(from, text.indexOf('\n', from)));
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.util.Random;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+
+/**
+ * The kinds of game used by the benchmarks. A game is a sequence of
+ * <code>setPins</code> calls, in the order they are made by
+ * <code>BowlingGame</code>, stored as (frame, shot, pins) triples.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public enum GameMix {
+
+	/**
+	 * Twelve strikes in a row.
+	 */
+	PERFECT,
+
+	/**
+	 * A spare in every frame (5 + 5), with 5 on the bonus shot.
+	 */
+	ALL_SPARES,
+
+	/**
+	 * No pins knocked down.
+	 */
+	GUTTER,
+
+	/**
+	 * Legal games with random shots.
+	 */
+	RANDOM;
+
+	/**
+	 * Creates the games.
+	 * 
+	 * @param count
+	 *           the number of games.
+	 * @param seed
+	 *           the seed of the random shots.
+	 * @return an array of (frame, shot, pins) triples per game.
+	 */
+	public int[][] games(int count, long seed) {
+		Random random = new Random(seed);
+		int[][] games = new int[count][];
+		for (int i = 0; i < count; i++) {
+			games[i] = game(random);
+		}
+		return games;
+	}
+
+	/**
+	 * Replays a game on a scoreboard.
+	 * 
+	 * @param board
+	 *           the scoreboard.
+	 * @param game
+	 *           the (frame, shot, pins) triples of the game.
+	 * @return the scoreboard.
+	 * @throws ScoreBoardException
+	 */
+	public static ScoreBoard play(ScoreBoard board, int[] game) throws ScoreBoardException {
+		for (int i = 0; i < game.length; i += 3) {
+			board.setPins(game[i], game[i + 1], game[i + 2]);
+		}
+		return board;
+	}
+
+	private int[] game(Random random) {
+		int[] calls = new int[21 * 3];
+		int n = 0;
+		for (int frame = 1; frame <= 9; frame++) {
+			int first = first(random);
+			calls[n++] = frame;
+			calls[n++] = 1;
+			calls[n++] = first;
+			if (first != 10) {
+				calls[n++] = frame;
+				calls[n++] = 2;
+				calls[n++] = second(random, 10 - first);
+			}
+		}
+		// last frame
+		int first = first(random);
+		int second = first == 10 ? first(random) : second(random, 10 - first);
+		calls[n++] = 10;
+		calls[n++] = 1;
+		calls[n++] = first;
+		calls[n++] = 10;
+		calls[n++] = 2;
+		calls[n++] = second;
+		if (first == 10 || first + second == 10) {
+			int standing = first == 10 && second != 10 ? 10 - second : 10;
+			calls[n++] = 10;
+			calls[n++] = 3;
+			calls[n++] = first == 10 && second != 10 ? second(random, standing) : first(random);
+		}
+		int[] game = new int[n];
+		System.arraycopy(calls, 0, game, 0, n);
+		return game;
+	}
+
+	private int first(Random random) {
+		switch (this) {
+		case PERFECT:
+			return 10;
+		case ALL_SPARES:
+			return 5;
+		case GUTTER:
+			return 0;
+		default:
+			return random.nextInt(11);
+		}
+	}
+
+	private int second(Random random, int standing) {
+		switch (this) {
+		case PERFECT:
+		case ALL_SPARES:
+			return standing;
+		case GUTTER:
+			return 0;
+		default:
+			return random.nextInt(standing + 1);
+		}
+	}
+
+}
\ No newline at end of file
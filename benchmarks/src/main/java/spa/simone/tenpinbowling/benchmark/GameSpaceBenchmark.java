@@ -0,0 +1,76 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.stats.GameSpace;
+
+/**
+ * Benchmarks of the {@link GameSpace}: the count of all the legal games by
+ * final score, and the uniform draw of a game, with any score or with a score
+ * of 200. The score is the average time of an operation.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameSpaceBenchmark {
+
+	private GameSpace space;
+	private Random random;
+	private byte[] shots;
+
+	@Setup
+	public void setUp() {
+		space = new GameSpace();
+		random = new Random(42);
+		shots = new byte[21];
+	}
+
+	@Benchmark
+	public GameSpace count() {
+		return new GameSpace();
+	}
+
+	@Benchmark
+	public int sample() {
+		return space.sample(random, shots);
+	}
+
+	@Benchmark
+	public int sampleScore() {
+		return space.sample(random, 200, shots);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,130 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.leaderboard.Leaderboard;
+import spa.simone.tenpinbowling.leaderboard.RankedScoreBoard;
+import spa.simone.tenpinbowling.leaderboard.Standing;
+import spa.simone.tenpinbowling.model.PackedScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+
+/**
+ * Benchmarks of a {@link Leaderboard} of 4096 players in a group of four lanes
+ * rolling random games (each ball moves a player) and two displays reading
+ * the top ten and the rank of a player.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeaderboardBenchmark {
+
+	private static final int LANES = 4;
+	private static final int PLAYERS_PER_LANE = 1024;
+
+	private Leaderboard leaderboard;
+	private RankedScoreBoard[][] players;
+	private int[][] games;
+	private int lanes;
+
+	@Setup
+	public void setUp() {
+		leaderboard = new Leaderboard();
+		players = new RankedScoreBoard[LANES][PLAYERS_PER_LANE];
+		for (int lane = 0; lane < LANES; lane++) {
+			for (int player = 0; player < PLAYERS_PER_LANE; player++) {
+				players[lane][player] = new RankedScoreBoard(new PackedScoreBoard(), leaderboard);
+			}
+		}
+		games = GameMix.RANDOM.games(PLAYERS_PER_LANE, 42);
+	}
+
+	/**
+	 * The state of each lane: it rolls the balls of its players in turn, and
+	 * starts a new game when the game of the player is over.
+	 */
+	@State(Scope.Thread)
+	public static class Lane {
+
+		private RankedScoreBoard[] players;
+		private int player;
+		private int[] balls;
+
+		void init(LeaderboardBenchmark benchmark) {
+			synchronized (benchmark) {
+				players = benchmark.players[benchmark.lanes++ % LANES];
+				balls = new int[PLAYERS_PER_LANE];
+			}
+		}
+
+	}
+
+	@Benchmark
+	@Group("tournament")
+	@GroupThreads(LANES)
+	public void roll(Lane lane) throws ScoreBoardException {
+		if (lane.players == null) {
+			lane.init(this);
+		}
+		int player = lane.player;
+		lane.player = (player + 1) % PLAYERS_PER_LANE;
+		RankedScoreBoard board = lane.players[player];
+		int[] game = games[player];
+		int ball = lane.balls[player];
+		if (ball * 3 == game.length) {
+			board.reset();
+			ball = 0;
+		}
+		board.setPins(game[ball * 3], game[ball * 3 + 1], game[ball * 3 + 2]);
+		lane.balls[player] = ball + 1;
+	}
+
+	@Benchmark
+	@Group("tournament")
+	@GroupThreads(1)
+	public List<Standing> top() {
+		return leaderboard.getTop(10);
+	}
+
+	@Benchmark
+	@Group("tournament")
+	@GroupThreads(1)
+	public int rank() {
+		return players[0][0].getRank();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.metrics.Metrics;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+
+/**
+ * Benchmarks of the cost of the metrics on the scoring of random games, with
+ * the metrics disabled or enabled. The score is the number of games played
+ * per second.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+	private static final int GAMES = 1024;
+
+	@Param({ "false", "true" })
+	private boolean enabled;
+
+	private int[][] games;
+
+	@Setup
+	public void setUp() {
+		games = GameMix.RANDOM.games(GAMES, 42);
+		if (enabled) {
+			Metrics.enable();
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		Metrics.disable();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAMES)
+	public int play() throws ScoreBoardException {
+		int total = 0;
+		for (int[] game : games) {
+			ScoreBoard board = GameMix.play(new ScoreBoardImpl(), game);
+			total += board.getFinalScore();
+		}
+		return total;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.model.PackedScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+
+/**
+ * Benchmarks of a noisy pinsetter feed, where a share of the balls is
+ * invalid: every invocation plays a random game with the invalid balls mixed
+ * in, rejected by the exceptions of <code>setPins</code> or by the result of
+ * <code>trySetPins</code>.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoisyFeedBenchmark {
+
+	private static final int GAMES = 1024;
+
+	/**
+	 * The percentage of invalid balls.
+	 */
+	@Param({ "0", "10", "50" })
+	private int noise;
+
+	private int[][] feeds;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		int[][] games = GameMix.RANDOM.games(GAMES, 42);
+		feeds = new int[GAMES][];
+		for (int g = 0; g < GAMES; g++) {
+			int[] game = games[g];
+			int[] feed = new int[game.length * 2];
+			int length = 0;
+			for (int i = 0; i < game.length; i += 3) {
+				if (random.nextInt(100) < noise) {
+					// the same ball with too many pins
+					feed[length++] = game[i];
+					feed[length++] = game[i + 1];
+					feed[length++] = 11 + random.nextInt(5);
+				}
+				feed[length++] = game[i];
+				feed[length++] = game[i + 1];
+				feed[length++] = game[i + 2];
+			}
+			feeds[g] = Arrays.copyOf(feed, length);
+		}
+	}
+
+	private int[] nextFeed() {
+		next = (next + 1) & (GAMES - 1);
+		return feeds[next];
+	}
+
+	@Benchmark
+	public ScoreBoard setPins() {
+		int[] feed = nextFeed();
+		ScoreBoard board = new PackedScoreBoard();
+		for (int i = 0; i < feed.length; i += 3) {
+			try {
+				board.setPins(feed[i], feed[i + 1], feed[i + 2]);
+			} catch (ScoreBoardException e) {
+				// rejected
+			}
+		}
+		return board;
+	}
+
+	@Benchmark
+	public ScoreBoard trySetPins() {
+		int[] feed = nextFeed();
+		ScoreBoard board = new PackedScoreBoard();
+		for (int i = 0; i < feed.length; i += 3) {
+			board.trySetPins(feed[i], feed[i + 1], feed[i + 2]);
+		}
+		return board;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardFactory;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+import spa.simone.tenpinbowling.model.ScoreBoardPool;
+
+/**
+ * Benchmarks of the churn of games: a new {@link ScoreBoardImpl} per game,
+ * against a scoreboard taken from a {@link ScoreBoardPool} and given back at
+ * the end of the game. The games are kept alive in batches of 64, like the
+ * lanes of a centre. The score is the number of games played per second.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoolBenchmark {
+
+	private static final int GAMES = 1024;
+	private static final int LANES = 64;
+
+	private int[][] games;
+	private ScoreBoard[] lanes;
+	private ScoreBoardPool pool;
+
+	@Setup
+	public void setUp() {
+		games = GameMix.RANDOM.games(GAMES, 42);
+		lanes = new ScoreBoard[LANES];
+		pool = new ScoreBoardPool(ScoreBoardFactory.IMPL, LANES, false);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAMES)
+	public int allocate() throws ScoreBoardException {
+		int total = 0;
+		for (int i = 0; i < GAMES; i++) {
+			ScoreBoard board = GameMix.play(new ScoreBoardImpl(), games[i]);
+			lanes[i % LANES] = board;
+			total += board.getFinalScore();
+		}
+		return total;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAMES)
+	public int pooled() throws ScoreBoardException {
+		int total = 0;
+		for (int i = 0; i < GAMES; i++) {
+			ScoreBoard previous = lanes[i % LANES];
+			if (previous != null) {
+				pool.release(previous);
+			}
+			ScoreBoard board = GameMix.play(pool.acquire(), games[i]);
+			lanes[i % LANES] = board;
+			total += board.getFinalScore();
+		}
+		return total;
+	}
+
+}
\ No newline at end of file
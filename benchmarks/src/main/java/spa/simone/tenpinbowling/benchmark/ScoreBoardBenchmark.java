@@ -0,0 +1,108 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+
+/**
+ * Benchmarks of the {@link ScoreBoardImpl} operations, over a set of games of
+ * the same {@link GameMix}. Every invocation works on the next game of the
+ * set.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreBoardBenchmark {
+
+	private static final int GAMES = 1024;
+
+	@Param
+	private GameMix mix;
+
+	private int[][] games;
+	private ScoreBoard[] boards;
+	private int next;
+
+	@Setup
+	public void setUp() throws ScoreBoardException {
+		games = mix.games(GAMES, 42);
+		boards = new ScoreBoard[GAMES];
+		for (int i = 0; i < GAMES; i++) {
+			boards[i] = GameMix.play(new ScoreBoardImpl(), games[i]);
+			boards[i].setPlayerName("Player" + i);
+		}
+	}
+
+	private int nextGame() {
+		next = (next + 1) & (GAMES - 1);
+		return next;
+	}
+
+	@Benchmark
+	public ScoreBoard setPins() throws ScoreBoardException {
+		return GameMix.play(new ScoreBoardImpl(), games[nextGame()]);
+	}
+
+	@Benchmark
+	public int computeFinalScore() {
+		ScoreBoard board = boards[nextGame()];
+		board.computeFinalScore();
+		return board.getFinalScore();
+	}
+
+	@Benchmark
+	public int getFinalScore() {
+		return boards[nextGame()].getFinalScore();
+	}
+
+	@Benchmark
+	public int getStrikes() {
+		return boards[nextGame()].getStrikes();
+	}
+
+	@Benchmark
+	public int getSpares() {
+		return boards[nextGame()].getSpares();
+	}
+
+	@Benchmark
+	public String serializeScoreBoard() {
+		return boards[nextGame()].serializeScoreBoard();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.model.OutOfRangeException;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+import spa.simone.tenpinbowling.model.ScoreProjection;
+import spa.simone.tenpinbowling.model.ScoreProjector;
+
+/**
+ * Benchmarks of the {@link ScoreProjector} on random games stopped after a
+ * random number of balls: the maximum score, and the pins needed to reach 200.
+ * The score is the number of projections per second.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreProjectorBenchmark {
+
+	private static final int GAMES = 1024;
+
+	private ScoreBoard[] boards;
+	private int[] frames;
+	private int[] shots;
+
+	@Setup
+	public void setUp() throws ScoreBoardException {
+		int[][] games = GameMix.RANDOM.games(GAMES, 42);
+		boards = new ScoreBoard[GAMES];
+		frames = new int[GAMES];
+		shots = new int[GAMES];
+		for (int i = 0; i < GAMES; i++) {
+			int[] game = games[i];
+			// stop before one of the balls, or at the end of the game
+			int balls = i % (game.length / 3 + 1);
+			boards[i] = new ScoreBoardImpl();
+			for (int b = 0; b < balls; b++) {
+				boards[i].setPins(game[b * 3], game[b * 3 + 1], game[b * 3 + 2]);
+			}
+			frames[i] = balls * 3 < game.length ? game[balls * 3] : 11;
+			shots[i] = balls * 3 < game.length ? game[balls * 3 + 1] : 1;
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAMES)
+	public int project() throws OutOfRangeException {
+		int sum = 0;
+		for (int i = 0; i < GAMES; i++) {
+			ScoreProjection projection = ScoreProjector.project(boards[i], frames[i], shots[i]);
+			sum += projection.getMaxScore() + projection.getPinsToReach(200);
+		}
+		return sum;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.model.PackedScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.stats.SeasonAggregator;
+import spa.simone.tenpinbowling.stats.SeasonStatistics;
+
+/**
+ * Benchmarks of the aggregation of a season of random games (1000 players),
+ * sequential or on all the cores with the {@link SeasonAggregator}. The score
+ * is the number of games aggregated per second.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeasonAggregatorBenchmark {
+
+	private static final int GAMES = 1 << 18;
+	private static final int PLAYERS = 1000;
+
+	private List<ScoreBoard> boards;
+	private SeasonAggregator aggregator;
+
+	@Setup
+	public void setUp() throws ScoreBoardException {
+		int[][] games = GameMix.RANDOM.games(GAMES, 42);
+		boards = new ArrayList<>(GAMES);
+		for (int i = 0; i < GAMES; i++) {
+			ScoreBoard board = GameMix.play(new PackedScoreBoard(), games[i]);
+			board.setPlayerName("Player" + (i % PLAYERS));
+			boards.add(board);
+		}
+		aggregator = new SeasonAggregator();
+	}
+
+	@TearDown
+	public void tearDown() {
+		aggregator.shutdown();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAMES)
+	public SeasonStatistics sequential() {
+		return SeasonAggregator.aggregateSequentially(boards);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAMES)
+	public SeasonStatistics parallel() {
+		return aggregator.aggregate(boards);
+	}
+
+}
\ No newline at end of file
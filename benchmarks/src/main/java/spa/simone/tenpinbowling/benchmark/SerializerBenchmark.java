@@ -0,0 +1,89 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.io.BinaryScoreBoardSerializer;
+import spa.simone.tenpinbowling.io.JsonScoreBoardSerializer;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+
+/**
+ * Benchmarks of the rendering of a scoreboard: the string of
+ * {@link ScoreBoard#serializeScoreBoard()} encoded in UTF-8, against the
+ * binary and the JSON serializers writing into a reused buffer.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+	private ScoreBoard board;
+	private ByteBuffer buffer;
+	private BinaryScoreBoardSerializer binary;
+	private JsonScoreBoardSerializer json;
+
+	@Setup
+	public void setUp() throws ScoreBoardException {
+		board = GameMix.play(new ScoreBoardImpl(), GameMix.RANDOM.games(1, 42)[0]);
+		board.setPlayerName("Simone");
+		buffer = ByteBuffer.allocate(1024);
+		binary = new BinaryScoreBoardSerializer();
+		json = new JsonScoreBoardSerializer();
+	}
+
+	@Benchmark
+	public byte[] string() {
+		return board.serializeScoreBoard().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public ByteBuffer binary() {
+		((Buffer) buffer).clear();
+		binary.serialize(board, buffer);
+		return buffer;
+	}
+
+	@Benchmark
+	public ByteBuffer json() {
+		((Buffer) buffer).clear();
+		json.serialize(board, buffer);
+		return buffer;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.model.PackedScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+import spa.simone.tenpinbowling.model.TableScoreBoard;
+
+/**
+ * Benchmarks of the table-driven {@link TableScoreBoard} against the scoring
+ * rules evaluated with branches, by {@link ScoreBoardImpl} (which caches the
+ * frame scores) and by {@link PackedScoreBoard} (which computes them on
+ * demand). <code>TableScoreBoardTest</code> checks that they agree.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableScoreBoardBenchmark {
+
+	private static final int GAMES = 1024;
+
+	/**
+	 * The scoreboards under test.
+	 */
+	public enum Engine {
+		IMPL {
+			@Override
+			ScoreBoard create() {
+				return new ScoreBoardImpl();
+			}
+		},
+		PACKED {
+			@Override
+			ScoreBoard create() {
+				return new PackedScoreBoard();
+			}
+		},
+		TABLE {
+			@Override
+			ScoreBoard create() {
+				return new TableScoreBoard();
+			}
+		};
+
+		abstract ScoreBoard create();
+	}
+
+	@Param({ "RANDOM", "PERFECT" })
+	private GameMix mix;
+
+	@Param
+	private Engine engine;
+
+	private int[][] games;
+	private ScoreBoard[] boards;
+	private int next;
+
+	@Setup
+	public void setUp() throws ScoreBoardException {
+		games = mix.games(GAMES, 42);
+		boards = new ScoreBoard[GAMES];
+		for (int i = 0; i < GAMES; i++) {
+			boards[i] = GameMix.play(engine.create(), games[i]);
+		}
+	}
+
+	private int nextGame() {
+		next = (next + 1) & (GAMES - 1);
+		return next;
+	}
+
+	@Benchmark
+	public ScoreBoard setPins() throws ScoreBoardException {
+		return GameMix.play(engine.create(), games[nextGame()]);
+	}
+
+	@Benchmark
+	public int computeFinalScore() {
+		ScoreBoard board = boards[nextGame()];
+		board.computeFinalScore();
+		return board.getFinalScore();
+	}
+
+	@Benchmark
+	public int getStrikesAndSpares() {
+		ScoreBoard board = boards[nextGame()];
+		return board.getStrikes() + board.getSpares();
+	}
+
+}
\ No newline at end of file
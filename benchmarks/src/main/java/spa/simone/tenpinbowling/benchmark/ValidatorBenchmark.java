@@ -0,0 +1,81 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.Util;
+import spa.simone.tenpinbowling.model.Validator;
+
+/**
+ * Benchmarks of the {@link Validator} checks made by every
+ * <code>setPins</code> call, over a whole game of the given {@link GameMix}.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+
+	private static final int GAMES = 1024;
+
+	@Param
+	private GameMix mix;
+
+	private int[][] games;
+	private int[] shots = new int[21];
+	private int next;
+
+	@Setup
+	public void setUp() {
+		games = mix.games(GAMES, 42);
+	}
+
+	@Benchmark
+	public int[] checkGame() throws ScoreBoardException {
+		int[] game = games[next];
+		next = (next + 1) & (GAMES - 1);
+		for (int i = 0; i < game.length; i += 3) {
+			int frame = game[i];
+			int shot = game[i + 1];
+			int pins = game[i + 2];
+			Validator.checkFrame(frame);
+			Validator.checkShot(frame, shot);
+			Validator.checkPins(frame, shot, pins, shots);
+			shots[Util.getIndex(frame - 1, shot - 1)] = pins;
+		}
+		return shots;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,302 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import spa.simone.tenpinbowling.model.PackedScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+
+/**
+ * <p>
+ * This class contains the entry point of the batch mode: it scores a file of
+ * finished games, one per line, and writes a line per game with the name of
+ * the player, the final score, the number of strikes and the number of
+ * spares.
+ * </p>
+ * <p>
+ * An input line is the name of the player followed by the pins knocked down
+ * by each ball, in order of play (12 balls for a perfect game, 21 when every
+ * frame is open but the last one), separated by blanks:
+ * </p>
+ * 
+ * <pre>
+ * Simone 10 10 10 10 10 10 10 10 10 10 10 10
+ * </pre>
+ * <p>
+ * The balls are assigned to the frames as in the interactive game, and they
+ * are validated by the same rules. An invalid game is reported on the
+ * standard error with its line number, and the batch goes on.
+ * </p>
+ * <p>
+ * The lines are read in chunks, which are scored by a pool of worker threads.
+ * Only a bounded number of chunks is in flight at any time, so the memory
+ * does not depend on the size of the input, and the results are written in
+ * the same order of the input.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class BatchScorer {
+
+	private static final String USAGE = "Usage: BatchScorer [-t threads] [file]";
+	// the number of lines scored by a task
+	private static final int CHUNK = 4096;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The entry point.
+	 * 
+	 * @param args
+	 *           <code>-t N</code> to score with N threads (one per core by
+	 *           default), and the file to score (the standard input if it is
+	 *           missing or <code>-</code>).
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		int threads = Runtime.getRuntime().availableProcessors();
+		String path = null;
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-t")) {
+					threads = Integer.parseInt(args[++i]);
+					if (threads < 1) {
+						throw new IllegalArgumentException();
+					}
+				} else if (path == null) {
+					path = args[i];
+				} else {
+					throw new IllegalArgumentException();
+				}
+			}
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+		BufferedReader in;
+		if (path == null || path.equals("-")) {
+			in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8),
+					BUFFER_SIZE);
+		} else {
+			in = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8);
+		}
+		Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8),
+				BUFFER_SIZE);
+		PrintWriter err = new PrintWriter(new OutputStreamWriter(System.err,
+				StandardCharsets.UTF_8));
+		long rejected;
+		try {
+			rejected = score(in, out, err, threads);
+		} finally {
+			in.close();
+			out.flush();
+			err.flush();
+		}
+		if (rejected > 0) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Scores all the games of the input.
+	 * 
+	 * @param in
+	 *           the games, one per line.
+	 * @param out
+	 *           receives the scores, one line per valid game.
+	 * @param err
+	 *           receives the errors, one line per invalid game.
+	 * @param threads
+	 *           the number of worker threads.
+	 * @return the number of invalid games.
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public static long score(BufferedReader in, Writer out, Writer err, int threads)
+			throws IOException, InterruptedException {
+		ExecutorService workers = Executors.newFixedThreadPool(threads);
+		Queue<Future<Chunk>> pending = new ArrayDeque<>();
+		// enough chunks to keep the workers busy while the oldest is written
+		int maxPending = threads * 2;
+		long rejected = 0;
+		try {
+			long number = 1;
+			String[] lines = new String[CHUNK];
+			int count;
+			while ((count = read(in, lines)) > 0) {
+				if (pending.size() == maxPending) {
+					rejected += write(pending.remove(), out, err);
+				}
+				pending.add(workers.submit(new Chunk(lines, count, number)));
+				number += count;
+				lines = new String[CHUNK];
+			}
+			while (!pending.isEmpty()) {
+				rejected += write(pending.remove(), out, err);
+			}
+		} finally {
+			workers.shutdownNow();
+		}
+		return rejected;
+	}
+
+	private static int read(BufferedReader in, String[] lines) throws IOException {
+		int count = 0;
+		String line;
+		while (count < lines.length && (line = in.readLine()) != null) {
+			lines[count++] = line;
+		}
+		return count;
+	}
+
+	private static int write(Future<Chunk> future, Writer out, Writer err) throws IOException,
+			InterruptedException {
+		Chunk chunk;
+		try {
+			chunk = future.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("A chunk of games cannot be scored", e.getCause());
+		}
+		out.append(chunk.scores);
+		err.append(chunk.errors);
+		return chunk.rejected;
+	}
+
+	/*
+	 * A chunk of lines, and the result of their scoring.
+	 */
+	private static class Chunk implements Callable<Chunk> {
+
+		private final String[] lines;
+		private final int count;
+		private final long first;
+		private final StringBuilder scores = new StringBuilder();
+		private final StringBuilder errors = new StringBuilder();
+		// reset for every game of the chunk
+		private final ScoreBoard scoreBoard = new PackedScoreBoard();
+		private int rejected;
+
+		Chunk(String[] lines, int count, long first) {
+			this.lines = lines;
+			this.count = count;
+			this.first = first;
+		}
+
+		@Override
+		public Chunk call() {
+			for (int i = 0; i < count; i++) {
+				try {
+					score(lines[i]);
+				} catch (ScoreBoardException e) {
+					errors.append("Line ").append(first + i).append(": ").append(e.getMessage())
+							.append('\n');
+					rejected++;
+				}
+				lines[i] = null;
+			}
+			return this;
+		}
+
+		private void score(String line) throws ScoreBoardException {
+			int length = line.length();
+			int start = skipBlanks(line, 0);
+			int end = skipToken(line, start);
+			if (start == end) {
+				// blank line
+				return;
+			}
+			String name = line.substring(start, end);
+			scoreBoard.reset();
+			int frame = 1;
+			int shot = 1;
+			for (int i = skipBlanks(line, end); i < length; i = skipBlanks(line, i)) {
+				int pins = 0;
+				for (; i < length && !isBlank(line.charAt(i)); i++) {
+					char c = line.charAt(i);
+					if (c < '0' || c > '9' || pins > 10) {
+						throw new ScoreBoardException("\"" + line.substring(i, skipToken(line, i))
+								+ "\" is not a valid number of pins.");
+					}
+					pins = pins * 10 + c - '0';
+				}
+				if (frame > 10) {
+					throw new ScoreBoardException("The game of " + name + " has too many balls.");
+				}
+				scoreBoard.setPins(frame, shot, pins);
+				// the same frame/shot sequence of the interactive game
+				if (frame < 10) {
+					if (shot == 1 && !scoreBoard.isStrike(frame)) {
+						shot = 2;
+					} else {
+						shot = 1;
+						frame++;
+					}
+				} else if (shot == 1
+						|| (shot == 2 && (scoreBoard.isStrikeOnLastFrame() || scoreBoard
+								.isSpareOnLastFrame()))) {
+					shot++;
+				} else {
+					frame++;
+				}
+			}
+			if (frame <= 10) {
+				throw new ScoreBoardException("The game of " + name + " is not finished.");
+			}
+			scores.append(name).append(' ').append(scoreBoard.getFinalScore()).append(' ')
+					.append(scoreBoard.getStrikes()).append(' ').append(scoreBoard.getSpares())
+					.append('\n');
+		}
+
+		private static int skipBlanks(String line, int from) {
+			while (from < line.length() && isBlank(line.charAt(from))) {
+				from++;
+			}
+			return from;
+		}
+
+		private static int skipToken(String line, int from) {
+			while (from < line.length() && !isBlank(line.charAt(from))) {
+				from++;
+			}
+			return from;
+		}
+
+		private static boolean isBlank(char c) {
+			return c == ' ' || c == '\t' || c == '\r';
+		}
+
+	}
+
+}
\ No newline at end of file
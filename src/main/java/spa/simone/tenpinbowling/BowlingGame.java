@@ -16,68 +16,108 @@
  */
 package spa.simone.tenpinbowling;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Scanner;
-import java.util.Set;
 
+import spa.simone.tenpinbowling.model.PlayerRegistry;
 import spa.simone.tenpinbowling.model.ScoreBoard;
 import spa.simone.tenpinbowling.model.ScoreBoardException;
-import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+import spa.simone.tenpinbowling.server.Lane;
+import spa.simone.tenpinbowling.stats.SeasonAggregator;
+import spa.simone.tenpinbowling.store.BallLog;
 
 /**
+ * <p>
  * This class contains the entry point of the Ten Pin Bowling game.
+ * </p>
+ * <p>
+ * With <code>-l dir</code>, the game is recorded in a {@link BallLog} in the
+ * directory, and an unfinished game found there is resumed, with its players
+ * and their balls, instead of starting a new one.
+ * </p>
  * 
  * @author Simone Spaccarotella {spa.simone@gmail.com}
  */
 public class BowlingGame {
 
-	private static List<ScoreBoard> players = new ArrayList<>(6);
 	private static Scanner in = new Scanner(System.in);
-	private static final int FRAMES = 10;
-	private static final int SHOTS = 2;
+	// the number of events between two snapshots of the log
+	private static final int SNAPSHOT_INTERVAL = 1000;
 
 	/**
 	 * The entry point.
 	 * 
 	 * @param args
-	 *           no args are required.
+	 *           <code>-l dir</code> to record the game in a log, no args
+	 *           otherwise.
 	 * @throws ScoreBoardException
+	 * @throws IOException
+	 *            if the log cannot be read or written.
 	 */
-	public static void maiSn(String[] args) throws ScoreBoardException {
-		// init players
-		initPlayers();
-		// start game
-		for (int frame = 1; frame <= FRAMES; frame++) {
-			playGame(frame);
+	public static void main(String[] args) throws ScoreBoardException, IOException {
+		BallLog log = null;
+		if (args.length == 2 && args[0].equals("-l")) {
+			log = BallLog.open(new File(args[1]), SNAPSHOT_INTERVAL);
+		} else if (args.length != 0) {
+			System.err.println("Usage: BowlingGame [-l dir]");
+			System.exit(1);
+		}
+		try {
+			Lane lane = null;
+			if (log != null && log.getLatestGame(0) >= 0) {
+				lane = Lane.recover(log, 0, log.getLatestGame(0), null);
+				if (lane != null && lane.isOver()) {
+					lane = null;
+				}
+			}
+			if (lane == null) {
+				// init players
+				List<String> names = initPlayers();
+				int game = log == null ? 0 : (log.getLatestGame(0) + 1) & 0xFFFF;
+				lane = new Lane(0, names, null, log, game);
+			} else {
+				System.out.println("Resuming the game of " + lane.getPlayers().size() + " players");
+				System.out.println();
+			}
+			// start game
+			playGame(lane);
+			printStatistics(lane);
+		} finally {
+			if (log != null) {
+				log.close();
+			}
 		}
-		printStatistics();
 	}
 
 	/*
 	 * Submits the name of the competitors.
 	 */
-	private static void initPlayers() {
-		Set<String> names = new HashSet<>();
+	private static List<String> initPlayers() {
+		List<String> players = new ArrayList<>(6);
+		// the names of this game only
+		PlayerRegistry registry = new PlayerRegistry();
+		BitSet ids = new BitSet();
 		boolean exit = false;
-		ScoreBoard scoreBoard = null;
 		String resp = null;
 		
 		// This loop add up to 6 people
 		for (int i = 1; i <= 6 && !exit; i++) {
 			System.out.print("Enter the name of the player number " + i + ": ");
 			String name = in.next();
+			int id = registry.register(name);
 			// this loop checks whether the name of the player already exists
-			while (!names.add(name)) {
+			while (ids.get(id)) {
 				System.out.print("The player " + name + " already exists. Enter another name: ");
 				name = in.next();
+				id = registry.register(name);
 			}
-			// Creates a new player
-			scoreBoard = new ScoreBoardImpl();
-			scoreBoard.setPlayerName(name);
+			ids.set(id);
 			// Adds the player to the list
-			players.add(scoreBoard);
+			players.add(name);
 			// If we didn't reached the maximum number of competitors
 			if (i < 6) {
 				// Allows the user to add new players or start to play the game
@@ -92,97 +132,80 @@ public class BowlingGame {
 				} while (!resp.equalsIgnoreCase("y"));
 			}
 		}
+		return players;
 	}
 
 	/*
-	 * This method performs the scores submission for each player.
-	 */
-	private static void playGame(int frame) throws ScoreBoardException {
-		if (!isLastFrame(frame)) {
-			playNonFinalFrames(frame);
-		} else {
-			playTheLastFrame();
-		}
-	}
-
-	/*
-	 * Runs all non-final frames.
+	 * This method performs the scores submission for each player, ball by
+	 * ball, from the position of the lane.
 	 */
-	private static void playNonFinalFrames(int frame) throws NumberFormatException,
-			ScoreBoardException {
-		System.out.println("---> Frame " + frame);
-		System.out.println();
-		// for each player
-		for (ScoreBoard scoreBoard : players) {
-			System.out.println("- " + scoreBoard.getPlayerName());
-			System.out.println();
-			// it has two shots
-			for (int shot = 1; shot <= SHOTS; shot++) {
-				System.out.print("    SHOT " + shot + ": ");
-				// sets the number of knocked down pins
-				scoreBoard.setPins(frame, shot, Integer.valueOf(in.next()));
+	private static void playGame(Lane lane) throws ScoreBoardException {
+		boolean resumed = true;
+		while (!lane.isOver()) {
+			int frame = lane.getFrame();
+			int shot = lane.getShot();
+			ScoreBoard scoreBoard = lane.getPlayers().get(lane.getPlayer());
+			if (lane.getPlayer() == 0 && shot == 1 || resumed) {
+				System.out.println("---> Frame " + frame);
 				System.out.println();
-				// if is strike, go to the next player
+			}
+			if (shot == 1 || resumed) {
+				System.out.println("- " + scoreBoard.getPlayerName());
+				System.out.println();
+			}
+			resumed = false;
+			System.out.print("    " + getLabel(scoreBoard, frame, shot) + ": ");
+			// sets the number of knocked down pins
+			lane.roll(Integer.valueOf(in.next()));
+			System.out.println();
+			if (!isLastFrame(frame)) {
+				// if is strike, the lane goes to the next player
 				if (scoreBoard.isStrike(frame)) {
 					System.out.println("      Strike!");
 					System.out.println();
-					break;
 				} else if (scoreBoard.isSpare(frame)) {
 					System.out.println("      Spare!");
 					System.out.println();
 				}
+			} else if (shot == 1 && scoreBoard.isStrikeOnLastFrame()) {
+				// the last frame gets the extra shots
+				System.out.println("      Strike! You got two extra shots.");
+				System.out.println();
+			} else if (shot == 2) {
+				if (scoreBoard.isSpareOnLastFrame()) {
+					System.out.println("      Spare! You got one extra shot.");
+					System.out.println();
+				} else if (!scoreBoard.isStrikeOnLastFrame()) {
+					System.out.println();
+				}
 			}
 		}
 	}
 
 	/*
-	 * Runs the last frame (manage the extra shots).
+	 * The label of a shot, counting the extra shots of the last frame apart.
 	 */
-	private static void playTheLastFrame() throws NumberFormatException, ScoreBoardException {
-		System.out.println("---> Frame 10");
-		System.out.println();
-		// for each player
-		for (ScoreBoard scoreBoard : players) {
-			System.out.println("- " + scoreBoard.getPlayerName());
-			System.out.println();
-			System.out.print("    SHOT 1: ");
-			// First shot
-			scoreBoard.setPins(10, 1, Integer.valueOf(in.next()));
-			System.out.println();
-			// if is strike (get bonus)
-			if (scoreBoard.isStrikeOnLastFrame()) {
-				System.out.println("      Strike! You got two extra shots.");
-				System.out.println();
-				System.out.print("    EXTRA SHOT 1: ");
-			} else {
-				System.out.print("    SHOT 2: ");
-			}
-			scoreBoard.setPins(10, 2, Integer.valueOf(in.next()));
-			System.out.println();
-			if (scoreBoard.isSpareOnLastFrame()) {
-				System.out.println("      Spare! You got one extra shot.");
-				System.out.println();
-			}
-			if (scoreBoard.isStrikeOnLastFrame()) {
-				System.out.print("    EXTRA SHOT 2: ");
-				scoreBoard.setPins(10, 3, Integer.valueOf(in.next()));
-			} else if (scoreBoard.isSpareOnLastFrame()) {
-				System.out.print("    EXTRA SHOT 1: ");
-				scoreBoard.setPins(10, 3, Integer.valueOf(in.next()));
-			}
-			System.out.println();
+	private static String getLabel(ScoreBoard scoreBoard, int frame, int shot) {
+		if (!isLastFrame(frame) || shot == 1) {
+			return "SHOT " + shot;
+		}
+		if (scoreBoard.isStrikeOnLastFrame()) {
+			return "EXTRA SHOT " + (shot - 1);
 		}
+		return shot == 2 ? "SHOT 2" : "EXTRA SHOT 1";
 	}
 
 	/*
 	 * Prints the scoreboard, with a bit of statistics.
 	 */
-	private static void printStatistics() {
+	private static void printStatistics(Lane lane) {
 		System.out.println("-- STATISTICS");
 		System.out.println();
-		for (ScoreBoard scoreBoard : players) {
+		for (ScoreBoard scoreBoard : lane.getPlayers()) {
 			System.out.println(scoreBoard.serializeScoreBoard());
 		}
+		System.out.println(SeasonAggregator.aggregateSequentially(lane.getPlayers())
+				.serializeStatistics());
 	}
 
 	private static boolean isLastFrame(int frame) {
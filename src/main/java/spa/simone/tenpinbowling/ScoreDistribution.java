@@ -0,0 +1,263 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import spa.simone.tenpinbowling.model.PackedScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+import spa.simone.tenpinbowling.model.TableScoreBoard;
+import spa.simone.tenpinbowling.model.Util;
+import spa.simone.tenpinbowling.stats.GameSpace;
+import spa.simone.tenpinbowling.store.BulkScorer;
+
+/**
+ * <p>
+ * This class contains the entry point of the score distribution tool: it
+ * writes the exact number of legal games with each final score (see
+ * {@link GameSpace}), one line per reachable score with the score, the number
+ * of games and their probability when all the games are equally likely.
+ * </p>
+ * <p>
+ * With <code>-c N</code>, it also checks the scorers against the
+ * {@link GameSpace}: N games are drawn uniformly at random by a pool of worker
+ * threads, and each one is scored by the {@link ScoreBoardImpl}, the
+ * {@link PackedScoreBoard}, the {@link TableScoreBoard} and the
+ * {@link BulkScorer}. A disagreement is reported on the standard error, and
+ * the tool exits with 1.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class ScoreDistribution {
+
+	private static final String USAGE = "Usage: ScoreDistribution [-c games] [-t threads] [-s seed]";
+	// the number of games checked by a task
+	private static final int CHUNK = 4096;
+	// the number of disagreements reported
+	private static final int MAX_REPORTS = 10;
+
+	// guarded by the class
+	private static int reported;
+
+	/**
+	 * The entry point.
+	 * 
+	 * @param args
+	 *           <code>-c N</code> to check the scorers on N random games,
+	 *           <code>-t N</code> to check with N threads (one per core by
+	 *           default) and <code>-s N</code> to seed the random games.
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		long games = 0;
+		int threads = Runtime.getRuntime().availableProcessors();
+		long seed = System.nanoTime();
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-c")) {
+					games = Long.parseLong(args[++i]);
+				} else if (args[i].equals("-t")) {
+					threads = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-s")) {
+					seed = Long.parseLong(args[++i]);
+				} else {
+					throw new IllegalArgumentException();
+				}
+			}
+			if (games < 0 || threads < 1) {
+				throw new IllegalArgumentException();
+			}
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+		GameSpace space = new GameSpace();
+		Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+		write(space, out);
+		out.flush();
+		if (games > 0) {
+			long mismatches = check(space, games, threads, seed);
+			System.err.println(String.format(Locale.ROOT,
+					"%d random games checked (seed %d): %d disagreements", games, seed, mismatches));
+			if (mismatches > 0) {
+				System.exit(1);
+			}
+		}
+	}
+
+	/**
+	 * Writes the distribution of the final scores.
+	 * 
+	 * @param space
+	 *           the legal games.
+	 * @param out
+	 *           receives the distribution.
+	 * @throws IOException
+	 */
+	public static void write(GameSpace space, Writer out) throws IOException {
+		out.write(String.format(Locale.ROOT, "# %d legal games, average score %.4f%n",
+				space.getGames(), space.getAverage()));
+		for (int score = 0; score <= 300; score++) {
+			long count = space.getScoreCount(score);
+			if (count > 0) {
+				out.write(String.format(Locale.ROOT, "%d %d %.6e%n", score, count,
+						space.getProbability(score)));
+			}
+		}
+	}
+
+	/**
+	 * Checks the scorers on random games.
+	 * 
+	 * @param space
+	 *           the legal games.
+	 * @param games
+	 *           the number of games to check.
+	 * @param threads
+	 *           the number of worker threads.
+	 * @param seed
+	 *           the seed of the random games.
+	 * @return the number of games on which a scorer disagrees.
+	 * @throws InterruptedException
+	 */
+	public static long check(GameSpace space, long games, int threads, long seed)
+			throws InterruptedException {
+		ExecutorService workers = Executors.newFixedThreadPool(threads);
+		List<Future<Long>> results = new ArrayList<>();
+		long mismatches = 0;
+		try {
+			long task = 0;
+			for (long first = 0; first < games; first += CHUNK) {
+				int count = (int) Math.min(CHUNK, games - first);
+				results.add(workers.submit(new Check(space, count, seed + task++)));
+			}
+			for (Future<Long> result : results) {
+				mismatches += result.get();
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("A chunk of games cannot be checked", e.getCause());
+		} finally {
+			workers.shutdownNow();
+		}
+		return mismatches;
+	}
+
+	/*
+	 * The check of a chunk of random games.
+	 */
+	private static class Check implements Callable<Long> {
+
+		private final GameSpace space;
+		private final int count;
+		private final Random random;
+		// reset for every game of the chunk
+		private final ScoreBoard[] boards = { new ScoreBoardImpl(), new PackedScoreBoard(),
+				new TableScoreBoard() };
+
+		Check(GameSpace space, int count, long seed) {
+			this.space = space;
+			this.count = count;
+			this.random = new Random(seed);
+		}
+
+		@Override
+		public Long call() throws ScoreBoardException {
+			byte[] game = new byte[BulkScorer.SHOTS];
+			byte[][] shots = new byte[BulkScorer.SHOTS][count];
+			int[] expected = new int[count];
+			long mismatches = 0;
+			for (int i = 0; i < count; i++) {
+				expected[i] = space.sample(random, game);
+				for (int s = 0; s < BulkScorer.SHOTS; s++) {
+					shots[s][i] = game[s];
+				}
+				for (ScoreBoard board : boards) {
+					board.reset();
+					play(board, game);
+					board.computeFinalScore();
+					if (board.getFinalScore() != expected[i]) {
+						mismatches += report(board.getClass().getSimpleName(), game, expected[i],
+								board.getFinalScore());
+						break;
+					}
+				}
+			}
+			int[] finalScores = new int[count];
+			BulkScorer.score(shots, count, finalScores, new int[count], new int[count], 0);
+			for (int i = 0; i < count; i++) {
+				if (finalScores[i] != expected[i]) {
+					for (int s = 0; s < BulkScorer.SHOTS; s++) {
+						game[s] = shots[s][i];
+					}
+					mismatches += report("BulkScorer", game, expected[i], finalScores[i]);
+				}
+			}
+			return mismatches;
+		}
+
+		private void play(ScoreBoard board, byte[] game) throws ScoreBoardException {
+			for (int frame = 1; frame <= 9; frame++) {
+				int first = game[Util.getIndex(frame - 1, 0)];
+				board.setPins(frame, 1, first);
+				if (first != 10) {
+					board.setPins(frame, 2, game[Util.getIndex(frame - 1, 1)]);
+				}
+			}
+			int first = game[Util.getIndex(9, 0)];
+			int second = game[Util.getIndex(9, 1)];
+			board.setPins(10, 1, first);
+			board.setPins(10, 2, second);
+			if (first == 10 || first + second == 10) {
+				board.setPins(10, 3, game[Util.getIndex(9, 2)]);
+			}
+		}
+
+		private static int report(String scorer, byte[] game, int expected, int actual) {
+			synchronized (ScoreDistribution.class) {
+				if (reported < MAX_REPORTS) {
+					reported++;
+					StringBuilder builder = new StringBuilder(scorer).append(" scores ")
+							.append(actual).append(" instead of ").append(expected).append(':');
+					for (byte pins : game) {
+						builder.append(' ').append(pins);
+					}
+					System.err.println(builder);
+				}
+			}
+			return 1;
+		}
+
+	}
+
+}
\ No newline at end of file
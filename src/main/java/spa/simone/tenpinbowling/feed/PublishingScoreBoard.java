@@ -0,0 +1,147 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.feed;
+
+import static spa.simone.tenpinbowling.feed.ScoreBoardFeed.FRAME_SHIFT;
+import static spa.simone.tenpinbowling.feed.ScoreBoardFeed.PINS_SHIFT;
+import static spa.simone.tenpinbowling.feed.ScoreBoardFeed.SHOT_SHIFT;
+import static spa.simone.tenpinbowling.feed.ScoreBoardFeed.SPARES_SHIFT;
+import static spa.simone.tenpinbowling.feed.ScoreBoardFeed.TOTAL_SHIFT;
+
+import spa.simone.tenpinbowling.model.ForwardingScoreBoard;
+import spa.simone.tenpinbowling.model.OutOfRangeException;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ValidationResult;
+
+/**
+ * <p>
+ * This class is a {@link ScoreBoard} that publishes its state in a
+ * {@link ScoreBoardFeed} after every accepted ball.
+ * </p>
+ * <p>
+ * A ball changes the score of its frame and of the (at most) two frames
+ * before it, so only those are scored again, and the state is kept packed
+ * between the balls. The decorated scoreboard must be empty when it is
+ * wrapped (and reset through this class only), and the balls must be set by
+ * a single thread at a time, like in a
+ * {@link spa.simone.tenpinbowling.server.Lane}.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class PublishingScoreBoard extends ForwardingScoreBoard {
+
+	/**
+	 * The default capacity of the feed.
+	 */
+	public static final int DEFAULT_CAPACITY = 64;
+
+	private final ScoreBoard delegate;
+	private final ScoreBoardFeed feed;
+	private long scores;
+	private long flags;
+
+	/**
+	 * Wraps the scoreboard, with a feed of the default capacity.
+	 * 
+	 * @param delegate
+	 *           the scoreboard.
+	 */
+	public PublishingScoreBoard(ScoreBoard delegate) {
+		this(delegate, new ScoreBoardFeed(DEFAULT_CAPACITY));
+	}
+
+	/**
+	 * Wraps the scoreboard.
+	 * 
+	 * @param delegate
+	 *           the scoreboard.
+	 * @param feed
+	 *           the feed, with no other publisher.
+	 */
+	public PublishingScoreBoard(ScoreBoard delegate, ScoreBoardFeed feed) {
+		this.delegate = delegate;
+		this.feed = feed;
+	}
+
+	/**
+	 * Gets the feed of the changes.
+	 * 
+	 * @return the feed.
+	 */
+	public ScoreBoardFeed getFeed() {
+		return feed;
+	}
+
+	@Override
+	protected ScoreBoard delegate() {
+		return delegate;
+	}
+
+	@Override
+	public void setPins(int frame, int shot, int pins) throws ScoreBoardException {
+		delegate.setPins(frame, shot, pins);
+		publish(frame, shot, pins);
+	}
+
+	@Override
+	public ValidationResult trySetPins(int frame, int shot, int pins) {
+		ValidationResult result = delegate.trySetPins(frame, shot, pins);
+		if (result == ValidationResult.VALID) {
+			try {
+				publish(frame, shot, pins);
+			} catch (OutOfRangeException e) {
+				// the ball has been accepted, so the frame is in range
+				throw new AssertionError(e);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc} The subscribers get a delta with frame 0, and all the
+	 * scores back to 0.
+	 */
+	@Override
+	public void reset() {
+		delegate.reset();
+		scores = 0;
+		flags = 0;
+		feed.publish(scores, flags);
+	}
+
+	private void publish(int frame, int shot, int pins) throws OutOfRangeException {
+		int total = (int) (scores >>> TOTAL_SHIFT);
+		for (int f = Math.max(1, frame - 2); f <= frame; f++) {
+			int shift = 5 * (f - 1);
+			int score = delegate.getScoreOf(f);
+			total += score - (int) (scores >>> shift & 0x1F);
+			scores = scores & ~(0x1FL << shift) | (long) score << shift;
+		}
+		scores = scores & ~(0x1FFL << TOTAL_SHIFT) | (long) total << TOTAL_SHIFT;
+		// the flags of the frame only depend on its own shots
+		long bit = 1L << (frame - 1);
+		flags = delegate.isStrike(frame) ? flags | bit : flags & ~bit;
+		bit <<= SPARES_SHIFT;
+		flags = delegate.isSpare(frame) ? flags | bit : flags & ~bit;
+		long ball = (long) frame << FRAME_SHIFT | (long) shot << SHOT_SHIFT
+				| (long) pins << PINS_SHIFT;
+		feed.publish(scores, flags | ball);
+	}
+
+}
\ No newline at end of file
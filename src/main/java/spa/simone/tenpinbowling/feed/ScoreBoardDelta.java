@@ -0,0 +1,190 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.feed;
+
+import static spa.simone.tenpinbowling.feed.ScoreBoardFeed.FRAME_SHIFT;
+import static spa.simone.tenpinbowling.feed.ScoreBoardFeed.PINS_SHIFT;
+import static spa.simone.tenpinbowling.feed.ScoreBoardFeed.SHOT_SHIFT;
+import static spa.simone.tenpinbowling.feed.ScoreBoardFeed.SPARES_SHIFT;
+import static spa.simone.tenpinbowling.feed.ScoreBoardFeed.TOTAL_SHIFT;
+
+/**
+ * <p>
+ * A change of a scoreboard read from a {@link Subscription}: the frames whose
+ * score changed, the current strike and spare flags, the running total and
+ * the last ball.
+ * </p>
+ * <p>
+ * This class is a flyweight over the packed event, filled again by every
+ * {@link Subscription#poll(ScoreBoardDelta)}, so that reading the feed
+ * creates no object.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class ScoreBoardDelta {
+
+	private long sequence;
+	private long scores;
+	private long flags;
+	private int changed;
+	private long skipped;
+
+	/**
+	 * Gets the sequence number of the event.
+	 * 
+	 * @return the sequence number, starting from 0.
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Gets the number of events merged in this delta, besides its own.
+	 * 
+	 * @return 0 unless the subscriber fell behind.
+	 */
+	public long getSkipped() {
+		return skipped;
+	}
+
+	/**
+	 * Gets the frames whose score changed.
+	 * 
+	 * @return a bit mask, where the bit <code>frame - 1</code> is set for a
+	 *         changed frame.
+	 */
+	public int getChangedFrames() {
+		return changed;
+	}
+
+	/**
+	 * Says if the score of the frame changed.
+	 * 
+	 * @param frame
+	 *           the number of the frame [1-10].
+	 * @return true for a changed frame.
+	 */
+	public boolean isChanged(int frame) {
+		return (changed >>> (frame - 1) & 1) != 0;
+	}
+
+	/**
+	 * Gets the score of the frame.
+	 * 
+	 * @param frame
+	 *           the number of the frame [1-10].
+	 * @return the score of the frame.
+	 */
+	public int getScoreOf(int frame) {
+		return (int) (scores >>> (5 * (frame - 1))) & 0x1F;
+	}
+
+	/**
+	 * Gets the running total.
+	 * 
+	 * @return the sum of the frame scores.
+	 */
+	public int getTotal() {
+		return (int) (scores >>> TOTAL_SHIFT) & 0x1FF;
+	}
+
+	/**
+	 * Says if the frame is a strike.
+	 * 
+	 * @param frame
+	 *           the number of the frame [1-10].
+	 * @return true for a strike.
+	 */
+	public boolean isStrike(int frame) {
+		return (flags >>> (frame - 1) & 1) != 0;
+	}
+
+	/**
+	 * Says if the frame is a spare.
+	 * 
+	 * @param frame
+	 *           the number of the frame [1-10].
+	 * @return true for a spare.
+	 */
+	public boolean isSpare(int frame) {
+		return (flags >>> (SPARES_SHIFT + frame - 1) & 1) != 0;
+	}
+
+	/**
+	 * Gets the frame of the last ball.
+	 * 
+	 * @return the number of the frame [1-10], 0 after a reset.
+	 */
+	public int getFrame() {
+		return (int) (flags >>> FRAME_SHIFT) & 0xF;
+	}
+
+	/**
+	 * Gets the shot of the last ball.
+	 * 
+	 * @return the number of the shot [1-3], 0 after a reset.
+	 */
+	public int getShot() {
+		return (int) (flags >>> SHOT_SHIFT) & 0x3;
+	}
+
+	/**
+	 * Gets the number of pins knocked down by the last ball.
+	 * 
+	 * @return the number of pins [0-10].
+	 */
+	public int getPins() {
+		return (int) (flags >>> PINS_SHIFT) & 0xF;
+	}
+
+	long getPackedScores() {
+		return scores;
+	}
+
+	void decode(long sequence, long scores, long flags) {
+		this.sequence = sequence;
+		this.scores = scores;
+		this.flags = flags;
+	}
+
+	void diff(long previous, long skipped) {
+		this.skipped = skipped;
+		changed = 0;
+		long different = scores ^ previous;
+		for (int frame = 0; frame < 10; frame++) {
+			if ((different >>> (5 * frame) & 0x1F) != 0) {
+				changed |= 1 << frame;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append('#').append(sequence).append(" ball ").append(getFrame()).append('/')
+				.append(getShot()).append('=').append(getPins()).append(" total ")
+				.append(getTotal()).append(" changed");
+		for (int frame = 1; frame <= 10; frame++) {
+			if (isChanged(frame)) {
+				builder.append(' ').append(frame).append(':').append(getScoreOf(frame));
+			}
+		}
+		return builder.toString();
+	}
+
+}
\ No newline at end of file
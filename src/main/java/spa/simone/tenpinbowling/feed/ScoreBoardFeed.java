@@ -0,0 +1,148 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.feed;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * This class is a lock-free ring buffer of the states of a scoreboard, one per
+ * accepted ball, written by a {@link PublishingScoreBoard} and read by any
+ * number of {@link Subscription}s.
+ * </p>
+ * <p>
+ * An event is the whole state of the scoreboard packed in two
+ * <code>long</code> slots: the frame scores and the running total in the
+ * first, the strike and spare flags, the ball and the sequence number in the
+ * second. Each subscriber keeps its own position and diffs the events against
+ * the last state it has seen, so the publisher never waits for a subscriber:
+ * a subscriber lapped by the publisher skips to the newest event, and gets
+ * all the changes it missed coalesced in a single delta.
+ * </p>
+ * <p>
+ * A feed has a single publisher. The event slot is guarded like a seqlock:
+ * the publisher invalidates the second slot before writing the first one, so
+ * a subscriber that reads the second slot twice, around the first one,
+ * detects an event overwritten during the read.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class ScoreBoardFeed {
+
+	// the second slot of an event being written
+	private static final long INVALID = -1;
+
+	// the layout of the second slot
+	static final int SPARES_SHIFT = 10;
+	static final int FRAME_SHIFT = 20;
+	static final int SHOT_SHIFT = 24;
+	static final int PINS_SHIFT = 26;
+	static final int SEQUENCE_SHIFT = 30;
+	static final long SEQUENCE_MASK = (1L << (64 - SEQUENCE_SHIFT)) - 1;
+
+	// the layout of the first slot: 5 bits per frame score, then the total
+	static final int TOTAL_SHIFT = 50;
+
+	private final int mask;
+	private final AtomicLongArray slots;
+	private final AtomicLong published = new AtomicLong();
+
+	/**
+	 * Instantiates the feed.
+	 * 
+	 * @param capacity
+	 *           the number of events kept for the subscribers, a power of two.
+	 */
+	public ScoreBoardFeed(int capacity) {
+		if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException(capacity
+					+ " is an invalid capacity. It must be a power of two greater than 1");
+		}
+		mask = capacity - 1;
+		slots = new AtomicLongArray(capacity * 2);
+	}
+
+	/**
+	 * Gets the number of events kept for the subscribers.
+	 * 
+	 * @return the capacity.
+	 */
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	/**
+	 * Gets the number of events published so far.
+	 * 
+	 * @return the sequence number of the next event.
+	 */
+	public long getPublished() {
+		return published.get();
+	}
+
+	/**
+	 * Subscribes to the feed. The first delta of the subscription describes the
+	 * newest event, if any, as a change from an empty scoreboard.
+	 * 
+	 * @return the subscription.
+	 */
+	public Subscription subscribe() {
+		return new Subscription(this);
+	}
+
+	/**
+	 * Publishes an event. Must be called by a single thread at a time.
+	 * 
+	 * @param scores
+	 *           the frame scores and the running total.
+	 * @param flags
+	 *           the strike and spare flags and the ball, without the sequence
+	 *           number.
+	 */
+	void publish(long scores, long flags) {
+		long sequence = published.get();
+		int index = (int) (sequence & mask) << 1;
+		slots.lazySet(index + 1, INVALID);
+		slots.lazySet(index, scores);
+		slots.lazySet(index + 1, flags | (sequence & SEQUENCE_MASK) << SEQUENCE_SHIFT);
+		published.lazySet(sequence + 1);
+	}
+
+	/**
+	 * Reads an event into the delta.
+	 * 
+	 * @param sequence
+	 *           the sequence number of the event, already published.
+	 * @param delta
+	 *           the delta, whose scores and flags are overwritten.
+	 * @return false if the event has been overwritten.
+	 */
+	boolean read(long sequence, ScoreBoardDelta delta) {
+		int index = (int) (sequence & mask) << 1;
+		long before = slots.get(index + 1);
+		long scores = slots.get(index);
+		long after = slots.get(index + 1);
+		if (before != after || (after >>> SEQUENCE_SHIFT) != (sequence & SEQUENCE_MASK)) {
+			return false;
+		}
+		delta.decode(sequence, scores, after);
+		return true;
+	}
+
+}
\ No newline at end of file
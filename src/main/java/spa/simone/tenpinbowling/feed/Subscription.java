@@ -0,0 +1,85 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.feed;
+
+/**
+ * <p>
+ * A subscriber of a {@link ScoreBoardFeed}, which reads the events at its own
+ * pace.
+ * </p>
+ * <p>
+ * Each {@link #poll(ScoreBoardDelta)} gives the changes since the previous
+ * one. A subscriber that falls behind by more than the capacity of the feed
+ * gets a single delta with all the changes it missed, so it never slows down
+ * the publisher. This class is not thread-safe: each consumer needs its own
+ * subscription.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class Subscription {
+
+	private final ScoreBoardFeed feed;
+	private long next;
+	private long delivered;
+	private long scores;
+	private long coalesced;
+
+	Subscription(ScoreBoardFeed feed) {
+		this.feed = feed;
+		next = Math.max(0, feed.getPublished() - 1);
+		delivered = next - 1;
+	}
+
+	/**
+	 * Reads the next change of the scoreboard.
+	 * 
+	 * @param delta
+	 *           the delta to fill.
+	 * @return false if there is no new event, and the delta is unchanged.
+	 */
+	public boolean poll(ScoreBoardDelta delta) {
+		long published = feed.getPublished();
+		if (next >= published) {
+			return false;
+		}
+		if (published - next > feed.getCapacity()) {
+			next = published - 1;
+		}
+		while (!feed.read(next, delta)) {
+			// overwritten while reading: skip to the newest event
+			next = feed.getPublished() - 1;
+		}
+		long skipped = next - delivered - 1;
+		coalesced += skipped;
+		delta.diff(scores, skipped);
+		scores = delta.getPackedScores();
+		delivered = next++;
+		return true;
+	}
+
+	/**
+	 * Gets the number of events not delivered one by one, because they were
+	 * coalesced with a following one.
+	 * 
+	 * @return the number of coalesced events.
+	 */
+	public long getCoalesced() {
+		return coalesced;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,242 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import spa.simone.tenpinbowling.metrics.Metrics;
+import spa.simone.tenpinbowling.metrics.ScoreBoardMetrics;
+import spa.simone.tenpinbowling.model.ConcurrentScoreBoard;
+import spa.simone.tenpinbowling.model.OutOfRangeException;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.Util;
+
+/**
+ * <p>
+ * This class provides a skeletal implementation of the
+ * {@link ScoreBoardSerializer} interface.
+ * </p>
+ * <p>
+ * {@link #load(ScoreBoard)} reads the shots and computes the scores of a
+ * scoreboard once, into reusable fields, and the subclasses write them in
+ * their format in {@link #write(ScoreBoard, ByteBuffer)}. A stream is written
+ * through a reusable buffer, which grows only when a scoreboard does not fit
+ * in it.
+ * </p>
+ * <p>
+ * A {@link ConcurrentScoreBoard} is read from a single snapshot of its state,
+ * so a record never mixes two states of a game that is being played. Any
+ * other scoreboard must not change during the call.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public abstract class AbstractScoreBoardSerializer implements ScoreBoardSerializer {
+
+	private static final int INITIAL_CAPACITY = 512;
+
+	/**
+	 * The shots of the loaded scoreboard, by absolute index.
+	 */
+	protected final int[] shots = new int[21];
+
+	/**
+	 * The frame scores of the loaded scoreboard.
+	 */
+	protected final int[] frameScores = new int[10];
+
+	/**
+	 * The final score of the loaded scoreboard.
+	 */
+	protected int finalScore;
+
+	/**
+	 * The number of strikes of the loaded scoreboard.
+	 */
+	protected int strikes;
+
+	/**
+	 * The number of spares of the loaded scoreboard.
+	 */
+	protected int spares;
+
+	private final int[] frame = new int[2];
+	private ByteBuffer scratch = ByteBuffer.allocate(INITIAL_CAPACITY);
+
+	@Override
+	public void serialize(ScoreBoard board, ByteBuffer buffer) {
+		ScoreBoardMetrics metrics = Metrics.get();
+		if (!metrics.isEnabled()) {
+			write(board, buffer);
+			return;
+		}
+		long start = System.nanoTime();
+		write(board, buffer);
+		metrics.recordSerialization(System.nanoTime() - start);
+	}
+
+	@Override
+	public void serialize(ScoreBoard board, OutputStream out) throws IOException {
+		ScoreBoardMetrics metrics = Metrics.get();
+		long start = metrics.isEnabled() ? System.nanoTime() : 0;
+		for (;;) {
+			((Buffer) scratch).clear();
+			try {
+				write(board, scratch);
+				break;
+			} catch (BufferOverflowException e) {
+				scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+			}
+		}
+		out.write(scratch.array(), 0, scratch.position());
+		if (metrics.isEnabled()) {
+			metrics.recordSerialization(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Writes the scoreboard into the buffer, from its current position.
+	 * 
+	 * @param board
+	 *           the scoreboard.
+	 * @param buffer
+	 *           the buffer, whose position is advanced past the written bytes.
+	 * @throws BufferOverflowException
+	 *            if the buffer is too small.
+	 */
+	protected abstract void write(ScoreBoard board, ByteBuffer buffer);
+
+	/**
+	 * Reads the shots of the scoreboard, and computes its scores. The player
+	 * must be read from the returned scoreboard, which is a snapshot if the
+	 * given one is a {@link ConcurrentScoreBoard}.
+	 * 
+	 * @param board
+	 *           the scoreboard.
+	 * @return the scoreboard that was read.
+	 */
+	protected ScoreBoard load(ScoreBoard board) {
+		if (board instanceof ConcurrentScoreBoard) {
+			board = ((ConcurrentScoreBoard) board).snapshot();
+		}
+		try {
+			finalScore = 0;
+			for (int f = 1; f <= 10; f++) {
+				board.getShotsOf(f, frame);
+				shots[Util.getIndex(f - 1, 0)] = frame[0];
+				shots[Util.getIndex(f - 1, 1)] = frame[1];
+				frameScores[f - 1] = board.getScoreOf(f);
+				finalScore += frameScores[f - 1];
+			}
+			shots[20] = board.getShot(10, 3);
+		} catch (OutOfRangeException e) {
+			throw new AssertionError("The frames and the shots of a game are out of range: " + e);
+		}
+		strikes = board.getStrikes();
+		spares = board.getSpares();
+		return board;
+	}
+
+	/**
+	 * Gets the number of bytes of the string encoded in UTF-8.
+	 * 
+	 * @param string
+	 *           the string.
+	 * @return the number of bytes.
+	 */
+	protected static int utf8Length(String string) {
+		int length = 0;
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c < 0x80) {
+				length++;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isSurrogate(c)) {
+				if (Character.isHighSurrogate(c) && i + 1 < string.length()
+						&& Character.isLowSurrogate(string.charAt(i + 1))) {
+					length += 4;
+					i++;
+				} else {
+					// a lone surrogate is written as '?'
+					length++;
+				}
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Writes the character encoded in UTF-8. A lone surrogate is written as
+	 * '?', like {@link String#getBytes(java.nio.charset.Charset)} does.
+	 * 
+	 * @param buffer
+	 *           the buffer.
+	 * @param string
+	 *           the string.
+	 * @param index
+	 *           the index of the character in the string.
+	 * @return the index of the next character (a surrogate pair takes two).
+	 */
+	protected static int putUtf8(ByteBuffer buffer, String string, int index) {
+		char c = string.charAt(index);
+		if (c < 0x80) {
+			buffer.put((byte) c);
+		} else if (c < 0x800) {
+			buffer.put((byte) (0xC0 | c >> 6));
+			buffer.put((byte) (0x80 | c & 0x3F));
+		} else if (Character.isSurrogate(c)) {
+			if (Character.isHighSurrogate(c) && index + 1 < string.length()
+					&& Character.isLowSurrogate(string.charAt(index + 1))) {
+				int code = Character.toCodePoint(c, string.charAt(index + 1));
+				buffer.put((byte) (0xF0 | code >> 18));
+				buffer.put((byte) (0x80 | code >> 12 & 0x3F));
+				buffer.put((byte) (0x80 | code >> 6 & 0x3F));
+				buffer.put((byte) (0x80 | code & 0x3F));
+				return index + 2;
+			}
+			buffer.put((byte) '?');
+		} else {
+			buffer.put((byte) (0xE0 | c >> 12));
+			buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+			buffer.put((byte) (0x80 | c & 0x3F));
+		}
+		return index + 1;
+	}
+
+	/**
+	 * Writes a non-negative number in decimal ASCII digits.
+	 * 
+	 * @param buffer
+	 *           the buffer.
+	 * @param value
+	 *           the number.
+	 */
+	protected static void putDecimal(ByteBuffer buffer, int value) {
+		if (value >= 10) {
+			putDecimal(buffer, value / 10);
+		}
+		buffer.put((byte) ('0' + value % 10));
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.io;
+
+import java.nio.ByteBuffer;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+
+/**
+ * <p>
+ * This class writes a scoreboard in a compact big-endian binary format:
+ * </p>
+ * <ul>
+ * <li>the length of the player name in UTF-8 (2 bytes, unsigned), 0xFFFF if
+ * there is no name;</li>
+ * <li>the player name in UTF-8;</li>
+ * <li>the pins of the 21 shots (1 byte each), in the order of
+ * {@link spa.simone.tenpinbowling.model.Util#getIndex(int, int)};</li>
+ * <li>the scores of the 10 frames (1 byte each);</li>
+ * <li>the final score (2 bytes);</li>
+ * <li>the number of strikes and the number of spares (1 byte each).</li>
+ * </ul>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class BinaryScoreBoardSerializer extends AbstractScoreBoardSerializer {
+
+	/**
+	 * The name length of a scoreboard without a player name.
+	 */
+	public static final int NO_NAME = 0xFFFF;
+
+	@Override
+	public String getContentType() {
+		return "application/octet-stream";
+	}
+
+	@Override
+	protected void write(ScoreBoard board, ByteBuffer buffer) {
+		board = load(board);
+		String name = board.getPlayerName();
+		if (name == null) {
+			buffer.putShort((short) NO_NAME);
+		} else {
+			int length = utf8Length(name);
+			if (length >= NO_NAME) {
+				throw new IllegalArgumentException("The player name is too long");
+			}
+			buffer.putShort((short) length);
+			for (int i = 0; i < name.length();) {
+				i = putUtf8(buffer, name, i);
+			}
+		}
+		for (int i = 0; i < shots.length; i++) {
+			buffer.put((byte) shots[i]);
+		}
+		for (int i = 0; i < frameScores.length; i++) {
+			buffer.put((byte) frameScores[i]);
+		}
+		buffer.putShort((short) finalScore);
+		buffer.put((byte) strikes);
+		buffer.put((byte) spares);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.Util;
+
+/**
+ * <p>
+ * This class writes a scoreboard as a JSON object in UTF-8, on a single line:
+ * </p>
+ * 
+ * <pre>
+ * {"player":"Simone","frames":[{"shots":[10,0],"score":20},...,
+ * {"shots":[10,10,10],"score":30}],"finalScore":200,"strikes":5,"spares":2}
+ * </pre>
+ * <p>
+ * The player is <code>null</code> if the scoreboard has no name. The last
+ * frame always has three shots.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class JsonScoreBoardSerializer extends AbstractScoreBoardSerializer {
+
+	private static final byte[] HEX = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a',
+			'b', 'c', 'd', 'e', 'f' };
+	private static final byte[] PLAYER = ascii("{\"player\":");
+	private static final byte[] FRAMES = ascii(",\"frames\":[");
+	private static final byte[] SHOTS = ascii("{\"shots\":[");
+	private static final byte[] SCORE = ascii("],\"score\":");
+	private static final byte[] FINAL_SCORE = ascii("],\"finalScore\":");
+	private static final byte[] STRIKES = ascii(",\"strikes\":");
+	private static final byte[] SPARES = ascii(",\"spares\":");
+	private static final byte[] NULL = ascii("null");
+	// the digits of every score, to write a number with a single bulk copy
+	private static final byte[][] NUMBERS = new byte[301][];
+
+	static {
+		for (int i = 0; i < NUMBERS.length; i++) {
+			NUMBERS[i] = ascii(String.valueOf(i));
+		}
+	}
+
+	@Override
+	public String getContentType() {
+		return "application/json";
+	}
+
+	@Override
+	protected void write(ScoreBoard board, ByteBuffer buffer) {
+		board = load(board);
+		buffer.put(PLAYER);
+		putString(buffer, board.getPlayerName());
+		buffer.put(FRAMES);
+		for (int frame = 0; frame < 10; frame++) {
+			if (frame > 0) {
+				buffer.put((byte) ',');
+			}
+			buffer.put(SHOTS);
+			putNumber(buffer, shots[Util.getIndex(frame, 0)]);
+			buffer.put((byte) ',');
+			putNumber(buffer, shots[Util.getIndex(frame, 1)]);
+			if (frame == 9) {
+				buffer.put((byte) ',');
+				putNumber(buffer, shots[20]);
+			}
+			buffer.put(SCORE);
+			putNumber(buffer, frameScores[frame]);
+			buffer.put((byte) '}');
+		}
+		buffer.put(FINAL_SCORE);
+		putNumber(buffer, finalScore);
+		buffer.put(STRIKES);
+		putNumber(buffer, strikes);
+		buffer.put(SPARES);
+		putNumber(buffer, spares);
+		buffer.put((byte) '}');
+	}
+
+	private static byte[] ascii(String text) {
+		return text.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	private static void putNumber(ByteBuffer buffer, int value) {
+		if (value < NUMBERS.length) {
+			buffer.put(NUMBERS[value]);
+		} else {
+			putDecimal(buffer, value);
+		}
+	}
+
+	private static void putString(ByteBuffer buffer, String string) {
+		if (string == null) {
+			buffer.put(NULL);
+			return;
+		}
+		buffer.put((byte) '"');
+		for (int i = 0; i < string.length();) {
+			char c = string.charAt(i);
+			if (c == '"' || c == '\\') {
+				buffer.put((byte) '\\');
+				buffer.put((byte) c);
+				i++;
+			} else if (c < 0x20) {
+				buffer.put((byte) '\\');
+				buffer.put((byte) 'u');
+				buffer.put((byte) '0');
+				buffer.put((byte) '0');
+				buffer.put(HEX[c >> 4]);
+				buffer.put(HEX[c & 0xF]);
+				i++;
+			} else {
+				i = putUtf8(buffer, string, i);
+			}
+		}
+		buffer.put((byte) '"');
+	}
+
+}
\ No newline at end of file
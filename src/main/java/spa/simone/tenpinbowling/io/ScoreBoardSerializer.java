@@ -0,0 +1,72 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+
+/**
+ * <p>
+ * A serializer writes a {@link ScoreBoard} in a given format straight into a
+ * buffer or a stream, as an alternative to the string built by
+ * {@link ScoreBoard#serializeScoreBoard()}.
+ * </p>
+ * <p>
+ * The scores are computed once per call, and in steady state a call creates
+ * no object, but the snapshot of a <code>ConcurrentScoreBoard</code>. The
+ * implementations are not thread-safe: each thread needs its own
+ * serializer.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public interface ScoreBoardSerializer {
+
+	/**
+	 * Gets the MIME type of the format.
+	 * 
+	 * @return the content type.
+	 */
+	public String getContentType();
+
+	/**
+	 * Writes the scoreboard into the buffer, from its current position.
+	 * 
+	 * @param board
+	 *           the scoreboard.
+	 * @param buffer
+	 *           the buffer, whose position is advanced past the written bytes.
+	 * @throws java.nio.BufferOverflowException
+	 *            if the buffer is too small. Some bytes may have been written.
+	 */
+	public void serialize(ScoreBoard board, ByteBuffer buffer);
+
+	/**
+	 * Writes the scoreboard to the stream.
+	 * 
+	 * @param board
+	 *           the scoreboard.
+	 * @param out
+	 *           the stream.
+	 * @throws IOException
+	 */
+	public void serialize(ScoreBoard board, OutputStream out) throws IOException;
+
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+
+/**
+ * <p>
+ * This class ranks the scoreboards of a tournament by their running score,
+ * while the games are played. The scoreboards join it by being wrapped in a
+ * {@link RankedScoreBoard}, and they stay until they are removed.
+ * </p>
+ * <p>
+ * The {@link Standing}s are kept sorted in a skip list, so a ball moves its
+ * scoreboard in O(log n), and the top players or the ones in a range of
+ * scores are read without sorting. The number of scoreboards with each score
+ * is kept in a Fenwick tree of atomic counters, so the rank of a scoreboard
+ * and the number of scoreboards in a range are computed in O(log 300). There
+ * is no lock shared by the scoreboards: each one is moved under its own lock.
+ * </p>
+ * <p>
+ * The queries are weakly consistent: a scoreboard that moves during a query
+ * may be missed, or counted with its previous score, but it is never returned
+ * twice: a query skips the standings of the scoreboards it has already
+ * returned. When no scoreboard moves, the results are exact.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class Leaderboard {
+
+	private static final int MAX_SCORE = 300;
+
+	private final ConcurrentSkipListSet<Standing> standings = new ConcurrentSkipListSet<>();
+	// the Fenwick tree of the number of scoreboards by score, the score s at
+	// the index s + 1
+	private final AtomicIntegerArray counts = new AtomicIntegerArray(MAX_SCORE + 2);
+	private final AtomicLong ids = new AtomicLong();
+
+	/**
+	 * Removes a scoreboard from the leaderboard. Its balls are not ranked
+	 * anymore.
+	 * 
+	 * @param board
+	 *           the scoreboard.
+	 * @return true if the scoreboard was on the leaderboard.
+	 */
+	public boolean remove(RankedScoreBoard board) {
+		return board.getLeaderboard() == this && board.leave();
+	}
+
+	/**
+	 * Gets the number of scoreboards.
+	 * 
+	 * @return the number of scoreboards.
+	 */
+	public int size() {
+		return prefix(MAX_SCORE + 1);
+	}
+
+	/**
+	 * Gets the rank of a scoreboard: 1 plus the number of scoreboards with a
+	 * higher running score, so the scoreboards with the same score share the
+	 * same rank.
+	 * 
+	 * @param board
+	 *           the scoreboard.
+	 * @return the rank, or -1 if the scoreboard is not on the leaderboard.
+	 */
+	public int getRank(RankedScoreBoard board) {
+		Standing standing = board.getStanding();
+		if (board.getLeaderboard() != this || standing == null) {
+			return -1;
+		}
+		return count(standing.getScore() + 1, MAX_SCORE) + 1;
+	}
+
+	/**
+	 * Gets the number of scoreboards with a running score in the range.
+	 * 
+	 * @param min
+	 *           the minimum score.
+	 * @param max
+	 *           the maximum score.
+	 * @return the number of scoreboards.
+	 */
+	public int count(int min, int max) {
+		min = Math.max(min, 0);
+		max = Math.min(max, MAX_SCORE);
+		if (min > max) {
+			return 0;
+		}
+		return prefix(max + 1) - prefix(min);
+	}
+
+	/**
+	 * Gets the scoreboards with the highest running scores.
+	 * 
+	 * @param n
+	 *           the maximum number of scoreboards.
+	 * @return the standings, by descending score.
+	 */
+	public List<Standing> getTop(int n) {
+		List<Standing> top = new ArrayList<>(Math.min(n, 64));
+		Set<ScoreBoard> seen = newIdentitySet();
+		for (Standing standing : standings) {
+			if (top.size() >= n) {
+				break;
+			}
+			if (standing.isCurrent() && seen.add(standing.getScoreBoard())) {
+				top.add(standing);
+			}
+		}
+		return Collections.unmodifiableList(top);
+	}
+
+	/**
+	 * Gets the scoreboards with a running score in the range.
+	 * 
+	 * @param min
+	 *           the minimum score.
+	 * @param max
+	 *           the maximum score.
+	 * @return the standings, by descending score.
+	 */
+	public List<Standing> getRange(int min, int max) {
+		List<Standing> range = new ArrayList<>();
+		if (min > max) {
+			return range;
+		}
+		// the standings of a score are sorted by id
+		Standing from = new Standing(null, max, Long.MIN_VALUE);
+		Standing to = new Standing(null, min, Long.MAX_VALUE);
+		Set<ScoreBoard> seen = newIdentitySet();
+		for (Standing standing : standings.subSet(from, true, to, true)) {
+			if (standing.isCurrent() && seen.add(standing.getScoreBoard())) {
+				range.add(standing);
+			}
+		}
+		return Collections.unmodifiableList(range);
+	}
+
+	long nextId() {
+		return ids.getAndIncrement();
+	}
+
+	/*
+	 * Replaces the standing of a scoreboard, under the lock of the scoreboard.
+	 * Either standing may be null.
+	 */
+	void move(Standing previous, Standing current) {
+		if (current != null) {
+			standings.add(current);
+			add(current.getScore(), 1);
+		}
+		if (previous != null) {
+			standings.remove(previous);
+			add(previous.getScore(), -1);
+		}
+	}
+
+	/*
+	 * A scoreboard that moves down during a query may be current at both its
+	 * standings, when they are visited: only the first one is returned.
+	 */
+	private static Set<ScoreBoard> newIdentitySet() {
+		return Collections.newSetFromMap(new IdentityHashMap<ScoreBoard, Boolean>());
+	}
+
+	private void add(int score, int delta) {
+		for (int i = score + 1; i <= MAX_SCORE + 1; i += i & -i) {
+			counts.addAndGet(i, delta);
+		}
+	}
+
+	/*
+	 * The number of scoreboards with a score lower than the index.
+	 */
+	private int prefix(int index) {
+		int sum = 0;
+		for (int i = index; i > 0; i -= i & -i) {
+			sum += counts.get(i);
+		}
+		return sum;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,146 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.leaderboard;
+
+import spa.simone.tenpinbowling.model.ForwardingScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ValidationResult;
+
+/**
+ * <p>
+ * This class is a {@link ScoreBoard} that keeps its position on a
+ * {@link Leaderboard} up to date: it joins the leaderboard when it is created,
+ * and it is ranked again by its running score after every accepted ball and
+ * every reset.
+ * </p>
+ * <p>
+ * The decorated scoreboard must be changed through this class only. The
+ * balls of a scoreboard are ranked under its own lock, so the scoreboards of
+ * different lanes are ranked at the same time.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class RankedScoreBoard extends ForwardingScoreBoard {
+
+	private final ScoreBoard delegate;
+	private final Leaderboard leaderboard;
+	private final long id;
+	// the current standing, null when the scoreboard left the leaderboard;
+	// changed under the lock of this
+	private volatile Standing standing;
+	private boolean removed;
+
+	/**
+	 * Wraps the scoreboard, and adds it to the leaderboard.
+	 * 
+	 * @param delegate
+	 *           the scoreboard.
+	 * @param leaderboard
+	 *           the leaderboard.
+	 */
+	public RankedScoreBoard(ScoreBoard delegate, Leaderboard leaderboard) {
+		this.delegate = delegate;
+		this.leaderboard = leaderboard;
+		this.id = leaderboard.nextId();
+		rank();
+	}
+
+	/**
+	 * Gets the leaderboard of the scoreboard.
+	 * 
+	 * @return the leaderboard.
+	 */
+	public Leaderboard getLeaderboard() {
+		return leaderboard;
+	}
+
+	/**
+	 * Gets the rank of the scoreboard on its leaderboard.
+	 * 
+	 * @return the rank (see {@link Leaderboard#getRank(RankedScoreBoard)}).
+	 */
+	public int getRank() {
+		return leaderboard.getRank(this);
+	}
+
+	@Override
+	protected ScoreBoard delegate() {
+		return delegate;
+	}
+
+	@Override
+	public void setPins(int frame, int shot, int pins) throws ScoreBoardException {
+		delegate.setPins(frame, shot, pins);
+		rank();
+	}
+
+	@Override
+	public ValidationResult trySetPins(int frame, int shot, int pins) {
+		ValidationResult result = delegate.trySetPins(frame, shot, pins);
+		if (result == ValidationResult.VALID) {
+			rank();
+		}
+		return result;
+	}
+
+	@Override
+	public void reset() {
+		delegate.reset();
+		rank();
+	}
+
+	Standing getStanding() {
+		return standing;
+	}
+
+	/*
+	 * Moves the scoreboard to its running score.
+	 */
+	private synchronized void rank() {
+		if (removed) {
+			return;
+		}
+		delegate.computeFinalScore();
+		int score = delegate.getFinalScore();
+		Standing previous = standing;
+		if (previous != null && previous.getScore() == score) {
+			return;
+		}
+		// the new standing is current before it is indexed, so a query never
+		// returns the scoreboard twice
+		Standing current = new Standing(this, score, id);
+		standing = current;
+		leaderboard.move(previous, current);
+	}
+
+	/*
+	 * Removes the scoreboard from the leaderboard.
+	 */
+	synchronized boolean leave() {
+		if (removed) {
+			return false;
+		}
+		removed = true;
+		Standing previous = standing;
+		standing = null;
+		leaderboard.move(previous, null);
+		return true;
+	}
+
+}
\ No newline at end of file
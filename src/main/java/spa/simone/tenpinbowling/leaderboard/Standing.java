@@ -0,0 +1,102 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.leaderboard;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+
+/**
+ * <p>
+ * This class is the position of a scoreboard on a {@link Leaderboard}: the
+ * scoreboard and its running score when it was ranked.
+ * </p>
+ * <p>
+ * A standing never changes: a new one replaces it when the score changes. The
+ * standings are sorted by descending score, and the ties by the order the
+ * scoreboards joined the leaderboard.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public final class Standing implements Comparable<Standing> {
+
+	private final RankedScoreBoard board;
+	private final int score;
+	private final long id;
+
+	Standing(RankedScoreBoard board, int score, long id) {
+		this.board = board;
+		this.score = score;
+		this.id = id;
+	}
+
+	/**
+	 * Gets the scoreboard.
+	 * 
+	 * @return the scoreboard.
+	 */
+	public ScoreBoard getScoreBoard() {
+		return board;
+	}
+
+	/**
+	 * Gets the running score of the scoreboard when it was ranked.
+	 * 
+	 * @return the score.
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/*
+	 * Whether this is still the standing of the scoreboard.
+	 */
+	boolean isCurrent() {
+		return board.getStanding() == this;
+	}
+
+	RankedScoreBoard getBoard() {
+		return board;
+	}
+
+	@Override
+	public int compareTo(Standing other) {
+		if (score != other.score) {
+			return score > other.score ? -1 : 1;
+		}
+		return id < other.id ? -1 : id == other.id ? 0 : 1;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof Standing)) {
+			return false;
+		}
+		Standing other = (Standing) obj;
+		return score == other.score && id == other.id;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (id ^ id >>> 32) * 31 + score;
+	}
+
+	@Override
+	public String toString() {
+		return board.getPlayerName() + " " + score;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,217 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A histogram of durations (or any non-negative value) with a fixed relative
+ * precision, in the style of HdrHistogram: the values below 16 have a bucket
+ * each, then every power of two is split in 16 buckets, so a bucket is at most
+ * 1/16 (6.25%) of its values wide. The values above 2<sup>41</sup> (about 36
+ * minutes in nanoseconds) fall in the last bucket.
+ * </p>
+ * <p>
+ * The buckets are striped like a {@link StripedCounter}, so many threads can
+ * record at the same time without contending. Recording allocates nothing.
+ * The queries merge the stripes, and are meant for reporting, not for the hot
+ * path.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	private static final int MAX_EXPONENT = 40;
+
+	/**
+	 * The number of buckets.
+	 */
+	static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+	// the buckets of a stripe, followed by the sum of its values
+	private static final int ROW = BUCKETS + Stripes.PADDING;
+
+	private final int mask;
+	private final AtomicLongArray cells;
+
+	/**
+	 * Instantiates the histogram, with the default number of stripes.
+	 */
+	public LatencyHistogram() {
+		this(Stripes.DEFAULT);
+	}
+
+	/**
+	 * Instantiates the histogram.
+	 * 
+	 * @param stripes
+	 *           the number of stripes, rounded up to a power of two.
+	 */
+	public LatencyHistogram(int stripes) {
+		mask = Stripes.mask(stripes);
+		cells = new AtomicLongArray((mask + 1) * ROW);
+	}
+
+	/**
+	 * Records a value.
+	 * 
+	 * @param value
+	 *           the value; a negative one is recorded as 0.
+	 */
+	public void record(long value) {
+		long v = Math.max(0, value);
+		int row = Stripes.current(mask) * ROW;
+		cells.getAndIncrement(row + bucketOf(v));
+		cells.getAndAdd(row + BUCKETS, v);
+	}
+
+	/**
+	 * Gets the number of recorded values.
+	 * 
+	 * @return the count.
+	 */
+	public long getCount() {
+		long count = 0;
+		for (long c : merge()) {
+			count += c;
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the mean of the recorded values.
+	 * 
+	 * @return the exact mean, 0 if there are no values.
+	 */
+	public double getMean() {
+		long count = getCount();
+		if (count == 0) {
+			return 0;
+		}
+		long sum = 0;
+		for (int i = 0; i <= mask; i++) {
+			sum += cells.get(i * ROW + BUCKETS);
+		}
+		return (double) sum / count;
+	}
+
+	/**
+	 * Gets the value below which the given percentage of the recorded values
+	 * falls.
+	 * 
+	 * @param percentile
+	 *           the percentile [0-100].
+	 * @return the highest value of the bucket of the percentile, 0 if there
+	 *         are no values.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long[] counts = merge();
+		long count = 0;
+		for (long c : counts) {
+			count += c;
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * count));
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			seen += counts[bucket];
+			if (seen >= rank) {
+				return highestValueOf(bucket);
+			}
+		}
+		return highestValueOf(BUCKETS - 1);
+	}
+
+	/**
+	 * Gets the highest recorded value.
+	 * 
+	 * @return the highest value of the highest non-empty bucket, 0 if there are
+	 *         no values.
+	 */
+	public long getMax() {
+		long[] counts = merge();
+		for (int bucket = BUCKETS - 1; bucket >= 0; bucket--) {
+			if (counts[bucket] != 0) {
+				return highestValueOf(bucket);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Removes all the values. The values recorded at the same time may be lost
+	 * or kept.
+	 */
+	public void reset() {
+		for (int i = 0; i < cells.length(); i++) {
+			cells.set(i, 0);
+		}
+	}
+
+	private long[] merge() {
+		long[] counts = new long[BUCKETS];
+		for (int i = 0; i <= mask; i++) {
+			int row = i * ROW;
+			for (int bucket = 0; bucket < BUCKETS; bucket++) {
+				counts[bucket] += cells.get(row + bucket);
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Gets the bucket of a value.
+	 * 
+	 * @param value
+	 *           the non-negative value.
+	 * @return the bucket [0-BUCKETS).
+	 */
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		if (exponent > MAX_EXPONENT) {
+			return BUCKETS - 1;
+		}
+		int subBucket = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return ((exponent - SUB_BITS + 1) << SUB_BITS) + subBucket;
+	}
+
+	/**
+	 * Gets the highest value that falls in a bucket.
+	 * 
+	 * @param bucket
+	 *           the bucket [0-BUCKETS).
+	 * @return the highest value.
+	 */
+	static long highestValueOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = (bucket >> SUB_BITS) - 1;
+		long lowest = (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,148 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * <p>
+ * This class holds the {@link ScoreBoardMetrics} the scoring engine reports
+ * to.
+ * </p>
+ * <p>
+ * The metrics are disabled by default: the engine reports to {@link #NOOP},
+ * which costs a field read and a branch per call. They are enabled by
+ * {@link #enable()}, or at startup by the system property
+ * <code>spa.simone.tenpinbowling.metrics=true</code>, and any other
+ * implementation can be plugged in with {@link #set(ScoreBoardMetrics)}.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public final class Metrics {
+
+	/**
+	 * The name of the system property that enables the metrics at startup.
+	 */
+	public static final String PROPERTY = "spa.simone.tenpinbowling.metrics";
+
+	/**
+	 * The JMX name of the metrics enabled by {@link #enable()}.
+	 */
+	public static final String OBJECT_NAME = "spa.simone.tenpinbowling:type=ScoreBoardMetrics";
+
+	/**
+	 * The metrics that record nothing.
+	 */
+	public static final ScoreBoardMetrics NOOP = new ScoreBoardMetrics() {
+
+		@Override
+		public boolean isEnabled() {
+			return false;
+		}
+
+		@Override
+		public void recordSetPins(long nanos) {
+		}
+
+		@Override
+		public void recordValidationFailure(String reason) {
+		}
+
+		@Override
+		public void recordScoreComputation() {
+		}
+
+		@Override
+		public void recordSerialization(long nanos) {
+		}
+
+	};
+
+	private static volatile ScoreBoardMetrics metrics = NOOP;
+
+	static {
+		if (Boolean.getBoolean(PROPERTY)) {
+			enable();
+		}
+	}
+
+	private Metrics() {
+	}
+
+	/**
+	 * Gets the current metrics.
+	 * 
+	 * @return the metrics, {@link #NOOP} if they are disabled.
+	 */
+	public static ScoreBoardMetrics get() {
+		return metrics;
+	}
+
+	/**
+	 * Sets the metrics the engine reports to.
+	 * 
+	 * @param metrics
+	 *           the metrics, null to disable them.
+	 */
+	public static void set(ScoreBoardMetrics metrics) {
+		Metrics.metrics = metrics == null ? NOOP : metrics;
+	}
+
+	/**
+	 * Enables a new {@link StripedScoreBoardMetrics}, and registers it in the
+	 * platform MBean server in place of the previous one.
+	 * 
+	 * @return the metrics.
+	 */
+	public static synchronized StripedScoreBoardMetrics enable() {
+		StripedScoreBoardMetrics striped = new StripedScoreBoardMetrics();
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(striped, name);
+		} catch (JMException e) {
+			throw new IllegalStateException("Unable to register the metrics", e);
+		}
+		set(striped);
+		return striped;
+	}
+
+	/**
+	 * Disables the metrics, and removes them from the platform MBean server.
+	 */
+	public static synchronized void disable() {
+		set(NOOP);
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (JMException e) {
+			throw new IllegalStateException("Unable to unregister the metrics", e);
+		}
+	}
+
+}
\ No newline at end of file
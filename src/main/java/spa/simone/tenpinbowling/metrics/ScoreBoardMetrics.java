@@ -0,0 +1,73 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.metrics;
+
+/**
+ * <p>
+ * The events of the scoring engine that can be measured. The engine reports
+ * them to the instance installed with {@link Metrics#set(ScoreBoardMetrics)}.
+ * </p>
+ * <p>
+ * The implementations must be thread-safe, and cheap: they are called on the
+ * hot path, by every lane at the same time. The engine does not even read the
+ * clock if {@link #isEnabled()} is false.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public interface ScoreBoardMetrics {
+
+	/**
+	 * Says if the events are recorded.
+	 * 
+	 * @return false if the calls can be skipped.
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Records a call to <code>setPins</code> or <code>trySetPins</code>,
+	 * accepted or not.
+	 * 
+	 * @param nanos
+	 *           the duration of the call, in nanoseconds.
+	 */
+	public void recordSetPins(long nanos);
+
+	/**
+	 * Records a shot rejected by the validation.
+	 * 
+	 * @param reason
+	 *           the name of the reason (a constant of
+	 *           <code>ValidationResult</code>), which tells the exception
+	 *           thrown by <code>setPins</code>.
+	 */
+	public void recordValidationFailure(String reason);
+
+	/**
+	 * Records the computation of the scores of a whole game.
+	 */
+	public void recordScoreComputation();
+
+	/**
+	 * Records the serialization of a scoreboard.
+	 * 
+	 * @param nanos
+	 *           the duration of the serialization, in nanoseconds.
+	 */
+	public void recordSerialization(long nanos);
+
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.metrics;
+
+import java.util.Map;
+
+/**
+ * The management interface of the {@link StripedScoreBoardMetrics}, registered
+ * by {@link Metrics#enable()} under the name {@link Metrics#OBJECT_NAME}. The
+ * durations are in nanoseconds.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public interface ScoreBoardMetricsMXBean {
+
+	public long getSetPinsCount();
+
+	public double getSetPinsMeanNanos();
+
+	public long getSetPinsP50Nanos();
+
+	public long getSetPinsP99Nanos();
+
+	public long getSetPinsP999Nanos();
+
+	public long getSetPinsMaxNanos();
+
+	/**
+	 * Gets the number of rejected shots by reason.
+	 * 
+	 * @return the counts of the reasons recorded so far, keyed by their
+	 *         name.
+	 */
+	public Map<String, Long> getValidationFailures();
+
+	public long getScoreComputations();
+
+	public long getSerializationCount();
+
+	public double getSerializationMeanNanos();
+
+	public long getSerializationP99Nanos();
+
+	public long getSerializationMaxNanos();
+
+	/**
+	 * Sets all the counters and the histograms to zero.
+	 */
+	public void reset();
+
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A counter that many threads can increment at the same time without
+ * contending on a single cache line.
+ * </p>
+ * <p>
+ * The count is split in stripes, each on its own cache line, and a thread
+ * always adds to the same stripe. The value is the sum of the stripes, so a
+ * read that runs with the increments may miss some of them.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class StripedCounter {
+
+	private final int mask;
+	private final AtomicLongArray cells;
+
+	/**
+	 * Instantiates the counter, with the default number of stripes.
+	 */
+	public StripedCounter() {
+		this(Stripes.DEFAULT);
+	}
+
+	/**
+	 * Instantiates the counter.
+	 * 
+	 * @param stripes
+	 *           the number of stripes, rounded up to a power of two.
+	 */
+	public StripedCounter(int stripes) {
+		mask = Stripes.mask(stripes);
+		cells = new AtomicLongArray((mask + 1) * Stripes.PADDING);
+	}
+
+	/**
+	 * Adds one to the counter.
+	 */
+	public void increment() {
+		cells.getAndIncrement(Stripes.current(mask) * Stripes.PADDING);
+	}
+
+	/**
+	 * Adds a value to the counter.
+	 * 
+	 * @param value
+	 *           the value.
+	 */
+	public void add(long value) {
+		cells.getAndAdd(Stripes.current(mask) * Stripes.PADDING, value);
+	}
+
+	/**
+	 * Gets the value of the counter.
+	 * 
+	 * @return the sum of the stripes.
+	 */
+	public long get() {
+		long sum = 0;
+		for (int i = 0; i <= mask; i++) {
+			sum += cells.get(i * Stripes.PADDING);
+		}
+		return sum;
+	}
+
+	/**
+	 * Sets the counter to zero. The increments that run at the same time may be
+	 * lost or kept.
+	 */
+	public void reset() {
+		for (int i = 0; i <= mask; i++) {
+			cells.set(i * Stripes.PADDING, 0);
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,200 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * This class records the metrics of the scoring engine in
+ * {@link StripedCounter}s and {@link LatencyHistogram}s, so the lanes can
+ * record at the same time without contending, and without allocating. The
+ * counter of a reason of rejection is allocated the first time the reason is
+ * recorded.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class StripedScoreBoardMetrics implements ScoreBoardMetrics, ScoreBoardMetricsMXBean {
+
+	private final int stripes;
+	private final LatencyHistogram setPins;
+	private final ConcurrentMap<String, StripedCounter> failures = new ConcurrentHashMap<>();
+	private final StripedCounter scoreComputations;
+	private final LatencyHistogram serializations;
+
+	/**
+	 * Instantiates the metrics, with the default number of stripes.
+	 */
+	public StripedScoreBoardMetrics() {
+		this(Stripes.DEFAULT);
+	}
+
+	/**
+	 * Instantiates the metrics.
+	 * 
+	 * @param stripes
+	 *           the number of stripes of the counters and the histograms.
+	 */
+	public StripedScoreBoardMetrics(int stripes) {
+		this.stripes = stripes;
+		setPins = new LatencyHistogram(stripes);
+		scoreComputations = new StripedCounter(stripes);
+		serializations = new LatencyHistogram(stripes);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+
+	@Override
+	public void recordSetPins(long nanos) {
+		setPins.record(nanos);
+	}
+
+	@Override
+	public void recordValidationFailure(String reason) {
+		StripedCounter counter = failures.get(reason);
+		if (counter == null) {
+			counter = new StripedCounter(stripes);
+			StripedCounter existing = failures.putIfAbsent(reason, counter);
+			if (existing != null) {
+				counter = existing;
+			}
+		}
+		counter.increment();
+	}
+
+	@Override
+	public void recordScoreComputation() {
+		scoreComputations.increment();
+	}
+
+	@Override
+	public void recordSerialization(long nanos) {
+		serializations.record(nanos);
+	}
+
+	/**
+	 * Gets the histogram of the durations of the <code>setPins</code> calls.
+	 * 
+	 * @return the histogram, in nanoseconds.
+	 */
+	public LatencyHistogram getSetPinsHistogram() {
+		return setPins;
+	}
+
+	/**
+	 * Gets the histogram of the durations of the serializations.
+	 * 
+	 * @return the histogram, in nanoseconds.
+	 */
+	public LatencyHistogram getSerializationHistogram() {
+		return serializations;
+	}
+
+	/**
+	 * Gets the number of shots rejected for the reason.
+	 * 
+	 * @param reason
+	 *           the name of the reason.
+	 * @return the count.
+	 */
+	public long getValidationFailures(String reason) {
+		StripedCounter counter = failures.get(reason);
+		return counter == null ? 0 : counter.get();
+	}
+
+	@Override
+	public long getSetPinsCount() {
+		return setPins.getCount();
+	}
+
+	@Override
+	public double getSetPinsMeanNanos() {
+		return setPins.getMean();
+	}
+
+	@Override
+	public long getSetPinsP50Nanos() {
+		return setPins.getValueAtPercentile(50);
+	}
+
+	@Override
+	public long getSetPinsP99Nanos() {
+		return setPins.getValueAtPercentile(99);
+	}
+
+	@Override
+	public long getSetPinsP999Nanos() {
+		return setPins.getValueAtPercentile(99.9);
+	}
+
+	@Override
+	public long getSetPinsMaxNanos() {
+		return setPins.getMax();
+	}
+
+	@Override
+	public Map<String, Long> getValidationFailures() {
+		Map<String, Long> counts = new TreeMap<>();
+		for (Map.Entry<String, StripedCounter> entry : failures.entrySet()) {
+			counts.put(entry.getKey(), entry.getValue().get());
+		}
+		return counts;
+	}
+
+	@Override
+	public long getScoreComputations() {
+		return scoreComputations.get();
+	}
+
+	@Override
+	public long getSerializationCount() {
+		return serializations.getCount();
+	}
+
+	@Override
+	public double getSerializationMeanNanos() {
+		return serializations.getMean();
+	}
+
+	@Override
+	public long getSerializationP99Nanos() {
+		return serializations.getValueAtPercentile(99);
+	}
+
+	@Override
+	public long getSerializationMaxNanos() {
+		return serializations.getMax();
+	}
+
+	@Override
+	public void reset() {
+		setPins.reset();
+		for (StripedCounter counter : failures.values()) {
+			counter.reset();
+		}
+		scoreComputations.reset();
+		serializations.reset();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.metrics;
+
+/**
+ * The choice of the stripe of a striped counter: each thread always updates
+ * the same stripe, and the threads are spread over the stripes, so the
+ * writers seldom share a cache line.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+final class Stripes {
+
+	/**
+	 * The default number of stripes: the number of cores, rounded up to a power
+	 * of two, at most 64.
+	 */
+	static final int DEFAULT = Math.min(64,
+			Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+	/**
+	 * The number of longs between two stripes: 128 bytes, since the hardware
+	 * prefetches the cache lines in pairs.
+	 */
+	static final int PADDING = 16;
+
+	private Stripes() {
+	}
+
+	/**
+	 * Gets the stripe of the current thread.
+	 * 
+	 * @param mask
+	 *           the number of stripes minus one (a power of two minus one).
+	 * @return the stripe [0-mask].
+	 */
+	static int current(int mask) {
+		long id = Thread.currentThread().getId();
+		return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+	}
+
+	/**
+	 * Rounds the number of stripes up to a power of two.
+	 * 
+	 * @param stripes
+	 *           the number of stripes.
+	 * @return the mask of the stripes.
+	 */
+	static int mask(int stripes) {
+		if (stripes < 1) {
+			throw new IllegalArgumentException(stripes + " is an invalid number of stripes");
+		}
+		return Integer.highestOneBit(stripes * 2 - 1) - 1;
+	}
+
+}
\ No newline at end of file
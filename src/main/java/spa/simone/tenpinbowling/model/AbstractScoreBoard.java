@@ -0,0 +1,485 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import static spa.simone.tenpinbowling.model.Util.getIndex;
+import static spa.simone.tenpinbowling.model.Validator.checkFrame;
+import static spa.simone.tenpinbowling.model.Validator.checkPins;
+import static spa.simone.tenpinbowling.model.Validator.checkShot;
+
+import spa.simone.tenpinbowling.metrics.Metrics;
+import spa.simone.tenpinbowling.metrics.ScoreBoardMetrics;
+
+/**
+ * <p>
+ * This class provides a skeletal implementation of the {@link ScoreBoard}
+ * interface.
+ * </p>
+ * <p>
+ * The subclasses only have to store the number of pins knocked down by each
+ * shot, addressed by the absolute index given by {@link Util#getIndex(int, int)}
+ * (the third shot of the last frame has index 20). The frame scores are
+ * computed on demand, unless the subclass caches them by overriding
+ * {@link #scoreOf(int)}.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public abstract class AbstractScoreBoard implements ScoreBoard {
+
+	// the registry and the id of the player, in a reference as small as an id
+	private PlayerRegistry.Player player;
+
+	/**
+	 * Instantiates the scoreboard, with the players of the default
+	 * {@link PlayerRegistry}.
+	 */
+	protected AbstractScoreBoard() {
+		this(PlayerRegistry.getDefault());
+	}
+
+	/**
+	 * Instantiates the scoreboard, with the players of a registry.
+	 * 
+	 * @param registry
+	 *           the registry of the players.
+	 */
+	protected AbstractScoreBoard(PlayerRegistry registry) {
+		player = registry.player(PlayerRegistry.NO_PLAYER);
+	}
+
+	/**
+	 * Gets the number of pins knocked down by the shot.
+	 * 
+	 * @param index
+	 *           the absolute index of the shot [0-20].
+	 * @return the number of pins knocked down.
+	 */
+	protected abstract int getPinsAt(int index);
+
+	/**
+	 * Stores the number of pins knocked down by the shot. The value has already
+	 * been validated.
+	 * 
+	 * @param index
+	 *           the absolute index of the shot [0-20].
+	 * @param pins
+	 *           the number of pins knocked down.
+	 */
+	protected abstract void setPinsAt(int index, int pins);
+
+	@Override
+	public PlayerRegistry getPlayerRegistry() {
+		return player.registry;
+	}
+
+	@Override
+	public String getPlayerName() {
+		return player.name;
+	}
+
+	@Override
+	public void setPlayerName(String name) {
+		player = player.registry.intern(name);
+	}
+
+	@Override
+	public int getPlayerId() {
+		return player.id;
+	}
+
+	@Override
+	public void setPlayerId(int id) {
+		player = player.registry.player(id);
+	}
+
+	/**
+	 * Sets the player of another scoreboard, in its registry.
+	 * 
+	 * @param board
+	 *           the scoreboard whose player is copied.
+	 */
+	protected void setPlayer(ScoreBoard board) {
+		if (board instanceof AbstractScoreBoard) {
+			player = ((AbstractScoreBoard) board).player;
+		} else {
+			player = board.getPlayerRegistry().player(board.getPlayerId());
+		}
+	}
+
+	@Override
+	public void computeFinalScore() {
+		// the scores are computed on demand
+	}
+
+	@Override
+	public int getFinalScore() {
+		Metrics.get().recordScoreComputation();
+		int totalScore = 0;
+		for (int frame = 1; frame <= 10; frame++) {
+			totalScore += scoreOf(frame);
+		}
+		return totalScore;
+	}
+
+	@Override
+	public int getScoreOf(int frame) throws OutOfRangeException {
+		checkFrame(frame);
+		return scoreOf(frame);
+	}
+
+	@Override
+	public int[] getShotsOf(int frame) throws OutOfRangeException {
+		return getShotsOf(frame, new int[2]);
+	}
+
+	@Override
+	public int[] getShotsOf(int frame, int[] buffer) throws OutOfRangeException {
+		checkFrame(frame);
+		buffer[0] = getPinsAt(getIndex(frame - 1, 0));
+		buffer[1] = getPinsAt(getIndex(frame - 1, 1));
+		return buffer;
+	}
+
+	@Override
+	public int getShot(int frame, int shot) throws OutOfRangeException {
+		checkFrame(frame);
+		checkShot(frame, shot);
+		return getPinsAt(getIndex(frame - 1, shot - 1));
+	}
+
+	@Override
+	public int getSpares() {
+		int spares = 0;
+		for (int frame = 1; frame <= 9; frame++) {
+			if (spare(frame)) {
+				spares++;
+			}
+		}
+		if (isSpareOnLastFrame()) {
+			spares++;
+		}
+		if (isStrikeAndSpareOnLastFrame()) {
+			spares++;
+		}
+		return spares;
+	}
+
+	@Override
+	public int getStrikes() {
+		int strikes = 0;
+		// for each non-final frame
+		for (int frame = 1; frame <= 9; frame++) {
+			if (strike(frame)) {
+				strikes++;
+			}
+		}
+		if (isStrikeOnLastFrame()) {
+			strikes++;
+		}
+		if (isDoubleOnLastFrame()) {
+			strikes++;
+		}
+		if (isTripleOnLastFrame() || isSpareAndStrikeOnLastFrame()) {
+			strikes++;
+		}
+		return strikes;
+	}
+
+	@Override
+	public int getSumOf(int frame) throws OutOfRangeException {
+		checkFrame(frame);
+		return getPinsAt(getIndex(frame - 1, 0)) + getPinsAt(getIndex(frame - 1, 1));
+	}
+
+	@Override
+	public boolean isDoubleOnLastFrame() {
+		return getPinsAt(18) == 10 && getPinsAt(19) == 10;
+	}
+
+	@Override
+	public boolean isOpen(int frame) throws OutOfRangeException {
+		checkFrame(frame);
+		return !strike(frame) && !spare(frame);
+	}
+
+	@Override
+	public boolean isSpare(int frame) throws OutOfRangeException {
+		checkFrame(frame);
+		return spare(frame);
+	}
+
+	@Override
+	public boolean isSpareAndStrikeOnLastFrame() {
+		// 1) The first shot is not a strike
+		// 2) The sum of the first and the second shots is equals to 10
+		// 3) The third shot is a strike
+		return isSpareOnLastFrame() && getPinsAt(20) == 10;
+	}
+
+	@Override
+	public boolean isSpareOnLastFrame() {
+		// 1) The first shot is not a strike;
+		// 2) The sum of the first and the second shots is equals to 10.
+		int first = getPinsAt(18);
+		return first != 10 && first + getPinsAt(19) == 10;
+	}
+
+	@Override
+	public boolean isStrike(int frame) throws OutOfRangeException {
+		checkFrame(frame);
+		return strike(frame);
+	}
+
+	@Override
+	public boolean isStrikeAndSpareOnLastFrame() {
+		// 1) The first shot is a strike;
+		// 2) The second shot is not a strike;
+		// 3) The sum of the second and the third shots is equals to 10.
+		int second = getPinsAt(19);
+		return getPinsAt(18) == 10 && second != 10 && second + getPinsAt(20) == 10;
+	}
+
+	@Override
+	public boolean isStrikeOnLastFrame() {
+		return getPinsAt(18) == 10;
+	}
+
+	@Override
+	public boolean isTripleOnLastFrame() {
+		return getPinsAt(18) == 10 && getPinsAt(19) == 10 && getPinsAt(20) == 10;
+	}
+
+	@Override
+	public String serializeScoreBoard() {
+		ScoreBoardMetrics metrics = Metrics.get();
+		long start = metrics.isEnabled() ? System.nanoTime() : 0;
+		StringBuilder builder = new StringBuilder();
+		builder.append("-- ").append(getPlayerName()).append("\n\n");
+		builder.append("Frame: ");
+		for (int i = 1; i <= 10; i++) {
+			builder.append("   " + i + "   ");
+		}
+		builder.append("\nPins:  ");
+		for (int i = 0; i < 21; i++) {
+			if (i % 2 == 0 && i != 20) {
+				builder.append("| ");
+			}
+			builder.append(getPinsAt(i)).append(" ");
+		}
+		int totalScore = 0;
+		builder.append("\nScore: ");
+		for (int frame = 1; frame <= 10; frame++) {
+			int score = scoreOf(frame);
+			totalScore += score;
+			builder.append("|  ");
+			if (frame == 10) {
+				builder.append("  ");
+			}
+			builder.append(score).append("  ");
+		}
+		builder.append("\n\nFinal Score: ").append(totalScore).append("\n");
+		builder.append("Total Strikes: ").append(getStrikes()).append("\n");
+		builder.append("Total Spares: ").append(getSpares()).append("\n");
+		String serialized = builder.toString();
+		if (metrics.isEnabled()) {
+			metrics.recordSerialization(System.nanoTime() - start);
+		}
+		return serialized;
+	}
+
+	@Override
+	public void setPins(int frame, int shot, int pins) throws ScoreBoardException {
+		ScoreBoardMetrics metrics = Metrics.get();
+		if (!metrics.isEnabled()) {
+			storePins(frame, shot, pins);
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			storePins(frame, shot, pins);
+		} catch (ScoreBoardException e) {
+			metrics.recordValidationFailure(validate(frame, shot, pins).name());
+			throw e;
+		} finally {
+			metrics.recordSetPins(System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public ValidationResult trySetPins(int frame, int shot, int pins) {
+		ScoreBoardMetrics metrics = Metrics.get();
+		if (!metrics.isEnabled()) {
+			return storePinsIfValid(frame, shot, pins);
+		}
+		long start = System.nanoTime();
+		ValidationResult result = storePinsIfValid(frame, shot, pins);
+		metrics.recordSetPins(System.nanoTime() - start);
+		if (result != ValidationResult.VALID) {
+			metrics.recordValidationFailure(result.name());
+		}
+		return result;
+	}
+
+	/**
+	 * Validates and stores the number of pins knocked down by a shot, as
+	 * {@link #setPins(int, int, int)} does, without recording the metrics.
+	 * 
+	 * @param frame
+	 *           the number of the frame.
+	 * @param shot
+	 *           the number of the shot.
+	 * @param pins
+	 *           the number of pins knocked down.
+	 * @throws ScoreBoardException
+	 */
+	protected void storePins(int frame, int shot, int pins) throws ScoreBoardException {
+		checkFrame(frame);
+		checkShot(frame, shot);
+		checkPins(frame, shot, pins, getPinsAt(getIndex(frame - 1, 0)),
+				getPinsAt(getIndex(frame - 1, 1)));
+		setPinsAt(getIndex(frame - 1, shot - 1), pins);
+	}
+
+	/**
+	 * Validates and stores the number of pins knocked down by a shot, as
+	 * {@link #trySetPins(int, int, int)} does, without recording the metrics.
+	 * 
+	 * @param frame
+	 *           the number of the frame.
+	 * @param shot
+	 *           the number of the shot.
+	 * @param pins
+	 *           the number of pins knocked down.
+	 * @return the outcome of the validation.
+	 */
+	protected ValidationResult storePinsIfValid(int frame, int shot, int pins) {
+		ValidationResult result = validate(frame, shot, pins);
+		if (result == ValidationResult.VALID) {
+			setPinsAt(getIndex(frame - 1, shot - 1), pins);
+		}
+		return result;
+	}
+
+	@Override
+	public void reset() {
+		player = player.registry.player(PlayerRegistry.NO_PLAYER);
+		clearShots();
+	}
+
+	/**
+	 * Sets all the shots to 0. The subclasses that cache the scores, or can
+	 * clear their storage at once, should override it.
+	 */
+	protected void clearShots() {
+		// backwards, so that a shot is cleared after the ones it is a bonus for
+		for (int index = 20; index >= 0; index--) {
+			setPinsAt(index, 0);
+		}
+	}
+
+	/**
+	 * Validates the number of pins knocked down by a shot, given the shots
+	 * already stored.
+	 * 
+	 * @param frame
+	 *           the number of the frame.
+	 * @param shot
+	 *           the number of the shot.
+	 * @param pins
+	 *           the number of pins knocked down.
+	 * @return the outcome of the validation.
+	 */
+	protected ValidationResult validate(int frame, int shot, int pins) {
+		if (frame < 1 || frame > 10) {
+			return ValidationResult.INVALID_FRAME;
+		}
+		return Validator.validate(frame, shot, pins, getPinsAt(getIndex(frame - 1, 0)),
+				getPinsAt(getIndex(frame - 1, 1)));
+	}
+
+	/**
+	 * Gets the score of the frame, without validating the frame number.
+	 * 
+	 * @param frame
+	 *           the number of the frame [1-10].
+	 * @return the score of the frame.
+	 */
+	protected int scoreOf(int frame) {
+		return computeScoreOf(frame);
+	}
+
+	/**
+	 * Computes the score of the frame (including bonus for the strike/spare),
+	 * without validating the frame number.
+	 * 
+	 * @param frame
+	 *           the number of the frame [1-10].
+	 * @return the score of the frame.
+	 */
+	protected final int computeScoreOf(int frame) {
+		int first = getPinsAt(getIndex(frame - 1, 0));
+		int second = getPinsAt(getIndex(frame - 1, 1));
+		// tenth frame
+		if (frame == 10) {
+			return first + second + getPinsAt(20);
+		}
+		// if is a strike
+		if (first == 10) {
+			// ninth frame: 10 + (first two shots of the last frame)
+			if (frame == 9) {
+				return 10 + getPinsAt(18) + getPinsAt(19);
+			}
+			int next = getPinsAt(getIndex(frame, 0));
+			// 10 + (next two shots)
+			if (next != 10) {
+				return 10 + next + getPinsAt(getIndex(frame, 1));
+			}
+			return 20 + getPinsAt(getIndex(frame + 1, 0));
+		}
+		// if is a spare: 10 + (next shot)
+		if (first + second == 10) {
+			return 10 + getPinsAt(getIndex(frame, 0));
+		}
+		// if is a normal case
+		return first + second;
+	}
+
+	/**
+	 * Says if the frame is a strike, without validating the frame number.
+	 * 
+	 * @param frame
+	 *           the number of the frame [1-10].
+	 * @return true for a strike.
+	 */
+	protected boolean strike(int frame) {
+		return getPinsAt(getIndex(frame - 1, 0)) == 10;
+	}
+
+	/**
+	 * Says if the frame is a spare, without validating the frame number.
+	 * 
+	 * @param frame
+	 *           the number of the frame [1-10].
+	 * @return true for a spare.
+	 */
+	protected boolean spare(int frame) {
+		int first = getPinsAt(getIndex(frame - 1, 0));
+		return first != 10 && first + getPinsAt(getIndex(frame - 1, 1)) == 10;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,201 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+/**
+ * <p>
+ * This class numbers the states of a game from the point of view of the
+ * balls still to be thrown, for the algorithms that work on all the possible
+ * games at once (see {@link ScoreProjector}).
+ * </p>
+ * <p>
+ * A ball adds its pins to the score of its frame, and once more for each
+ * strike or spare still waiting for it as a bonus. So the points still to be
+ * made only depend on the next ball (its frame, its shot and, for a second
+ * shot, the first shot of the frame) and on the bonuses pending on the next
+ * ball [0-2] and on the following one [0-1]: this is a state. The states are
+ * numbered in order of play, so a state is always followed by a greater one,
+ * and {@link #OVER} is the greatest.
+ * </p>
+ * <p>
+ * The balls allowed in a state are the ones accepted by {@link Validator},
+ * following the sequence of play of the game: a strike closes a non-final
+ * frame, and the last frame has a third shot after a strike or a spare.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public final class BallStates {
+
+	// a position is the next ball: frames 1-9, the first shot then the second
+	// one by first shot [0-9]; frame 10, the first shot, the second one by
+	// first shot [0-10], the third one
+	private static final int TENTH = 9 * 11;
+	private static final int POSITIONS = TENTH + 13;
+
+	/**
+	 * The number of states with a ball to throw.
+	 */
+	public static final int COUNT = POSITIONS * 6;
+
+	/**
+	 * The state of a finished game.
+	 */
+	public static final int OVER = COUNT;
+
+	/**
+	 * The state of a new game.
+	 */
+	public static final int FIRST = 0;
+
+	// the state after each ball, -1 if the ball is not valid
+	private static final int[] NEXT = new int[COUNT * 11];
+
+	static {
+		for (int state = 0; state < COUNT; state++) {
+			for (int pins = 0; pins <= 10; pins++) {
+				NEXT[state * 11 + pins] = following(state, pins);
+			}
+		}
+	}
+
+	private BallStates() {
+	}
+
+	/**
+	 * Gets the state of the next ball.
+	 * 
+	 * @param frame
+	 *           the frame of the ball [1-10].
+	 * @param shot
+	 *           the shot of the ball.
+	 * @param first
+	 *           the pins knocked down by the first shot of the frame, for a
+	 *           second shot.
+	 * @param now
+	 *           the number of strikes and spares waiting for this ball [0-2].
+	 * @param next
+	 *           the number of strikes waiting for the following ball [0-1].
+	 * @return the state.
+	 */
+	public static int of(int frame, int shot, int first, int now, int next) {
+		return position(frame, shot, first) * 6 + now * 2 + next;
+	}
+
+	/**
+	 * Gets the frame of the next ball.
+	 * 
+	 * @param state
+	 *           a state with a ball to throw.
+	 * @return the number of the frame [1-10].
+	 */
+	public static int getFrame(int state) {
+		return Math.min(state / 6 / 11 + 1, 10);
+	}
+
+	/**
+	 * Gets the shot of the next ball.
+	 * 
+	 * @param state
+	 *           a state with a ball to throw.
+	 * @return the number of the shot [1-3].
+	 */
+	public static int getShot(int state) {
+		int position = state / 6;
+		if (position < TENTH) {
+			return position % 11 == 0 ? 1 : 2;
+		}
+		int offset = position - TENTH;
+		return offset == 0 ? 1 : offset == 12 ? 3 : 2;
+	}
+
+	/**
+	 * Gets the pins knocked down by the first shot of the frame.
+	 * 
+	 * @param state
+	 *           a state with a ball to throw.
+	 * @return the pins, 0 for a first shot.
+	 */
+	public static int getFirst(int state) {
+		int position = state / 6;
+		int offset = position < TENTH ? position % 11 : Math.min(position - TENTH, 11);
+		return Math.max(0, offset - 1);
+	}
+
+	/**
+	 * Gets the points made by a ball, including the bonuses it gives.
+	 * 
+	 * @param state
+	 *           a state with a ball to throw.
+	 * @param pins
+	 *           the pins knocked down by the ball.
+	 * @return the points.
+	 */
+	public static int gain(int state, int pins) {
+		return pins * (1 + (state % 6 >> 1));
+	}
+
+	/**
+	 * Gets the state after a ball.
+	 * 
+	 * @param state
+	 *           a state with a ball to throw.
+	 * @param pins
+	 *           the pins knocked down by the ball [0-10].
+	 * @return the following state, -1 if the ball is not valid.
+	 */
+	public static int next(int state, int pins) {
+		return NEXT[state * 11 + pins];
+	}
+
+	private static int position(int frame, int shot, int first) {
+		if (frame < 10) {
+			return (frame - 1) * 11 + (shot == 1 ? 0 : 1 + first);
+		}
+		return TENTH + (shot == 1 ? 0 : shot == 2 ? 1 + first : 12);
+	}
+
+	private static int following(int state, int pins) {
+		int frame = getFrame(state);
+		int shot = getShot(state);
+		int first = getFirst(state);
+		int next = state & 1;
+		if (shot != 3
+				&& Validator.validatePins(frame, shot, pins, first, 0) != ValidationResult.VALID) {
+			return -1;
+		}
+		if (frame < 10) {
+			if (shot == 1 && pins == 10) {
+				// a strike waits for the next two balls
+				return of(frame + 1, 1, 0, next + 1, 1);
+			}
+			if (shot == 1) {
+				return of(frame, 2, pins, next, 0);
+			}
+			// a spare waits for the next ball
+			return of(frame + 1, 1, 0, next + (first + pins == 10 ? 1 : 0), 0);
+		}
+		if (shot == 1) {
+			return of(10, 2, pins, next, 0);
+		}
+		if (shot == 2 && (first == 10 || first + pins == 10)) {
+			return of(10, 3, 0, 0, 0);
+		}
+		return OVER;
+	}
+
+}
\ No newline at end of file
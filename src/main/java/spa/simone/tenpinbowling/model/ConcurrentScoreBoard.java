@@ -0,0 +1,284 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import spa.simone.tenpinbowling.metrics.Metrics;
+import spa.simone.tenpinbowling.metrics.ScoreBoardMetrics;
+
+/**
+ * <p>
+ * This class is a thread-safe implementation of {@link ScoreBoard} interface.
+ * </p>
+ * <p>
+ * The state of the game is an immutable {@link PackedScoreBoard}, published
+ * through an atomic reference. The readers never block: every query reads the
+ * current snapshot once, so it never sees a half-applied
+ * {@link #setPins(int, int, int)}. The writers copy the snapshot (two
+ * <code>long</code> fields), apply and validate the change on the copy, and
+ * publish it with a compare-and-set, retrying if another writer got there
+ * first.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class ConcurrentScoreBoard implements ScoreBoard {
+
+	private final AtomicReference<PackedScoreBoard> state;
+
+	/**
+	 * Instantiates the ScoreBoard object.
+	 */
+	public ConcurrentScoreBoard() {
+		this(PlayerRegistry.getDefault());
+	}
+
+	/**
+	 * Instantiates the ScoreBoard object, with the players of a registry.
+	 * 
+	 * @param registry
+	 *           the registry of the players.
+	 */
+	public ConcurrentScoreBoard(PlayerRegistry registry) {
+		state = new AtomicReference<>(new PackedScoreBoard(registry));
+	}
+
+	/**
+	 * Instantiates the ScoreBoard object with the same player, in the same
+	 * registry, and shots of the given one.
+	 * 
+	 * @param board
+	 *           the scoreboard to copy.
+	 */
+	public ConcurrentScoreBoard(ScoreBoard board) {
+		state = new AtomicReference<>(new PackedScoreBoard(board));
+	}
+
+	/**
+	 * Gets a copy of the current state of the game, that will not see the
+	 * following changes.
+	 * 
+	 * @return a snapshot of the scoreboard.
+	 */
+	public ScoreBoard snapshot() {
+		return new PackedScoreBoard(state.get());
+	}
+
+	/*
+	 * Gets the current state, which must not be changed.
+	 */
+	PackedScoreBoard getState() {
+		return state.get();
+	}
+
+	@Override
+	public PlayerRegistry getPlayerRegistry() {
+		return state.get().getPlayerRegistry();
+	}
+
+	@Override
+	public String getPlayerName() {
+		return state.get().getPlayerName();
+	}
+
+	@Override
+	public void setPlayerName(String name) {
+		setPlayerId(getPlayerRegistry().register(name));
+	}
+
+	@Override
+	public int getPlayerId() {
+		return state.get().getPlayerId();
+	}
+
+	@Override
+	public void setPlayerId(int id) {
+		for (;;) {
+			PackedScoreBoard current = state.get();
+			PackedScoreBoard next = new PackedScoreBoard(current);
+			next.setPlayerId(id);
+			if (state.compareAndSet(current, next)) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void computeFinalScore() {
+		// the scores are computed on demand
+	}
+
+	@Override
+	public int getFinalScore() {
+		return state.get().getFinalScore();
+	}
+
+	@Override
+	public int getScoreOf(int frame) throws OutOfRangeException {
+		return state.get().getScoreOf(frame);
+	}
+
+	@Override
+	public int[] getShotsOf(int frame) throws OutOfRangeException {
+		return state.get().getShotsOf(frame);
+	}
+
+	@Override
+	public int[] getShotsOf(int frame, int[] buffer) throws OutOfRangeException {
+		return state.get().getShotsOf(frame, buffer);
+	}
+
+	@Override
+	public int getShot(int frame, int shot) throws OutOfRangeException {
+		return state.get().getShot(frame, shot);
+	}
+
+	@Override
+	public int getSpares() {
+		return state.get().getSpares();
+	}
+
+	@Override
+	public int getStrikes() {
+		return state.get().getStrikes();
+	}
+
+	@Override
+	public int getSumOf(int frame) throws OutOfRangeException {
+		return state.get().getSumOf(frame);
+	}
+
+	@Override
+	public boolean isDoubleOnLastFrame() {
+		return state.get().isDoubleOnLastFrame();
+	}
+
+	@Override
+	public boolean isOpen(int frame) throws OutOfRangeException {
+		return state.get().isOpen(frame);
+	}
+
+	@Override
+	public boolean isSpare(int frame) throws OutOfRangeException {
+		return state.get().isSpare(frame);
+	}
+
+	@Override
+	public boolean isSpareAndStrikeOnLastFrame() {
+		return state.get().isSpareAndStrikeOnLastFrame();
+	}
+
+	@Override
+	public boolean isSpareOnLastFrame() {
+		return state.get().isSpareOnLastFrame();
+	}
+
+	@Override
+	public boolean isStrike(int frame) throws OutOfRangeException {
+		return state.get().isStrike(frame);
+	}
+
+	@Override
+	public boolean isStrikeAndSpareOnLastFrame() {
+		return state.get().isStrikeAndSpareOnLastFrame();
+	}
+
+	@Override
+	public boolean isStrikeOnLastFrame() {
+		return state.get().isStrikeOnLastFrame();
+	}
+
+	@Override
+	public boolean isTripleOnLastFrame() {
+		return state.get().isTripleOnLastFrame();
+	}
+
+	@Override
+	public String serializeScoreBoard() {
+		return state.get().serializeScoreBoard();
+	}
+
+	@Override
+	public void setPins(int frame, int shot, int pins) throws ScoreBoardException {
+		ScoreBoardMetrics metrics = Metrics.get();
+		if (!metrics.isEnabled()) {
+			storePins(frame, shot, pins);
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			storePins(frame, shot, pins);
+		} catch (ScoreBoardException e) {
+			metrics.recordValidationFailure(state.get().validate(frame, shot, pins).name());
+			throw e;
+		} finally {
+			metrics.recordSetPins(System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public ValidationResult trySetPins(int frame, int shot, int pins) {
+		ScoreBoardMetrics metrics = Metrics.get();
+		if (!metrics.isEnabled()) {
+			return storePinsIfValid(frame, shot, pins);
+		}
+		long start = System.nanoTime();
+		ValidationResult result = storePinsIfValid(frame, shot, pins);
+		metrics.recordSetPins(System.nanoTime() - start);
+		if (result != ValidationResult.VALID) {
+			metrics.recordValidationFailure(result.name());
+		}
+		return result;
+	}
+
+	@Override
+	public void reset() {
+		state.set(new PackedScoreBoard(getPlayerRegistry()));
+	}
+
+	// the copies are written through the methods that record no metrics, so a
+	// call is recorded once, whatever the number of retries
+
+	private void storePins(int frame, int shot, int pins) throws ScoreBoardException {
+		for (;;) {
+			PackedScoreBoard current = state.get();
+			PackedScoreBoard next = new PackedScoreBoard(current);
+			next.storePins(frame, shot, pins);
+			if (state.compareAndSet(current, next)) {
+				return;
+			}
+		}
+	}
+
+	private ValidationResult storePinsIfValid(int frame, int shot, int pins) {
+		for (;;) {
+			PackedScoreBoard current = state.get();
+			// an invalid ball does not cost a copy
+			ValidationResult result = current.validate(frame, shot, pins);
+			if (result != ValidationResult.VALID) {
+				return result;
+			}
+			PackedScoreBoard next = new PackedScoreBoard(current);
+			next.storePinsIfValid(frame, shot, pins);
+			if (state.compareAndSet(current, next)) {
+				return result;
+			}
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,169 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+/**
+ * This class is a {@link ScoreBoard} that forwards all the calls to another
+ * one. The subclasses override the methods they want to decorate.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public abstract class ForwardingScoreBoard implements ScoreBoard {
+
+	/**
+	 * Gets the scoreboard the calls are forwarded to.
+	 * 
+	 * @return the decorated scoreboard.
+	 */
+	protected abstract ScoreBoard delegate();
+
+	@Override
+	public PlayerRegistry getPlayerRegistry() {
+		return delegate().getPlayerRegistry();
+	}
+
+	@Override
+	public String getPlayerName() {
+		return delegate().getPlayerName();
+	}
+
+	@Override
+	public void setPlayerName(String name) {
+		delegate().setPlayerName(name);
+	}
+
+	@Override
+	public int getPlayerId() {
+		return delegate().getPlayerId();
+	}
+
+	@Override
+	public void setPlayerId(int id) {
+		delegate().setPlayerId(id);
+	}
+
+	@Override
+	public void computeFinalScore() {
+		delegate().computeFinalScore();
+	}
+
+	@Override
+	public int getFinalScore() {
+		return delegate().getFinalScore();
+	}
+
+	@Override
+	public int getScoreOf(int frame) throws OutOfRangeException {
+		return delegate().getScoreOf(frame);
+	}
+
+	@Override
+	public int[] getShotsOf(int frame) throws OutOfRangeException {
+		return delegate().getShotsOf(frame);
+	}
+
+	@Override
+	public int[] getShotsOf(int frame, int[] buffer) throws OutOfRangeException {
+		return delegate().getShotsOf(frame, buffer);
+	}
+
+	@Override
+	public int getShot(int frame, int shot) throws OutOfRangeException {
+		return delegate().getShot(frame, shot);
+	}
+
+	@Override
+	public int getSpares() {
+		return delegate().getSpares();
+	}
+
+	@Override
+	public int getStrikes() {
+		return delegate().getStrikes();
+	}
+
+	@Override
+	public int getSumOf(int frame) throws OutOfRangeException {
+		return delegate().getSumOf(frame);
+	}
+
+	@Override
+	public boolean isDoubleOnLastFrame() {
+		return delegate().isDoubleOnLastFrame();
+	}
+
+	@Override
+	public boolean isOpen(int frame) throws OutOfRangeException {
+		return delegate().isOpen(frame);
+	}
+
+	@Override
+	public boolean isSpare(int frame) throws OutOfRangeException {
+		return delegate().isSpare(frame);
+	}
+
+	@Override
+	public boolean isSpareAndStrikeOnLastFrame() {
+		return delegate().isSpareAndStrikeOnLastFrame();
+	}
+
+	@Override
+	public boolean isSpareOnLastFrame() {
+		return delegate().isSpareOnLastFrame();
+	}
+
+	@Override
+	public boolean isStrike(int frame) throws OutOfRangeException {
+		return delegate().isStrike(frame);
+	}
+
+	@Override
+	public boolean isStrikeAndSpareOnLastFrame() {
+		return delegate().isStrikeAndSpareOnLastFrame();
+	}
+
+	@Override
+	public boolean isStrikeOnLastFrame() {
+		return delegate().isStrikeOnLastFrame();
+	}
+
+	@Override
+	public boolean isTripleOnLastFrame() {
+		return delegate().isTripleOnLastFrame();
+	}
+
+	@Override
+	public String serializeScoreBoard() {
+		return delegate().serializeScoreBoard();
+	}
+
+	@Override
+	public void setPins(int frame, int shot, int pins) throws ScoreBoardException {
+		delegate().setPins(frame, shot, pins);
+	}
+
+	@Override
+	public ValidationResult trySetPins(int frame, int shot, int pins) {
+		return delegate().trySetPins(frame, shot, pins);
+	}
+
+	@Override
+	public void reset() {
+		delegate().reset();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,191 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+/**
+ * <p>
+ * This class is a compact implementation of {@link ScoreBoard} interface.
+ * </p>
+ * <p>
+ * The number of pins knocked down by each of the 21 shots fits in 4 bits, so
+ * the whole game is packed in two <code>long</code> fields: the shots [0-15]
+ * in the first one and the shots [16-20] in the second one. The frame scores
+ * are not stored, they are computed on demand.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class PackedScoreBoard extends AbstractScoreBoard {
+
+	private long low;
+	private long high;
+
+	/**
+	 * Instantiates the ScoreBoard object.
+	 */
+	public PackedScoreBoard() {
+	}
+
+	/**
+	 * Instantiates the ScoreBoard object, with the players of a registry.
+	 * 
+	 * @param registry
+	 *           the registry of the players.
+	 */
+	public PackedScoreBoard(PlayerRegistry registry) {
+		super(registry);
+	}
+
+	/**
+	 * Instantiates the ScoreBoard object with the same player, in the same
+	 * registry, and shots of the given one.
+	 * 
+	 * @param board
+	 *           the scoreboard to copy.
+	 */
+	public PackedScoreBoard(ScoreBoard board) {
+		if (board instanceof ConcurrentScoreBoard) {
+			// the player and the shots of the same state
+			board = ((ConcurrentScoreBoard) board).getState();
+		}
+		setPlayer(board);
+		if (board instanceof PackedScoreBoard) {
+			PackedScoreBoard source = (PackedScoreBoard) board;
+			low = source.low;
+			high = source.high;
+		} else if (board instanceof AbstractScoreBoard) {
+			AbstractScoreBoard source = (AbstractScoreBoard) board;
+			for (int i = 0; i < 21; i++) {
+				setPinsAt(i, source.getPinsAt(i));
+			}
+		} else {
+			int[] shots = Util.getShots(board, new int[21]);
+			for (int i = 0; i < 21; i++) {
+				setPinsAt(i, shots[i]);
+			}
+		}
+	}
+
+	/**
+	 * Instantiates the ScoreBoard object from the packed shots, as given by
+	 * {@link #getLowShots()} and {@link #getHighShots()}.
+	 * 
+	 * @param name
+	 *           the name of the player.
+	 * @param low
+	 *           the shots [0-15], 4 bits each.
+	 * @param high
+	 *           the shots [16-20], 4 bits each.
+	 * @throws OutOfRangeException
+	 *            if a shot is greater than 10.
+	 */
+	public PackedScoreBoard(String name, long low, long high) throws OutOfRangeException {
+		this(PlayerRegistry.getDefault(), name, low, high);
+	}
+
+	/**
+	 * Instantiates the ScoreBoard object from the packed shots, as given by
+	 * {@link #getLowShots()} and {@link #getHighShots()}, with the players of a
+	 * registry.
+	 * 
+	 * @param registry
+	 *           the registry of the players.
+	 * @param name
+	 *           the name of the player.
+	 * @param low
+	 *           the shots [0-15], 4 bits each.
+	 * @param high
+	 *           the shots [16-20], 4 bits each.
+	 * @throws OutOfRangeException
+	 *            if a shot is greater than 10.
+	 */
+	public PackedScoreBoard(PlayerRegistry registry, String name, long low, long high)
+			throws OutOfRangeException {
+		super(registry);
+		if (high >>> 20 != 0) {
+			throw new OutOfRangeException("The packed shots exceed the 21 shots of a game.");
+		}
+		setPlayerName(name);
+		this.low = low;
+		this.high = high;
+		for (int i = 0; i < 21; i++) {
+			if (getPinsAt(i) > 10) {
+				throw new OutOfRangeException(getPinsAt(i) + " is not a valid value for the shot " + i
+						+ ". It must be in the range [1-10]");
+			}
+		}
+	}
+
+	/**
+	 * Gets the shots [0-15], packed in 4 bits each.
+	 * 
+	 * @return the packed shots.
+	 */
+	public long getLowShots() {
+		return low;
+	}
+
+	/**
+	 * Gets the shots [16-20], packed in 4 bits each.
+	 * 
+	 * @return the packed shots.
+	 */
+	public long getHighShots() {
+		return high;
+	}
+
+	/**
+	 * Converts this scoreboard to a {@link ScoreBoardImpl}, with the same player
+	 * and shots.
+	 * 
+	 * @return a new {@link ScoreBoardImpl}.
+	 */
+	public ScoreBoardImpl toScoreBoardImpl() {
+		ScoreBoardImpl board = new ScoreBoardImpl(getPlayerRegistry());
+		board.setPlayerId(getPlayerId());
+		for (int i = 0; i < 21; i++) {
+			board.setPinsAt(i, getPinsAt(i));
+		}
+		return board;
+	}
+
+	@Override
+	protected void clearShots() {
+		low = 0;
+		high = 0;
+	}
+
+	@Override
+	protected int getPinsAt(int index) {
+		if (index < 16) {
+			return (int) (low >>> (index << 2)) & 0xF;
+		}
+		return (int) (high >>> ((index - 16) << 2)) & 0xF;
+	}
+
+	@Override
+	protected void setPinsAt(int index, int pins) {
+		if (index < 16) {
+			int shift = index << 2;
+			low = (low & ~(0xFL << shift)) | ((long) pins << shift);
+		} else {
+			int shift = (index - 16) << 2;
+			high = (high & ~(0xFL << shift)) | ((long) pins << shift);
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,197 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * This class interns the names of the players: each name is stored once, and
+ * gets a compact <code>int</code> id [0-size), in order of registration. A
+ * scoreboard belongs to a registry, given when it is created, and keeps the
+ * id of its player in it, so the stores, the indexes and the aggregations can
+ * key on the ids of a registry.
+ * </p>
+ * <p>
+ * The names are never removed, because the scoreboards may still refer to
+ * them: a registry lives as long as its scoreboards, and its memory is
+ * reclaimed with them. So a long-running service should not register the
+ * players of every game in the same registry: a <code>Lane</code>, for
+ * instance, has a registry of its own. The {@link #getDefault() default
+ * registry}, used by the scoreboards created without one, lives as long as the
+ * JVM and grows with every new name.
+ * </p>
+ * <p>
+ * The lookups, in either direction, do not lock and can run while new names
+ * are registered; the registration of a new name is serialized, so that the
+ * ids have no gaps.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class PlayerRegistry {
+
+	/**
+	 * The id of no player: the id of a scoreboard without a name.
+	 */
+	public static final int NO_PLAYER = -1;
+
+	private static final PlayerRegistry DEFAULT = new PlayerRegistry();
+
+	// the names are stored in chunks, so that they are never copied
+	private static final int CHUNK_SHIFT = 10;
+	private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+	private final ConcurrentMap<String, Player> ids = new ConcurrentHashMap<>();
+	// the chunks of the players, replaced when they are full and written under
+	// the lock of this; a player is written before the size that publishes it
+	private volatile Player[][] players = new Player[16][];
+	// the number of players, which publishes them
+	private volatile int size;
+	private final Player none = new Player(this, NO_PLAYER, null);
+
+	/**
+	 * Instantiates an empty registry.
+	 */
+	public PlayerRegistry() {
+	}
+
+	/**
+	 * Gets the registry of the scoreboards created without one.
+	 * 
+	 * @return the default registry.
+	 */
+	public static PlayerRegistry getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Gets the id of a name, registering it if it is new.
+	 * 
+	 * @param name
+	 *           the name of the player.
+	 * @return the id of the player, or {@link #NO_PLAYER} if the name is
+	 *         <code>null</code>.
+	 */
+	public int register(String name) {
+		return intern(name).id;
+	}
+
+	/**
+	 * Gets the id of a name, without registering it.
+	 * 
+	 * @param name
+	 *           the name of the player.
+	 * @return the id of the player, or {@link #NO_PLAYER} if the name is not
+	 *         registered.
+	 */
+	public int getId(String name) {
+		Player player = name == null ? null : ids.get(name);
+		return player == null ? NO_PLAYER : player.id;
+	}
+
+	/**
+	 * Gets the name of a player.
+	 * 
+	 * @param id
+	 *           the id of the player.
+	 * @return the name, or <code>null</code> for {@link #NO_PLAYER}.
+	 * @throws IllegalArgumentException
+	 *            if no player has the id.
+	 */
+	public String getName(int id) {
+		return player(id).name;
+	}
+
+	/**
+	 * Gets the number of players.
+	 * 
+	 * @return the number of players, which is greater than all the ids.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/*
+	 * Gets the player of a name, registering it if it is new.
+	 */
+	Player intern(String name) {
+		if (name == null) {
+			return none;
+		}
+		Player player = ids.get(name);
+		return player != null ? player : add(name);
+	}
+
+	/*
+	 * Gets the player of an id, throwing an IllegalArgumentException if no
+	 * player has it.
+	 */
+	Player player(int id) {
+		if (id == NO_PLAYER) {
+			return none;
+		}
+		// the size is read first, to see the players it publishes
+		if (id < 0 || id >= size) {
+			throw new IllegalArgumentException(id + " is not the id of a player");
+		}
+		return players[id >>> CHUNK_SHIFT][id & CHUNK_SIZE - 1];
+	}
+
+	private synchronized Player add(String name) {
+		Player existing = ids.get(name);
+		if (existing != null) {
+			return existing;
+		}
+		int id = size;
+		int chunk = id >>> CHUNK_SHIFT;
+		Player[][] chunks = players;
+		if (chunk == chunks.length) {
+			chunks = new Player[chunk * 2][];
+			System.arraycopy(players, 0, chunks, 0, chunk);
+			players = chunks;
+		}
+		if (chunks[chunk] == null) {
+			chunks[chunk] = new Player[CHUNK_SIZE];
+		}
+		Player player = new Player(this, id, name);
+		chunks[chunk][id & CHUNK_SIZE - 1] = player;
+		size = id + 1;
+		ids.put(name, player);
+		return player;
+	}
+
+	/*
+	 * A registered player, or no player: the scoreboards refer to it, so they
+	 * know their registry and read the name without a lookup.
+	 */
+	static final class Player {
+
+		final PlayerRegistry registry;
+		final int id;
+		final String name;
+
+		private Player(PlayerRegistry registry, int id, String name) {
+			this.registry = registry;
+			this.id = id;
+			this.name = name;
+		}
+
+	}
+
+}
\ No newline at end of file
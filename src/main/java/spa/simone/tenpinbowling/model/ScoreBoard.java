@@ -24,10 +24,48 @@ package spa.simone.tenpinbowling.model;
  */
 public interface ScoreBoard {
 	
+	/**
+	 * Gets the registry of the player ids of this scoreboard.
+	 * 
+	 * @return the registry.
+	 */
+	public PlayerRegistry getPlayerRegistry();
+
+	/**
+	 * Gets the name of the player, resolved through the registry of the
+	 * scoreboard.
+	 * 
+	 * @return the name, or <code>null</code> if the player has no name.
+	 */
 	public String getPlayerName();
 	
+	/**
+	 * Sets the name of the player, registering it in the registry of the
+	 * scoreboard.
+	 * 
+	 * @param name
+	 *           the name, or <code>null</code>.
+	 */
 	public void setPlayerName(String name);
 
+	/**
+	 * Gets the id of the player in the registry of the scoreboard.
+	 * 
+	 * @return the id, or {@link PlayerRegistry#NO_PLAYER} if the player has no
+	 *         name.
+	 */
+	public int getPlayerId();
+
+	/**
+	 * Sets the id of the player in the registry of the scoreboard.
+	 * 
+	 * @param id
+	 *           the id, or {@link PlayerRegistry#NO_PLAYER}.
+	 * @throws IllegalArgumentException
+	 *            if no player has the id.
+	 */
+	public void setPlayerId(int id);
+
 	/**
 	 * Calculates the final score.
 	 */
@@ -60,6 +98,32 @@ public interface ScoreBoard {
 	 */
 	public int[] getShotsOf(int frame) throws OutOfRangeException;
 
+	/**
+	 * Gets the number of pins knocked down in the frame, filling the given
+	 * buffer instead of allocating a new array.
+	 * 
+	 * @param frame
+	 *           the number of the frame.
+	 * @param buffer
+	 *           an array of (at least) two elements that receives the number of
+	 *           pins per shot.
+	 * @return the given buffer.
+	 * @throws OutOfRangeException
+	 */
+	public int[] getShotsOf(int frame, int[] buffer) throws OutOfRangeException;
+
+	/**
+	 * Gets the number of pins knocked down in a single shot of the frame.
+	 * 
+	 * @param frame
+	 *           the number of the frame.
+	 * @param shot
+	 *           the number of the shot.
+	 * @return the number of pins knocked down.
+	 * @throws OutOfRangeException
+	 */
+	public int getShot(int frame, int shot) throws OutOfRangeException;
+
 	/**
 	 * Gets the total number of spares.
 	 * 
@@ -181,4 +245,26 @@ public interface ScoreBoard {
 	 */
 	public void setPins(int frame, int shot, int pins) throws ScoreBoardException;
 
+	/**
+	 * Assigns the number of pins knocked down, if they are valid. Unlike
+	 * {@link #setPins(int, int, int)}, an invalid input is reported by the
+	 * returned value instead of an exception.
+	 * 
+	 * @param frame
+	 *           the number of the frame.
+	 * @param shot
+	 *           the number of the shot.
+	 * @param pins
+	 *           the number of pins knocked down.
+	 * @return {@link ValidationResult#VALID} if the pins have been assigned, the
+	 *         reason why they have not otherwise.
+	 */
+	public ValidationResult trySetPins(int frame, int shot, int pins);
+
+	/**
+	 * Clears the player name, the shots and the scores, so that the scoreboard
+	 * can be reused for a new game.
+	 */
+	public void reset();
+
 }
\ No newline at end of file
@@ -37,4 +37,17 @@ public class ScoreBoardException extends Exception {
 		super(message);
 	}
 
+	/**
+	 * Constructs the exception, passing an error message that will be shown in
+	 * the stack trace, and the exception that caused it.
+	 * 
+	 * @param message
+	 *           the error message.
+	 * @param cause
+	 *           the cause.
+	 */
+	public ScoreBoardException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
 }
@@ -0,0 +1,93 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+/**
+ * This API creates empty scoreboards, e.g. for a {@link ScoreBoardPool}.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public interface ScoreBoardFactory {
+
+	/**
+	 * The factory of {@link ScoreBoardImpl}.
+	 */
+	public static final ScoreBoardFactory IMPL = new ScoreBoardFactory() {
+
+		@Override
+		public ScoreBoard create() {
+			return new ScoreBoardImpl();
+		}
+
+	};
+
+	/**
+	 * The factory of {@link PackedScoreBoard}.
+	 */
+	public static final ScoreBoardFactory PACKED = new ScoreBoardFactory() {
+
+		@Override
+		public ScoreBoard create() {
+			return new PackedScoreBoard();
+		}
+
+	};
+
+	/**
+	 * The factory of {@link TableScoreBoard}.
+	 */
+	public static final ScoreBoardFactory TABLE = new ScoreBoardFactory() {
+
+		@Override
+		public ScoreBoard create() {
+			return new TableScoreBoard();
+		}
+
+	};
+
+	/**
+	 * The factory of {@link ConcurrentScoreBoard}.
+	 */
+	public static final ScoreBoardFactory CONCURRENT = new ScoreBoardFactory() {
+
+		@Override
+		public ScoreBoard create() {
+			return new ConcurrentScoreBoard();
+		}
+
+	};
+
+	/**
+	 * The factory of {@link VersionedScoreBoard}.
+	 */
+	public static final ScoreBoardFactory VERSIONED = new ScoreBoardFactory() {
+
+		@Override
+		public ScoreBoard create() {
+			return new VersionedScoreBoard();
+		}
+
+	};
+
+	/**
+	 * Creates an empty scoreboard.
+	 * 
+	 * @return the scoreboard.
+	 */
+	public ScoreBoard create();
+
+}
\ No newline at end of file
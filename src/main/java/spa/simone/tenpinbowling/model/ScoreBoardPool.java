@@ -0,0 +1,226 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * This class is a bounded, thread-safe pool of scoreboards, so that the games
+ * of a busy centre can reuse the scoreboards of the finished ones instead of
+ * allocating new ones.
+ * </p>
+ * <p>
+ * {@link #acquire()} takes an idle scoreboard, or creates one if there is
+ * none, so it never blocks. {@link #release(ScoreBoard)} resets the
+ * scoreboard and keeps it, unless the pool is full, in which case it is left
+ * to the garbage collector. A scoreboard must not be used after it has been
+ * released.
+ * </p>
+ * <p>
+ * In debug mode (see {@link #DEBUG_PROPERTY}) the pool tracks the acquired
+ * scoreboards: releasing a scoreboard twice, or one that does not come from
+ * the pool, throws an {@link IllegalStateException}, and a scoreboard that is
+ * garbage collected without being released is reported as a leak, along with
+ * the stack trace of its acquisition. The tracking costs an allocation and a
+ * stack trace per acquisition.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class ScoreBoardPool {
+
+	/**
+	 * The name of the system property that enables the debug mode by default.
+	 */
+	public static final String DEBUG_PROPERTY = "spa.simone.tenpinbowling.pool.debug";
+
+	private final ScoreBoardFactory factory;
+	private final BlockingQueue<ScoreBoard> idle;
+	private final AtomicLong created = new AtomicLong();
+	// the debug mode
+	private final Map<ScoreBoard, Lease> leased;
+	private final Set<Lease> leases;
+	private final ReferenceQueue<ScoreBoard> collected;
+	private final AtomicLong leaks = new AtomicLong();
+
+	/**
+	 * Instantiates the pool, in debug mode if the system property
+	 * {@link #DEBUG_PROPERTY} is true.
+	 * 
+	 * @param factory
+	 *           the factory of the scoreboards.
+	 * @param capacity
+	 *           the maximum number of idle scoreboards.
+	 */
+	public ScoreBoardPool(ScoreBoardFactory factory, int capacity) {
+		this(factory, capacity, Boolean.getBoolean(DEBUG_PROPERTY));
+	}
+
+	/**
+	 * Instantiates the pool.
+	 * 
+	 * @param factory
+	 *           the factory of the scoreboards.
+	 * @param capacity
+	 *           the maximum number of idle scoreboards.
+	 * @param debug
+	 *           true to detect the leaks.
+	 */
+	public ScoreBoardPool(ScoreBoardFactory factory, int capacity, boolean debug) {
+		this.factory = factory;
+		this.idle = new ArrayBlockingQueue<>(capacity);
+		if (debug) {
+			leased = Collections.synchronizedMap(new WeakHashMap<ScoreBoard, Lease>());
+			leases = Collections.newSetFromMap(new ConcurrentHashMap<Lease, Boolean>());
+			collected = new ReferenceQueue<>();
+		} else {
+			leased = null;
+			leases = null;
+			collected = null;
+		}
+	}
+
+	/**
+	 * Takes an empty scoreboard from the pool, or creates a new one.
+	 * 
+	 * @return the scoreboard.
+	 */
+	public ScoreBoard acquire() {
+		ScoreBoard board = idle.poll();
+		if (board == null) {
+			board = factory.create();
+			created.incrementAndGet();
+		}
+		if (leased != null) {
+			reportLeaks();
+			Lease lease = new Lease(board, collected);
+			leases.add(lease);
+			leased.put(board, lease);
+		}
+		return board;
+	}
+
+	/**
+	 * Resets the scoreboard and gives it back to the pool.
+	 * 
+	 * @param board
+	 *           the scoreboard, acquired from this pool.
+	 */
+	public void release(ScoreBoard board) {
+		if (leased != null) {
+			Lease lease = leased.remove(board);
+			if (lease == null) {
+				throw new IllegalStateException(
+						"The scoreboard has already been released, or does not come from the pool");
+			}
+			leases.remove(lease);
+			lease.clear();
+			reportLeaks();
+		}
+		board.reset();
+		idle.offer(board);
+	}
+
+	/**
+	 * Gets the number of idle scoreboards.
+	 * 
+	 * @return the number of scoreboards ready to be acquired.
+	 */
+	public int getIdle() {
+		return idle.size();
+	}
+
+	/**
+	 * Gets the number of scoreboards created by the pool.
+	 * 
+	 * @return the number of scoreboards created since the pool was instantiated.
+	 */
+	public long getCreated() {
+		return created.get();
+	}
+
+	/**
+	 * Gets the number of scoreboards acquired and not released yet. Only
+	 * available in debug mode.
+	 * 
+	 * @return the number of scoreboards in use, -1 if not in debug mode.
+	 */
+	public int getLeased() {
+		return leases == null ? -1 : leases.size();
+	}
+
+	/**
+	 * Gets the number of leaks reported so far. Only available in debug mode.
+	 * 
+	 * @return the number of scoreboards garbage collected without being
+	 *         released.
+	 */
+	public long getLeaks() {
+		if (collected != null) {
+			reportLeaks();
+		}
+		return leaks.get();
+	}
+
+	/**
+	 * Reports a scoreboard garbage collected without being released. The
+	 * default implementation prints the stack trace of the acquisition on the
+	 * standard error.
+	 * 
+	 * @param acquisition
+	 *           where the scoreboard was acquired.
+	 */
+	protected void leakDetected(Throwable acquisition) {
+		acquisition.printStackTrace();
+	}
+
+	private void reportLeaks() {
+		for (Object reference; (reference = collected.poll()) != null;) {
+			Lease lease = (Lease) reference;
+			if (leases.remove(lease)) {
+				leaks.incrementAndGet();
+				leakDetected(lease.acquisition);
+			}
+		}
+	}
+
+	/*
+	 * The tracking of an acquired scoreboard, enqueued when the scoreboard is
+	 * garbage collected.
+	 */
+	private static class Lease extends WeakReference<ScoreBoard> {
+
+		private final Throwable acquisition;
+
+		Lease(ScoreBoard board, ReferenceQueue<ScoreBoard> queue) {
+			super(board, queue);
+			acquisition = new Throwable("A scoreboard was not released to the pool. It was acquired");
+		}
+
+	}
+
+}
\ No newline at end of file
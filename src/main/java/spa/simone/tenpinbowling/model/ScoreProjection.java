@@ -0,0 +1,67 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+/**
+ * The scores a game can still reach, given by
+ * {@link ScoreProjector#project(ScoreBoard, int, int)}.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class ScoreProjection {
+
+	private final int score;
+	private final int state;
+
+	ScoreProjection(int score, int state) {
+		this.score = score;
+		this.state = state;
+	}
+
+	/**
+	 * Gets the minimum final score, which is the current score: the following
+	 * balls can only add to it.
+	 * 
+	 * @return the minimum attainable score.
+	 */
+	public int getMinScore() {
+		return score;
+	}
+
+	/**
+	 * Gets the maximum final score, if all the following balls are strikes.
+	 * 
+	 * @return the maximum attainable score.
+	 */
+	public int getMaxScore() {
+		return score + ScoreProjector.maxGain(state);
+	}
+
+	/**
+	 * Gets the minimum number of pins the player must still knock down to reach
+	 * the score, counting each pin once (not its bonuses).
+	 * 
+	 * @param target
+	 *           the final score to reach, e.g. the score of the leader plus one.
+	 * @return the number of pins, 0 if the score is already reached, -1 if it
+	 *         cannot be reached.
+	 */
+	public int getPinsToReach(int target) {
+		return ScoreProjector.pinsToGain(state, target - score);
+	}
+
+}
\ No newline at end of file
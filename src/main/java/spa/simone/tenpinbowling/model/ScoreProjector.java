@@ -0,0 +1,151 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+/**
+ * <p>
+ * This class projects the final score of a game in progress: the maximum and
+ * minimum attainable scores, and the pins needed to reach a given score.
+ * </p>
+ * <p>
+ * A ball adds its pins to the score of its frame, and once more for each
+ * strike or spare still waiting for it as a bonus, so the points still to be
+ * made only depend on the next ball, the first shot of its frame and the
+ * bonuses pending on the next two balls (see {@link BallStates}). The best
+ * gain and the fewest pins for every gain are precomputed for each of these
+ * states, from the states that follow it, so a projection only scores the
+ * board once and reads the tables.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public final class ScoreProjector {
+
+	// the points a game can still make
+	private static final int MAX_GAIN = 300;
+	private static final short UNREACHABLE = Short.MAX_VALUE;
+	private static final int OVER = BallStates.OVER;
+	// the best gain, by state
+	private static final short[] MAX = new short[OVER + 1];
+	// the fewest pins to gain at least g points, at state * (MAX_GAIN + 1) + g
+	private static final short[] PINS = new short[(OVER + 1) * (MAX_GAIN + 1)];
+
+	static {
+		for (int g = 1; g <= MAX_GAIN; g++) {
+			PINS[OVER * (MAX_GAIN + 1) + g] = UNREACHABLE;
+		}
+		// the following states are greater
+		for (int state = BallStates.COUNT - 1; state >= 0; state--) {
+			fill(state);
+		}
+	}
+
+	private ScoreProjector() {
+	}
+
+	/**
+	 * Projects the final score of a game.
+	 * 
+	 * @param board
+	 *           the scoreboard, which must not change during the call.
+	 * @param frame
+	 *           the frame of the next ball, 11 if the game is over.
+	 * @param shot
+	 *           the shot of the next ball.
+	 * @return the projection.
+	 * @throws OutOfRangeException
+	 *            if the next ball cannot follow the balls on the board.
+	 */
+	public static ScoreProjection project(ScoreBoard board, int frame, int shot)
+			throws OutOfRangeException {
+		board.computeFinalScore();
+		int score = board.getFinalScore();
+		if (frame == 11) {
+			return new ScoreProjection(score, OVER);
+		}
+		Validator.checkFrame(frame);
+		Validator.checkShot(frame, shot);
+		boolean previousStrike = frame > 1 && board.isStrike(frame - 1);
+		int first = board.getShot(frame, 1);
+		if (shot == 1) {
+			// the strike of the frame before waits for this ball and the next
+			// one, and a strike two frames before for this ball
+			int now = frame > 1 && (previousStrike || board.isSpare(frame - 1)) ? 1 : 0;
+			if (previousStrike && frame > 2 && board.isStrike(frame - 2)) {
+				now++;
+			}
+			return new ScoreProjection(score, BallStates.of(frame, 1, 0, now, previousStrike ? 1
+					: 0));
+		}
+		if (shot == 2) {
+			if (frame < 10 && first == 10) {
+				throw new OutOfRangeException("The frame " + frame
+						+ " is over: the player got a strike.");
+			}
+			int now = previousStrike ? 1 : 0;
+			return new ScoreProjection(score, BallStates.of(frame, 2, first, now, 0));
+		}
+		if (first != 10 && first + board.getShot(10, 2) != 10) {
+			throw new OutOfRangeException(
+					"The game is over: a third shot is given only after a strike or a spare.");
+		}
+		return new ScoreProjection(score, BallStates.of(10, 3, 0, 0, 0));
+	}
+
+	static int maxGain(int state) {
+		return MAX[state];
+	}
+
+	static int pinsToGain(int state, int gain) {
+		if (gain <= 0) {
+			return 0;
+		}
+		if (gain > MAX_GAIN) {
+			return -1;
+		}
+		int pins = PINS[state * (MAX_GAIN + 1) + gain];
+		return pins == UNREACHABLE ? -1 : pins;
+	}
+
+	/*
+	 * Fills the tables of a state, from the ones of the states that follow it.
+	 */
+	private static void fill(int state) {
+		int base = state * (MAX_GAIN + 1);
+		int best = 0;
+		for (int g = 1; g <= MAX_GAIN; g++) {
+			PINS[base + g] = UNREACHABLE;
+		}
+		for (int pins = 0; pins <= 10; pins++) {
+			int following = BallStates.next(state, pins);
+			if (following < 0) {
+				continue;
+			}
+			int gain = BallStates.gain(state, pins);
+			best = Math.max(best, gain + MAX[following]);
+			int followingBase = following * (MAX_GAIN + 1);
+			for (int g = 1; g <= MAX_GAIN; g++) {
+				int rest = PINS[followingBase + Math.max(0, g - gain)];
+				if (rest != UNREACHABLE && pins + rest < PINS[base + g]) {
+					PINS[base + g] = (short) (pins + rest);
+				}
+			}
+		}
+		MAX[state] = (short) best;
+	}
+
+}
\ No newline at end of file
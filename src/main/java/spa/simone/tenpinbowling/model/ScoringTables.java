@@ -0,0 +1,217 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+/**
+ * <p>
+ * This class holds the precomputed tables used by {@link TableScoreBoard}.
+ * </p>
+ * <p>
+ * The score of a non-final frame depends only on its two shots and on the
+ * next two balls, so it is stored in a table indexed by the four values
+ * packed in 4 bits each (see {@link #frameKey(int, int, int, int, int)}). In
+ * the same way, the strikes and the spares of the last frame are indexed by
+ * its three shots, and the validity of a ball by the kind of frame, the shot,
+ * the pins already knocked down in the frame and the new pins.
+ * </p>
+ * <p>
+ * The validity table is filled by running {@link Validator} on every key, so
+ * the two always agree.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+final class ScoringTables {
+
+	// the score of a non-final frame, by frame key
+	private static final byte[] SCORE = new byte[1 << 16];
+	// 1 for a strike, by first shot
+	private static final byte[] STRIKE = new byte[16];
+	// 1 for a spare, by first shot << 4 | second shot
+	private static final byte[] SPARE = new byte[1 << 8];
+	// -1 if the value is 10, 0 otherwise
+	private static final int[] TEN = new int[16];
+	// the strikes and the spares of the last frame, by its three shots
+	private static final byte[] LAST_STRIKES = new byte[1 << 12];
+	private static final byte[] LAST_SPARES = new byte[1 << 12];
+	// 1 if the ball is valid, by validity key
+	private static final byte[] VALID = new byte[1 << 15];
+
+	static {
+		for (int a = 0; a < 16; a++) {
+			STRIKE[a] = (byte) (a == 10 ? 1 : 0);
+			TEN[a] = a == 10 ? -1 : 0;
+			for (int b = 0; b < 16; b++) {
+				SPARE[a << 4 | b] = (byte) (a != 10 && a + b == 10 ? 1 : 0);
+				for (int c = 0; c < 16; c++) {
+					for (int x = 0; x < 16; x++) {
+						int score;
+						if (a == 10) {
+							score = 10 + c + x;
+						} else if (a + b == 10) {
+							score = 10 + c;
+						} else {
+							score = a + b;
+						}
+						SCORE[a << 12 | b << 8 | c << 4 | x] = (byte) score;
+					}
+					int strikes = 0;
+					int spares = 0;
+					if (a == 10) {
+						strikes++;
+						if (b == 10) {
+							strikes++;
+							if (c == 10) {
+								strikes++;
+							}
+						} else if (b + c == 10) {
+							spares++;
+						}
+					} else if (a + b == 10) {
+						spares++;
+						if (c == 10) {
+							strikes++;
+						}
+					}
+					LAST_STRIKES[a << 8 | b << 4 | c] = (byte) strikes;
+					LAST_SPARES[a << 8 | b << 4 | c] = (byte) spares;
+				}
+			}
+		}
+		for (int key = 0; key < VALID.length; key++) {
+			int frame = (key >>> 14) == 1 ? 10 : 1;
+			int shot = ((key >>> 12) & 3) + 1;
+			try {
+				Validator.checkPins(frame, shot, key & 0xF, (key >>> 8) & 0xF, (key >>> 4) & 0xF);
+				VALID[key] = 1;
+			} catch (ScoreBoardException e) {
+				VALID[key] = 0;
+			}
+		}
+	}
+
+	private ScoringTables() {
+	}
+
+	/**
+	 * Packs the shots of a non-final frame and the following ones in a key.
+	 * 
+	 * @param a
+	 *           the first shot of the frame.
+	 * @param b
+	 *           the second shot of the frame.
+	 * @param c
+	 *           the first shot of the next frame.
+	 * @param d
+	 *           the second shot of the next frame.
+	 * @param e
+	 *           the first shot of the frame after the next one (the second
+	 *           shot of the next frame for the ninth frame).
+	 * @return the key.
+	 */
+	static int frameKey(int a, int b, int c, int d, int e) {
+		// the second ball after a strike is e if c is a strike, d otherwise
+		return a << 12 | b << 8 | c << 4 | (d ^ ((d ^ e) & TEN[c]));
+	}
+
+	/**
+	 * Gets the score of a non-final frame.
+	 * 
+	 * @param frameKey
+	 *           the key given by {@link #frameKey(int, int, int, int, int)}.
+	 * @return the score.
+	 */
+	static int score(int frameKey) {
+		return SCORE[frameKey];
+	}
+
+	/**
+	 * Gets 1 for a strike, 0 otherwise.
+	 * 
+	 * @param first
+	 *           the first shot of the frame.
+	 * @return 1 for a strike.
+	 */
+	static int strikeOf(int first) {
+		return STRIKE[first];
+	}
+
+	/**
+	 * Gets 1 for a spare, 0 otherwise.
+	 * 
+	 * @param first
+	 *           the first shot of the frame.
+	 * @param second
+	 *           the second shot of the frame.
+	 * @return 1 for a spare.
+	 */
+	static int spareOf(int first, int second) {
+		return SPARE[first << 4 | second];
+	}
+
+	/**
+	 * Gets the strikes of the last frame.
+	 * 
+	 * @param first
+	 *           the first shot.
+	 * @param second
+	 *           the second shot.
+	 * @param third
+	 *           the third shot.
+	 * @return the number of strikes [0-3].
+	 */
+	static int lastStrikes(int first, int second, int third) {
+		return LAST_STRIKES[first << 8 | second << 4 | third];
+	}
+
+	/**
+	 * Gets the spares of the last frame.
+	 * 
+	 * @param first
+	 *           the first shot.
+	 * @param second
+	 *           the second shot.
+	 * @param third
+	 *           the third shot.
+	 * @return the number of spares [0-1].
+	 */
+	static int lastSpares(int first, int second, int third) {
+		return LAST_SPARES[first << 8 | second << 4 | third];
+	}
+
+	/**
+	 * Says if the ball passes {@link Validator#checkPins(int, int, int, int, int)}.
+	 * The frame and the shot must have already been validated.
+	 * 
+	 * @param frame
+	 *           the number of the frame [1-10].
+	 * @param shot
+	 *           the number of the shot [1-3].
+	 * @param pins
+	 *           the number of pins knocked down.
+	 * @param first
+	 *           the first shot of the frame.
+	 * @param second
+	 *           the second shot of the frame.
+	 * @return true if the ball is valid.
+	 */
+	static boolean isValid(int frame, int shot, int pins, int first, int second) {
+		return (pins & ~0xF) == 0
+				&& VALID[(frame / 10) << 14 | (shot - 1) << 12 | first << 8 | second << 4 | pins] != 0;
+	}
+
+}
\ No newline at end of file
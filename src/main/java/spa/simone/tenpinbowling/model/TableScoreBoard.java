@@ -0,0 +1,164 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import static spa.simone.tenpinbowling.model.ScoringTables.frameKey;
+import static spa.simone.tenpinbowling.model.ScoringTables.isValid;
+import static spa.simone.tenpinbowling.model.ScoringTables.lastSpares;
+import static spa.simone.tenpinbowling.model.ScoringTables.lastStrikes;
+import static spa.simone.tenpinbowling.model.ScoringTables.score;
+import static spa.simone.tenpinbowling.model.ScoringTables.spareOf;
+import static spa.simone.tenpinbowling.model.ScoringTables.strikeOf;
+import static spa.simone.tenpinbowling.model.Util.getIndex;
+import static spa.simone.tenpinbowling.model.Validator.checkFrame;
+import static spa.simone.tenpinbowling.model.Validator.checkPins;
+import static spa.simone.tenpinbowling.model.Validator.checkShot;
+
+import java.util.Arrays;
+
+import spa.simone.tenpinbowling.metrics.Metrics;
+
+/**
+ * <p>
+ * This class is a table-driven implementation of {@link ScoreBoard} interface.
+ * </p>
+ * <p>
+ * The frame scores, the strikes, the spares and the validity of a ball are
+ * looked up in precomputed tables instead of being worked out with the
+ * scoring rules, so the scoring methods have no data-dependent branches. The
+ * rules (and the error messages of an invalid ball) are the same of
+ * {@link ScoreBoardImpl}.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class TableScoreBoard extends AbstractScoreBoard {
+
+	private final byte[] shots = new byte[21];
+
+	/**
+	 * Instantiates the ScoreBoard object.
+	 */
+	public TableScoreBoard() {
+	}
+
+	/**
+	 * Instantiates the ScoreBoard object, with the players of a registry.
+	 * 
+	 * @param registry
+	 *           the registry of the players.
+	 */
+	public TableScoreBoard(PlayerRegistry registry) {
+		super(registry);
+	}
+
+	@Override
+	public int getFinalScore() {
+		Metrics.get().recordScoreComputation();
+		byte[] s = shots;
+		int totalScore = 0;
+		for (int i = 0; i < 16; i += 2) {
+			totalScore += score(frameKey(s[i], s[i + 1], s[i + 2], s[i + 3], s[i + 4]));
+		}
+		// the ninth frame takes its bonus from the last frame only
+		totalScore += score(frameKey(s[16], s[17], s[18], s[19], s[19]));
+		return totalScore + s[18] + s[19] + s[20];
+	}
+
+	@Override
+	public int getStrikes() {
+		byte[] s = shots;
+		int strikes = 0;
+		for (int i = 0; i < 18; i += 2) {
+			strikes += strikeOf(s[i]);
+		}
+		return strikes + lastStrikes(s[18], s[19], s[20]);
+	}
+
+	@Override
+	public int getSpares() {
+		byte[] s = shots;
+		int spares = 0;
+		for (int i = 0; i < 18; i += 2) {
+			spares += spareOf(s[i], s[i + 1]);
+		}
+		return spares + lastSpares(s[18], s[19], s[20]);
+	}
+
+	@Override
+	protected void storePins(int frame, int shot, int pins) throws ScoreBoardException {
+		checkFrame(frame);
+		checkShot(frame, shot);
+		int index = getIndex(frame - 1, 0);
+		int first = shots[index];
+		int second = shots[index + 1];
+		if (!isValid(frame, shot, pins, first, second)) {
+			// throws the exception that describes the error
+			checkPins(frame, shot, pins, first, second);
+		}
+		shots[index + shot - 1] = (byte) pins;
+	}
+
+	@Override
+	protected ValidationResult validate(int frame, int shot, int pins) {
+		if (frame >= 1 && frame <= 10 && shot >= 1 && shot <= 3) {
+			int index = getIndex(frame - 1, 0);
+			if ((shot != 3 || frame == 10)
+					&& isValid(frame, shot, pins, shots[index], shots[index + 1])) {
+				return ValidationResult.VALID;
+			}
+		}
+		return super.validate(frame, shot, pins);
+	}
+
+	@Override
+	protected void clearShots() {
+		Arrays.fill(shots, (byte) 0);
+	}
+
+	@Override
+	protected int getPinsAt(int index) {
+		return shots[index];
+	}
+
+	@Override
+	protected void setPinsAt(int index, int pins) {
+		shots[index] = (byte) pins;
+	}
+
+	@Override
+	protected int scoreOf(int frame) {
+		byte[] s = shots;
+		int i = getIndex(frame - 1, 0);
+		if (frame == 10) {
+			return s[18] + s[19] + s[20];
+		}
+		return score(frameKey(s[i], s[i + 1], s[i + 2], s[i + 3], frame == 9 ? s[19] : s[i + 4]));
+	}
+
+	@Override
+	protected boolean strike(int frame) {
+		return strikeOf(shots[getIndex(frame - 1, 0)]) != 0;
+	}
+
+	@Override
+	protected boolean spare(int frame) {
+		int index = getIndex(frame - 1, 0);
+		return spareOf(shots[index], shots[index + 1]) != 0;
+	}
+
+}
\ No newline at end of file
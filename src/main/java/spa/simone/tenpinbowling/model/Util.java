@@ -36,4 +36,39 @@ public class Util {
 		return base * 2 + offset;
 	}
 
+	/**
+	 * Gets the pins knocked down by all the shots of a scoreboard, without
+	 * checking the frames and the shots. A {@link ConcurrentScoreBoard} is read
+	 * at once, so the shots are all of the same state.
+	 * 
+	 * @param board
+	 *           the scoreboard.
+	 * @param shots
+	 *           receives the pins of the 21 shots, in the order of
+	 *           {@link #getIndex(int, int)}.
+	 * @return the given array.
+	 */
+	public static int[] getShots(ScoreBoard board, int[] shots) {
+		if (board instanceof ConcurrentScoreBoard) {
+			board = ((ConcurrentScoreBoard) board).getState();
+		}
+		if (board instanceof AbstractScoreBoard) {
+			AbstractScoreBoard source = (AbstractScoreBoard) board;
+			for (int i = 0; i < 21; i++) {
+				shots[i] = source.getPinsAt(i);
+			}
+			return shots;
+		}
+		try {
+			for (int frame = 1; frame <= 10; frame++) {
+				shots[getIndex(frame - 1, 0)] = board.getShot(frame, 1);
+				shots[getIndex(frame - 1, 1)] = board.getShot(frame, 2);
+			}
+			shots[20] = board.getShot(10, 3);
+		} catch (OutOfRangeException e) {
+			throw new AssertionError("The frames and the shots of a game are out of range: " + e);
+		}
+		return shots;
+	}
+
 }
\ No newline at end of file
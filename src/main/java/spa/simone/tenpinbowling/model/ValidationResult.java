@@ -0,0 +1,87 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+/**
+ * <p>
+ * This enum is the outcome of the validation of a ball.
+ * </p>
+ * <p>
+ * It is returned by the <code>validate</code> methods of {@link Validator} and
+ * by {@link ScoreBoard#trySetPins(int, int, int)}, which report an invalid
+ * input without throwing (and so without creating) an exception. Each error
+ * corresponds to one of the exceptions thrown by the <code>check</code>
+ * methods.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public enum ValidationResult {
+
+	/**
+	 * The input is valid.
+	 */
+	VALID,
+
+	/**
+	 * The frame is not in the range [1-10] ({@link OutOfRangeException}).
+	 */
+	INVALID_FRAME,
+
+	/**
+	 * The shot is not in the range [1-3] ({@link OutOfRangeException}).
+	 */
+	INVALID_SHOT,
+
+	/**
+	 * The third shot of a non-final frame ({@link OutOfRangeException}).
+	 */
+	NO_THIRD_SHOT,
+
+	/**
+	 * The pins are not in the range [0-10] ({@link OutOfRangeException}).
+	 */
+	INVALID_PINS,
+
+	/**
+	 * The second shot of a non-final frame knocks down some pins after a strike
+	 * ({@link StrikeViolationException}).
+	 */
+	STRIKE_VIOLATION,
+
+	/**
+	 * The pins knocked down in the frame are more than 10
+	 * ({@link InvalidTotalSumException}).
+	 */
+	INVALID_TOTAL_SUM,
+
+	/**
+	 * The third shot of the last frame, without a strike or a spare
+	 * ({@link OutOfRangeException}).
+	 */
+	NO_BONUS_SHOT;
+
+	/**
+	 * Says whether the input is valid.
+	 * 
+	 * @return true for {@link #VALID}.
+	 */
+	public boolean isValid() {
+		return this == VALID;
+	}
+
+}
\ No newline at end of file
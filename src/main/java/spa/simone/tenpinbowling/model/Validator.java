@@ -17,6 +17,14 @@
 package spa.simone.tenpinbowling.model;
 
 import static spa.simone.tenpinbowling.model.Util.getIndex;
+import static spa.simone.tenpinbowling.model.ValidationResult.INVALID_FRAME;
+import static spa.simone.tenpinbowling.model.ValidationResult.INVALID_PINS;
+import static spa.simone.tenpinbowling.model.ValidationResult.INVALID_SHOT;
+import static spa.simone.tenpinbowling.model.ValidationResult.INVALID_TOTAL_SUM;
+import static spa.simone.tenpinbowling.model.ValidationResult.NO_BONUS_SHOT;
+import static spa.simone.tenpinbowling.model.ValidationResult.NO_THIRD_SHOT;
+import static spa.simone.tenpinbowling.model.ValidationResult.STRIKE_VIOLATION;
+import static spa.simone.tenpinbowling.model.ValidationResult.VALID;
 
 /**
  * <p>
@@ -24,6 +32,9 @@ import static spa.simone.tenpinbowling.model.Util.getIndex;
  * </p>
  * <p>
  * It checks the frame, the shot and the pins numbers inserted by the user.
+ * The <code>validate</code> methods return the outcome as a
+ * {@link ValidationResult}, while the <code>check</code> methods throw an
+ * exception with a description of the error.
  * </p>
  * 
  * @author Simone Spaccarotella {spa.simone@gmail.com}
@@ -38,7 +49,7 @@ public class Validator {
 	 * @throws OutOfRangeException
 	 */
 	public static void checkFrame(int frame) throws OutOfRangeException {
-		if (frame < 1 || frame > 10) {
+		if (validateFrame(frame) != VALID) {
 			throw new OutOfRangeException(frame
 					+ " is an invalid frame value. It must be in the range [1-10]");
 		}
@@ -54,15 +65,17 @@ public class Validator {
 	 * @throws OutOfRangeException
 	 */
 	public static void checkShot(int frame, int shot) throws OutOfRangeException {
-		if (shot < 1 || shot > 3) {
+		switch (validateShot(frame, shot)) {
+		case INVALID_SHOT:
 			throw new OutOfRangeException(
 					shot
 							+ " is an invalid shot value. It must be equals to 1 or 2 (to 3 if it is the last frame and the player gets a strike or a spare).");
-		}
-		if (frame >= 1 && frame <= 9 && shot == 3) {
+		case NO_THIRD_SHOT:
 			throw new OutOfRangeException(
 					shot
 							+ " is an invalid shot value for a non-final frame. Only the last one can have a third shot (if the player gets a strike or a spare).");
+		default:
+			break;
 		}
 	}
 
@@ -83,10 +96,118 @@ public class Validator {
 	 */
 	public static void checkPins(int frame, int shot, int pins, int[] shots)
 			throws OutOfRangeException, InvalidTotalSumException, StrikeViolationException {
-		// range validation
-		if (pins < 0 || pins > 10) {
+		int first = 0;
+		int second = 0;
+		if (frame >= 1 && frame <= 10) {
+			first = shots[getIndex(frame - 1, 0)];
+			second = shots[getIndex(frame - 1, 1)];
+		}
+		checkPins(frame, shot, pins, first, second);
+	}
+
+	/**
+	 * Checks that the number of pins is valid, given the pins already knocked
+	 * down in the frame.
+	 * 
+	 * @param frame
+	 *           the frame number.
+	 * @param shot
+	 *           the shot number.
+	 * @param pins
+	 *           the number of pins knocked down.
+	 * @param first
+	 *           the number of pins knocked down by the first shot of the frame.
+	 * @param second
+	 *           the number of pins knocked down by the second shot of the frame.
+	 * @throws OutOfRangeException
+	 * @throws InvalidTotalSumException
+	 * @throws StrikeViolationException
+	 */
+	public static void checkPins(int frame, int shot, int pins, int first, int second)
+			throws OutOfRangeException, InvalidTotalSumException, StrikeViolationException {
+		switch (validatePins(frame, shot, pins, first, second)) {
+		case INVALID_PINS:
 			throw new OutOfRangeException(pins
 					+ " is not a valid value. It must be in the range [1-10]");
+		case STRIKE_VIOLATION:
+			throw new StrikeViolationException(
+					pins
+							+ " is not a valid value for the second shot. The player got a strike in the same frame. Use zero instead.");
+		case INVALID_TOTAL_SUM:
+			throw new InvalidTotalSumException(pins
+					+ (frame == 10 ? " is not a valid value for this shot."
+							: " is not a valid value for the second shot.")
+					+ " The sum for this frame exceed 10. The maximum value that can be set is "
+					+ (10 - first));
+		case NO_BONUS_SHOT:
+			throw new OutOfRangeException(
+					"A third shot is given only if the player got a strike or a spare in the last frame.");
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Validates the frame number.
+	 * 
+	 * @param frame
+	 *           the frame number.
+	 * @return {@link ValidationResult#VALID} or
+	 *         {@link ValidationResult#INVALID_FRAME}.
+	 */
+	public static ValidationResult validateFrame(int frame) {
+		if (frame < 1 || frame > 10) {
+			return INVALID_FRAME;
+		}
+		return VALID;
+	}
+
+	/**
+	 * Validates the shot number.
+	 * 
+	 * @param frame
+	 *           the frame number.
+	 * @param shot
+	 *           the shot number.
+	 * @return {@link ValidationResult#VALID},
+	 *         {@link ValidationResult#INVALID_SHOT} or
+	 *         {@link ValidationResult#NO_THIRD_SHOT}.
+	 */
+	public static ValidationResult validateShot(int frame, int shot) {
+		if (shot < 1 || shot > 3) {
+			return INVALID_SHOT;
+		}
+		if (frame >= 1 && frame <= 9 && shot == 3) {
+			return NO_THIRD_SHOT;
+		}
+		return VALID;
+	}
+
+	/**
+	 * Validates the number of pins, given the pins already knocked down in the
+	 * frame.
+	 * 
+	 * @param frame
+	 *           the frame number.
+	 * @param shot
+	 *           the shot number.
+	 * @param pins
+	 *           the number of pins knocked down.
+	 * @param first
+	 *           the number of pins knocked down by the first shot of the frame.
+	 * @param second
+	 *           the number of pins knocked down by the second shot of the frame.
+	 * @return {@link ValidationResult#VALID},
+	 *         {@link ValidationResult#INVALID_PINS},
+	 *         {@link ValidationResult#STRIKE_VIOLATION},
+	 *         {@link ValidationResult#INVALID_TOTAL_SUM} or
+	 *         {@link ValidationResult#NO_BONUS_SHOT}.
+	 */
+	public static ValidationResult validatePins(int frame, int shot, int pins, int first,
+			int second) {
+		// range validation
+		if (pins < 0 || pins > 10) {
+			return INVALID_PINS;
 		}
 		/*
 		 * Domain validation
@@ -94,43 +215,61 @@ public class Validator {
 		if (frame >= 1 && frame <= 9) { // the first 9 frames
 			// at the second shot
 			if (shot == 2) {
-				int index = getIndex(frame - 1, shot - 1) - 1;
 				// if we got a strike the second shot must knock down 0 pins
-				if (shots[index] == 10 && pins != 0) {
-					throw new StrikeViolationException(
-							pins
-									+ " is not a valid value for the second shot. The player got a strike in the same frame. Use zero instead.");
+				if (first == 10 && pins != 0) {
+					return STRIKE_VIOLATION;
 				}
 				// if we didn't get a strike at the first shot, the sum should
 				// not exceed 10 (a spare)
-				if (shots[index] + pins > 10) {
-					throw new InvalidTotalSumException(
-							pins
-									+ " is not a valid value for the second shot. The sum for this frame exceed 10. The maximum value that can be set is "
-									+ (10 - shots[index]));
+				if (first + pins > 10) {
+					return INVALID_TOTAL_SUM;
 				}
 			}
 		} else if (frame == 10) { // the last frame
-			int index = getIndex(frame - 1, shot - 1);
 			if (shot == 2) {
 				// se al primo shot non c'è stato uno strike
-				if (shots[index - 1] != 10 && (shots[index - 1] + pins > 10)) {
+				if (first != 10 && (first + pins > 10)) {
 					// questo shot non può essere uno strike
-					throw new InvalidTotalSumException(
-							pins
-									+ " is not a valid value for this shot. The sum for this frame exceed 10. The maximum value that can be set is "
-									+ (10 - shots[index - 1]));
+					return INVALID_TOTAL_SUM;
 				}
 			}
 			if (shot == 3) {
 				// non può esserci un terzo shot se non c'è stato uno strike o
 				// uno spare
-				if (shots[index - 2] != 10 && (shots[index - 2] + shots[index - 1] != 10)) {
-					throw new OutOfRangeException(
-							"A third shot is given only if the player got a strike or a spare in the last frame.");
+				if (first != 10 && (first + second != 10)) {
+					return NO_BONUS_SHOT;
 				}
 			}
 		}
+		return VALID;
+	}
+
+	/**
+	 * Validates a ball: the frame, the shot and the number of pins, given the
+	 * pins already knocked down in the frame.
+	 * 
+	 * @param frame
+	 *           the frame number.
+	 * @param shot
+	 *           the shot number.
+	 * @param pins
+	 *           the number of pins knocked down.
+	 * @param first
+	 *           the number of pins knocked down by the first shot of the frame.
+	 * @param second
+	 *           the number of pins knocked down by the second shot of the frame.
+	 * @return the outcome of the first failed validation, or
+	 *         {@link ValidationResult#VALID}.
+	 */
+	public static ValidationResult validate(int frame, int shot, int pins, int first, int second) {
+		ValidationResult result = validateFrame(frame);
+		if (result == VALID) {
+			result = validateShot(frame, shot);
+			if (result == VALID) {
+				result = validatePins(frame, shot, pins, first, second);
+			}
+		}
+		return result;
 	}
 
 }
\ No newline at end of file
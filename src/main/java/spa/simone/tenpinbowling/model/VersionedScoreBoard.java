@@ -0,0 +1,306 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import java.util.Arrays;
+
+import spa.simone.tenpinbowling.metrics.Metrics;
+
+/**
+ * <p>
+ * This class is an implementation of {@link ScoreBoard} that keeps all its
+ * versions: every ball, correction or reset makes a new version, and any
+ * version can be read back as a read-only {@link #snapshot(int)}, e.g. to
+ * audit the corrections of the desk staff.
+ * </p>
+ * <p>
+ * The shots are packed in 4 bits each, like in {@link PackedScoreBoard}, and
+ * the scores of the frames are cached: a ball changes the score of its frame
+ * and of the (at most) two frames before it, so only those are scored again,
+ * however far back the correction is. The history is not a copy of the game
+ * per version: a version is the change of a single shot in 2 bytes (the shot,
+ * the pins and the pins before), and every {@value #CHECKPOINT} versions the
+ * packed shots are saved in 16 bytes, so a version costs about 2.5 bytes and
+ * is rebuilt from at most {@value #CHECKPOINT} - 1 changes.
+ * </p>
+ * <p>
+ * The name of the player is not versioned. This class is not thread-safe,
+ * while the snapshots do not change and can be read from any thread.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class VersionedScoreBoard extends AbstractScoreBoard {
+
+	/**
+	 * The number of versions between two saved copies of the shots.
+	 */
+	public static final int CHECKPOINT = 32;
+
+	// the shot of a change that resets the scoreboard
+	private static final int RESET = 0x1F;
+	private static final int PINS_SHIFT = 5;
+	private static final int PREVIOUS_SHIFT = 9;
+	private static final int TOTAL_SHIFT = 50;
+
+	private long low;
+	private long high;
+	// the score of each frame in 5 bits, and the total score at TOTAL_SHIFT
+	private long scores;
+	private int version;
+	// the change that made each version but the first one
+	private short[] changes = new short[64];
+	// the shots of every CHECKPOINT versions, low then high
+	private long[] checkpoints = new long[8];
+
+	/**
+	 * Instantiates the ScoreBoard object.
+	 */
+	public VersionedScoreBoard() {
+	}
+
+	/**
+	 * Instantiates the ScoreBoard object, with the players of a registry.
+	 * 
+	 * @param registry
+	 *           the registry of the players.
+	 */
+	public VersionedScoreBoard(PlayerRegistry registry) {
+		super(registry);
+	}
+
+	@Override
+	public int getFinalScore() {
+		Metrics.get().recordScoreComputation();
+		return (int) (scores >>> TOTAL_SHIFT);
+	}
+
+	/**
+	 * Gets the current version. The new scoreboard is the version 0, and every
+	 * accepted ball and every reset make a new version.
+	 * 
+	 * @return the current version.
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Gets a read-only copy of the current version.
+	 * 
+	 * @return the snapshot.
+	 */
+	public ScoreBoard snapshot() {
+		return snapshot(version);
+	}
+
+	/**
+	 * Gets a read-only copy of a version.
+	 * 
+	 * @param version
+	 *           the version [0-{@link #getVersion()}].
+	 * @return the snapshot, with the current name of the player.
+	 */
+	public ScoreBoard snapshot(int version) {
+		checkVersion(version, 0);
+		int base = version / CHECKPOINT * CHECKPOINT;
+		PackedScoreBoard board = new PackedScoreBoard(getPlayerRegistry());
+		board.setPlayerId(getPlayerId());
+		long l = checkpoints[base / CHECKPOINT * 2];
+		long h = checkpoints[base / CHECKPOINT * 2 + 1];
+		for (int i = 0; i < 21; i++) {
+			board.setPinsAt(i, pinsAt(l, h, i));
+		}
+		for (int v = base + 1; v <= version; v++) {
+			int change = changes[v - 1];
+			int index = change & RESET;
+			if (index == RESET) {
+				board.clearShots();
+			} else {
+				board.setPinsAt(index, change >>> PINS_SHIFT & 0xF);
+			}
+		}
+		return new Snapshot(board);
+	}
+
+	/**
+	 * Gets the frame of the shot changed by a version.
+	 * 
+	 * @param version
+	 *           the version [1-{@link #getVersion()}].
+	 * @return the number of the frame, 0 if the version is a reset.
+	 */
+	public int getChangedFrame(int version) {
+		checkVersion(version, 1);
+		int index = changes[version - 1] & RESET;
+		return index == RESET ? 0 : Math.min(index / 2 + 1, 10);
+	}
+
+	/**
+	 * Gets the shot changed by a version.
+	 * 
+	 * @param version
+	 *           the version [1-{@link #getVersion()}].
+	 * @return the number of the shot, 0 if the version is a reset.
+	 */
+	public int getChangedShot(int version) {
+		checkVersion(version, 1);
+		int index = changes[version - 1] & RESET;
+		return index == RESET ? 0 : index == 20 ? 3 : index % 2 + 1;
+	}
+
+	/**
+	 * Gets the pins of the shot changed by a version, after the change.
+	 * 
+	 * @param version
+	 *           the version [1-{@link #getVersion()}].
+	 * @return the number of pins, 0 if the version is a reset.
+	 */
+	public int getPinsAfter(int version) {
+		checkVersion(version, 1);
+		return changes[version - 1] >>> PINS_SHIFT & 0xF;
+	}
+
+	/**
+	 * Gets the pins of the shot changed by a version, before the change.
+	 * 
+	 * @param version
+	 *           the version [1-{@link #getVersion()}].
+	 * @return the number of pins, 0 if the version is a reset.
+	 */
+	public int getPinsBefore(int version) {
+		checkVersion(version, 1);
+		return changes[version - 1] >>> PREVIOUS_SHIFT & 0xF;
+	}
+
+	@Override
+	protected void clearShots() {
+		low = 0;
+		high = 0;
+		scores = 0;
+		record(RESET);
+	}
+
+	@Override
+	protected int getPinsAt(int index) {
+		return pinsAt(low, high, index);
+	}
+
+	@Override
+	protected void setPinsAt(int index, int pins) {
+		int previous = getPinsAt(index);
+		if (index < 16) {
+			int shift = index << 2;
+			low = (low & ~(0xFL << shift)) | ((long) pins << shift);
+		} else {
+			int shift = (index - 16) << 2;
+			high = (high & ~(0xFL << shift)) | ((long) pins << shift);
+		}
+		// the frame of the shot, and the two frames it can be a bonus for
+		int frame = Math.min(index / 2 + 1, 10);
+		int total = (int) (scores >>> TOTAL_SHIFT);
+		for (int f = Math.max(1, frame - 2); f <= frame; f++) {
+			int shift = 5 * (f - 1);
+			int score = computeScoreOf(f);
+			total += score - (int) (scores >>> shift & 0x1F);
+			scores = scores & ~(0x1FL << shift) | (long) score << shift;
+		}
+		scores = scores & ~(0x1FFL << TOTAL_SHIFT) | (long) total << TOTAL_SHIFT;
+		record(index | pins << PINS_SHIFT | previous << PREVIOUS_SHIFT);
+	}
+
+	@Override
+	protected int scoreOf(int frame) {
+		return (int) (scores >>> 5 * (frame - 1)) & 0x1F;
+	}
+
+	/*
+	 * Adds a version, and saves the shots if it is a checkpoint.
+	 */
+	private void record(int change) {
+		if (version == changes.length) {
+			changes = Arrays.copyOf(changes, version * 2);
+		}
+		changes[version++] = (short) change;
+		if (version % CHECKPOINT == 0) {
+			int slot = version / CHECKPOINT * 2;
+			if (slot + 1 >= checkpoints.length) {
+				checkpoints = Arrays.copyOf(checkpoints, checkpoints.length * 2);
+			}
+			checkpoints[slot] = low;
+			checkpoints[slot + 1] = high;
+		}
+	}
+
+	private void checkVersion(int version, int min) {
+		if (version < min || version > this.version) {
+			throw new IllegalArgumentException(version + " is not a valid version. It must be in the range ["
+					+ min + "-" + this.version + "]");
+		}
+	}
+
+	private static int pinsAt(long low, long high, int index) {
+		if (index < 16) {
+			return (int) (low >>> (index << 2)) & 0xF;
+		}
+		return (int) (high >>> ((index - 16) << 2)) & 0xF;
+	}
+
+	/*
+	 * A read-only copy of a version.
+	 */
+	private static class Snapshot extends ForwardingScoreBoard {
+
+		private final ScoreBoard delegate;
+
+		Snapshot(ScoreBoard delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		protected ScoreBoard delegate() {
+			return delegate;
+		}
+
+		@Override
+		public void setPlayerName(String name) {
+			throw new UnsupportedOperationException("A version cannot be changed");
+		}
+
+		@Override
+		public void setPlayerId(int id) {
+			throw new UnsupportedOperationException("A version cannot be changed");
+		}
+
+		@Override
+		public void setPins(int frame, int shot, int pins) {
+			throw new UnsupportedOperationException("A version cannot be changed");
+		}
+
+		@Override
+		public ValidationResult trySetPins(int frame, int shot, int pins) {
+			throw new UnsupportedOperationException("A version cannot be changed");
+		}
+
+		@Override
+		public void reset() {
+			throw new UnsupportedOperationException("A version cannot be changed");
+		}
+
+	}
+
+}
\ No newline at end of file
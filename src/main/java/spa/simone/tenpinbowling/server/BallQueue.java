@@ -0,0 +1,118 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * This class is a bounded queue of balls, written by any thread and read by
+ * one thread at a time.
+ * </p>
+ * <p>
+ * The balls are not boxed: each slot is a <code>long</code> holding the pins
+ * in its low 32 bits and, in the high ones, the (truncated) position of the
+ * ball it holds plus one. A producer claims a position with a compare-and-set
+ * on the tail, and publishes the ball with a single ordered write of its
+ * slot. The consumer takes a ball when its slot holds the expected position,
+ * and frees the slot for the ball a lap later.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+class BallQueue {
+
+	private final AtomicLongArray slots;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private volatile long head;
+
+	/**
+	 * Instantiates the queue.
+	 * 
+	 * @param capacity
+	 *           the maximum number of balls, a power of two.
+	 */
+	BallQueue(int capacity) {
+		if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException(capacity + " is not a power of two");
+		}
+		slots = new AtomicLongArray(capacity);
+		mask = capacity - 1;
+		for (int i = 0; i < capacity; i++) {
+			// the slot is free for the ball i
+			slots.set(i, (long) i << 32);
+		}
+	}
+
+	/**
+	 * Adds a ball at the end of the queue.
+	 * 
+	 * @param pins
+	 *           the number of pins knocked down.
+	 * @return false if the queue is full.
+	 */
+	boolean offer(int pins) {
+		for (;;) {
+			long position = tail.get();
+			int index = (int) position & mask;
+			// the positions are compared on 32 bits, so that they can wrap
+			int lag = (int) (slots.get(index) >>> 32) - (int) position;
+			if (lag == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					slots.lazySet(index, (position + 1) << 32 | (pins & 0xFFFFFFFFL));
+					return true;
+				}
+			} else if (lag < 0) {
+				// the slot still holds the ball of the previous lap
+				return false;
+			}
+			// another producer claimed the position
+		}
+	}
+
+	/**
+	 * Removes the first ball of the queue. It must not be called by two
+	 * threads at once.
+	 * 
+	 * @return the number of pins in the low 32 bits, or -1 if the queue is
+	 *         empty.
+	 */
+	long poll() {
+		long position = head;
+		int index = (int) position & mask;
+		long slot = slots.get(index);
+		if ((int) (slot >>> 32) != (int) (position + 1)) {
+			return -1;
+		}
+		slots.lazySet(index, (position + slots.length()) << 32);
+		head = position + 1;
+		return slot & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Says whether the queue is empty. A ball that another thread is offering
+	 * already counts.
+	 * 
+	 * @return true if there are no balls.
+	 */
+	boolean isEmpty() {
+		return tail.get() == head;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,332 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardFactory;
+import spa.simone.tenpinbowling.model.ValidationResult;
+
+/**
+ * <p>
+ * This class receives the balls of many pinsetter controllers over TCP, and
+ * applies them to the scoreboards of a fixed number of lanes and players.
+ * </p>
+ * <p>
+ * A controller sends a stream of events of {@value #EVENT_SIZE} bytes, in
+ * network byte order:
+ * </p>
+ * <ul>
+ * <li>[0-1] the lane;</li>
+ * <li>[2] the player slot on the lane;</li>
+ * <li>[3] the frame, 0 to reset the scoreboard of the player;</li>
+ * <li>[4] the shot;</li>
+ * <li>[5] the pins knocked down.</li>
+ * </ul>
+ * <p>
+ * and it gets back a byte per event, in the same order: the ordinal of the
+ * {@link ValidationResult} of the ball (0 if it was accepted), or
+ * {@value #UNKNOWN_PLAYER} if there is no such lane or player.
+ * </p>
+ * <p>
+ * All the connections are served by a single thread with a {@link Selector},
+ * which is the only writer of the scoreboards: they can be read from any
+ * thread if the factory creates thread-safe ones. The events are decoded in
+ * place from a buffer per connection and the balls are applied with
+ * {@link ScoreBoard#trySetPins(int, int, int)}, so an event does not allocate.
+ * A connection is not read while its replies cannot be sent, so a slow
+ * controller cannot make the server buffer without bound.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class IngestServer implements Closeable {
+
+	/**
+	 * The size of an event, in bytes.
+	 */
+	public static final int EVENT_SIZE = 6;
+
+	/**
+	 * The reply to an event of an unknown lane or player.
+	 */
+	public static final int UNKNOWN_PLAYER = 0xFF;
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final ScoreBoard[][] boards;
+	private final Selector selector;
+	private final ServerSocketChannel channel;
+	private final Thread thread;
+	private volatile boolean running;
+	// written by the selector thread only
+	private volatile long accepted;
+	private volatile long rejected;
+
+	/**
+	 * Instantiates the server, and binds it to the address. The events are
+	 * not read before {@link #start()}.
+	 * 
+	 * @param address
+	 *           the address to listen on (with port 0 for any free port).
+	 * @param lanes
+	 *           the number of lanes [1-65535].
+	 * @param players
+	 *           the number of players per lane [1-255].
+	 * @param factory
+	 *           creates the scoreboards.
+	 * @throws IOException
+	 */
+	public IngestServer(SocketAddress address, int lanes, int players, ScoreBoardFactory factory)
+			throws IOException {
+		if (lanes < 1 || lanes > 0xFFFF || players < 1 || players >= UNKNOWN_PLAYER) {
+			throw new IllegalArgumentException(lanes + " lanes of " + players
+					+ " players are invalid. They must be in the ranges [1-65535] and [1-254]");
+		}
+		this.boards = new ScoreBoard[lanes][players];
+		for (ScoreBoard[] lane : boards) {
+			for (int player = 0; player < players; player++) {
+				lane[player] = factory.create();
+			}
+		}
+		this.selector = Selector.open();
+		this.channel = ServerSocketChannel.open();
+		try {
+			channel.bind(address);
+			channel.configureBlocking(false);
+			channel.register(selector, SelectionKey.OP_ACCEPT);
+		} catch (IOException e) {
+			channel.close();
+			selector.close();
+			throw e;
+		}
+		this.thread = new Thread(new Loop(), "ingest-" + getAddress().getPort());
+	}
+
+	/**
+	 * Starts serving the connections, in a new thread.
+	 */
+	public void start() {
+		running = true;
+		thread.start();
+	}
+
+	/**
+	 * Stops the server, and closes all the connections. It has no effect if the
+	 * server is already closed.
+	 * 
+	 * @throws IOException
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!selector.isOpen()) {
+			return;
+		}
+		running = false;
+		selector.wakeup();
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		for (SelectionKey key : selector.keys()) {
+			key.channel().close();
+		}
+		selector.close();
+	}
+
+	/**
+	 * Gets the address the server listens on.
+	 * 
+	 * @return the address.
+	 * @throws IOException
+	 */
+	public InetSocketAddress getAddress() throws IOException {
+		return (InetSocketAddress) channel.getLocalAddress();
+	}
+
+	/**
+	 * Gets the scoreboard of a player.
+	 * 
+	 * @param lane
+	 *           the lane.
+	 * @param player
+	 *           the player slot on the lane.
+	 * @return the scoreboard.
+	 */
+	public ScoreBoard getScoreBoard(int lane, int player) {
+		return boards[lane][player];
+	}
+
+	/**
+	 * Gets the number of events applied so far, including the resets.
+	 * 
+	 * @return the number of events.
+	 */
+	public long getAccepted() {
+		return accepted;
+	}
+
+	/**
+	 * Gets the number of events rejected so far.
+	 * 
+	 * @return the number of events.
+	 */
+	public long getRejected() {
+		return rejected;
+	}
+
+	/*
+	 * Applies an event, and returns the reply.
+	 */
+	private int apply(int lane, int player, int frame, int shot, int pins) {
+		if (lane >= boards.length || player >= boards[lane].length) {
+			rejected++;
+			return UNKNOWN_PLAYER;
+		}
+		ScoreBoard board = boards[lane][player];
+		if (frame == 0) {
+			board.reset();
+			accepted++;
+			return ValidationResult.VALID.ordinal();
+		}
+		ValidationResult result = board.trySetPins(frame, shot, pins);
+		if (result == ValidationResult.VALID) {
+			accepted++;
+		} else {
+			rejected++;
+		}
+		return result.ordinal();
+	}
+
+	/*
+	 * The selector loop.
+	 */
+	private class Loop implements Runnable {
+
+		@Override
+		public void run() {
+			while (running) {
+				try {
+					selector.select();
+				} catch (IOException e) {
+					break;
+				}
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					try {
+						if (!key.isValid()) {
+							continue;
+						}
+						if (key.isAcceptable()) {
+							accept();
+						} else {
+							((Connection) key.attachment()).serve(key);
+						}
+					} catch (IOException e) {
+						// the controller went away
+						key.cancel();
+						close(key);
+					}
+				}
+			}
+		}
+
+		private void accept() throws IOException {
+			SocketChannel client = channel.accept();
+			if (client == null) {
+				return;
+			}
+			client.configureBlocking(false);
+			client.socket().setTcpNoDelay(true);
+			client.register(selector, SelectionKey.OP_READ, new Connection());
+		}
+
+		private void close(SelectionKey key) {
+			try {
+				key.channel().close();
+			} catch (IOException e) {
+				// already closed
+			}
+		}
+
+	}
+
+	/*
+	 * The buffers of a connection.
+	 */
+	private class Connection {
+
+		private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		// the replies, in write mode
+		private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE / EVENT_SIZE);
+
+		void serve(SelectionKey key) throws IOException {
+			SocketChannel client = (SocketChannel) key.channel();
+			if (key.isReadable() && client.read(in) < 0) {
+				throw new IOException("The controller closed the connection");
+			}
+			for (;;) {
+				decode();
+				((Buffer) out).flip();
+				client.write(out);
+				out.compact();
+				if (out.position() > 0) {
+					key.interestOps(SelectionKey.OP_WRITE);
+					return;
+				}
+				// the events left by a full reply buffer are decoded once the
+				// replies are sent, as no more bytes may come to wake up the key
+				if (in.position() < EVENT_SIZE) {
+					key.interestOps(SelectionKey.OP_READ);
+					return;
+				}
+			}
+		}
+
+		private void decode() {
+			((Buffer) in).flip();
+			int position = in.position();
+			int events = Math.min(in.remaining() / EVENT_SIZE, out.remaining());
+			for (int i = 0; i < events; i++, position += EVENT_SIZE) {
+				int lane = in.getShort(position) & 0xFFFF;
+				int player = in.get(position + 2) & 0xFF;
+				int frame = in.get(position + 3) & 0xFF;
+				int shot = in.get(position + 4) & 0xFF;
+				int pins = in.get(position + 5) & 0xFF;
+				out.put((byte) apply(lane, player, frame, shot, pins));
+			}
+			((Buffer) in).position(position);
+			in.compact();
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,382 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.server;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import spa.simone.tenpinbowling.feed.PublishingScoreBoard;
+import spa.simone.tenpinbowling.feed.ScoreBoardFeed;
+import spa.simone.tenpinbowling.leaderboard.Leaderboard;
+import spa.simone.tenpinbowling.leaderboard.RankedScoreBoard;
+import spa.simone.tenpinbowling.model.ConcurrentScoreBoard;
+import spa.simone.tenpinbowling.model.OutOfRangeException;
+import spa.simone.tenpinbowling.model.PlayerRegistry;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreProjection;
+import spa.simone.tenpinbowling.model.ScoreProjector;
+import spa.simone.tenpinbowling.store.BallLog;
+import spa.simone.tenpinbowling.store.JournaledScoreBoard;
+
+/**
+ * <p>
+ * This class is a game played on a lane by a list of players.
+ * </p>
+ * <p>
+ * It advances through the same frame/shot sequence of the interactive
+ * <code>BowlingGame</code>: in every frame each player, in turn, rolls until
+ * a strike or two shots, and in the last frame gets a third shot after a
+ * strike or a spare. Each ball is given to {@link #roll(int)}, which knows the
+ * player, the frame and the shot it belongs to.
+ * </p>
+ * <p>
+ * The balls must be rolled by a single thread at a time, while the
+ * scoreboards, their feeds and the current position can be read from any
+ * thread.
+ * </p>
+ * <p>
+ * With a {@link BallLog}, the names and the balls of the players are recorded
+ * as the game is played, and an unfinished game can be resumed after a crash
+ * with {@link #recover(BallLog, int, int, Leaderboard)}.
+ * </p>
+ * <p>
+ * The players of a new game are registered in a {@link PlayerRegistry} of
+ * the game, which is reclaimed with its scoreboards; the ones of a resumed
+ * game are in the registry of the log.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class Lane {
+
+	private final int number;
+	private final List<ScoreBoard> players;
+	// the scoreboards on the leaderboard, null without a leaderboard
+	private final RankedScoreBoard[] ranked;
+	// frame << 16 | player << 8 | shot, so that it is read atomically
+	private volatile int position;
+
+	/**
+	 * Starts a new game on the lane.
+	 * 
+	 * @param number
+	 *           the number of the lane.
+	 * @param names
+	 *           the names of the players, in order of play.
+	 */
+	public Lane(int number, List<String> names) {
+		this(number, names, null);
+	}
+
+	/**
+	 * Starts a new game on the lane, ranking the players on a leaderboard.
+	 * 
+	 * @param number
+	 *           the number of the lane.
+	 * @param names
+	 *           the names of the players, in order of play.
+	 * @param leaderboard
+	 *           the leaderboard, or <code>null</code>.
+	 */
+	public Lane(int number, List<String> names, Leaderboard leaderboard) {
+		this(number, names, leaderboard, null, 0);
+	}
+
+	/**
+	 * Starts a new game on the lane, recording it in a log.
+	 * 
+	 * @param number
+	 *           the number of the lane, [0-255] with a log.
+	 * @param names
+	 *           the names of the players, in order of play.
+	 * @param leaderboard
+	 *           the leaderboard, or <code>null</code>.
+	 * @param log
+	 *           the log of the game, or <code>null</code>.
+	 * @param game
+	 *           the number of the game in the log [0-65535].
+	 */
+	public Lane(int number, List<String> names, Leaderboard leaderboard, BallLog log, int game) {
+		this(number, players(number, names, log, game), leaderboard, position(1, 0, 1));
+	}
+
+	private Lane(int number, ScoreBoard[] delegates, Leaderboard leaderboard, int position) {
+		List<ScoreBoard> boards = new ArrayList<>(delegates.length);
+		this.ranked = leaderboard == null ? null : new RankedScoreBoard[delegates.length];
+		for (int i = 0; i < delegates.length; i++) {
+			ScoreBoard delegate = delegates[i];
+			if (leaderboard != null) {
+				ranked[i] = new RankedScoreBoard(delegate, leaderboard);
+				delegate = ranked[i];
+			}
+			boards.add(new PublishingScoreBoard(delegate));
+		}
+		this.number = number;
+		this.players = Collections.unmodifiableList(boards);
+		this.position = position;
+	}
+
+	/**
+	 * Resumes a game recorded in a log, e.g. after a crash: the players get
+	 * their recorded names and balls, and the game continues from the ball
+	 * after the last one recorded. The balls of a game must have been recorded
+	 * by a {@link Lane}, in order of play.
+	 * 
+	 * @param log
+	 *           the log of the game.
+	 * @param number
+	 *           the number of the lane [0-255].
+	 * @param game
+	 *           the number of the game in the log [0-65535].
+	 * @param leaderboard
+	 *           the leaderboard, or <code>null</code>.
+	 * @return the game, or <code>null</code> if the log has no players for it.
+	 */
+	public static Lane recover(BallLog log, int number, int game, Leaderboard leaderboard) {
+		int count = log.getPlayers(number, game);
+		if (count == 0) {
+			return null;
+		}
+		ScoreBoard[] delegates = new ScoreBoard[count];
+		int[] balls = new int[count];
+		for (int i = 0; i < count; i++) {
+			ScoreBoard recorded = log.getScoreBoard(number, game, i);
+			ScoreBoard board = recorded == null ? new ConcurrentScoreBoard()
+					: new ConcurrentScoreBoard(recorded);
+			delegates[i] = new JournaledScoreBoard(board, log, number, game, i);
+			balls[i] = log.getBalls(number, game, i);
+		}
+		// the position after the balls of every player, in order of play
+		int[] rolled = new int[count];
+		int current = position(1, 0, 1);
+		try {
+			for (;;) {
+				int frame = current >>> 16;
+				int player = (current >>> 8) & 0xFF;
+				if (frame > 10 || rolled[player] == balls[player]) {
+					break;
+				}
+				rolled[player]++;
+				current = next(delegates[player], frame, player, current & 0xFF, count);
+			}
+		} catch (OutOfRangeException e) {
+			throw new IllegalStateException("The log does not match a game on a lane", e);
+		}
+		return new Lane(number, delegates, leaderboard, current);
+	}
+
+	/*
+	 * The scoreboards of a new game, with the ids of the players.
+	 */
+	private static ScoreBoard[] players(int number, List<String> names, BallLog log, int game) {
+		if (names.isEmpty() || names.size() > 255) {
+			throw new IllegalArgumentException(names.size()
+					+ " is an invalid number of players. It must be in the range [1-255]");
+		}
+		PlayerRegistry registry = new PlayerRegistry();
+		int[] ids = new int[names.size()];
+		// the ids shifted by one, so that a player without a name is at 0
+		BitSet unique = new BitSet();
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = registry.register(names.get(i));
+			if (unique.get(ids[i] + 1)) {
+				throw new IllegalArgumentException("The player " + names.get(i) + " already exists");
+			}
+			unique.set(ids[i] + 1);
+		}
+		// the names are checked before any player joins the leaderboard
+		ScoreBoard[] boards = new ScoreBoard[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			boards[i] = new ConcurrentScoreBoard(registry);
+			if (log != null) {
+				boards[i] = new JournaledScoreBoard(boards[i], log, number, game, i);
+			}
+			boards[i].setPlayerId(ids[i]);
+		}
+		return boards;
+	}
+
+	/**
+	 * Gets the number of the lane.
+	 * 
+	 * @return the number of the lane.
+	 */
+	public int getNumber() {
+		return number;
+	}
+
+	/**
+	 * Gets the scoreboards of the players, in order of play.
+	 * 
+	 * @return the scoreboards.
+	 */
+	public List<ScoreBoard> getPlayers() {
+		return players;
+	}
+
+	/**
+	 * Gets the feed of the changes of the scoreboard of a player, so that a
+	 * display can follow the game without polling the scoreboard.
+	 * 
+	 * @param player
+	 *           the index of the player.
+	 * @return the feed.
+	 */
+	public ScoreBoardFeed getFeed(int player) {
+		return ((PublishingScoreBoard) players.get(player)).getFeed();
+	}
+
+	/**
+	 * Gets the rank of a player on the leaderboard of the lane.
+	 * 
+	 * @param player
+	 *           the index of the player.
+	 * @return the rank (see {@link Leaderboard#getRank(RankedScoreBoard)}), or
+	 *         -1 if the lane has no leaderboard.
+	 */
+	public int getRank(int player) {
+		return ranked == null ? -1 : ranked[player].getRank();
+	}
+
+	/**
+	 * Projects the final score of a player: the maximum still possible, and
+	 * the pins needed to reach a score. For a consistent result, it should be
+	 * called by the thread that rolls the balls, e.g. from a
+	 * {@link LaneListener}.
+	 * 
+	 * @param player
+	 *           the index of the player.
+	 * @return the projection.
+	 */
+	public ScoreProjection project(int player) {
+		int current = position;
+		int frame = current >>> 16;
+		int shot = current & 0xFF;
+		int next = (current >>> 8) & 0xFF;
+		if (player < next) {
+			// the player already completed the frame
+			frame++;
+			shot = 1;
+		} else if (player > next) {
+			shot = 1;
+		}
+		try {
+			return ScoreProjector.project(players.get(player), Math.min(frame, 11), shot);
+		} catch (OutOfRangeException e) {
+			throw new IllegalStateException("The position does not match the scoreboard", e);
+		}
+	}
+
+	/**
+	 * Gets the frame of the next ball.
+	 * 
+	 * @return the number of the frame, 11 if the game is over.
+	 */
+	public int getFrame() {
+		return position >>> 16;
+	}
+
+	/**
+	 * Gets the index of the player of the next ball.
+	 * 
+	 * @return the index of the player.
+	 */
+	public int getPlayer() {
+		return (position >>> 8) & 0xFF;
+	}
+
+	/**
+	 * Gets the shot of the next ball.
+	 * 
+	 * @return the number of the shot.
+	 */
+	public int getShot() {
+		return position & 0xFF;
+	}
+
+	/**
+	 * Says whether all the players completed the last frame.
+	 * 
+	 * @return true if the game is over.
+	 */
+	public boolean isOver() {
+		return getFrame() > 10;
+	}
+
+	/**
+	 * Assigns the number of pins knocked down by the next ball, and advances to
+	 * the following one. If the number of pins is not valid, the position does
+	 * not change.
+	 * 
+	 * @param pins
+	 *           the number of pins knocked down.
+	 * @throws ScoreBoardException
+	 */
+	public void roll(int pins) throws ScoreBoardException {
+		int current = position;
+		int frame = current >>> 16;
+		int player = (current >>> 8) & 0xFF;
+		int shot = current & 0xFF;
+		if (frame > 10) {
+			throw new OutOfRangeException("The game on the lane " + number + " is over.");
+		}
+		ScoreBoard scoreBoard = players.get(player);
+		scoreBoard.setPins(frame, shot, pins);
+		position = next(scoreBoard, frame, player, shot, players.size());
+	}
+
+	/*
+	 * Gets the position after a ball, given the scoreboard of its player.
+	 */
+	private static int next(ScoreBoard scoreBoard, int frame, int player, int shot, int players)
+			throws OutOfRangeException {
+		if (frame < 10) {
+			// if is strike, go to the next player
+			if (shot == 1 && !scoreBoard.isStrike(frame)) {
+				shot = 2;
+			} else {
+				shot = 0;
+			}
+		} else if (shot == 1) {
+			shot = 2;
+		} else if (shot == 2
+				&& (scoreBoard.isStrikeOnLastFrame() || scoreBoard.isSpareOnLastFrame())) {
+			// extra shot
+			shot = 3;
+		} else {
+			shot = 0;
+		}
+		// next player
+		if (shot == 0) {
+			shot = 1;
+			player++;
+			if (player == players) {
+				player = 0;
+				frame++;
+			}
+		}
+		return position(frame, player, shot);
+	}
+
+	private static int position(int frame, int player, int shot) {
+		return frame << 16 | player << 8 | shot;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.server;
+
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+
+/**
+ * This API is notified by the {@link LaneServer} about the progress of the
+ * games. The methods are called by the worker thread of the lane, so they
+ * should return quickly.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public interface LaneListener {
+
+	/**
+	 * A ball has been scored.
+	 * 
+	 * @param lane
+	 *           the game on the lane.
+	 * @param player
+	 *           the index of the player.
+	 * @param frame
+	 *           the number of the frame.
+	 * @param shot
+	 *           the number of the shot.
+	 * @param pins
+	 *           the number of pins knocked down.
+	 */
+	public void ballScored(Lane lane, int player, int frame, int shot, int pins);
+
+	/**
+	 * A ball has been rejected, because it is not valid.
+	 * 
+	 * @param lane
+	 *           the game on the lane.
+	 * @param pins
+	 *           the number of pins knocked down.
+	 * @param e
+	 *           the reason.
+	 */
+	public void ballRejected(Lane lane, int pins, ScoreBoardException e);
+
+	/**
+	 * A ball has failed with an unexpected exception, e.g. thrown by this
+	 * listener. The following balls of the lane are still scored.
+	 * 
+	 * @param lane
+	 *           the game on the lane.
+	 * @param pins
+	 *           the number of pins knocked down.
+	 * @param e
+	 *           the exception.
+	 */
+	public void ballFailed(Lane lane, int pins, RuntimeException e);
+
+	/**
+	 * All the players completed the last frame.
+	 * 
+	 * @param lane
+	 *           the game on the lane.
+	 */
+	public void gameOver(Lane lane);
+
+}
\ No newline at end of file
@@ -0,0 +1,333 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import spa.simone.tenpinbowling.leaderboard.Leaderboard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.store.BallLog;
+
+/**
+ * <p>
+ * This class runs the games of many lanes at the same time.
+ * </p>
+ * <p>
+ * Every lane has its own queue of balls, and it is scheduled on a small pool
+ * of worker threads only when its queue is not empty. A lane is never run by
+ * two workers at once, so its balls are scored in the order they were
+ * submitted, while different lanes advance independently on all the cores.
+ * There is no lock shared by the lanes.
+ * </p>
+ * <p>
+ * A ball that fails with an unexpected exception (e.g. thrown by the
+ * listener) is reported to {@link LaneListener#ballFailed(Lane, int,
+ * RuntimeException)}, and the following balls of the lane are still scored.
+ * </p>
+ * <p>
+ * With a {@link BallLog}, the games are recorded as they are played, and
+ * {@link #recover()} resumes the unfinished ones after a crash.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class LaneServer {
+
+	/**
+	 * The maximum number of balls waiting to be scored on a lane.
+	 */
+	public static final int QUEUE = 256;
+
+	// the number of balls a worker scores on a lane before giving way
+	private static final int BATCH = 64;
+
+	private final ConcurrentMap<Integer, Worker> lanes = new ConcurrentHashMap<>();
+	private final ExecutorService workers;
+	private final LaneListener listener;
+	private final Leaderboard leaderboard;
+	private final BallLog log;
+
+	/**
+	 * Instantiates the server, with a worker thread per core.
+	 * 
+	 * @param listener
+	 *           the listener of the games, or <code>null</code>.
+	 */
+	public LaneServer(LaneListener listener) {
+		this(Runtime.getRuntime().availableProcessors(), listener);
+	}
+
+	/**
+	 * Instantiates the server.
+	 * 
+	 * @param threads
+	 *           the number of worker threads.
+	 * @param listener
+	 *           the listener of the games, or <code>null</code>.
+	 */
+	public LaneServer(int threads, LaneListener listener) {
+		this(threads, listener, null);
+	}
+
+	/**
+	 * Instantiates the server, ranking the players of all the lanes on a
+	 * leaderboard. The players of a finished game stay on it.
+	 * 
+	 * @param threads
+	 *           the number of worker threads.
+	 * @param listener
+	 *           the listener of the games, or <code>null</code>.
+	 * @param leaderboard
+	 *           the leaderboard, or <code>null</code>.
+	 */
+	public LaneServer(int threads, LaneListener listener, Leaderboard leaderboard) {
+		this(threads, listener, leaderboard, null);
+	}
+
+	/**
+	 * Instantiates the server, recording the games of all the lanes in a log.
+	 * The lanes must be in the range [0-255].
+	 * 
+	 * @param threads
+	 *           the number of worker threads.
+	 * @param listener
+	 *           the listener of the games, or <code>null</code>.
+	 * @param leaderboard
+	 *           the leaderboard, or <code>null</code>.
+	 * @param log
+	 *           the log of the games, or <code>null</code>.
+	 */
+	public LaneServer(int threads, LaneListener listener, Leaderboard leaderboard, BallLog log) {
+		this.workers = Executors.newFixedThreadPool(threads);
+		this.listener = listener;
+		this.leaderboard = leaderboard;
+		this.log = log;
+	}
+
+	/**
+	 * Starts a new game on the lane. The balls still queued for the lane will
+	 * be scored in the new game. With a log, the game follows the latest one
+	 * recorded on the lane.
+	 * 
+	 * @param lane
+	 *           the number of the lane.
+	 * @param players
+	 *           the names of the players, in order of play.
+	 * @return the new game.
+	 */
+	public Lane open(int lane, List<String> players) {
+		Lane game;
+		if (log == null) {
+			game = new Lane(lane, players, leaderboard);
+		} else {
+			int next = (log.getLatestGame(lane) + 1) & 0xFFFF;
+			game = new Lane(lane, players, leaderboard, log, next);
+		}
+		install(game);
+		return game;
+	}
+
+	/**
+	 * Resumes the latest game recorded on every lane of the log, if it is not
+	 * over, e.g. after a crash. It should be called before any game is opened.
+	 * 
+	 * @return the resumed games.
+	 * @throws IllegalStateException
+	 *            if the server has no log.
+	 */
+	public List<Lane> recover() {
+		if (log == null) {
+			throw new IllegalStateException("The server has no log");
+		}
+		List<Lane> recovered = new ArrayList<>();
+		for (int lane : log.getLanes()) {
+			Lane game = Lane.recover(log, lane, log.getLatestGame(lane), leaderboard);
+			if (game != null && !game.isOver()) {
+				install(game);
+				recovered.add(game);
+			}
+		}
+		return recovered;
+	}
+
+	private void install(Lane game) {
+		int lane = game.getNumber();
+		Worker worker = lanes.get(lane);
+		if (worker == null) {
+			// the game is set before the worker is published, so a ball submitted
+			// meanwhile never sees a worker without a game
+			Worker existing = lanes.putIfAbsent(lane, new Worker(game));
+			if (existing == null) {
+				return;
+			}
+			worker = existing;
+		}
+		worker.lane = game;
+	}
+
+	/**
+	 * Gets the current game of the lane.
+	 * 
+	 * @param lane
+	 *           the number of the lane.
+	 * @return the game, or <code>null</code> if no game was started on the lane.
+	 */
+	public Lane getLane(int lane) {
+		Worker worker = lanes.get(lane);
+		return worker == null ? null : worker.lane;
+	}
+
+	/**
+	 * Queues a ball for the lane. It will be scored asynchronously, for the
+	 * player, frame and shot the game is at.
+	 * 
+	 * @param lane
+	 *           the number of the lane.
+	 * @param pins
+	 *           the number of pins knocked down.
+	 * @throws IllegalStateException
+	 *            if no game was started on the lane, or {@link #QUEUE} balls
+	 *            are already waiting on it.
+	 */
+	public void submit(int lane, int pins) {
+		Worker worker = lanes.get(lane);
+		if (worker == null) {
+			throw new IllegalStateException("No game was started on the lane " + lane);
+		}
+		if (!worker.balls.offer(pins)) {
+			throw new IllegalStateException("The lane " + lane + " has " + QUEUE
+					+ " balls waiting");
+		}
+		worker.schedule();
+	}
+
+	/**
+	 * Stops the server, after the queued balls have been scored.
+	 * 
+	 * @param timeout
+	 *           the maximum time to wait.
+	 * @param unit
+	 *           the time unit of the timeout.
+	 * @return true if all the balls have been scored.
+	 * @throws InterruptedException
+	 */
+	public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		for (Worker worker : lanes.values()) {
+			while (!worker.isIdle()) {
+				if (System.nanoTime() > deadline) {
+					workers.shutdownNow();
+					return false;
+				}
+				Thread.sleep(1);
+			}
+		}
+		workers.shutdown();
+		return workers.awaitTermination(Math.max(0, deadline - System.nanoTime()),
+				TimeUnit.NANOSECONDS);
+	}
+
+	/*
+	 * The queue of balls of a lane, that schedules itself on the pool when it
+	 * is not empty.
+	 */
+	private class Worker implements Runnable {
+
+		private final BallQueue balls = new BallQueue(QUEUE);
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		private volatile Lane lane;
+
+		Worker(Lane lane) {
+			this.lane = lane;
+		}
+
+		void schedule() {
+			if (scheduled.compareAndSet(false, true)) {
+				workers.execute(this);
+			}
+		}
+
+		boolean isIdle() {
+			return balls.isEmpty() && !scheduled.get();
+		}
+
+		@Override
+		public void run() {
+			try {
+				long ball;
+				for (int i = 0; i < BATCH && (ball = balls.poll()) >= 0; i++) {
+					Lane lane = this.lane;
+					int pins = (int) ball;
+					try {
+						roll(lane, pins);
+					} catch (RuntimeException e) {
+						fail(lane, pins, e);
+					}
+				}
+			} finally {
+				scheduled.set(false);
+				// a ball may have been queued after the last poll
+				if (!balls.isEmpty()) {
+					schedule();
+				}
+			}
+		}
+
+		private void fail(Lane lane, int pins, RuntimeException e) {
+			try {
+				if (listener != null) {
+					listener.ballFailed(lane, pins, e);
+					return;
+				}
+			} catch (RuntimeException again) {
+				e.addSuppressed(again);
+			}
+			// the worker keeps running
+			Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+		}
+
+		private void roll(Lane lane, int pins) {
+			int player = lane.getPlayer();
+			int frame = lane.getFrame();
+			int shot = lane.getShot();
+			try {
+				lane.roll(pins);
+			} catch (ScoreBoardException e) {
+				if (listener != null) {
+					listener.ballRejected(lane, pins, e);
+				}
+				return;
+			}
+			if (listener != null) {
+				listener.ballScored(lane, player, frame, shot, pins);
+				if (lane.isOver()) {
+					listener.gameOver(lane);
+				}
+			}
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,115 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.sim;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * This class is a simple model of the skill of a bowler: the probability of a
+ * strike on a full rack, and the probability of a spare on the pins left
+ * standing.
+ * </p>
+ * <p>
+ * A first ball that is not a strike leaves 1 pin with probability 1/2, 2 pins
+ * with 1/4 and so on, as most leaves are of few pins. A ball that does not
+ * convert the spare knocks down any number of the standing pins but all of
+ * them, with the same probability.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class Bowler {
+
+	private final double strikeRate;
+	private final double spareRate;
+
+	/**
+	 * Instantiates the bowler.
+	 * 
+	 * @param strikeRate
+	 *           the probability of a strike [0-1].
+	 * @param spareRate
+	 *           the probability of a spare [0-1].
+	 */
+	public Bowler(double strikeRate, double spareRate) {
+		if (!(strikeRate >= 0 && strikeRate <= 1 && spareRate >= 0 && spareRate <= 1)) {
+			throw new IllegalArgumentException("The rates must be in the range [0-1]");
+		}
+		this.strikeRate = strikeRate;
+		this.spareRate = spareRate;
+	}
+
+	/**
+	 * Gets a bowler of the skill: from a beginner (0), with 2% of strikes and
+	 * 10% of spares, to a professional (1), with 62% of strikes and 95% of
+	 * spares.
+	 * 
+	 * @param skill
+	 *           the skill, clamped to the range [0-1].
+	 * @return the bowler.
+	 */
+	public static Bowler ofSkill(double skill) {
+		double s = Math.max(0, Math.min(1, skill));
+		return new Bowler(0.02 + 0.60 * s, 0.10 + 0.85 * s);
+	}
+
+	/**
+	 * Gets the probability of a strike.
+	 * 
+	 * @return the strike rate [0-1].
+	 */
+	public double getStrikeRate() {
+		return strikeRate;
+	}
+
+	/**
+	 * Gets the probability of a spare.
+	 * 
+	 * @return the spare rate [0-1].
+	 */
+	public double getSpareRate() {
+		return spareRate;
+	}
+
+	/**
+	 * Rolls a ball.
+	 * 
+	 * @param random
+	 *           the source of randomness.
+	 * @param standing
+	 *           the pins standing [1-10]: 10 for a full rack.
+	 * @return the pins knocked down.
+	 */
+	public int roll(Random random, int standing) {
+		if (standing == 10) {
+			if (random.nextDouble() < strikeRate) {
+				return 10;
+			}
+			int leave = 1;
+			while (leave < 10 && random.nextBoolean()) {
+				leave++;
+			}
+			return 10 - leave;
+		}
+		if (random.nextDouble() < spareRate) {
+			return standing;
+		}
+		return random.nextInt(standing);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,191 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.sim;
+
+import java.util.Random;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+
+/**
+ * <p>
+ * This class simulates the games of a lane: it gives the next ball of the
+ * bowlers, in the same frame/shot sequence of the interactive
+ * <code>BowlingGame</code>. In every frame each bowler, in turn, rolls until a
+ * strike or two shots, and in the last frame gets a third shot after a strike
+ * or a spare. A ball after a strike or a spare is rolled on a new rack, any
+ * other on the pins left standing. When the last bowler completes the last
+ * frame, the scoreboards are reset for a new game.
+ * </p>
+ * <p>
+ * The balls are not applied to the scoreboards by this class, so the caller
+ * can measure each call: it reads the position and {@link #nextPins()}, sets
+ * the pins on {@link #getScoreBoard()}, then calls {@link #advance()}. This
+ * class is not thread-safe.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class LaneSimulator {
+
+	private final ScoreBoard[] boards;
+	private final Bowler[] bowlers;
+	private final Random random;
+	private int player;
+	private int frame = 1;
+	private int shot = 1;
+	// the pins standing for the next ball, and the first ball of the frame
+	private int standing = 10;
+	private int first;
+	private int pins = -1;
+	private long games;
+	private long totalScore;
+
+	/**
+	 * Instantiates the simulator, for a new game.
+	 * 
+	 * @param boards
+	 *           the empty scoreboards of the bowlers, in order of play.
+	 * @param bowlers
+	 *           the bowlers.
+	 * @param random
+	 *           the source of randomness.
+	 */
+	public LaneSimulator(ScoreBoard[] boards, Bowler[] bowlers, Random random) {
+		if (boards.length == 0 || boards.length != bowlers.length) {
+			throw new IllegalArgumentException("There must be a scoreboard per bowler");
+		}
+		this.boards = boards;
+		this.bowlers = bowlers;
+		this.random = random;
+	}
+
+	/**
+	 * Gets the scoreboard of the next ball.
+	 * 
+	 * @return the scoreboard.
+	 */
+	public ScoreBoard getScoreBoard() {
+		return boards[player];
+	}
+
+	/**
+	 * Gets the player of the next ball.
+	 * 
+	 * @return the index of the player.
+	 */
+	public int getPlayer() {
+		return player;
+	}
+
+	/**
+	 * Gets the frame of the next ball.
+	 * 
+	 * @return the number of the frame.
+	 */
+	public int getFrame() {
+		return frame;
+	}
+
+	/**
+	 * Gets the shot of the next ball.
+	 * 
+	 * @return the number of the shot.
+	 */
+	public int getShot() {
+		return shot;
+	}
+
+	/**
+	 * Rolls the next ball. The same ball is returned until {@link #advance()}.
+	 * 
+	 * @return the pins knocked down.
+	 */
+	public int nextPins() {
+		if (pins < 0) {
+			pins = bowlers[player].roll(random, standing);
+		}
+		return pins;
+	}
+
+	/**
+	 * Moves to the ball after the one of {@link #nextPins()}, which must have
+	 * been set on the scoreboard. At the end of a game, the scoreboards are
+	 * reset.
+	 */
+	public void advance() {
+		int last = nextPins();
+		pins = -1;
+		if (frame < 10) {
+			if (shot == 1 && last != 10) {
+				shot = 2;
+				standing = 10 - last;
+			} else {
+				nextPlayer();
+			}
+			return;
+		}
+		if (shot == 1) {
+			first = last;
+			shot = 2;
+			standing = last == 10 ? 10 : 10 - last;
+		} else if (shot == 2 && (first == 10 || first + last == 10)) {
+			shot = 3;
+			// a new rack after a strike or a spare
+			standing = first == 10 && last != 10 ? 10 - last : 10;
+		} else {
+			nextPlayer();
+		}
+	}
+
+	/**
+	 * Gets the number of games completed by the bowlers.
+	 * 
+	 * @return the number of games.
+	 */
+	public long getGames() {
+		return games;
+	}
+
+	/**
+	 * Gets the sum of the final scores of the completed games.
+	 * 
+	 * @return the total score.
+	 */
+	public long getTotalScore() {
+		return totalScore;
+	}
+
+	private void nextPlayer() {
+		shot = 1;
+		standing = 10;
+		if (++player < boards.length) {
+			return;
+		}
+		player = 0;
+		if (++frame <= 10) {
+			return;
+		}
+		frame = 1;
+		for (ScoreBoard board : boards) {
+			board.computeFinalScore();
+			totalScore += board.getFinalScore();
+			games++;
+			board.reset();
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,344 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import spa.simone.tenpinbowling.metrics.LatencyHistogram;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardFactory;
+
+/**
+ * <p>
+ * This class drives the scoreboards of N lanes of M bowlers directly, to find
+ * the throughput and the latency of the scoring engine on a machine.
+ * </p>
+ * <p>
+ * The lanes are split among a few threads, and each thread plays a ball on
+ * its lanes in turn (see {@link LaneSimulator}), followed by a read of the
+ * score, as a display would. The bowlers have a random skill, drawn from a
+ * normal distribution (see {@link Bowler#ofSkill(double)}). The time of each
+ * <code>setPins</code> and of each score read is recorded in a
+ * {@link LatencyHistogram}, after a warm-up.
+ * </p>
+ * <p>
+ * The balls are played as fast as possible, or at a fixed rate. At a fixed
+ * rate, the latency of a ball is measured from the time it was due, not from
+ * the time it was played, so a thread that falls behind reports the wait of
+ * the queued balls too: the rate at which the latency explodes is the
+ * saturation point.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class LoadGenerator {
+
+	private static final String USAGE = "Usage: LoadGenerator [-n lanes] [-m bowlers] [-r balls/s] "
+			+ "[-d seconds] [-w seconds] [-t threads] [-i impl|packed|table|concurrent|versioned] "
+			+ "[-k skill] [-v deviation] [-s seed]";
+	// the nanoseconds waited without parking, before a ball is due
+	private static final long SPIN = 100000;
+
+	private final ScoreBoardFactory factory;
+	private final int lanes;
+	private final int bowlers;
+	private final double rate;
+	private final int threads;
+	private final double skill;
+	private final double deviation;
+	private final long seed;
+	private final LatencyHistogram setPins = new LatencyHistogram();
+	private final LatencyHistogram reads = new LatencyHistogram();
+	private volatile boolean measuring;
+	private volatile boolean running;
+
+	/**
+	 * Instantiates the generator.
+	 * 
+	 * @param factory
+	 *           creates the scoreboards.
+	 * @param lanes
+	 *           the number of lanes.
+	 * @param bowlers
+	 *           the number of bowlers per lane.
+	 * @param rate
+	 *           the balls per second of all the lanes, or 0 to play them as
+	 *           fast as possible.
+	 * @param threads
+	 *           the number of threads that play the balls.
+	 * @param skill
+	 *           the average skill of the bowlers [0-1].
+	 * @param deviation
+	 *           the standard deviation of the skill.
+	 * @param seed
+	 *           the seed of the bowlers and of their balls.
+	 */
+	public LoadGenerator(ScoreBoardFactory factory, int lanes, int bowlers, double rate,
+			int threads, double skill, double deviation, long seed) {
+		if (lanes < 1 || bowlers < 1 || threads < 1 || rate < 0) {
+			throw new IllegalArgumentException("The lanes, the bowlers and the threads must be "
+					+ "positive, and the rate not negative");
+		}
+		this.factory = factory;
+		this.lanes = lanes;
+		this.bowlers = bowlers;
+		this.rate = rate;
+		this.threads = Math.min(threads, lanes);
+		this.skill = skill;
+		this.deviation = deviation;
+		this.seed = seed;
+	}
+
+	/**
+	 * The entry point.
+	 * 
+	 * @param args
+	 *           <code>-n N</code> the lanes (48 by default), <code>-m N</code>
+	 *           the bowlers per lane (4), <code>-r N</code> the balls per
+	 *           second (as fast as possible), <code>-d N</code> the seconds
+	 *           measured (10), <code>-w N</code> the seconds of warm-up (2),
+	 *           <code>-t N</code> the threads (one per core),
+	 *           <code>-i name</code> the scoreboard (packed), <code>-k N</code>
+	 *           the average skill (0.5), <code>-v N</code> its deviation (0.2)
+	 *           and <code>-s N</code> the seed.
+	 * @throws InterruptedException
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int lanes = 48;
+		int bowlers = 4;
+		double rate = 0;
+		double duration = 10;
+		double warmup = 2;
+		int threads = Runtime.getRuntime().availableProcessors();
+		String impl = "packed";
+		ScoreBoardFactory factory = null;
+		double skill = 0.5;
+		double deviation = 0.2;
+		long seed = System.nanoTime();
+		try {
+			for (int i = 0; i < args.length; i++) {
+				String value = args[++i];
+				switch (args[i - 1]) {
+				case "-n":
+					lanes = Integer.parseInt(value);
+					break;
+				case "-m":
+					bowlers = Integer.parseInt(value);
+					break;
+				case "-r":
+					rate = Double.parseDouble(value);
+					break;
+				case "-d":
+					duration = Double.parseDouble(value);
+					break;
+				case "-w":
+					warmup = Double.parseDouble(value);
+					break;
+				case "-t":
+					threads = Integer.parseInt(value);
+					break;
+				case "-i":
+					impl = value;
+					break;
+				case "-k":
+					skill = Double.parseDouble(value);
+					break;
+				case "-v":
+					deviation = Double.parseDouble(value);
+					break;
+				case "-s":
+					seed = Long.parseLong(value);
+					break;
+				default:
+					throw new IllegalArgumentException();
+				}
+			}
+			factory = factory(impl);
+			if (duration <= 0 || warmup < 0) {
+				throw new IllegalArgumentException();
+			}
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+		LoadGenerator generator = new LoadGenerator(factory, lanes, bowlers, rate, threads, skill,
+				deviation, seed);
+		System.out.println(String.format(Locale.ROOT,
+				"%s, %d lanes of %d bowlers, %d threads, %s, seed %d", impl, lanes, bowlers,
+				generator.threads, rate > 0 ? rate + " balls/s" : "as fast as possible", seed));
+		System.out.print(generator.run(warmup, duration));
+	}
+
+	/**
+	 * Gets the factory of a scoreboard by name.
+	 * 
+	 * @param name
+	 *           impl, packed, table, concurrent or versioned.
+	 * @return the factory.
+	 */
+	public static ScoreBoardFactory factory(String name) {
+		switch (name) {
+		case "impl":
+			return ScoreBoardFactory.IMPL;
+		case "packed":
+			return ScoreBoardFactory.PACKED;
+		case "table":
+			return ScoreBoardFactory.TABLE;
+		case "concurrent":
+			return ScoreBoardFactory.CONCURRENT;
+		case "versioned":
+			return ScoreBoardFactory.VERSIONED;
+		default:
+			throw new IllegalArgumentException(name + " is not a scoreboard");
+		}
+	}
+
+	/**
+	 * Runs the lanes, and reports the throughput and the latencies measured.
+	 * 
+	 * @param warmup
+	 *           the seconds before the measure.
+	 * @param duration
+	 *           the seconds measured.
+	 * @return the report.
+	 * @throws InterruptedException
+	 */
+	public String run(double warmup, double duration) throws InterruptedException {
+		Random random = new Random(seed);
+		List<Player> players = new ArrayList<>(threads);
+		for (int t = 0; t < threads; t++) {
+			players.add(new Player(random.nextLong()));
+		}
+		for (int lane = 0; lane < lanes; lane++) {
+			ScoreBoard[] boards = new ScoreBoard[bowlers];
+			Bowler[] skills = new Bowler[bowlers];
+			for (int b = 0; b < bowlers; b++) {
+				boards[b] = factory.create();
+				skills[b] = Bowler.ofSkill(skill + deviation * random.nextGaussian());
+			}
+			Player player = players.get(lane % threads);
+			player.lanes.add(new LaneSimulator(boards, skills, new Random(random.nextLong())));
+		}
+		running = true;
+		List<Thread> started = new ArrayList<>(threads);
+		for (int t = 0; t < threads; t++) {
+			Thread thread = new Thread(players.get(t), "lane-player-" + t);
+			thread.start();
+			started.add(thread);
+		}
+		Thread.sleep((long) (warmup * 1000));
+		setPins.reset();
+		reads.reset();
+		measuring = true;
+		long start = System.nanoTime();
+		Thread.sleep((long) (duration * 1000));
+		measuring = false;
+		double seconds = (System.nanoTime() - start) / 1e9;
+		running = false;
+		for (Thread thread : started) {
+			thread.join();
+		}
+		long games = 0;
+		long totalScore = 0;
+		for (Player player : players) {
+			if (player.error != null) {
+				throw new IllegalStateException("A ball broke the rules", player.error);
+			}
+			for (LaneSimulator lane : player.lanes) {
+				games += lane.getGames();
+				totalScore += lane.getTotalScore();
+			}
+		}
+		StringBuilder report = new StringBuilder();
+		report.append(String.format(Locale.ROOT, "%d balls in %.2f s: %.0f balls/s%n",
+				setPins.getCount(), seconds, setPins.getCount() / seconds));
+		report.append(String.format(Locale.ROOT, "%d games, average score %.1f%n", games,
+				games == 0 ? 0.0 : (double) totalScore / games));
+		report.append(String.format(Locale.ROOT, "%-12s %10s %10s %10s %10s %10s%n", "ns", "mean",
+				"p50", "p99", "p999", "max"));
+		append(report, "setPins", setPins);
+		append(report, "score read", reads);
+		return report.toString();
+	}
+
+	private static void append(StringBuilder report, String name, LatencyHistogram histogram) {
+		report.append(String.format(Locale.ROOT, "%-12s %10.0f %10d %10d %10d %10d%n", name,
+				histogram.getMean(), histogram.getValueAtPercentile(50),
+				histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9),
+				histogram.getMax()));
+	}
+
+	/*
+	 * A thread that plays the balls of its lanes.
+	 */
+	private class Player implements Runnable {
+
+		private final List<LaneSimulator> lanes = new ArrayList<>();
+		private final long seed;
+		private volatile ScoreBoardException error;
+
+		Player(long seed) {
+			this.seed = seed;
+		}
+
+		@Override
+		public void run() {
+			// the time between two balls of this thread, 0 without a rate
+			long interval = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(threads) / rate) : 0;
+			// a random start, not to play the balls of all the threads together
+			long due = System.nanoTime() + (interval > 0 ? new Random(seed).nextLong() % interval : 0);
+			int size = lanes.size();
+			try {
+				for (long ball = 0; running; ball++) {
+					LaneSimulator lane = lanes.get((int) (ball % size));
+					long start = System.nanoTime();
+					if (interval > 0) {
+						due += interval;
+						// a park can wake up late, so the last microseconds are spun
+						for (; start < due; start = System.nanoTime()) {
+							if (due - start > SPIN) {
+								LockSupport.parkNanos(due - start - SPIN);
+							}
+						}
+						start = due;
+					}
+					ScoreBoard board = lane.getScoreBoard();
+					board.setPins(lane.getFrame(), lane.getShot(), lane.nextPins());
+					long played = System.nanoTime();
+					board.computeFinalScore();
+					board.getFinalScore();
+					long read = System.nanoTime();
+					lane.advance();
+					if (measuring) {
+						setPins.record(played - start);
+						reads.record(read - played);
+					}
+				}
+			} catch (ScoreBoardException e) {
+				error = e;
+			}
+		}
+
+	}
+
+}
\ No newline at end of file
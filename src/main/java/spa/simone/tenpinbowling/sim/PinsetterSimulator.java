@@ -0,0 +1,335 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.sim;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardFactory;
+import spa.simone.tenpinbowling.model.Util;
+import spa.simone.tenpinbowling.server.IngestServer;
+import spa.simone.tenpinbowling.stats.GameSpace;
+
+/**
+ * <p>
+ * This class simulates the pinsetter controllers of a centre, to load test an
+ * {@link IngestServer} on one machine.
+ * </p>
+ * <p>
+ * Every controller has its own connection and a few lanes. It plays games on
+ * them, frame by frame and player by player, with games drawn uniformly among
+ * the legal ones (see {@link GameSpace}): each game starts with a reset event
+ * followed by its balls. The events are sent in batches, and the replies of a
+ * batch are read before the next one is sent. At the end, the number of
+ * events per second and the rejected ones are reported, and when the server
+ * runs in the same process the final score of every scoreboard is checked
+ * against the one of its last game.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class PinsetterSimulator {
+
+	private static final String USAGE = "Usage: PinsetterSimulator [-a host:port] [-c controllers] "
+			+ "[-l lanes] [-p players] [-g games] [-s seed]";
+	// the number of events sent before the replies are read
+	private static final int BATCH = 1024;
+
+	private final InetSocketAddress address;
+	private final int controllers;
+	private final int lanes;
+	private final int players;
+	private final int games;
+	private final long seed;
+	private final GameSpace space = new GameSpace();
+	// the final score of the last game of each player, by lane
+	private final int[][] expected;
+
+	/**
+	 * Instantiates the simulator.
+	 * 
+	 * @param address
+	 *           the address of the server.
+	 * @param controllers
+	 *           the number of controllers, each with its own connection.
+	 * @param lanes
+	 *           the number of lanes of each controller: the controller
+	 *           <code>c</code> runs the lanes [c * lanes, (c + 1) * lanes).
+	 * @param players
+	 *           the number of players per lane.
+	 * @param games
+	 *           the number of games of each player.
+	 * @param seed
+	 *           the seed of the random games.
+	 */
+	public PinsetterSimulator(InetSocketAddress address, int controllers, int lanes, int players,
+			int games, long seed) {
+		this.address = address;
+		this.controllers = controllers;
+		this.lanes = lanes;
+		this.players = players;
+		this.games = games;
+		this.seed = seed;
+		this.expected = new int[controllers * lanes][players];
+	}
+
+	/**
+	 * The entry point. Without an address, the simulator starts an
+	 * {@link IngestServer} on the loopback interface with enough lanes.
+	 * 
+	 * @param args
+	 *           <code>-a host:port</code> the address of the server,
+	 *           <code>-c N</code> the controllers (4 by default),
+	 *           <code>-l N</code> the lanes per controller (8),
+	 *           <code>-p N</code> the players per lane (4), <code>-g N</code>
+	 *           the games per player (1000) and <code>-s N</code> the seed.
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		InetSocketAddress address = null;
+		int controllers = 4;
+		int lanes = 8;
+		int players = 4;
+		int games = 1000;
+		long seed = System.nanoTime();
+		try {
+			for (int i = 0; i < args.length; i++) {
+				String value = args[++i];
+				switch (args[i - 1]) {
+				case "-a":
+					int colon = value.lastIndexOf(':');
+					address = new InetSocketAddress(value.substring(0, colon),
+							Integer.parseInt(value.substring(colon + 1)));
+					break;
+				case "-c":
+					controllers = Integer.parseInt(value);
+					break;
+				case "-l":
+					lanes = Integer.parseInt(value);
+					break;
+				case "-p":
+					players = Integer.parseInt(value);
+					break;
+				case "-g":
+					games = Integer.parseInt(value);
+					break;
+				case "-s":
+					seed = Long.parseLong(value);
+					break;
+				default:
+					throw new IllegalArgumentException();
+				}
+			}
+			if (controllers < 1 || lanes < 1 || players < 1 || games < 1) {
+				throw new IllegalArgumentException();
+			}
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+		IngestServer server = null;
+		if (address == null) {
+			server = new IngestServer(new InetSocketAddress("127.0.0.1", 0), controllers * lanes,
+					players, ScoreBoardFactory.PACKED);
+			server.start();
+			address = server.getAddress();
+		}
+		PinsetterSimulator simulator = new PinsetterSimulator(address, controllers, lanes, players,
+				games, seed);
+		long mismatches = 0;
+		try {
+			long start = System.nanoTime();
+			long[] counts = simulator.run();
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.println(String.format(Locale.ROOT,
+					"%d events in %.2f s: %.0f events/s, %d rejected (seed %d)", counts[0], seconds,
+					counts[0] / seconds, counts[1], seed));
+			if (server != null) {
+				mismatches = simulator.check(server);
+				System.out.println(mismatches + " final scores differ from the games played");
+			}
+			if (counts[1] > 0) {
+				mismatches++;
+			}
+		} finally {
+			if (server != null) {
+				server.close();
+			}
+		}
+		if (mismatches > 0) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Runs all the controllers, until their games are over.
+	 * 
+	 * @return the number of events sent and the number of events rejected.
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public long[] run() throws IOException, InterruptedException {
+		ExecutorService threads = Executors.newFixedThreadPool(controllers);
+		List<Future<long[]>> results = new ArrayList<>();
+		long[] counts = new long[2];
+		try {
+			for (int c = 0; c < controllers; c++) {
+				results.add(threads.submit(new Controller(c)));
+			}
+			for (Future<long[]> result : results) {
+				long[] partial = result.get();
+				counts[0] += partial[0];
+				counts[1] += partial[1];
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IllegalStateException("A controller failed", e.getCause());
+		} finally {
+			threads.shutdownNow();
+		}
+		return counts;
+	}
+
+	/**
+	 * Checks the scoreboards of the server against the last games played.
+	 * 
+	 * @param server
+	 *           the server, after {@link #run()}.
+	 * @return the number of scoreboards with a different final score.
+	 */
+	public long check(IngestServer server) {
+		long mismatches = 0;
+		for (int lane = 0; lane < expected.length; lane++) {
+			for (int player = 0; player < players; player++) {
+				ScoreBoard board = server.getScoreBoard(lane, player);
+				board.computeFinalScore();
+				if (board.getFinalScore() != expected[lane][player]) {
+					mismatches++;
+				}
+			}
+		}
+		return mismatches;
+	}
+
+	/*
+	 * A controller, with its connection and its lanes.
+	 */
+	private class Controller implements Callable<long[]> {
+
+		private final int first;
+		private final Random random;
+		private final ByteBuffer events = ByteBuffer.allocateDirect(BATCH * IngestServer.EVENT_SIZE);
+		private final ByteBuffer replies = ByteBuffer.allocateDirect(BATCH);
+		private final byte[][][] shots = new byte[lanes][players][21];
+		private SocketChannel channel;
+		private long sent;
+		private long rejected;
+
+		Controller(int index) {
+			this.first = index * lanes;
+			this.random = new Random(seed + index);
+		}
+
+		@Override
+		public long[] call() throws IOException {
+			try (SocketChannel channel = SocketChannel.open(address)) {
+				this.channel = channel;
+				channel.socket().setTcpNoDelay(true);
+				for (int game = 0; game < games; game++) {
+					for (int lane = 0; lane < lanes; lane++) {
+						for (int player = 0; player < players; player++) {
+							expected[first + lane][player] = space.sample(random, shots[lane][player]);
+							send(first + lane, player, 0, 0, 0);
+						}
+					}
+					for (int frame = 1; frame <= 10; frame++) {
+						for (int lane = 0; lane < lanes; lane++) {
+							for (int player = 0; player < players; player++) {
+								roll(first + lane, player, frame, shots[lane][player]);
+							}
+						}
+					}
+				}
+				flush();
+			}
+			return new long[] { sent, rejected };
+		}
+
+		/*
+		 * Sends the balls of a player in a frame.
+		 */
+		private void roll(int lane, int player, int frame, byte[] game) throws IOException {
+			int first = game[Util.getIndex(frame - 1, 0)];
+			int second = game[Util.getIndex(frame - 1, 1)];
+			send(lane, player, frame, 1, first);
+			if (frame < 10 && first == 10) {
+				return;
+			}
+			send(lane, player, frame, 2, second);
+			if (frame == 10 && (first == 10 || first + second == 10)) {
+				send(lane, player, frame, 3, game[Util.getIndex(frame - 1, 2)]);
+			}
+		}
+
+		private void send(int lane, int player, int frame, int shot, int pins) throws IOException {
+			events.putShort((short) lane).put((byte) player).put((byte) frame).put((byte) shot)
+					.put((byte) pins);
+			sent++;
+			if (!events.hasRemaining()) {
+				flush();
+			}
+		}
+
+		private void flush() throws IOException {
+			((Buffer) events).flip();
+			int count = events.remaining() / IngestServer.EVENT_SIZE;
+			while (events.hasRemaining()) {
+				channel.write(events);
+			}
+			((Buffer) events).clear();
+			((Buffer) replies).clear().limit(count);
+			while (replies.hasRemaining()) {
+				if (channel.read(replies) < 0) {
+					throw new IOException("The server closed the connection");
+				}
+			}
+			for (int i = 0; i < count; i++) {
+				if (replies.get(i) != 0) {
+					rejected++;
+				}
+			}
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,217 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.stats;
+
+import java.util.Random;
+
+import spa.simone.tenpinbowling.model.BallStates;
+import spa.simone.tenpinbowling.model.Util;
+
+/**
+ * <p>
+ * This class describes the space of all the legal games: the ten-frame games
+ * whose balls are all accepted by the validation of the scoreboards. It gives
+ * the exact number of games with each final score, and it draws games
+ * uniformly at random, together with their final score.
+ * </p>
+ * <p>
+ * The games are too many to be enumerated (about 6.8 * 10^18), but the points
+ * still to be made only depend on the state of the game (see
+ * {@link BallStates}). So the number of ways to make each number of points is
+ * computed once per state, from the states that follow it: the table of a new
+ * game is the distribution of the final scores. The numbers of games fit in a
+ * <code>long</code>.
+ * </p>
+ * <p>
+ * A game is drawn ball by ball, each ball with a probability proportional to
+ * the number of games that go on with it, so all the games have the same
+ * probability. The final score of a drawn game is the sum of the points of
+ * its balls, computed by the state machine and not by a scoreboard, so the
+ * games can check any scorer. This class is thread-safe, if every thread has
+ * its own {@link Random}.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class GameSpace {
+
+	private static final int MAX_SCORE = GameStatistics.MAX_SCORE;
+	private static final int ROW = MAX_SCORE + 1;
+
+	// the number of ways to make g points from a state, at state * ROW + g
+	private final long[] counts = new long[(BallStates.OVER + 1) * ROW];
+	// the number of ways to finish the game from a state
+	private final long[] totals = new long[BallStates.OVER + 1];
+
+	/**
+	 * Instantiates the space, counting the games.
+	 */
+	public GameSpace() {
+		counts[BallStates.OVER * ROW] = 1;
+		totals[BallStates.OVER] = 1;
+		// the following states are greater
+		for (int state = BallStates.COUNT - 1; state >= 0; state--) {
+			int base = state * ROW;
+			for (int pins = 0; pins <= 10; pins++) {
+				int following = BallStates.next(state, pins);
+				if (following < 0) {
+					continue;
+				}
+				int gain = BallStates.gain(state, pins);
+				int followingBase = following * ROW;
+				for (int g = gain; g <= MAX_SCORE; g++) {
+					counts[base + g] += counts[followingBase + g - gain];
+				}
+				totals[state] += totals[following];
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of legal games.
+	 * 
+	 * @return the number of games.
+	 */
+	public long getGames() {
+		return totals[BallStates.FIRST];
+	}
+
+	/**
+	 * Gets the number of legal games with the final score.
+	 * 
+	 * @param score
+	 *           the final score [0-300].
+	 * @return the number of games.
+	 */
+	public long getScoreCount(int score) {
+		return counts[BallStates.FIRST * ROW + score];
+	}
+
+	/**
+	 * Gets the probability of the final score, if all the legal games have the
+	 * same probability.
+	 * 
+	 * @param score
+	 *           the final score [0-300].
+	 * @return the probability [0-1].
+	 */
+	public double getProbability(int score) {
+		return (double) getScoreCount(score) / getGames();
+	}
+
+	/**
+	 * Gets the average final score of the legal games.
+	 * 
+	 * @return the average.
+	 */
+	public double getAverage() {
+		double average = 0;
+		for (int score = 0; score <= MAX_SCORE; score++) {
+			average += score * getProbability(score);
+		}
+		return average;
+	}
+
+	/**
+	 * Draws a legal game, all with the same probability.
+	 * 
+	 * @param random
+	 *           the source of randomness.
+	 * @param shots
+	 *           receives the pins of the 21 shots, in the order of
+	 *           {@link Util#getIndex(int, int)}: a shot that is not thrown is
+	 *           0.
+	 * @return the final score of the game.
+	 */
+	public int sample(Random random, byte[] shots) {
+		return draw(random, -1, shots);
+	}
+
+	/**
+	 * Draws a legal game with the final score, all with the same probability.
+	 * 
+	 * @param random
+	 *           the source of randomness.
+	 * @param score
+	 *           the final score, which must have at least a game.
+	 * @param shots
+	 *           receives the pins of the 21 shots, in the order of
+	 *           {@link Util#getIndex(int, int)}: a shot that is not thrown is
+	 *           0.
+	 * @return the final score of the game.
+	 */
+	public int sample(Random random, int score, byte[] shots) {
+		if (score < 0 || score > MAX_SCORE || getScoreCount(score) == 0) {
+			throw new IllegalArgumentException(score + " is not the score of a legal game");
+		}
+		return draw(random, score, shots);
+	}
+
+	/*
+	 * Draws a game among the ones with the score, or among all of them if the
+	 * score is negative.
+	 */
+	private int draw(Random random, int score, byte[] shots) {
+		for (int i = 0; i < shots.length; i++) {
+			shots[i] = 0;
+		}
+		int state = BallStates.FIRST;
+		int points = 0;
+		while (state != BallStates.OVER) {
+			int rest = score - points;
+			long choice = nextLong(random, score < 0 ? totals[state] : counts[state * ROW + rest]);
+			int pins = 0;
+			int following;
+			for (;; pins++) {
+				following = BallStates.next(state, pins);
+				if (following < 0) {
+					continue;
+				}
+				int gain = BallStates.gain(state, pins);
+				long games;
+				if (score < 0) {
+					games = totals[following];
+				} else {
+					games = gain > rest ? 0 : counts[following * ROW + rest - gain];
+				}
+				if (choice < games) {
+					break;
+				}
+				choice -= games;
+			}
+			int frame = BallStates.getFrame(state);
+			shots[Util.getIndex(frame - 1, BallStates.getShot(state) - 1)] = (byte) pins;
+			points += BallStates.gain(state, pins);
+			state = following;
+		}
+		return points;
+	}
+
+	/*
+	 * Draws a long in [0, bound), without the bias of the modulo.
+	 */
+	private static long nextLong(Random random, long bound) {
+		long bits;
+		long value;
+		do {
+			bits = random.nextLong() >>> 1;
+			value = bits % bound;
+		} while (bits - value + (bound - 1) < 0);
+		return value;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,258 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.stats;
+
+import spa.simone.tenpinbowling.model.OutOfRangeException;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+
+/**
+ * <p>
+ * This class accumulates the statistics of a set of games: the average and
+ * the high game, the strike and the spare percentages, the distribution of
+ * the final scores and the distribution of the scores of each frame.
+ * </p>
+ * <p>
+ * All the counters are integers, so two partial results can be merged in any
+ * order with the same outcome. This class is not thread-safe: each worker
+ * fills its own instance, and the instances are merged afterwards.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class GameStatistics {
+
+	/**
+	 * The highest score of a game.
+	 */
+	public static final int MAX_SCORE = 300;
+
+	/**
+	 * The highest score of a frame.
+	 */
+	public static final int MAX_FRAME_SCORE = 30;
+
+	private long games;
+	private long totalScore;
+	private int highGame = -1;
+	private int lowGame = MAX_SCORE + 1;
+	private long strikes;
+	private long strikeChances;
+	private long spares;
+	private long spareChances;
+	private final long[] scores = new long[MAX_SCORE + 1];
+	private final long[][] frameScores = new long[10][MAX_FRAME_SCORE + 1];
+
+	/**
+	 * Adds a finished game.
+	 * 
+	 * @param board
+	 *           the scoreboard of the game.
+	 */
+	public void add(ScoreBoard board) {
+		try {
+			int finalScore = 0;
+			for (int frame = 1; frame <= 10; frame++) {
+				int score = board.getScoreOf(frame);
+				frameScores[frame - 1][score]++;
+				finalScore += score;
+			}
+			games++;
+			totalScore += finalScore;
+			highGame = Math.max(highGame, finalScore);
+			lowGame = Math.min(lowGame, finalScore);
+			scores[finalScore]++;
+			strikes += board.getStrikes();
+			spares += board.getSpares();
+			// a chance of strike is a ball thrown at a full rack, a chance of
+			// spare is a rack left standing after a ball
+			strikeChances += 9;
+			for (int frame = 1; frame <= 9; frame++) {
+				if (!board.isStrike(frame)) {
+					spareChances++;
+				}
+			}
+			int first = board.getShot(10, 1);
+			int second = board.getShot(10, 2);
+			strikeChances++;
+			if (first == 10) {
+				strikeChances++;
+				if (second == 10) {
+					strikeChances++;
+				} else {
+					spareChances++;
+				}
+			} else {
+				spareChances++;
+				if (first + second == 10) {
+					strikeChances++;
+				}
+			}
+		} catch (OutOfRangeException e) {
+			throw new AssertionError("The frames and the shots of a game are out of range: " + e);
+		}
+	}
+
+	/**
+	 * Adds the games of another set.
+	 * 
+	 * @param other
+	 *           the statistics of the other set.
+	 */
+	public void merge(GameStatistics other) {
+		games += other.games;
+		totalScore += other.totalScore;
+		highGame = Math.max(highGame, other.highGame);
+		lowGame = Math.min(lowGame, other.lowGame);
+		strikes += other.strikes;
+		strikeChances += other.strikeChances;
+		spares += other.spares;
+		spareChances += other.spareChances;
+		for (int score = 0; score <= MAX_SCORE; score++) {
+			scores[score] += other.scores[score];
+		}
+		for (int frame = 0; frame < 10; frame++) {
+			for (int score = 0; score <= MAX_FRAME_SCORE; score++) {
+				frameScores[frame][score] += other.frameScores[frame][score];
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of games.
+	 * 
+	 * @return the number of games.
+	 */
+	public long getGames() {
+		return games;
+	}
+
+	/**
+	 * Gets the sum of the final scores.
+	 * 
+	 * @return the total score.
+	 */
+	public long getTotalScore() {
+		return totalScore;
+	}
+
+	/**
+	 * Gets the average final score.
+	 * 
+	 * @return the average, 0 if there are no games.
+	 */
+	public double getAverage() {
+		return games == 0 ? 0 : (double) totalScore / games;
+	}
+
+	/**
+	 * Gets the highest final score.
+	 * 
+	 * @return the high game, -1 if there are no games.
+	 */
+	public int getHighGame() {
+		return highGame;
+	}
+
+	/**
+	 * Gets the lowest final score.
+	 * 
+	 * @return the low game, 301 if there are no games.
+	 */
+	public int getLowGame() {
+		return lowGame;
+	}
+
+	/**
+	 * Gets the number of strikes.
+	 * 
+	 * @return the number of strikes.
+	 */
+	public long getStrikes() {
+		return strikes;
+	}
+
+	/**
+	 * Gets the number of spares.
+	 * 
+	 * @return the number of spares.
+	 */
+	public long getSpares() {
+		return spares;
+	}
+
+	/**
+	 * Gets the percentage of the balls thrown at a full rack that were strikes.
+	 * 
+	 * @return the strike percentage [0-100].
+	 */
+	public double getStrikePercentage() {
+		return strikeChances == 0 ? 0 : 100.0 * strikes / strikeChances;
+	}
+
+	/**
+	 * Gets the percentage of the racks left standing that were spared.
+	 * 
+	 * @return the spare percentage [0-100].
+	 */
+	public double getSparePercentage() {
+		return spareChances == 0 ? 0 : 100.0 * spares / spareChances;
+	}
+
+	/**
+	 * Gets the number of games with the final score.
+	 * 
+	 * @param score
+	 *           the final score [0-300].
+	 * @return the number of games.
+	 */
+	public long getScoreCount(int score) {
+		return scores[score];
+	}
+
+	/**
+	 * Gets the number of games with the score in the frame.
+	 * 
+	 * @param frame
+	 *           the number of the frame [1-10].
+	 * @param score
+	 *           the score of the frame [0-30].
+	 * @return the number of games.
+	 */
+	public long getFrameScoreCount(int frame, int score) {
+		return frameScores[frame - 1][score];
+	}
+
+	/**
+	 * Gets the histogram of the final scores.
+	 * 
+	 * @param width
+	 *           the width of a bucket: the bucket <code>i</code> counts the
+	 *           scores in the range [i * width, (i + 1) * width - 1].
+	 * @return the histogram.
+	 */
+	public long[] getHistogram(int width) {
+		if (width < 1) {
+			throw new IllegalArgumentException(width + " is an invalid bucket width");
+		}
+		long[] histogram = new long[MAX_SCORE / width + 1];
+		for (int score = 0; score <= MAX_SCORE; score++) {
+			histogram[score / width] += scores[score];
+		}
+		return histogram;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.stats;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import spa.simone.tenpinbowling.model.PlayerRegistry;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+
+/**
+ * <p>
+ * This class computes the {@link SeasonStatistics} of many games on all the
+ * cores.
+ * </p>
+ * <p>
+ * The list of games is split in halves until there are a few parts per
+ * worker thread, each aggregated sequentially, and the partial results are
+ * merged on the way back. Since the statistics are sorted and made of integer
+ * counters, the result is the same of a sequential aggregation, however the
+ * work is split. The players are kept in the registry of the scoreboards if
+ * they all share one, otherwise in a new registry.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class SeasonAggregator {
+
+	// the minimum number of games of a part aggregated sequentially
+	private static final int MIN_PART = 4096;
+	// the number of parts per worker, to balance the load
+	private static final int PARTS_PER_WORKER = 4;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Instantiates the aggregator, with a worker thread per core.
+	 */
+	public SeasonAggregator() {
+		this(new ForkJoinPool());
+	}
+
+	/**
+	 * Instantiates the aggregator.
+	 * 
+	 * @param pool
+	 *           the pool that runs the aggregation.
+	 */
+	public SeasonAggregator(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Computes the statistics of the games. The scoreboards must not change
+	 * during the aggregation.
+	 * 
+	 * @param boards
+	 *           the scoreboards of the finished games. The list should have a
+	 *           fast random access.
+	 * @return the statistics.
+	 */
+	public SeasonStatistics aggregate(List<? extends ScoreBoard> boards) {
+		// every part has its own statistics of each player, which are costly to
+		// merge: the parts are as few as needed to keep all the workers busy
+		int threshold = Math.max(MIN_PART, boards.size()
+				/ (pool.getParallelism() * PARTS_PER_WORKER));
+		return pool.invoke(new Part(boards, 0, boards.size(), threshold, registry(boards)));
+	}
+
+	/**
+	 * Computes the statistics of the games in the calling thread.
+	 * 
+	 * @param boards
+	 *           the scoreboards of the finished games.
+	 * @return the statistics.
+	 */
+	public static SeasonStatistics aggregateSequentially(Iterable<? extends ScoreBoard> boards) {
+		return aggregateSequentially(boards, registry(boards));
+	}
+
+	private static SeasonStatistics aggregateSequentially(Iterable<? extends ScoreBoard> boards,
+			PlayerRegistry registry) {
+		SeasonStatistics statistics = new SeasonStatistics(registry);
+		for (ScoreBoard board : boards) {
+			statistics.add(board);
+		}
+		return statistics;
+	}
+
+	/*
+	 * Gets the registry shared by the scoreboards, or a new one, so that the
+	 * aggregation does not register names in the registries of the games.
+	 */
+	private static PlayerRegistry registry(Iterable<? extends ScoreBoard> boards) {
+		PlayerRegistry registry = null;
+		for (ScoreBoard board : boards) {
+			if (registry == null) {
+				registry = board.getPlayerRegistry();
+			} else if (board.getPlayerRegistry() != registry) {
+				return new PlayerRegistry();
+			}
+		}
+		return registry == null ? new PlayerRegistry() : registry;
+	}
+
+	/**
+	 * Stops the worker threads.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/*
+	 * The aggregation of the games [from, to).
+	 */
+	private static class Part extends RecursiveTask<SeasonStatistics> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<? extends ScoreBoard> boards;
+		private final int from;
+		private final int to;
+		private final int threshold;
+		private final PlayerRegistry registry;
+
+		Part(List<? extends ScoreBoard> boards, int from, int to, int threshold,
+				PlayerRegistry registry) {
+			this.boards = boards;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+			this.registry = registry;
+		}
+
+		@Override
+		protected SeasonStatistics compute() {
+			if (to - from <= threshold) {
+				return aggregateSequentially(boards.subList(from, to), registry);
+			}
+			int middle = (from + to) >>> 1;
+			Part left = new Part(boards, from, middle, threshold, registry);
+			left.fork();
+			SeasonStatistics statistics = new Part(boards, middle, to, threshold, registry)
+					.compute();
+			statistics.merge(left.join());
+			return statistics;
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,173 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.stats;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import spa.simone.tenpinbowling.model.PlayerRegistry;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+
+/**
+ * <p>
+ * This class holds the statistics of a season: the ones of all the games, and
+ * the ones of each player.
+ * </p>
+ * <p>
+ * The players are kept by their id in a {@link PlayerRegistry}, and they are
+ * sorted by name when they are read, so the result does not depend on the
+ * order the games were added or the partial results were merged. The games
+ * whose scoreboards belong to another registry are keyed by name, registered
+ * in the one of the statistics. A game of a player without a name is counted
+ * under the empty name.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class SeasonStatistics {
+
+	private final PlayerRegistry registry;
+	private final GameStatistics all = new GameStatistics();
+	// the statistics of each player at its id plus one, the ones of the games
+	// without a name at 0
+	private GameStatistics[] players = new GameStatistics[16];
+
+	/**
+	 * Instantiates the statistics, keeping the players in a new registry.
+	 */
+	public SeasonStatistics() {
+		this(new PlayerRegistry());
+	}
+
+	/**
+	 * Instantiates the statistics of the players of a registry.
+	 * 
+	 * @param registry
+	 *           the registry of the players.
+	 */
+	public SeasonStatistics(PlayerRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Adds a finished game.
+	 * 
+	 * @param board
+	 *           the scoreboard of the game.
+	 */
+	public void add(ScoreBoard board) {
+		all.add(board);
+		int id = board.getPlayerRegistry() == registry ? board.getPlayerId() : registry
+				.register(board.getPlayerName());
+		player(id + 1).add(board);
+	}
+
+	/**
+	 * Adds the games of another part of the season.
+	 * 
+	 * @param other
+	 *           the statistics of the other part.
+	 */
+	public void merge(SeasonStatistics other) {
+		all.merge(other.all);
+		for (int slot = 0; slot < other.players.length; slot++) {
+			if (other.players[slot] == null) {
+				continue;
+			}
+			int id = slot - 1;
+			if (other.registry != registry) {
+				id = registry.register(other.registry.getName(id));
+			}
+			player(id + 1).merge(other.players[slot]);
+		}
+	}
+
+	/**
+	 * Gets the statistics of all the games.
+	 * 
+	 * @return the statistics of the season.
+	 */
+	public GameStatistics getAll() {
+		return all;
+	}
+
+	/**
+	 * Gets the statistics of each player.
+	 * 
+	 * @return the statistics, sorted by name.
+	 */
+	public SortedMap<String, GameStatistics> getPlayers() {
+		SortedMap<String, GameStatistics> sorted = new TreeMap<>();
+		for (int slot = 0; slot < players.length; slot++) {
+			if (players[slot] == null) {
+				continue;
+			}
+			String name = slot == 0 ? "" : registry.getName(slot - 1);
+			GameStatistics existing = sorted.get(name);
+			if (existing == null) {
+				sorted.put(name, players[slot]);
+			} else {
+				// the games without a name, and the ones with the empty name
+				GameStatistics both = new GameStatistics();
+				both.merge(existing);
+				both.merge(players[slot]);
+				sorted.put(name, both);
+			}
+		}
+		return Collections.unmodifiableSortedMap(sorted);
+	}
+
+	/**
+	 * Serialize the statistics in a string: a line for the whole season and one
+	 * for each player, sorted by name.
+	 * 
+	 * @return the serialized statistics.
+	 */
+	public String serializeStatistics() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format(Locale.ROOT, "%-20s %8s %8s %6s %8s %8s%n", "Player", "Games",
+				"Average", "High", "Strike%", "Spare%"));
+		append(builder, "-- Season", all);
+		for (Map.Entry<String, GameStatistics> entry : getPlayers().entrySet()) {
+			append(builder, entry.getKey(), entry.getValue());
+		}
+		return builder.toString();
+	}
+
+	private GameStatistics player(int slot) {
+		if (slot >= players.length) {
+			players = Arrays.copyOf(players, Math.max(slot + 1, players.length * 2));
+		}
+		GameStatistics player = players[slot];
+		if (player == null) {
+			player = new GameStatistics();
+			players[slot] = player;
+		}
+		return player;
+	}
+
+	private static void append(StringBuilder builder, String name, GameStatistics statistics) {
+		builder.append(String.format(Locale.ROOT, "%-20s %8d %8.2f %6d %8.2f %8.2f%n", name,
+				statistics.getGames(), statistics.getAverage(), statistics.getHighGame(),
+				statistics.getStrikePercentage(), statistics.getSparePercentage()));
+	}
+
+}
\ No newline at end of file
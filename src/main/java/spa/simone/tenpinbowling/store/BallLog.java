@@ -0,0 +1,744 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import spa.simone.tenpinbowling.model.OutOfRangeException;
+import spa.simone.tenpinbowling.model.PackedScoreBoard;
+import spa.simone.tenpinbowling.model.PlayerRegistry;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ValidationResult;
+
+/**
+ * <p>
+ * This class is an append-only log of the balls scored on the lanes, from
+ * which the scoreboards can be rebuilt after a crash.
+ * </p>
+ * <p>
+ * Every {@link ScoreBoard#setPins(int, int, int)} call is recorded as a
+ * 6-byte event: the lane [0-255], the game [0-65535] and the player [0-255]
+ * packed in an <code>int</code> key (see {@link #key(int, int, int)}),
+ * followed by the frame, the shot and the pins packed in a
+ * <code>short</code>. A {@link ScoreBoard#reset()} is recorded as an event
+ * with frame 0, and the name of a player as an event with frame 15, followed
+ * by the name in UTF-8 (at most 255 bytes).
+ * </p>
+ * <p>
+ * A ball is validated against the recorded game before it is written, and
+ * the recorded game changes only after the event has been written. The
+ * events reach the file (i.e. they survive a crash of the process, not of the
+ * operating system) before {@link #append(int, int, int, int, int, int)}
+ * returns or, if the log was opened with a flush delay, at most that delay
+ * later: the events of that interval are written together, and a crash loses
+ * them. A failed write breaks the log: the following calls throw an
+ * {@link IOException}, and the log must be opened again.
+ * </p>
+ * <p>
+ * The log keeps the state of every game in memory, and every
+ * <code>snapshotInterval</code> events it writes it to a snapshot file, forced
+ * to the disk along with the log. {@link #open(File, int)} loads the latest
+ * snapshot, and replays only the events that follow it.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class BallLog implements Closeable {
+
+	/**
+	 * The size in bytes of an event.
+	 */
+	public static final int EVENT_SIZE = 6;
+
+	/**
+	 * The maximum length in bytes of the name of a player, in UTF-8.
+	 */
+	public static final int MAX_NAME = 255;
+
+	private static final String LOG = "balls.log";
+	private static final String SNAPSHOT = "balls.snapshot";
+	private static final int MAGIC = 0x42414c32;
+	private static final int BUFFER_SIZE = EVENT_SIZE * 8192;
+	private static final int RESET = 0;
+	private static final int NAME = 15;
+	// the flag of a name event of a player without a name
+	private static final int NO_NAME = 0x1000;
+
+	private final File directory;
+	private final int snapshotInterval;
+	private final Map<Integer, Entry> games = new HashMap<>();
+	// the names of the copies, which live as long as the log
+	private final PlayerRegistry registry = new PlayerRegistry();
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private final ScheduledExecutorService flusher;
+	private FileChannel channel;
+	private long position;
+	private int events;
+	private IOException failure;
+
+	private BallLog(File directory, int snapshotInterval, long flushDelay) {
+		this.directory = directory;
+		this.snapshotInterval = snapshotInterval;
+		if (flushDelay == 0) {
+			this.flusher = null;
+		} else {
+			this.flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "BallLog flusher");
+					thread.setDaemon(true);
+					return thread;
+				}
+
+			});
+		}
+	}
+
+	/**
+	 * Opens the log in the directory, rebuilding the state of the games from
+	 * the latest snapshot and the events that follow it. Every event is written
+	 * to the file before the call that records it returns.
+	 * 
+	 * @param directory
+	 *           the directory of the log and of the snapshot.
+	 * @param snapshotInterval
+	 *           the number of events between two snapshots.
+	 * @return the log, ready to record new events.
+	 * @throws IOException
+	 *            if the files cannot be read, or they are corrupted.
+	 */
+	public static BallLog open(File directory, int snapshotInterval) throws IOException {
+		return open(directory, snapshotInterval, 0, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Opens the log in the directory, rebuilding the state of the games from
+	 * the latest snapshot and the events that follow it. The events are written
+	 * to the file together, at most <code>flushDelay</code> after they are
+	 * recorded.
+	 * 
+	 * @param directory
+	 *           the directory of the log and of the snapshot.
+	 * @param snapshotInterval
+	 *           the number of events between two snapshots.
+	 * @param flushDelay
+	 *           the maximum delay of an event, 0 to write every event at once.
+	 * @param unit
+	 *           the time unit of the delay.
+	 * @return the log, ready to record new events.
+	 * @throws IOException
+	 *            if the files cannot be read, or they are corrupted.
+	 */
+	public static BallLog open(File directory, int snapshotInterval, long flushDelay, TimeUnit unit)
+			throws IOException {
+		if (snapshotInterval < 1) {
+			throw new IllegalArgumentException(snapshotInterval
+					+ " is an invalid snapshot interval. It must be positive");
+		}
+		if (flushDelay < 0) {
+			throw new IllegalArgumentException(flushDelay + " is an invalid flush delay");
+		}
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Cannot create the directory " + directory);
+		}
+		long delay = unit.toNanos(flushDelay);
+		final BallLog log = new BallLog(directory, snapshotInterval, delay);
+		try {
+			log.recover();
+		} catch (IOException | RuntimeException e) {
+			log.release();
+			throw e;
+		}
+		if (log.flusher != null) {
+			log.flusher.scheduleWithFixedDelay(new Runnable() {
+
+				@Override
+				public void run() {
+					log.flushQuietly();
+				}
+
+			}, delay, delay, TimeUnit.NANOSECONDS);
+		}
+		return log;
+	}
+
+	/**
+	 * Packs the lane, the game and the player in a key.
+	 * 
+	 * @param lane
+	 *           the number of the lane [0-255].
+	 * @param game
+	 *           the number of the game on the lane [0-65535].
+	 * @param player
+	 *           the index of the player in the game [0-255].
+	 * @return the key.
+	 */
+	public static int key(int lane, int game, int player) {
+		if ((lane & ~0xFF) != 0 || (game & ~0xFFFF) != 0 || (player & ~0xFF) != 0) {
+			throw new IllegalArgumentException("Invalid key: lane " + lane + ", game " + game
+					+ ", player " + player);
+		}
+		return lane << 24 | game << 8 | player;
+	}
+
+	/**
+	 * Gets the lane of a key.
+	 * 
+	 * @param key
+	 *           the key.
+	 * @return the number of the lane.
+	 */
+	public static int laneOf(int key) {
+		return key >>> 24;
+	}
+
+	/**
+	 * Gets the game of a key.
+	 * 
+	 * @param key
+	 *           the key.
+	 * @return the number of the game.
+	 */
+	public static int gameOf(int key) {
+		return (key >>> 8) & 0xFFFF;
+	}
+
+	/**
+	 * Gets the player of a key.
+	 * 
+	 * @param key
+	 *           the key.
+	 * @return the index of the player.
+	 */
+	public static int playerOf(int key) {
+		return key & 0xFF;
+	}
+
+	/**
+	 * Records a ball, if it is valid for the recorded game.
+	 * 
+	 * @param lane
+	 *           the number of the lane.
+	 * @param game
+	 *           the number of the game on the lane.
+	 * @param player
+	 *           the index of the player in the game.
+	 * @param frame
+	 *           the number of the frame.
+	 * @param shot
+	 *           the number of the shot.
+	 * @param pins
+	 *           the number of pins knocked down.
+	 * @throws ScoreBoardException
+	 *            if the ball is not valid for the recorded game: nothing is
+	 *            recorded.
+	 * @throws IOException
+	 */
+	public synchronized void append(int lane, int game, int player, int frame, int shot, int pins)
+			throws ScoreBoardException, IOException {
+		int key = key(lane, game, player);
+		beforeWrite();
+		PackedScoreBoard next = next(key);
+		next.setPins(frame, shot, pins);
+		write(key, frame << 8 | shot << 4 | pins, null);
+		applyBall(key, next);
+	}
+
+	/**
+	 * Records a ball, if it is valid for the recorded game.
+	 * 
+	 * @param lane
+	 *           the number of the lane.
+	 * @param game
+	 *           the number of the game on the lane.
+	 * @param player
+	 *           the index of the player in the game.
+	 * @param frame
+	 *           the number of the frame.
+	 * @param shot
+	 *           the number of the shot.
+	 * @param pins
+	 *           the number of pins knocked down.
+	 * @return {@link ValidationResult#VALID} if the ball has been recorded, the
+	 *         reason it is not valid otherwise.
+	 * @throws IOException
+	 */
+	public synchronized ValidationResult tryAppend(int lane, int game, int player, int frame,
+			int shot, int pins) throws IOException {
+		int key = key(lane, game, player);
+		beforeWrite();
+		PackedScoreBoard next = next(key);
+		ValidationResult result = next.trySetPins(frame, shot, pins);
+		if (result == ValidationResult.VALID) {
+			write(key, frame << 8 | shot << 4 | pins, null);
+			applyBall(key, next);
+		}
+		return result;
+	}
+
+	/**
+	 * Records the reset of the scoreboard of a player, which forgets all its
+	 * balls and its name.
+	 * 
+	 * @param lane
+	 *           the number of the lane.
+	 * @param game
+	 *           the number of the game on the lane.
+	 * @param player
+	 *           the index of the player in the game.
+	 * @throws IOException
+	 */
+	public synchronized void appendReset(int lane, int game, int player) throws IOException {
+		int key = key(lane, game, player);
+		beforeWrite();
+		write(key, RESET, null);
+		games.remove(key);
+	}
+
+	/**
+	 * Records the name of a player.
+	 * 
+	 * @param lane
+	 *           the number of the lane.
+	 * @param game
+	 *           the number of the game on the lane.
+	 * @param player
+	 *           the index of the player in the game.
+	 * @param name
+	 *           the name, or <code>null</code>.
+	 * @throws IllegalArgumentException
+	 *            if the name is longer than {@link #MAX_NAME} bytes in UTF-8.
+	 * @throws IOException
+	 */
+	public synchronized void appendName(int lane, int game, int player, String name)
+			throws IOException {
+		int key = key(lane, game, player);
+		byte[] bytes = name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+		if (bytes != null && bytes.length > MAX_NAME) {
+			throw new IllegalArgumentException("The name " + name + " is longer than " + MAX_NAME
+					+ " bytes");
+		}
+		beforeWrite();
+		write(key, bytes == null ? NAME << 8 | NO_NAME : NAME << 8 | bytes.length, bytes);
+		applyName(key, name);
+	}
+
+	/**
+	 * Writes the recorded events to the file.
+	 * 
+	 * @throws IOException
+	 */
+	public synchronized void flush() throws IOException {
+		checkFailure();
+		try {
+			((Buffer) buffer).flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			((Buffer) buffer).clear();
+		} catch (IOException e) {
+			failure = e;
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes the state of all the games to the snapshot file, so that the
+	 * events recorded so far will not be replayed.
+	 * 
+	 * @throws IOException
+	 */
+	public synchronized void snapshot() throws IOException {
+		flush();
+		channel.force(false);
+		File temp = new File(directory, SNAPSHOT + ".tmp");
+		try (FileOutputStream file = new FileOutputStream(temp);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+			out.writeInt(MAGIC);
+			out.writeLong(position);
+			out.writeInt(games.size());
+			for (Map.Entry<Integer, Entry> entry : games.entrySet()) {
+				Entry game = entry.getValue();
+				out.writeInt(entry.getKey());
+				out.writeLong(game.board.getLowShots());
+				out.writeLong(game.board.getHighShots());
+				out.writeInt(game.balls);
+				out.writeLong(game.last);
+				out.writeBoolean(game.name != null);
+				if (game.name != null) {
+					out.writeUTF(game.name);
+				}
+			}
+			out.flush();
+			file.getFD().sync();
+		}
+		Files.move(temp.toPath(), new File(directory, SNAPSHOT).toPath(),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		events = 0;
+	}
+
+	/**
+	 * Gets a copy of the recorded state of a game.
+	 * 
+	 * @param lane
+	 *           the number of the lane.
+	 * @param game
+	 *           the number of the game on the lane.
+	 * @param player
+	 *           the index of the player in the game.
+	 * @return the scoreboard of the player, with its name in a registry of the
+	 *         log, or <code>null</code> if nothing was recorded.
+	 */
+	public synchronized ScoreBoard getScoreBoard(int lane, int game, int player) {
+		Entry entry = games.get(key(lane, game, player));
+		return entry == null ? null : entry.copy(registry);
+	}
+
+	/**
+	 * Gets a copy of the recorded state of all the games.
+	 * 
+	 * @return the scoreboards, with the names of the players in a registry of
+	 *         the log, by key.
+	 */
+	public synchronized Map<Integer, ScoreBoard> getScoreBoards() {
+		Map<Integer, ScoreBoard> boards = new HashMap<>(games.size() * 2);
+		for (Map.Entry<Integer, Entry> entry : games.entrySet()) {
+			boards.put(entry.getKey(), entry.getValue().copy(registry));
+		}
+		return boards;
+	}
+
+	/**
+	 * Gets the recorded name of a player.
+	 * 
+	 * @param lane
+	 *           the number of the lane.
+	 * @param game
+	 *           the number of the game on the lane.
+	 * @param player
+	 *           the index of the player in the game.
+	 * @return the name, or <code>null</code>.
+	 */
+	public synchronized String getPlayerName(int lane, int game, int player) {
+		Entry entry = games.get(key(lane, game, player));
+		return entry == null ? null : entry.name;
+	}
+
+	/**
+	 * Gets the number of balls recorded for a player since the last reset.
+	 * 
+	 * @param lane
+	 *           the number of the lane.
+	 * @param game
+	 *           the number of the game on the lane.
+	 * @param player
+	 *           the index of the player in the game.
+	 * @return the number of balls.
+	 */
+	public synchronized int getBalls(int lane, int game, int player) {
+		Entry entry = games.get(key(lane, game, player));
+		return entry == null ? 0 : entry.balls;
+	}
+
+	/**
+	 * Gets the number of players recorded for a game.
+	 * 
+	 * @param lane
+	 *           the number of the lane.
+	 * @param game
+	 *           the number of the game on the lane.
+	 * @return the highest index of a player plus one, 0 if nothing was
+	 *         recorded.
+	 */
+	public synchronized int getPlayers(int lane, int game) {
+		int players = 0;
+		for (Integer key : games.keySet()) {
+			if (laneOf(key) == lane && gameOf(key) == game) {
+				players = Math.max(players, playerOf(key) + 1);
+			}
+		}
+		return players;
+	}
+
+	/**
+	 * Gets the lanes with a recorded game.
+	 * 
+	 * @return the numbers of the lanes, in ascending order.
+	 */
+	public synchronized int[] getLanes() {
+		TreeSet<Integer> lanes = new TreeSet<>();
+		for (Integer key : games.keySet()) {
+			lanes.add(laneOf(key));
+		}
+		int[] numbers = new int[lanes.size()];
+		int i = 0;
+		for (Integer lane : lanes) {
+			numbers[i++] = lane;
+		}
+		return numbers;
+	}
+
+	/**
+	 * Gets the game of the lane with the latest event.
+	 * 
+	 * @param lane
+	 *           the number of the lane.
+	 * @return the number of the game, -1 if nothing was recorded on the lane.
+	 */
+	public synchronized int getLatestGame(int lane) {
+		int game = -1;
+		long last = -1;
+		for (Map.Entry<Integer, Entry> entry : games.entrySet()) {
+			if (laneOf(entry.getKey()) == lane && entry.getValue().last > last) {
+				last = entry.getValue().last;
+				game = gameOf(entry.getKey());
+			}
+		}
+		return game;
+	}
+
+	/**
+	 * Flushes and closes the log. The state of the games is not written to the
+	 * snapshot, it will be replayed from the log.
+	 * 
+	 * @throws IOException
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			if (channel.isOpen()) {
+				flush();
+			}
+		} finally {
+			release();
+		}
+	}
+
+	private void release() throws IOException {
+		if (flusher != null) {
+			flusher.shutdown();
+		}
+		if (channel != null) {
+			channel.close();
+		}
+	}
+
+	private synchronized void flushQuietly() {
+		if (failure == null && channel.isOpen() && buffer.position() > 0) {
+			try {
+				flush();
+			} catch (IOException e) {
+				// the failure is kept, and thrown by the next call
+			}
+		}
+	}
+
+	private void checkFailure() throws IOException {
+		if (failure != null) {
+			throw new IOException("The log failed, and must be opened again", failure);
+		}
+	}
+
+	/*
+	 * Takes the periodic snapshot before an event is written, so that a failed
+	 * snapshot does not leave a written event unapplied.
+	 */
+	private void beforeWrite() throws IOException {
+		checkFailure();
+		if (events >= snapshotInterval) {
+			snapshot();
+		}
+	}
+
+	private void write(int key, int ball, byte[] name) throws IOException {
+		int size = EVENT_SIZE + (name == null ? 0 : name.length);
+		if (buffer.remaining() < size) {
+			flush();
+		}
+		buffer.putInt(key);
+		buffer.putShort((short) ball);
+		if (name != null) {
+			buffer.put(name);
+		}
+		if (flusher == null) {
+			flush();
+		}
+		position += size;
+		events++;
+	}
+
+	private PackedScoreBoard next(int key) {
+		Entry entry = games.get(key);
+		return entry == null ? new PackedScoreBoard() : new PackedScoreBoard(entry.board);
+	}
+
+	private Entry entry(int key) {
+		Entry entry = games.get(key);
+		if (entry == null) {
+			entry = new Entry();
+			games.put(key, entry);
+		}
+		return entry;
+	}
+
+	private void applyBall(int key, PackedScoreBoard board) {
+		Entry entry = entry(key);
+		entry.board = board;
+		entry.balls++;
+		entry.last = position;
+	}
+
+	private void applyName(int key, String name) {
+		Entry entry = entry(key);
+		entry.name = name;
+		entry.last = position;
+	}
+
+	/*
+	 * Loads the snapshot and replays the log that follows it. A trailing
+	 * partial event (a write interrupted by a crash) is discarded.
+	 */
+	private void recover() throws IOException {
+		File snapshot = new File(directory, SNAPSHOT);
+		if (snapshot.exists()) {
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+					new FileInputStream(snapshot)))) {
+				if (in.readInt() != MAGIC) {
+					throw new IOException(snapshot + " is not a snapshot of this version");
+				}
+				position = in.readLong();
+				for (int i = in.readInt(); i > 0; i--) {
+					int key = in.readInt();
+					Entry entry = entry(key);
+					entry.board = new PackedScoreBoard(null, in.readLong(), in.readLong());
+					entry.balls = in.readInt();
+					entry.last = in.readLong();
+					entry.name = in.readBoolean() ? in.readUTF() : null;
+				}
+			} catch (OutOfRangeException e) {
+				throw new IOException(snapshot + " is corrupted", e);
+			}
+		}
+		channel = new RandomAccessFile(new File(directory, LOG), "rw").getChannel();
+		if (channel.size() < position) {
+			throw new IOException("The log is shorter than the snapshot");
+		}
+		channel.position(position);
+		((Buffer) buffer).clear();
+		try {
+			while (channel.read(buffer) > 0) {
+				((Buffer) buffer).flip();
+				while (replay()) {
+					// the next event
+				}
+				buffer.compact();
+			}
+		} catch (ScoreBoardException e) {
+			throw new IOException("The log is corrupted at " + position, e);
+		}
+		((Buffer) buffer).clear();
+		channel.truncate(position);
+		channel.position(position);
+	}
+
+	/*
+	 * Applies the next event in the buffer, if it is complete.
+	 */
+	private boolean replay() throws ScoreBoardException {
+		if (buffer.remaining() < EVENT_SIZE) {
+			return false;
+		}
+		int start = buffer.position();
+		int key = buffer.getInt(start);
+		int ball = buffer.getShort(start + 4) & 0xFFFF;
+		int frame = (ball >>> 8) & 0xF;
+		int size = EVENT_SIZE;
+		if (frame == NAME && (ball & NO_NAME) == 0) {
+			size += ball & 0xFF;
+			if (buffer.remaining() < size) {
+				return false;
+			}
+		}
+		if (frame == RESET) {
+			games.remove(key);
+		} else if (frame == NAME) {
+			String name = null;
+			if ((ball & NO_NAME) == 0) {
+				byte[] bytes = new byte[ball & 0xFF];
+				((Buffer) buffer).position(start + EVENT_SIZE);
+				buffer.get(bytes);
+				name = new String(bytes, StandardCharsets.UTF_8);
+			}
+			applyName(key, name);
+		} else {
+			PackedScoreBoard next = next(key);
+			next.setPins(frame, (ball >>> 4) & 0xF, ball & 0xF);
+			applyBall(key, next);
+		}
+		((Buffer) buffer).position(start + size);
+		position += size;
+		return true;
+	}
+
+	/*
+	 * The recorded state of a player.
+	 */
+	private static class Entry {
+
+		private PackedScoreBoard board = new PackedScoreBoard();
+		private String name;
+		// the number of balls since the last reset
+		private int balls;
+		// the position of the latest ball or name
+		private long last = -1;
+
+		ScoreBoard copy(PlayerRegistry registry) {
+			try {
+				return new PackedScoreBoard(registry, name, board.getLowShots(),
+						board.getHighShots());
+			} catch (OutOfRangeException e) {
+				throw new AssertionError(e);
+			}
+		}
+
+	}
+
+}
\ No newline at end of file
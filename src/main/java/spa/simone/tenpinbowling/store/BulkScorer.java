@@ -0,0 +1,192 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.store;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.Util;
+
+/**
+ * <p>
+ * This class scores many games at once.
+ * </p>
+ * <p>
+ * The games are laid out by column: <code>shots[index][game]</code> is the
+ * number of pins knocked down by the shot of absolute index
+ * <code>index</code> (see {@link Util#getIndex(int, int)}, the third shot of
+ * the last frame has index 20) in the game <code>game</code>. The rules are
+ * the same of {@link ScoreBoard}, but they are written without branches, so
+ * that every frame is a counted loop over the games doing the same
+ * arithmetic on each of them, a shape that the JIT compiler can unroll and
+ * turn into SIMD instructions.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public final class BulkScorer {
+
+	/**
+	 * The number of shots (columns) of a game.
+	 */
+	public static final int SHOTS = 21;
+
+	private BulkScorer() {
+	}
+
+	/**
+	 * Computes the final score, the number of strikes and the number of spares
+	 * of the games.
+	 * 
+	 * @param shots
+	 *           the 21 columns of the games.
+	 * @param length
+	 *           the number of games, from the first one of each column.
+	 * @param finalScores
+	 *           receives the final score of each game.
+	 * @param strikes
+	 *           receives the number of strikes of each game.
+	 * @param spares
+	 *           receives the number of spares of each game.
+	 * @param offset
+	 *           the position of the first game in the result arrays.
+	 */
+	public static void score(byte[][] shots, int length, int[] finalScores, int[] strikes,
+			int[] spares, int offset) {
+		checkColumns(shots, length);
+		if (offset < 0 || finalScores.length - offset < length || strikes.length - offset < length
+				|| spares.length - offset < length) {
+			throw new IllegalArgumentException("The arrays must hold at least " + length
+					+ " games from " + offset);
+		}
+		for (int i = 0; i < length; i++) {
+			finalScores[offset + i] = 0;
+			strikes[offset + i] = 0;
+			spares[offset + i] = 0;
+		}
+		// non-final frames
+		for (int f = 1; f <= 9; f++) {
+			byte[] a = shots[Util.getIndex(f - 1, 0)];
+			byte[] b = shots[Util.getIndex(f - 1, 1)];
+			byte[] c = shots[Util.getIndex(f, 0)];
+			byte[] d = shots[Util.getIndex(f, 1)];
+			// the shot after a double: the first shot of the frame after the next
+			// one, except for the ninth frame that takes the second shot of the
+			// last frame
+			byte[] e = f < 9 ? shots[Util.getIndex(f + 1, 0)] : d;
+			for (int i = 0; i < length; i++) {
+				int first = a[i];
+				int sum = first + b[i];
+				int next = c[i];
+				int nextSecond = d[i];
+				int strike = isTen(first);
+				int spare = isTen(sum) & (strike ^ 1);
+				int bonus = next + nextSecond + isTen(next) * (e[i] - nextSecond);
+				finalScores[offset + i] += sum + strike * (10 + bonus - sum) + spare * next;
+				strikes[offset + i] += strike;
+				spares[offset + i] += spare;
+			}
+		}
+		// last frame
+		byte[] a = shots[18];
+		byte[] b = shots[19];
+		byte[] c = shots[20];
+		for (int i = 0; i < length; i++) {
+			int first = a[i];
+			int second = b[i];
+			int third = c[i];
+			int strike = isTen(first);
+			int double_ = strike & isTen(second);
+			int spare = (strike ^ 1) & isTen(first + second);
+			int strikeAndSpare = strike & (isTen(second) ^ 1) & isTen(second + third);
+			finalScores[offset + i] += first + second + third;
+			strikes[offset + i] += strike + double_ + ((double_ | spare) & isTen(third));
+			spares[offset + i] += spare + strikeAndSpare;
+		}
+	}
+
+	/**
+	 * Computes the score of every frame of the games, as given by
+	 * {@link ScoreBoard#getScoreOf(int)}.
+	 * 
+	 * @param shots
+	 *           the 21 columns of the games.
+	 * @param length
+	 *           the number of games, from the first one of each column.
+	 * @param frameScores
+	 *           receives the scores by column: <code>frameScores[frame - 1][game]</code>.
+	 */
+	public static void scoreFrames(byte[][] shots, int length, int[][] frameScores) {
+		checkColumns(shots, length);
+		if (frameScores.length < 10) {
+			throw new IllegalArgumentException("There must be a column for each of the 10 frames");
+		}
+		for (int f = 1; f <= 9; f++) {
+			byte[] a = shots[Util.getIndex(f - 1, 0)];
+			byte[] b = shots[Util.getIndex(f - 1, 1)];
+			byte[] c = shots[Util.getIndex(f, 0)];
+			byte[] d = shots[Util.getIndex(f, 1)];
+			byte[] e = f < 9 ? shots[Util.getIndex(f + 1, 0)] : d;
+			int[] score = frameScores[f - 1];
+			checkLength(score, length);
+			for (int i = 0; i < length; i++) {
+				int first = a[i];
+				int sum = first + b[i];
+				int next = c[i];
+				int nextSecond = d[i];
+				int strike = isTen(first);
+				int spare = isTen(sum) & (strike ^ 1);
+				int bonus = next + nextSecond + isTen(next) * (e[i] - nextSecond);
+				score[i] = sum + strike * (10 + bonus - sum) + spare * next;
+			}
+		}
+		byte[] a = shots[18];
+		byte[] b = shots[19];
+		byte[] c = shots[20];
+		int[] score = frameScores[9];
+		checkLength(score, length);
+		for (int i = 0; i < length; i++) {
+			score[i] = a[i] + b[i] + c[i];
+		}
+	}
+
+	/*
+	 * Gives 1 if the value (in the range [0-31]) is 10, 0 otherwise.
+	 */
+	private static int isTen(int value) {
+		return ((value ^ 10) - 1) >>> 31;
+	}
+
+	private static void checkColumns(byte[][] shots, int length) {
+		if (shots.length < SHOTS) {
+			throw new IllegalArgumentException("There must be a column for each of the " + SHOTS
+					+ " shots");
+		}
+		for (int index = 0; index < SHOTS; index++) {
+			if (shots[index].length < length) {
+				throw new IllegalArgumentException("The column " + index + " holds less than "
+						+ length + " games");
+			}
+		}
+	}
+
+	private static void checkLength(int[] column, int length) {
+		if (column.length < length) {
+			throw new IllegalArgumentException("The result columns must hold at least " + length
+					+ " games");
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,246 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import spa.simone.tenpinbowling.model.PackedScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.Util;
+
+/**
+ * <p>
+ * This class reads an archive of finished games, written by
+ * {@link GameArchiveWriter}.
+ * </p>
+ * <p>
+ * The archive is a 16-byte header (magic number, version, record size and
+ * number of games) followed by a fixed-size record of 32 bytes per game:
+ * </p>
+ * <ul>
+ * <li>[0-3] the hash code of the name of the player;</li>
+ * <li>[4-5] the final score;</li>
+ * <li>[6] the number of strikes;</li>
+ * <li>[7] the number of spares;</li>
+ * <li>[8-28] the pins knocked down by each shot, addressed by the absolute
+ * index given by {@link Util#getIndex(int, int)};</li>
+ * <li>[29-31] unused.</li>
+ * </ul>
+ * <p>
+ * The id of a game is the position of its record, so the file is memory
+ * mapped and every getter reads its value straight from the record: there is
+ * no parsing and no object is created, neither for a lookup by id nor for a
+ * scan of all the games. The scores are computed once, when the game is
+ * archived.
+ * </p>
+ * <p>
+ * The reader sees the games flushed before it was opened. It can be shared by
+ * many threads.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class GameArchive {
+
+	/**
+	 * The size in bytes of the header.
+	 */
+	public static final int HEADER_SIZE = 16;
+
+	/**
+	 * The size in bytes of a record.
+	 */
+	public static final int RECORD_SIZE = 32;
+
+	// a single mapping is limited to 2 GB
+	static final int MAX_GAMES = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+	static final int SHOTS_OFFSET = 8;
+
+	private static final int MAGIC = 0x42574c41;
+	private static final short VERSION = 1;
+	private static final int SCORE_OFFSET = 4;
+	private static final int STRIKES_OFFSET = 6;
+	private static final int SPARES_OFFSET = 7;
+
+	private final MappedByteBuffer buffer;
+	private final int size;
+
+	private GameArchive(MappedByteBuffer buffer, int size) {
+		this.buffer = buffer;
+		this.size = size;
+	}
+
+	/**
+	 * Opens an archive for reading.
+	 * 
+	 * @param file
+	 *           the file of the archive.
+	 * @return the archive.
+	 * @throws IOException
+	 *            if the file cannot be mapped, or it is not an archive.
+	 */
+	public static GameArchive open(File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			FileChannel channel = raf.getChannel();
+			int size = readHeader(channel, file);
+			long length = HEADER_SIZE + (long) size * RECORD_SIZE;
+			if (channel.size() < length) {
+				throw new IOException(file + " is truncated");
+			}
+			return new GameArchive(channel.map(FileChannel.MapMode.READ_ONLY, 0, length), size);
+		}
+	}
+
+	/**
+	 * Gets the number of games in the archive. The ids of the games are
+	 * [0, size - 1].
+	 * 
+	 * @return the number of games.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the hash code of the name of the player, as given by
+	 * {@link String#hashCode()}, or 0 if the name was <code>null</code>.
+	 * 
+	 * @param id
+	 *           the id of the game.
+	 * @return the hash code.
+	 */
+	public int getNameHash(int id) {
+		return buffer.getInt(offset(id));
+	}
+
+	/**
+	 * Gets the final score of the game.
+	 * 
+	 * @param id
+	 *           the id of the game.
+	 * @return the final score.
+	 */
+	public int getFinalScore(int id) {
+		return buffer.getShort(offset(id) + SCORE_OFFSET);
+	}
+
+	/**
+	 * Gets the number of strikes of the game.
+	 * 
+	 * @param id
+	 *           the id of the game.
+	 * @return the number of strikes.
+	 */
+	public int getStrikes(int id) {
+		return buffer.get(offset(id) + STRIKES_OFFSET);
+	}
+
+	/**
+	 * Gets the number of spares of the game.
+	 * 
+	 * @param id
+	 *           the id of the game.
+	 * @return the number of spares.
+	 */
+	public int getSpares(int id) {
+		return buffer.get(offset(id) + SPARES_OFFSET);
+	}
+
+	/**
+	 * Gets the number of pins knocked down by a shot of the game.
+	 * 
+	 * @param id
+	 *           the id of the game.
+	 * @param index
+	 *           the absolute index of the shot [0-20].
+	 * @return the number of pins knocked down.
+	 */
+	public int getPins(int id, int index) {
+		if (index < 0 || index >= GameStore.SHOTS) {
+			throw new IndexOutOfBoundsException(index + " is an invalid shot index");
+		}
+		return buffer.get(offset(id) + SHOTS_OFFSET + index);
+	}
+
+	/**
+	 * Rebuilds the scoreboard of the game. Unlike the other getters, this
+	 * method creates a new object.
+	 * 
+	 * @param id
+	 *           the id of the game.
+	 * @return the scoreboard, without the name of the player.
+	 * @throws ScoreBoardException
+	 *            if the record holds an invalid number of pins.
+	 */
+	public ScoreBoard getScoreBoard(int id) throws ScoreBoardException {
+		int offset = offset(id) + SHOTS_OFFSET;
+		long low = 0;
+		long high = 0;
+		for (int i = 0; i < 16; i++) {
+			low |= (long) buffer.get(offset + i) << (i << 2);
+		}
+		for (int i = 16; i < GameStore.SHOTS; i++) {
+			high |= (long) buffer.get(offset + i) << ((i - 16) << 2);
+		}
+		return new PackedScoreBoard(null, low, high);
+	}
+
+	private int offset(int id) {
+		if (id < 0 || id >= size) {
+			throw new IndexOutOfBoundsException(id + " is an invalid game id");
+		}
+		return HEADER_SIZE + id * RECORD_SIZE;
+	}
+
+	static void writeHeader(ByteBuffer header, int size) {
+		((Buffer) header).clear();
+		header.putInt(MAGIC);
+		header.putShort(VERSION);
+		header.putShort((short) RECORD_SIZE);
+		header.putInt(size);
+		header.putInt(0);
+		((Buffer) header).flip();
+	}
+
+	static int readHeader(FileChannel channel, File file) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while (header.hasRemaining()) {
+			if (channel.read(header, header.position()) < 0) {
+				throw new IOException(file + " is not a game archive");
+			}
+		}
+		if (header.getInt(0) != MAGIC) {
+			throw new IOException(file + " is not a game archive");
+		}
+		if (header.getShort(4) != VERSION || header.getShort(6) != RECORD_SIZE) {
+			throw new IOException(file + " has an unsupported version " + header.getShort(4));
+		}
+		int size = header.getInt(8);
+		if (size < 0 || size > MAX_GAMES) {
+			throw new IOException(file + " is corrupted");
+		}
+		return size;
+	}
+
+}
\ No newline at end of file
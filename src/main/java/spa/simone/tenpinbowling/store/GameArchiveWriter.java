@@ -0,0 +1,174 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.store;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.Util;
+
+/**
+ * <p>
+ * This class appends finished games to a {@link GameArchive} file, creating
+ * it if it does not exist.
+ * </p>
+ * <p>
+ * The records are buffered, and the number of games in the header is updated
+ * only by {@link #flush()} and {@link #close()}: a record written after the
+ * last flush is not visible to the readers, and it is discarded when the
+ * archive is opened again.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class GameArchiveWriter implements Closeable {
+
+	private static final int BUFFER_RECORDS = 1024;
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer
+			.allocateDirect(GameArchive.RECORD_SIZE * BUFFER_RECORDS);
+	private final ByteBuffer header = ByteBuffer.allocate(GameArchive.HEADER_SIZE);
+	private final int[] shots = new int[GameStore.SHOTS];
+	private int size;
+
+	private GameArchiveWriter(FileChannel channel, int size) {
+		this.channel = channel;
+		this.size = size;
+	}
+
+	/**
+	 * Opens the archive for appending.
+	 * 
+	 * @param file
+	 *           the file of the archive.
+	 * @return the writer.
+	 * @throws IOException
+	 *            if the file cannot be opened, or it is not an archive.
+	 */
+	public static GameArchiveWriter open(File file) throws IOException {
+		FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+		try {
+			int size = 0;
+			if (channel.size() == 0) {
+				ByteBuffer header = ByteBuffer.allocate(GameArchive.HEADER_SIZE);
+				GameArchive.writeHeader(header, 0);
+				channel.write(header, 0);
+			} else {
+				size = GameArchive.readHeader(channel, file);
+			}
+			long end = GameArchive.HEADER_SIZE + (long) size * GameArchive.RECORD_SIZE;
+			if (channel.size() < end) {
+				throw new IOException(file + " is truncated");
+			}
+			// drops the records written after the last flush
+			channel.truncate(end);
+			channel.position(end);
+			return new GameArchiveWriter(channel, size);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Appends a game to the archive. The final score, the strikes and the
+	 * spares are computed once, here, and stored along with the shots.
+	 * 
+	 * @param board
+	 *           the scoreboard of the finished game.
+	 * @return the id of the game.
+	 * @throws IOException
+	 */
+	public int append(ScoreBoard board) throws IOException {
+		if (size == GameArchive.MAX_GAMES) {
+			throw new IllegalStateException("The archive is full (" + size + " games)");
+		}
+		if (!buffer.hasRemaining()) {
+			write();
+		}
+		String name = board.getPlayerName();
+		buffer.putInt(name == null ? 0 : name.hashCode());
+		buffer.putShort((short) board.getFinalScore());
+		buffer.put((byte) board.getStrikes());
+		buffer.put((byte) board.getSpares());
+		int start = buffer.position();
+		Util.getShots(board, shots);
+		for (int i = 0; i < GameStore.SHOTS; i++) {
+			buffer.put(start + i, (byte) shots[i]);
+		}
+		for (int i = GameStore.SHOTS; i < GameArchive.RECORD_SIZE - GameArchive.SHOTS_OFFSET; i++) {
+			buffer.put(start + i, (byte) 0);
+		}
+		((Buffer) buffer).position(start + GameArchive.RECORD_SIZE - GameArchive.SHOTS_OFFSET);
+		return size++;
+	}
+
+	/**
+	 * Gets the number of games in the archive, including the ones not flushed
+	 * yet.
+	 * 
+	 * @return the number of games.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Writes the buffered records to the file, and makes them visible to the
+	 * readers opened afterwards.
+	 * 
+	 * @throws IOException
+	 */
+	public void flush() throws IOException {
+		write();
+		GameArchive.writeHeader(header, size);
+		channel.write(header, 0);
+	}
+
+	/**
+	 * Flushes and closes the archive.
+	 * 
+	 * @throws IOException
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void write() throws IOException {
+		((Buffer) buffer).flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		((Buffer) buffer).clear();
+	}
+
+}
\ No newline at end of file
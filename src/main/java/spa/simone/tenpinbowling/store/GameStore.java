@@ -0,0 +1,272 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.store;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.Util;
+
+/**
+ * <p>
+ * This class stores many games in a columnar layout: there is one
+ * <code>byte</code> column per shot, addressed by the same absolute index
+ * given by {@link Util#getIndex(int, int)}, and one row per game.
+ * </p>
+ * <p>
+ * The columns live outside the heap, either in a direct buffer or in a memory
+ * mapped file, and {@link #scoreAll(int[], int[], int[])} scores every row in a
+ * single pass, a block of rows at a time, with the {@link BulkScorer} and
+ * without creating any {@link ScoreBoard}.
+ * </p>
+ * <p>
+ * The games added to a mapped store reach the file when the operating system
+ * writes the pages back, or at the latest on {@link #flush()} and
+ * {@link #close()}. The mapping itself is released only when the store is
+ * garbage collected. This class is not thread-safe.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class GameStore implements Closeable {
+
+	/**
+	 * The number of shots (columns) of a game.
+	 */
+	public static final int SHOTS = BulkScorer.SHOTS;
+
+	private static final int HEADER = 8;
+	private static final int BLOCK = 4096;
+
+	private final ByteBuffer buffer;
+	private final ByteBuffer view;
+	private final byte[][] block = new byte[SHOTS][BLOCK];
+	private final int capacity;
+	private final boolean mapped;
+	private final int[] shots = new int[SHOTS];
+	private int size;
+	private boolean closed;
+
+	private GameStore(ByteBuffer buffer, int capacity, boolean mapped) {
+		this.buffer = buffer;
+		this.view = buffer.duplicate();
+		this.capacity = capacity;
+		this.mapped = mapped;
+		this.size = buffer.getInt(0);
+		buffer.putInt(4, capacity);
+	}
+
+	/**
+	 * Creates an empty store in a direct buffer.
+	 * 
+	 * @param capacity
+	 *           the maximum number of games.
+	 * @return the store.
+	 */
+	public static GameStore allocate(int capacity) {
+		return new GameStore(ByteBuffer.allocateDirect(length(capacity)), capacity, false);
+	}
+
+	/**
+	 * Opens a store backed by a memory mapped file. If the file already
+	 * contains a store, its games are kept.
+	 * 
+	 * @param file
+	 *           the file.
+	 * @param capacity
+	 *           the maximum number of games.
+	 * @return the store.
+	 * @throws IOException
+	 *            if the file cannot be mapped, or it is not a store with the
+	 *            same capacity.
+	 */
+	public static GameStore open(File file, int capacity) throws IOException {
+		int length = length(capacity);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			long existing = raf.length();
+			if (existing != 0) {
+				if (existing < HEADER) {
+					throw new IOException(file + " is not a store");
+				}
+				int size = raf.readInt();
+				int stored = raf.readInt();
+				if (stored != capacity) {
+					throw new IOException(file + " contains a store with capacity " + stored);
+				}
+				if (size < 0 || size > capacity) {
+					throw new IOException(file + " is corrupted: it contains " + size + " games");
+				}
+				if (existing < length) {
+					throw new IOException(file + " is truncated: " + existing + " bytes instead of "
+							+ length);
+				}
+			}
+			FileChannel channel = raf.getChannel();
+			return new GameStore(channel.map(FileChannel.MapMode.READ_WRITE, 0, length), capacity,
+					true);
+		}
+	}
+
+	private static int length(int capacity) {
+		if (capacity < 0 || (long) SHOTS * capacity > Integer.MAX_VALUE - HEADER) {
+			throw new IllegalArgumentException(capacity + " is an invalid capacity");
+		}
+		return HEADER + SHOTS * capacity;
+	}
+
+	/**
+	 * Adds a game to the store.
+	 * 
+	 * @param board
+	 *           the scoreboard of the game.
+	 * @return the row of the game.
+	 */
+	public int add(ScoreBoard board) {
+		checkOpen();
+		if (size == capacity) {
+			throw new IllegalStateException("The store is full (" + capacity + " games)");
+		}
+		int row = size;
+		Util.getShots(board, shots);
+		for (int index = 0; index < SHOTS; index++) {
+			buffer.put(offset(index, row), (byte) shots[index]);
+		}
+		size++;
+		buffer.putInt(0, size);
+		return row;
+	}
+
+	/**
+	 * Gets the number of pins knocked down by a shot of a game.
+	 * 
+	 * @param row
+	 *           the row of the game.
+	 * @param index
+	 *           the absolute index of the shot [0-20].
+	 * @return the number of pins knocked down.
+	 */
+	public int getPins(int row, int index) {
+		checkOpen();
+		checkRow(row);
+		if (index < 0 || index >= SHOTS) {
+			throw new IndexOutOfBoundsException(index + " is an invalid shot index");
+		}
+		return buffer.get(offset(index, row));
+	}
+
+	/**
+	 * Gets the number of games in the store.
+	 * 
+	 * @return the number of games.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the maximum number of games of the store.
+	 * 
+	 * @return the capacity.
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * Computes the final score, the number of strikes and the number of spares
+	 * of every game in the store, with the same rules of
+	 * {@link ScoreBoard#getFinalScore()}, {@link ScoreBoard#getStrikes()} and
+	 * {@link ScoreBoard#getSpares()}.
+	 * 
+	 * @param finalScores
+	 *           receives the final score of each row.
+	 * @param strikes
+	 *           receives the number of strikes of each row.
+	 * @param spares
+	 *           receives the number of spares of each row.
+	 */
+	public void scoreAll(int[] finalScores, int[] strikes, int[] spares) {
+		if (finalScores.length < size || strikes.length < size || spares.length < size) {
+			throw new IllegalArgumentException("The arrays must hold at least " + size + " rows");
+		}
+		checkOpen();
+		for (int from = 0; from < size; from += BLOCK) {
+			int to = Math.min(from + BLOCK, size);
+			scoreBlock(from, to, finalScores, strikes, spares);
+		}
+	}
+
+	/**
+	 * Writes the games of a mapped store to the file. It does nothing on a
+	 * store in a direct buffer.
+	 */
+	public void flush() {
+		checkOpen();
+		if (mapped) {
+			((MappedByteBuffer) buffer).force();
+		}
+	}
+
+	/**
+	 * Flushes and closes the store: the following calls fail.
+	 */
+	@Override
+	public void close() {
+		if (!closed) {
+			flush();
+			closed = true;
+		}
+	}
+
+	/*
+	 * Scores the rows [from, to): the columns of the block are copied to the
+	 * heap, and scored by the BulkScorer.
+	 */
+	private void scoreBlock(int from, int to, int[] finalScores, int[] strikes, int[] spares) {
+		int length = to - from;
+		for (int index = 0; index < SHOTS; index++) {
+			((Buffer) view).position(offset(index, from));
+			view.get(block[index], 0, length);
+		}
+		BulkScorer.score(block, length, finalScores, strikes, spares, from);
+	}
+
+	private int offset(int index, int row) {
+		return HEADER + index * capacity + row;
+	}
+
+	private void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException("The store is closed");
+		}
+	}
+
+	private void checkRow(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException(row + " is an invalid row. The store has " + size
+					+ " games");
+		}
+	}
+
+}
\ No newline at end of file
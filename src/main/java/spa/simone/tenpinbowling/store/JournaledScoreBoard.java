@@ -0,0 +1,169 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.store;
+
+import java.io.IOException;
+
+import spa.simone.tenpinbowling.model.ForwardingScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ValidationResult;
+
+/**
+ * <p>
+ * This class is a {@link ScoreBoard} that records every ball, reset and name
+ * of another one in a {@link BallLog}.
+ * </p>
+ * <p>
+ * A change is validated and written by the log first, and only then applied
+ * to the decorated scoreboard: a ball that the log rejects, or cannot write,
+ * leaves the scoreboard as it was. So the decorated scoreboard must hold the
+ * state recorded for its key when it is wrapped: an empty one for a new game,
+ * or a copy of {@link BallLog#getScoreBoard(int, int, int)} to resume one.
+ * </p>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class JournaledScoreBoard extends ForwardingScoreBoard {
+
+	private final ScoreBoard delegate;
+	private final BallLog log;
+	private final int lane;
+	private final int game;
+	private final int player;
+
+	/**
+	 * Wraps the scoreboard of a player.
+	 * 
+	 * @param delegate
+	 *           the scoreboard.
+	 * @param log
+	 *           the log of the balls.
+	 * @param lane
+	 *           the number of the lane [0-255].
+	 * @param game
+	 *           the number of the game on the lane [0-65535].
+	 * @param player
+	 *           the index of the player in the game [0-255].
+	 */
+	public JournaledScoreBoard(ScoreBoard delegate, BallLog log, int lane, int game, int player) {
+		BallLog.key(lane, game, player);
+		this.delegate = delegate;
+		this.log = log;
+		this.lane = lane;
+		this.game = game;
+		this.player = player;
+	}
+
+	@Override
+	protected ScoreBoard delegate() {
+		return delegate;
+	}
+
+	/**
+	 * {@inheritDoc} A failure of the log is thrown as an
+	 * {@link IllegalStateException}.
+	 */
+	@Override
+	public void setPlayerName(String name) {
+		try {
+			log.appendName(lane, game, player, name);
+		} catch (IOException e) {
+			throw new IllegalStateException("The name cannot be recorded in the log", e);
+		}
+		delegate.setPlayerName(name);
+	}
+
+	/**
+	 * {@inheritDoc} A failure of the log is thrown as an
+	 * {@link IllegalStateException}.
+	 */
+	@Override
+	public void setPlayerId(int id) {
+		// an unknown id is rejected before it is recorded
+		String name = delegate.getPlayerRegistry().getName(id);
+		try {
+			log.appendName(lane, game, player, name);
+		} catch (IOException e) {
+			throw new IllegalStateException("The name cannot be recorded in the log", e);
+		}
+		delegate.setPlayerId(id);
+	}
+
+	@Override
+	public void setPins(int frame, int shot, int pins) throws ScoreBoardException {
+		try {
+			log.append(lane, game, player, frame, shot, pins);
+		} catch (IOException e) {
+			throw new ScoreBoardException("The ball cannot be recorded in the log", e);
+		}
+		try {
+			delegate.setPins(frame, shot, pins);
+		} catch (ScoreBoardException e) {
+			throw mismatch(e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc} A failure of the log is thrown as an
+	 * {@link IllegalStateException}.
+	 */
+	@Override
+	public ValidationResult trySetPins(int frame, int shot, int pins) {
+		ValidationResult result;
+		try {
+			result = log.tryAppend(lane, game, player, frame, shot, pins);
+		} catch (IOException e) {
+			throw new IllegalStateException("The ball cannot be recorded in the log", e);
+		}
+		if (result == ValidationResult.VALID) {
+			ValidationResult applied = delegate.trySetPins(frame, shot, pins);
+			if (applied != ValidationResult.VALID) {
+				throw mismatch(applied);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc} A failure of the log is thrown as an
+	 * {@link IllegalStateException}.
+	 */
+	@Override
+	public void reset() {
+		try {
+			log.appendReset(lane, game, player);
+		} catch (IOException e) {
+			throw new IllegalStateException("The reset cannot be recorded in the log", e);
+		}
+		delegate.reset();
+	}
+
+	/*
+	 * The log accepted a ball that the scoreboard rejects: the scoreboard was
+	 * changed without the log.
+	 */
+	private IllegalStateException mismatch(Object reason) {
+		IllegalStateException e = new IllegalStateException("The scoreboard of lane " + lane
+				+ ", game " + game + ", player " + player + " does not match the log: " + reason);
+		if (reason instanceof Throwable) {
+			e.initCause((Throwable) reason);
+		}
+		return e;
+	}
+
+}
\ No newline at end of file
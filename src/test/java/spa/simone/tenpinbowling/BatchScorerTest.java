@@ -0,0 +1,103 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+
+/**
+ * Checks that the {@link BatchScorer} scores the games of its input as
+ * {@link ScoreBoardImpl}, in order, and reports the invalid ones.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class BatchScorerTest {
+
+	// more than two chunks for each of the workers
+	private static final int GAMES = 30000;
+
+	@Test
+	public void scoresLikeScoreBoardImpl() throws IOException, InterruptedException,
+			ScoreBoardException {
+		Random random = new Random(42);
+		StringBuilder input = new StringBuilder();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < GAMES; i++) {
+			byte[] shots = Games.random(random);
+			ScoreBoardImpl board = Games.play(new ScoreBoardImpl(), shots);
+			board.computeFinalScore();
+			input.append("P").append(i);
+			for (int index = 0; index < 21; index++) {
+				if (isThrown(shots, index)) {
+					// the balls separated by any blanks
+					input.append(i % 7 == 0 ? " \t " : " ").append(shots[index]);
+				}
+			}
+			input.append('\n');
+			expected.append("P").append(i).append(' ').append(board.getFinalScore()).append(' ')
+					.append(board.getStrikes()).append(' ').append(board.getSpares()).append('\n');
+		}
+		StringWriter out = new StringWriter();
+		StringWriter err = new StringWriter();
+		assertEquals(0, BatchScorer.score(new BufferedReader(new StringReader(input.toString())),
+				out, err, 3));
+		assertEquals(expected.toString(), out.toString());
+		assertEquals("", err.toString());
+	}
+
+	@Test
+	public void reportsTheInvalidGames() throws IOException, InterruptedException {
+		String input = "Bad 10 10\n" + "Sum 5 6 1 1 1 1 1 1 1 1 1 1 1 1 1 1 1 1 1 1\n" + "\n"
+				+ "Pins x\n" + "Long 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0\n"
+				+ "Good 10 10 10 10 10 10 10 10 10 10 10 10\n";
+		StringWriter out = new StringWriter();
+		StringWriter err = new StringWriter();
+		assertEquals(4, BatchScorer.score(new BufferedReader(new StringReader(input)), out, err,
+				2));
+		assertEquals("Good 300 12 0\n", out.toString());
+		String[] errors = err.toString().split("\n");
+		assertEquals(4, errors.length);
+		String[] lines = { "Line 1: ", "Line 2: ", "Line 4: ", "Line 5: " };
+		for (int i = 0; i < lines.length; i++) {
+			assertEquals(lines[i], errors[i].substring(0, lines[i].length()));
+		}
+	}
+
+	/*
+	 * Says whether a shot of a legal game is thrown.
+	 */
+	private static boolean isThrown(byte[] shots, int index) {
+		if (index < 18) {
+			return index % 2 == 0 || shots[index - 1] != 10;
+		}
+		if (index < 20) {
+			return true;
+		}
+		return shots[18] == 10 || shots[18] + shots[19] == 10;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling;
+
+import java.util.Random;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.Util;
+import spa.simone.tenpinbowling.stats.GameSpace;
+
+/**
+ * Random legal games for the tests, drawn uniformly by a {@link GameSpace}.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class Games {
+
+	/**
+	 * The games and the scores of all the legal games.
+	 */
+	public static final GameSpace SPACE = new GameSpace();
+
+	private Games() {
+	}
+
+	/**
+	 * Draws a legal game.
+	 * 
+	 * @param random
+	 *           the source of randomness.
+	 * @return the pins of the 21 shots, in the order of
+	 *         {@link Util#getIndex(int, int)}.
+	 */
+	public static byte[] random(Random random) {
+		byte[] shots = new byte[21];
+		SPACE.sample(random, shots);
+		return shots;
+	}
+
+	/**
+	 * Plays a game on a scoreboard, ball by ball in the order of the game.
+	 * 
+	 * @param board
+	 *           the scoreboard.
+	 * @param shots
+	 *           the pins of the 21 shots, in the order of
+	 *           {@link Util#getIndex(int, int)}.
+	 * @return the scoreboard.
+	 * @throws ScoreBoardException
+	 *            if the scoreboard rejects a ball.
+	 */
+	public static <T extends ScoreBoard> T play(T board, byte[] shots) throws ScoreBoardException {
+		for (int frame = 1; frame <= 9; frame++) {
+			int first = shots[Util.getIndex(frame - 1, 0)];
+			board.setPins(frame, 1, first);
+			if (first != 10) {
+				board.setPins(frame, 2, shots[Util.getIndex(frame - 1, 1)]);
+			}
+		}
+		int first = shots[18];
+		int second = shots[19];
+		board.setPins(10, 1, first);
+		board.setPins(10, 2, second);
+		if (first == 10 || first + second == 10) {
+			board.setPins(10, 3, shots[20]);
+		}
+		return board;
+	}
+
+	/**
+	 * Gets the pins of the 21 shots of a scoreboard, through its public
+	 * methods.
+	 * 
+	 * @param board
+	 *           the scoreboard.
+	 * @return the pins of the shots, in the order of
+	 *         {@link Util#getIndex(int, int)}.
+	 * @throws ScoreBoardException
+	 *            if a frame is out of range.
+	 */
+	public static byte[] shots(ScoreBoard board) throws ScoreBoardException {
+		byte[] shots = new byte[21];
+		for (int frame = 1; frame <= 10; frame++) {
+			shots[Util.getIndex(frame - 1, 0)] = (byte) board.getShot(frame, 1);
+			shots[Util.getIndex(frame - 1, 1)] = (byte) board.getShot(frame, 2);
+		}
+		shots[20] = (byte) board.getShot(10, 3);
+		return shots;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,183 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.feed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.Games;
+import spa.simone.tenpinbowling.model.ConcurrentScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+import spa.simone.tenpinbowling.model.Util;
+
+/**
+ * Checks that a {@link PublishingScoreBoard} publishes the state of the
+ * scoreboard after every ball, and that a lapped or concurrent subscriber
+ * reads consistent states.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class ScoreBoardFeedTest {
+
+	private static final int GAMES = 2000;
+
+	@Test
+	public void publishesEveryBall() throws ScoreBoardException {
+		Random random = new Random(42);
+		ScoreBoardDelta delta = new ScoreBoardDelta();
+		for (int game = 0; game < GAMES; game++) {
+			PublishingScoreBoard board = new PublishingScoreBoard(new ScoreBoardImpl());
+			Subscription subscription = board.getFeed().subscribe();
+			ScoreBoardImpl expected = new ScoreBoardImpl();
+			int[] scores = new int[10];
+			for (int ball : balls(Games.random(random))) {
+				int frame = ball >>> 8;
+				int shot = ball >>> 4 & 0xF;
+				int pins = ball & 0xF;
+				if (random.nextBoolean()) {
+					board.setPins(frame, shot, pins);
+				} else {
+					board.trySetPins(frame, shot, pins);
+				}
+				expected.setPins(frame, shot, pins);
+				assertTrue(subscription.poll(delta));
+				assertFalse(subscription.poll(delta));
+				assertEquals(0, delta.getSkipped());
+				assertEquals(frame, delta.getFrame());
+				assertEquals(shot, delta.getShot());
+				assertEquals(pins, delta.getPins());
+				assertEquals(expected.getFinalScore(), delta.getTotal());
+				for (int f = 1; f <= 10; f++) {
+					assertEquals(expected.getScoreOf(f), delta.getScoreOf(f));
+					assertEquals(expected.getScoreOf(f) != scores[f - 1], delta.isChanged(f));
+					assertEquals(expected.isStrike(f), delta.isStrike(f));
+					assertEquals(expected.isSpare(f), delta.isSpare(f));
+					scores[f - 1] = expected.getScoreOf(f);
+				}
+			}
+			board.reset();
+			assertTrue(subscription.poll(delta));
+			assertEquals(0, delta.getFrame());
+			assertEquals(0, delta.getTotal());
+		}
+	}
+
+	@Test
+	public void lappedSubscriberGetsTheChangesCoalesced() throws ScoreBoardException {
+		Random random = new Random(7);
+		ScoreBoardDelta delta = new ScoreBoardDelta();
+		for (int game = 0; game < GAMES; game++) {
+			PublishingScoreBoard board = new PublishingScoreBoard(new ScoreBoardImpl(),
+					new ScoreBoardFeed(4));
+			Subscription subscription = board.getFeed().subscribe();
+			int[] balls = balls(Games.random(random));
+			for (int ball : balls) {
+				board.setPins(ball >>> 8, ball >>> 4 & 0xF, ball & 0xF);
+			}
+			assertTrue(subscription.poll(delta));
+			assertFalse(subscription.poll(delta));
+			assertEquals(balls.length - 1, delta.getSequence());
+			assertEquals(balls.length - 1, delta.getSkipped());
+			assertEquals(balls.length - 1, subscription.getCoalesced());
+			assertEquals(board.getFinalScore(), delta.getTotal());
+			for (int f = 1; f <= 10; f++) {
+				assertEquals(board.getScoreOf(f), delta.getScoreOf(f));
+				assertEquals(board.getScoreOf(f) != 0, delta.isChanged(f));
+			}
+		}
+	}
+
+	@Test
+	public void concurrentSubscriberReadsWholeStates() throws InterruptedException,
+			ScoreBoardException {
+		final PublishingScoreBoard board = new PublishingScoreBoard(new ConcurrentScoreBoard(),
+				new ScoreBoardFeed(2));
+		final AtomicBoolean done = new AtomicBoolean();
+		final AtomicReference<String> violation = new AtomicReference<>();
+		Thread subscriber = new Thread() {
+
+			@Override
+			public void run() {
+				Subscription subscription = board.getFeed().subscribe();
+				ScoreBoardDelta delta = new ScoreBoardDelta();
+				long last = -1;
+				for (;;) {
+					boolean finished = done.get();
+					if (!subscription.poll(delta)) {
+						if (finished) {
+							return;
+						}
+						continue;
+					}
+					int sum = 0;
+					for (int f = 1; f <= 10; f++) {
+						sum += delta.getScoreOf(f);
+					}
+					if (sum != delta.getTotal() || delta.getSequence() <= last) {
+						violation.compareAndSet(null, delta.toString());
+					}
+					last = delta.getSequence();
+				}
+			}
+
+		};
+		subscriber.start();
+		Random random = new Random(3);
+		for (int game = 0; game < GAMES * 5; game++) {
+			board.reset();
+			for (int ball : balls(Games.random(random))) {
+				board.setPins(ball >>> 8, ball >>> 4 & 0xF, ball & 0xF);
+			}
+		}
+		done.set(true);
+		subscriber.join();
+		assertNull(violation.get());
+	}
+
+	/*
+	 * The balls of a game, in the order they are thrown, as frame << 8 |
+	 * shot << 4 | pins.
+	 */
+	private static int[] balls(byte[] shots) {
+		int[] balls = new int[21];
+		int n = 0;
+		for (int frame = 1; frame <= 10; frame++) {
+			int first = shots[Util.getIndex(frame - 1, 0)];
+			int second = shots[Util.getIndex(frame - 1, 1)];
+			balls[n++] = frame << 8 | 1 << 4 | first;
+			if (frame < 10 && first == 10) {
+				continue;
+			}
+			balls[n++] = frame << 8 | 2 << 4 | second;
+			if (frame == 10 && (first == 10 || first + second == 10)) {
+				balls[n++] = frame << 8 | 3 << 4 | shots[20];
+			}
+		}
+		return Arrays.copyOf(balls, n);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,263 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.Games;
+import spa.simone.tenpinbowling.model.ConcurrentScoreBoard;
+import spa.simone.tenpinbowling.model.PackedScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+
+/**
+ * Checks the output of the {@link BinaryScoreBoardSerializer} and of the
+ * {@link JsonScoreBoardSerializer} against the scoreboards, and that they
+ * allocate nothing once warmed up.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class ScoreBoardSerializerTest {
+
+	private static final int GAMES = 2000;
+	private static final int ROUNDS = 20000;
+	// the lone surrogates are encoded as '?'
+	private static final String[] NAMES = { null, "Simone", "Zo\u00eb \"q\"\\\n\t",
+			"\ud83c\udfb3 bowler", "", "x\ud800y", "\udc00\ud83c" };
+
+	@Test
+	public void binaryHoldsTheGame() throws ScoreBoardException {
+		BinaryScoreBoardSerializer serializer = new BinaryScoreBoardSerializer();
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+		Random random = new Random(42);
+		for (int i = 0; i < GAMES; i++) {
+			ScoreBoard board = game(random, NAMES[i % NAMES.length]);
+			((Buffer) buffer).clear();
+			serializer.serialize(board, buffer);
+			((Buffer) buffer).flip();
+			int length = buffer.getShort() & 0xFFFF;
+			if (board.getPlayerName() == null) {
+				assertEquals(BinaryScoreBoardSerializer.NO_NAME, length);
+			} else {
+				byte[] name = new byte[length];
+				buffer.get(name);
+				assertArrayEquals(board.getPlayerName().getBytes(StandardCharsets.UTF_8), name);
+			}
+			byte[] shots = new byte[21];
+			buffer.get(shots);
+			assertArrayEquals(Games.shots(board), shots);
+			for (int frame = 1; frame <= 10; frame++) {
+				assertEquals(board.getScoreOf(frame), buffer.get());
+			}
+			assertEquals(board.getFinalScore(), buffer.getShort());
+			assertEquals(board.getStrikes(), buffer.get());
+			assertEquals(board.getSpares(), buffer.get());
+			assertEquals(0, buffer.remaining());
+		}
+	}
+
+	@Test
+	public void jsonHoldsTheGame() throws ScoreBoardException, IOException {
+		JsonScoreBoardSerializer serializer = new JsonScoreBoardSerializer();
+		Random random = new Random(7);
+		for (int i = 0; i < GAMES; i++) {
+			ScoreBoard board = game(random, NAMES[i % NAMES.length]);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			serializer.serialize(board, out);
+			assertArrayEquals(json(board).getBytes(StandardCharsets.UTF_8), out.toByteArray());
+		}
+	}
+
+	@Test
+	public void recordsOneStateOfAGameInPlay() throws InterruptedException, ScoreBoardException {
+		final ConcurrentScoreBoard board = new ConcurrentScoreBoard();
+		final AtomicBoolean stop = new AtomicBoolean();
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread lane = new Thread() {
+
+			@Override
+			public void run() {
+				Random random = new Random(11);
+				try {
+					while (!stop.get()) {
+						board.reset();
+						Games.play(board, Games.random(random));
+					}
+				} catch (Throwable e) {
+					failure.set(e);
+				}
+			}
+
+		};
+		lane.start();
+		BinaryScoreBoardSerializer serializer = new BinaryScoreBoardSerializer();
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+		byte[] shots = new byte[21];
+		try {
+			for (int i = 0; i < 100 * GAMES; i++) {
+				((Buffer) buffer).clear();
+				serializer.serialize(board, buffer);
+				((Buffer) buffer).flip();
+				assertEquals(BinaryScoreBoardSerializer.NO_NAME, buffer.getShort() & 0xFFFF);
+				buffer.get(shots);
+				long low = 0;
+				long high = 0;
+				for (int index = 0; index < 21; index++) {
+					if (index < 16) {
+						low |= (long) shots[index] << (index << 2);
+					} else {
+						high |= (long) shots[index] << ((index - 16) << 2);
+					}
+				}
+				// the scores of the same shots
+				ScoreBoard state = new PackedScoreBoard(null, low, high);
+				for (int frame = 1; frame <= 10; frame++) {
+					assertEquals(state.getScoreOf(frame), buffer.get());
+				}
+				assertEquals(state.getFinalScore(), buffer.getShort());
+				assertEquals(state.getStrikes(), buffer.get());
+				assertEquals(state.getSpares(), buffer.get());
+			}
+		} finally {
+			stop.set(true);
+			lane.join();
+		}
+		assertNull(failure.get());
+	}
+
+	@Test
+	public void streamGrowsForALongName() throws ScoreBoardException, IOException {
+		char[] name = new char[3000];
+		Arrays.fill(name, '\u00e8');
+		ScoreBoard board = game(new Random(3), new String(name));
+		ScoreBoardSerializer[] serializers = { new BinaryScoreBoardSerializer(),
+				new JsonScoreBoardSerializer() };
+		for (ScoreBoardSerializer serializer : serializers) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			serializer.serialize(board, out);
+			ByteBuffer buffer = ByteBuffer.allocate(out.size());
+			serializer.serialize(board, buffer);
+			assertArrayEquals(buffer.array(), out.toByteArray());
+		}
+	}
+
+	@Test
+	public void serializesWithoutAllocating() throws ScoreBoardException, IOException {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+		long thread = Thread.currentThread().getId();
+		ScoreBoard board = game(new Random(5), NAMES[2]);
+		ScoreBoardSerializer[] serializers = { new BinaryScoreBoardSerializer(),
+				new JsonScoreBoardSerializer() };
+		ByteBuffer buffer = ByteBuffer.allocate(512);
+		OutputStream out = new OutputStream() {
+
+			@Override
+			public void write(int b) {
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+			}
+
+		};
+		for (ScoreBoardSerializer serializer : serializers) {
+			// warm up, so that the measure does not count the class loading and
+			// the compilation
+			serialize(serializer, board, buffer, out);
+			long probe = threads.getThreadAllocatedBytes(thread);
+			probe = threads.getThreadAllocatedBytes(thread) - probe;
+			long before = threads.getThreadAllocatedBytes(thread);
+			serialize(serializer, board, buffer, out);
+			long allocated = threads.getThreadAllocatedBytes(thread) - before - probe;
+			assertEquals("bytes allocated by " + serializer.getContentType(), 0, allocated);
+		}
+	}
+
+	private static void serialize(ScoreBoardSerializer serializer, ScoreBoard board,
+			ByteBuffer buffer, OutputStream out) throws IOException {
+		for (int i = 0; i < ROUNDS; i++) {
+			((Buffer) buffer).clear();
+			serializer.serialize(board, buffer);
+			serializer.serialize(board, out);
+		}
+	}
+
+	private static ScoreBoard game(Random random, String name) throws ScoreBoardException {
+		ScoreBoardImpl board = Games.play(new ScoreBoardImpl(), Games.random(random));
+		board.setPlayerName(name);
+		board.computeFinalScore();
+		return board;
+	}
+
+	/*
+	 * The JSON of a scoreboard, written without the serializer.
+	 */
+	private static String json(ScoreBoard board) throws ScoreBoardException {
+		StringBuilder json = new StringBuilder("{\"player\":");
+		String name = board.getPlayerName();
+		if (name == null) {
+			json.append("null");
+		} else {
+			json.append('"');
+			for (char c : name.toCharArray()) {
+				if (c == '"' || c == '\\') {
+					json.append('\\').append(c);
+				} else if (c < 0x20) {
+					json.append(String.format("\\u%04x", (int) c));
+				} else {
+					json.append(c);
+				}
+			}
+			json.append('"');
+		}
+		json.append(",\"frames\":[");
+		for (int frame = 1; frame <= 10; frame++) {
+			json.append(frame > 1 ? "," : "").append("{\"shots\":[").append(board.getShot(frame, 1))
+					.append(',').append(board.getShot(frame, 2));
+			if (frame == 10) {
+				json.append(',').append(board.getShot(10, 3));
+			}
+			json.append("],\"score\":").append(board.getScoreOf(frame)).append('}');
+		}
+		return json.append("],\"finalScore\":").append(board.getFinalScore())
+				.append(",\"strikes\":").append(board.getStrikes()).append(",\"spares\":")
+				.append(board.getSpares()).append('}').toString();
+	}
+
+}
\ No newline at end of file
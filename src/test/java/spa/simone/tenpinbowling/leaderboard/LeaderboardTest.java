@@ -0,0 +1,207 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.leaderboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.Games;
+import spa.simone.tenpinbowling.model.ConcurrentScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+
+/**
+ * Checks that the {@link Leaderboard} ranks the scoreboards by their running
+ * score, while the balls are scored by concurrent threads.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class LeaderboardTest {
+
+	private static final int THREADS = 8;
+	private static final int BOARDS = 300;
+
+	@Test
+	public void ranksTheRunningScores() {
+		Leaderboard leaderboard = new Leaderboard();
+		List<RankedScoreBoard> boards = boards(leaderboard, BOARDS);
+		Random random = new Random(1);
+		for (RankedScoreBoard board : boards) {
+			play(board, random);
+		}
+		assertExact(leaderboard, boards);
+	}
+
+	@Test
+	public void removedBoardsAreNotRanked() {
+		Leaderboard leaderboard = new Leaderboard();
+		List<RankedScoreBoard> boards = boards(leaderboard, BOARDS);
+		Random random = new Random(2);
+		for (RankedScoreBoard board : boards) {
+			play(board, random);
+		}
+		List<RankedScoreBoard> removed = boards.subList(0, 100);
+		for (RankedScoreBoard board : removed) {
+			assertTrue(leaderboard.remove(board));
+		}
+		assertFalse(leaderboard.remove(removed.get(0)));
+		assertFalse(new Leaderboard().remove(boards.get(200)));
+		for (RankedScoreBoard board : removed) {
+			assertEquals(-1, board.getRank());
+			// a ball of a removed scoreboard is not ranked
+			play(board, random);
+		}
+		assertExact(leaderboard, boards.subList(100, BOARDS));
+	}
+
+	@Test
+	public void queriesNeverReturnABoardTwice() throws InterruptedException {
+		final Leaderboard leaderboard = new Leaderboard();
+		final List<RankedScoreBoard> boards = boards(leaderboard, THREADS * BOARDS);
+		final AtomicBoolean stop = new AtomicBoolean();
+		final AtomicReference<String> failure = new AtomicReference<>();
+		Thread reader = new Thread() {
+
+			@Override
+			public void run() {
+				while (!stop.get()) {
+					Set<ScoreBoard> seen = Collections
+							.newSetFromMap(new IdentityHashMap<ScoreBoard, Boolean>());
+					for (Standing standing : leaderboard.getTop(50)) {
+						if (!seen.add(standing.getScoreBoard())) {
+							failure.set("getTop returned " + standing + " twice");
+						}
+					}
+					seen.clear();
+					for (Standing standing : leaderboard.getRange(50, 120)) {
+						if (!seen.add(standing.getScoreBoard())) {
+							failure.set("getRange returned " + standing + " twice");
+						}
+					}
+				}
+			}
+
+		};
+		reader.start();
+		Thread[] writers = new Thread[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			final List<RankedScoreBoard> own = boards.subList(t * BOARDS, (t + 1) * BOARDS);
+			final Random random = new Random(t);
+			writers[t] = new Thread() {
+
+				@Override
+				public void run() {
+					for (int round = 0; round < 3; round++) {
+						for (RankedScoreBoard board : own) {
+							board.reset();
+							play(board, random);
+						}
+					}
+				}
+
+			};
+			writers[t].start();
+		}
+		for (Thread writer : writers) {
+			writer.join();
+		}
+		stop.set(true);
+		reader.join();
+		assertEquals(null, failure.get());
+		assertExact(leaderboard, boards);
+	}
+
+	private static List<RankedScoreBoard> boards(Leaderboard leaderboard, int n) {
+		List<RankedScoreBoard> boards = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			RankedScoreBoard board = new RankedScoreBoard(new ConcurrentScoreBoard(), leaderboard);
+			board.setPlayerName("Player" + i);
+			boards.add(board);
+		}
+		return boards;
+	}
+
+	/*
+	 * Plays the first balls of a legal game, interrupted at a random ball.
+	 */
+	private static void play(ScoreBoard board, Random random) {
+		byte[] shots = Games.random(random);
+		int balls = random.nextInt(22);
+		for (int index = 0; index < balls; index++) {
+			int frame = Math.min(index / 2 + 1, 10);
+			int shot = index < 18 ? index % 2 + 1 : index - 17;
+			// the second ball of a strike is rejected
+			board.trySetPins(frame, shot, shots[index]);
+		}
+	}
+
+	/*
+	 * Checks the ranks, the order and the ranges of a leaderboard that does
+	 * not move.
+	 */
+	private static void assertExact(Leaderboard leaderboard, List<RankedScoreBoard> boards) {
+		int[] scores = new int[boards.size()];
+		for (int i = 0; i < scores.length; i++) {
+			ScoreBoard board = boards.get(i);
+			board.computeFinalScore();
+			scores[i] = board.getFinalScore();
+		}
+		assertEquals(boards.size(), leaderboard.size());
+		for (int i = 0; i < scores.length; i++) {
+			int higher = 0;
+			for (int score : scores) {
+				if (score > scores[i]) {
+					higher++;
+				}
+			}
+			assertEquals(higher + 1, boards.get(i).getRank());
+		}
+		List<Standing> top = leaderboard.getTop(boards.size() + 10);
+		assertEquals(boards.size(), top.size());
+		for (int i = 0; i < top.size(); i++) {
+			Standing standing = top.get(i);
+			standing.getScoreBoard().computeFinalScore();
+			assertEquals(standing.getScoreBoard().getFinalScore(), standing.getScore());
+			if (i > 0) {
+				assertTrue(standing.getScore() <= top.get(i - 1).getScore());
+			}
+		}
+		for (int min = 0; min < 200; min += 13) {
+			int max = min + 20;
+			int n = 0;
+			for (int score : scores) {
+				if (score >= min && score <= max) {
+					n++;
+				}
+			}
+			assertEquals(n, leaderboard.count(min, max));
+			assertEquals(n, leaderboard.getRange(min, max).size());
+		}
+	}
+
+}
\ No newline at end of file
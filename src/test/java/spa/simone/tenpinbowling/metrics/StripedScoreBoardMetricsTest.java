@@ -0,0 +1,72 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.model.ConcurrentScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+import spa.simone.tenpinbowling.model.ValidationResult;
+
+/**
+ * Checks that the scoreboards report their rejected shots by reason.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class StripedScoreBoardMetricsTest {
+
+	@After
+	public void tearDown() {
+		Metrics.set(null);
+	}
+
+	@Test
+	public void countsTheRejectedShotsByReason() {
+		StripedScoreBoardMetrics metrics = new StripedScoreBoardMetrics(4);
+		Metrics.set(metrics);
+		ScoreBoard[] boards = { new ScoreBoardImpl(), new ConcurrentScoreBoard() };
+		for (ScoreBoard board : boards) {
+			assertEquals(ValidationResult.VALID, board.trySetPins(1, 1, 7));
+			assertEquals(ValidationResult.INVALID_TOTAL_SUM, board.trySetPins(1, 2, 4));
+			assertEquals(ValidationResult.INVALID_FRAME, board.trySetPins(11, 1, 4));
+			try {
+				board.setPins(1, 2, 11);
+			} catch (ScoreBoardException e) {
+				// expected
+			}
+		}
+		Map<String, Long> expected = new TreeMap<>();
+		expected.put(ValidationResult.INVALID_FRAME.name(), 2L);
+		expected.put(ValidationResult.INVALID_PINS.name(), 2L);
+		expected.put(ValidationResult.INVALID_TOTAL_SUM.name(), 2L);
+		assertEquals(expected, metrics.getValidationFailures());
+		assertEquals(2, metrics.getValidationFailures(ValidationResult.INVALID_PINS.name()));
+		assertEquals(0, metrics.getValidationFailures(ValidationResult.NO_BONUS_SHOT.name()));
+		assertEquals(8, metrics.getSetPinsCount());
+		metrics.reset();
+		assertEquals(0, metrics.getValidationFailures(ValidationResult.INVALID_PINS.name()));
+	}
+
+}
\ No newline at end of file
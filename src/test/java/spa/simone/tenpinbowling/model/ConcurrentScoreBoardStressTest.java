@@ -0,0 +1,224 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.Games;
+
+/**
+ * <p>
+ * Checks that the readers of a {@link ConcurrentScoreBoard} never see a
+ * half-applied or a lost <code>setPins</code>, while several writers play the
+ * same boards.
+ * </p>
+ * <p>
+ * Each writer plays its own frames of every board, in order, so the writers of
+ * a board race on the same state but never on the same frame. On every read,
+ * the readers check that:
+ * </p>
+ * <ul>
+ * <li>the frame scores add up to the final score;</li>
+ * <li>the shots of each frame are a prefix of the ones played, i.e. no shot is
+ * there without its earlier shots;</li>
+ * <li>no ball seen by an earlier read is missing, and the final score never
+ * goes down.</li>
+ * </ul>
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class ConcurrentScoreBoardStressTest {
+
+	private static final int ROUNDS = 20;
+	private static final int BOARDS = 2000;
+	private static final int WRITERS = 3;
+	private static final int READERS = 2;
+
+	private final AtomicReference<String> violation = new AtomicReference<>();
+
+	@Test
+	public void readersNeverSeeAPartialBall() throws InterruptedException, ScoreBoardException {
+		Random random = new Random(42);
+		for (int round = 0; round < ROUNDS && violation.get() == null; round++) {
+			byte[][] games = new byte[BOARDS][];
+			ConcurrentScoreBoard[] boards = new ConcurrentScoreBoard[BOARDS];
+			for (int i = 0; i < BOARDS; i++) {
+				games[i] = Games.random(random);
+				boards[i] = new ConcurrentScoreBoard();
+			}
+			run(games, boards, random.nextLong());
+			for (int i = 0; i < BOARDS && violation.get() == null; i++) {
+				// no ball has been lost
+				assertArrayEquals(games[i], Games.shots(boards[i]));
+			}
+		}
+		assertNull(violation.get(), violation.get());
+	}
+
+	private void run(byte[][] games, ConcurrentScoreBoard[] boards, long seed)
+			throws InterruptedException {
+		AtomicInteger writing = new AtomicInteger(WRITERS);
+		List<Thread> threads = new ArrayList<>();
+		for (int w = 0; w < WRITERS; w++) {
+			threads.add(new Thread(new Writer(w, games, boards, writing)));
+		}
+		for (int r = 0; r < READERS; r++) {
+			threads.add(new Thread(new Reader(games, boards, writing, seed + r)));
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+	}
+
+	private void fail(String message) {
+		violation.compareAndSet(null, message);
+	}
+
+	/*
+	 * Plays the frames f of every board such that (f - 1) % WRITERS is the
+	 * writer.
+	 */
+	private class Writer implements Runnable {
+
+		private final int writer;
+		private final byte[][] games;
+		private final ScoreBoard[] boards;
+		private final AtomicInteger writing;
+
+		Writer(int writer, byte[][] games, ScoreBoard[] boards, AtomicInteger writing) {
+			this.writer = writer;
+			this.games = games;
+			this.boards = boards;
+			this.writing = writing;
+		}
+
+		@Override
+		public void run() {
+			try {
+				for (int i = 0; i < boards.length; i++) {
+					for (int frame = writer + 1; frame <= 10; frame += WRITERS) {
+						play(boards[i], games[i], frame);
+					}
+				}
+			} catch (ScoreBoardException | RuntimeException e) {
+				fail("A writer failed: " + e);
+			} finally {
+				writing.decrementAndGet();
+			}
+		}
+
+		private void play(ScoreBoard board, byte[] game, int frame) throws ScoreBoardException {
+			int first = game[Util.getIndex(frame - 1, 0)];
+			int second = game[Util.getIndex(frame - 1, 1)];
+			board.setPins(frame, 1, first);
+			if (frame < 10 && first == 10) {
+				return;
+			}
+			board.setPins(frame, 2, second);
+			if (frame == 10 && (first == 10 || first + second == 10)) {
+				board.setPins(10, 3, game[20]);
+			}
+		}
+
+	}
+
+	private class Reader implements Runnable {
+
+		private final byte[][] games;
+		private final ConcurrentScoreBoard[] boards;
+		private final AtomicInteger writing;
+		private final Random random;
+		// the last shots and final score seen on each board
+		private final int[][] seen;
+		private final int[] seenScores;
+		private final int[] shots = new int[21];
+
+		Reader(byte[][] games, ConcurrentScoreBoard[] boards, AtomicInteger writing, long seed) {
+			this.games = games;
+			this.boards = boards;
+			this.writing = writing;
+			this.random = new Random(seed);
+			this.seen = new int[boards.length][21];
+			this.seenScores = new int[boards.length];
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (writing.get() > 0 && violation.get() == null) {
+					check(random.nextInt(boards.length));
+				}
+			} catch (OutOfRangeException | RuntimeException e) {
+				fail("A reader failed: " + e);
+			}
+		}
+
+		private void check(int i) throws OutOfRangeException {
+			int score = boards[i].getFinalScore();
+			if (score < seenScores[i]) {
+				fail("The final score of board " + i + " went from " + seenScores[i] + " to " + score);
+			}
+			seenScores[i] = score;
+
+			ScoreBoard snapshot = boards[i].snapshot();
+			int sum = 0;
+			for (int frame = 1; frame <= 10; frame++) {
+				sum += snapshot.getScoreOf(frame);
+			}
+			if (sum != snapshot.getFinalScore()) {
+				fail("The frames of board " + i + " add up to " + sum + ", the final score is "
+						+ snapshot.getFinalScore());
+			}
+			Util.getShots(snapshot, shots);
+			for (int frame = 1; frame <= 10; frame++) {
+				int from = Util.getIndex(frame - 1, 0);
+				int to = frame == 10 ? 21 : from + 2;
+				// the shots played are a prefix of the frame
+				int played = from;
+				while (played < to && shots[played] == games[i][played]) {
+					played++;
+				}
+				for (int index = played; index < to; index++) {
+					if (shots[index] != 0) {
+						fail("Board " + i + " has shot " + index + " without the earlier shots of frame "
+								+ frame);
+					}
+				}
+			}
+			for (int index = 0; index < 21; index++) {
+				if (seen[i][index] != 0 && shots[index] != seen[i][index]) {
+					fail("Board " + i + " lost the shot " + index);
+				}
+				seen[i][index] = shots[index];
+			}
+		}
+
+	}
+
+}
\ No newline at end of file
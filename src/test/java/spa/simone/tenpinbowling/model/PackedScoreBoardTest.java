@@ -0,0 +1,114 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.Games;
+
+/**
+ * Checks the conversions of {@link PackedScoreBoard} and its footprint
+ * against {@link ScoreBoardImpl}.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class PackedScoreBoardTest {
+
+	private static final int GAMES = 20000;
+	private static final int INSTANCES = 10000;
+
+	@Test
+	public void conversionsAreLossless() throws ScoreBoardException {
+		Random random = new Random(42);
+		for (int i = 0; i < GAMES; i++) {
+			byte[] shots = Games.random(random);
+			ScoreBoardImpl impl = Games.play(new ScoreBoardImpl(), shots);
+			impl.setPlayerName("Player" + (i % 100));
+			ScoreBoard[] sources = { impl, new TableScoreBoard(), new ConcurrentScoreBoard(impl),
+					new Forwarding(impl) };
+			Games.play(sources[1], shots).setPlayerId(impl.getPlayerId());
+			for (ScoreBoard source : sources) {
+				PackedScoreBoard packed = new PackedScoreBoard(source);
+				assertSame(impl, packed);
+				assertSame(impl, packed.toScoreBoardImpl());
+				assertSame(impl, new PackedScoreBoard(impl.getPlayerName(), packed.getLowShots(),
+						packed.getHighShots()));
+			}
+		}
+	}
+
+	@Test
+	public void footprintIsSmallerThanScoreBoardImpl() {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+		long thread = Thread.currentThread().getId();
+		ScoreBoard[] boards = new ScoreBoard[INSTANCES];
+
+		long before = threads.getThreadAllocatedBytes(thread);
+		for (int i = 0; i < INSTANCES; i++) {
+			boards[i] = new ScoreBoardImpl();
+		}
+		long impl = (threads.getThreadAllocatedBytes(thread) - before) / INSTANCES;
+
+		before = threads.getThreadAllocatedBytes(thread);
+		for (int i = 0; i < INSTANCES; i++) {
+			boards[i] = new PackedScoreBoard();
+		}
+		long packed = (threads.getThreadAllocatedBytes(thread) - before) / INSTANCES;
+
+		// an object header, the reference to the player and the two longs
+		assertTrue("a PackedScoreBoard takes " + packed + " bytes", packed <= 32);
+		assertTrue("a ScoreBoardImpl takes " + impl + " bytes", impl >= 4 * packed);
+	}
+
+	private static void assertSame(ScoreBoard expected, ScoreBoard actual) throws ScoreBoardException {
+		assertEquals(expected.getPlayerId(), actual.getPlayerId());
+		assertEquals(expected.getPlayerName(), actual.getPlayerName());
+		assertArrayEquals(Games.shots(expected), Games.shots(actual));
+		assertEquals(expected.getFinalScore(), actual.getFinalScore());
+	}
+
+	/*
+	 * A scoreboard that is not an AbstractScoreBoard.
+	 */
+	private static class Forwarding extends ForwardingScoreBoard {
+
+		private final ScoreBoard delegate;
+
+		Forwarding(ScoreBoard delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		protected ScoreBoard delegate() {
+			return delegate;
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Checks that the {@link PlayerRegistry} gives dense and consistent ids under
+ * concurrent registration, and that a scoreboard keeps its registry.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class PlayerRegistryTest {
+
+	private static final int THREADS = 4;
+	private static final int NAMES = 20000;
+
+	@Test
+	public void concurrentRegistrationsGiveDenseIds() throws InterruptedException {
+		final PlayerRegistry registry = new PlayerRegistry();
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread[] threads = new Thread[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			final int offset = t * NAMES / THREADS;
+			threads[t] = new Thread() {
+
+				@Override
+				public void run() {
+					try {
+						start.await();
+						// every thread registers all the names, from a different one
+						for (int i = 0; i < NAMES; i++) {
+							String name = "Player" + (offset + i) % NAMES;
+							int id = registry.register(name);
+							assertEquals(name, registry.getName(id));
+							assertEquals(id, registry.getId(name));
+						}
+					} catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					}
+				}
+
+			};
+			threads[t].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		if (failure.get() != null) {
+			throw new AssertionError(failure.get());
+		}
+		assertEquals(NAMES, registry.size());
+		boolean[] seen = new boolean[NAMES];
+		for (int i = 0; i < NAMES; i++) {
+			seen[registry.getId("Player" + i)] = true;
+		}
+		for (boolean id : seen) {
+			assertTrue(id);
+		}
+	}
+
+	@Test
+	public void registriesAreIndependent() {
+		int players = PlayerRegistry.getDefault().size();
+		PlayerRegistry first = new PlayerRegistry();
+		PlayerRegistry second = new PlayerRegistry();
+		ScoreBoard board = new ScoreBoardImpl(first);
+		board.setPlayerName("Ann");
+		second.register("Bob");
+		assertEquals(1, second.register("Ann"));
+		assertEquals(0, board.getPlayerId());
+		assertEquals("Ann", board.getPlayerName());
+		assertEquals(PlayerRegistry.NO_PLAYER, first.getId("Bob"));
+		assertEquals(players, PlayerRegistry.getDefault().size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void refusesAnIdOfAnotherRegistry() {
+		PlayerRegistry registry = new PlayerRegistry();
+		new PlayerRegistry().register("Ann");
+		new PackedScoreBoard(registry).setPlayerId(0);
+	}
+
+	@Test
+	public void copiesKeepTheRegistry() throws ScoreBoardException {
+		PlayerRegistry registry = new PlayerRegistry();
+		ScoreBoard[] boards = { new ScoreBoardImpl(registry), new TableScoreBoard(registry),
+				new PackedScoreBoard(registry), new ConcurrentScoreBoard(registry),
+				new VersionedScoreBoard(registry) };
+		for (ScoreBoard board : boards) {
+			board.setPlayerName("Ann");
+			board.setPins(1, 1, 10);
+			PackedScoreBoard packed = new PackedScoreBoard(board);
+			ScoreBoard[] copies = { packed, packed.toScoreBoardImpl(),
+					new ConcurrentScoreBoard(board) };
+			for (ScoreBoard copy : copies) {
+				assertSame(registry, copy.getPlayerRegistry());
+				assertEquals("Ann", copy.getPlayerName());
+			}
+			board.reset();
+			assertSame(registry, board.getPlayerRegistry());
+			assertNull(board.getPlayerName());
+		}
+		VersionedScoreBoard versioned = new VersionedScoreBoard(registry);
+		versioned.setPlayerName("Bob");
+		assertSame(registry, versioned.snapshot().getPlayerRegistry());
+		assertEquals(2, registry.size());
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that scoring a full game, and reading its shots through the
+ * allocation-free accessors, allocates nothing.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class ScoreBoardAllocationTest {
+
+	private static final int ROUNDS = 100000;
+
+	private com.sun.management.ThreadMXBean threads;
+	private long thread;
+	private final int[] buffer = new int[2];
+	private long sink;
+
+	@Before
+	public void setUp() {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+		thread = Thread.currentThread().getId();
+	}
+
+	@Test
+	public void scoreBoardImplScoresWithoutAllocating() throws ScoreBoardException {
+		assertNoAllocation(play(new ScoreBoardImpl()));
+	}
+
+	@Test
+	public void packedScoreBoardScoresWithoutAllocating() throws ScoreBoardException {
+		assertNoAllocation(play(new PackedScoreBoard()));
+	}
+
+	@Test
+	public void tableScoreBoardScoresWithoutAllocating() throws ScoreBoardException {
+		assertNoAllocation(play(new TableScoreBoard()));
+	}
+
+	private void assertNoAllocation(ScoreBoard board) throws OutOfRangeException {
+		// warm up, so that the measure does not count the class loading and the
+		// compilation
+		score(board, ROUNDS);
+		long probe = allocatedBytes();
+		probe = allocatedBytes() - probe;
+		long before = allocatedBytes();
+		score(board, ROUNDS);
+		long allocated = allocatedBytes() - before - probe;
+		assertEquals("bytes allocated by " + ROUNDS + " full score computations", 0, allocated);
+	}
+
+	private void score(ScoreBoard board, int rounds) throws OutOfRangeException {
+		for (int i = 0; i < rounds; i++) {
+			board.computeFinalScore();
+			sink += board.getFinalScore() + board.getStrikes() + board.getSpares();
+			for (int frame = 1; frame <= 10; frame++) {
+				sink += board.getScoreOf(frame) + board.getShot(frame, 1)
+						+ board.getShotsOf(frame, buffer)[1];
+			}
+			sink += board.getShot(10, 3);
+		}
+	}
+
+	private long allocatedBytes() {
+		return threads.getThreadAllocatedBytes(thread);
+	}
+
+	/*
+	 * Plays a game with strikes, spares and open frames.
+	 */
+	private static ScoreBoard play(ScoreBoard board) throws ScoreBoardException {
+		int[][] frames = { { 10, 0 }, { 7, 3 }, { 9, 0 }, { 10, 0 }, { 0, 8 }, { 8, 2 }, { 0, 6 },
+				{ 10, 0 }, { 10, 0 } };
+		for (int frame = 1; frame <= 9; frame++) {
+			board.setPins(frame, 1, frames[frame - 1][0]);
+			if (frames[frame - 1][0] < 10) {
+				board.setPins(frame, 2, frames[frame - 1][1]);
+			}
+		}
+		board.setPins(10, 1, 10);
+		board.setPins(10, 2, 8);
+		board.setPins(10, 3, 1);
+		assertEquals(167, board.getFinalScore());
+		return board;
+	}
+
+}
\ No newline at end of file
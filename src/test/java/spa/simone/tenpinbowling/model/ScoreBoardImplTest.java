@@ -0,0 +1,90 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.Games;
+
+/**
+ * Checks that the scores kept up to date by {@link ScoreBoardImpl} on every
+ * ball are the ones of a full computation.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class ScoreBoardImplTest {
+
+	private static final int GAMES = 20000;
+
+	@Test
+	public void scoresEveryBallOfAGame() throws ScoreBoardException {
+		Random random = new Random(42);
+		for (int i = 0; i < GAMES; i++) {
+			byte[] shots = Games.random(random);
+			ScoreBoardImpl board = new ScoreBoardImpl();
+			for (int index = 0; index < 21; index++) {
+				int frame = Math.min(index / 2 + 1, 10);
+				int shot = index < 18 ? index % 2 + 1 : index - 17;
+				// the shots that are not thrown are left out
+				if (shot == 2 && frame < 10 && board.isStrike(frame) || shot == 3
+						&& !board.isStrikeOnLastFrame() && !board.isSpareOnLastFrame()) {
+					continue;
+				}
+				board.setPins(frame, shot, shots[index]);
+				assertScores(board);
+			}
+		}
+	}
+
+	@Test
+	public void rescoresTheCorrections() {
+		Random random = new Random(7);
+		ScoreBoardImpl board = new ScoreBoardImpl();
+		for (int i = 0; i < GAMES * 10; i++) {
+			if (random.nextInt(100) == 0) {
+				board.reset();
+			}
+			// any ball, in any order: most are rejected, the others overwrite a
+			// shot already scored
+			int pins = random.nextInt(3) == 0 ? 10 : random.nextInt(11);
+			if (board.trySetPins(1 + random.nextInt(10), 1 + random.nextInt(3), pins)
+					== ValidationResult.VALID) {
+				assertScores(board);
+			}
+		}
+	}
+
+	/*
+	 * Compares the scores with the ones computed again from the shots.
+	 */
+	private static void assertScores(ScoreBoardImpl board) {
+		PackedScoreBoard packed = new PackedScoreBoard(board);
+		ScoreBoardImpl computed = packed.toScoreBoardImpl();
+		computed.computeFinalScore();
+		for (int frame = 1; frame <= 10; frame++) {
+			assertEquals(computed.scoreOf(frame), board.scoreOf(frame));
+			assertEquals(packed.scoreOf(frame), board.scoreOf(frame));
+		}
+		assertEquals(computed.getFinalScore(), board.getFinalScore());
+		assertEquals(packed.getFinalScore(), board.getFinalScore());
+	}
+
+}
\ No newline at end of file
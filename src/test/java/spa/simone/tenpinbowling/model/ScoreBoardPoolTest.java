@@ -0,0 +1,153 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.Games;
+
+/**
+ * Checks that a reset scoreboard plays like a new one, and that the
+ * {@link ScoreBoardPool} reuses the released scoreboards and detects their
+ * misuse in debug mode.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class ScoreBoardPoolTest {
+
+	private static final int GAMES = 5000;
+	private static final ScoreBoardFactory[] FACTORIES = { ScoreBoardFactory.IMPL,
+			ScoreBoardFactory.PACKED, ScoreBoardFactory.TABLE, ScoreBoardFactory.CONCURRENT,
+			ScoreBoardFactory.VERSIONED };
+
+	@Test
+	public void resetBoardsPlayLikeNewOnes() throws ScoreBoardException {
+		for (ScoreBoardFactory factory : FACTORIES) {
+			Random random = new Random(5);
+			ScoreBoard reused = factory.create();
+			for (int game = 0; game < GAMES; game++) {
+				reused.reset();
+				assertNull(reused.getPlayerName());
+				assertEquals(0, reused.getFinalScore());
+				ScoreBoard fresh = factory.create();
+				byte[] shots = Games.random(random);
+				// a game interrupted at a random ball
+				int balls = random.nextInt(25);
+				for (int index = 0; index < 21 && index < balls; index++) {
+					int frame = Math.min(index / 2 + 1, 10);
+					int shot = index < 18 ? index % 2 + 1 : index - 17;
+					assertSame(fresh.trySetPins(frame, shot, shots[index]),
+							reused.trySetPins(frame, shot, shots[index]));
+				}
+				reused.setPlayerName("Player" + game % 10);
+				fresh.setPlayerName("Player" + game % 10);
+				assertArrayEquals(Games.shots(fresh), Games.shots(reused));
+				fresh.computeFinalScore();
+				reused.computeFinalScore();
+				assertEquals(fresh.serializeScoreBoard(), reused.serializeScoreBoard());
+			}
+		}
+	}
+
+	@Test
+	public void reusesTheReleasedBoards() throws ScoreBoardException {
+		ScoreBoardPool pool = new ScoreBoardPool(ScoreBoardFactory.PACKED, 2, false);
+		ScoreBoard[] boards = { pool.acquire(), pool.acquire(), pool.acquire() };
+		boards[0].setPins(1, 1, 7);
+		boards[0].setPlayerName("Ann");
+		for (ScoreBoard board : boards) {
+			pool.release(board);
+		}
+		// the third one does not fit
+		assertEquals(2, pool.getIdle());
+		ScoreBoard board = pool.acquire();
+		assertSame(boards[0], board);
+		assertEquals(0, board.getShot(1, 1));
+		assertNull(board.getPlayerName());
+		assertEquals(3, pool.getCreated());
+		assertEquals(-1, pool.getLeased());
+	}
+
+	@Test
+	public void debugModeRejectsASecondRelease() {
+		ScoreBoardPool pool = new ScoreBoardPool(ScoreBoardFactory.IMPL, 4, true);
+		ScoreBoard board = pool.acquire();
+		assertEquals(1, pool.getLeased());
+		pool.release(board);
+		assertEquals(0, pool.getLeased());
+		try {
+			pool.release(board);
+			fail("released twice");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		try {
+			pool.release(new ScoreBoardImpl());
+			fail("released a scoreboard of another pool");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void debugModeReportsALeak() throws InterruptedException {
+		final Throwable[] leak = new Throwable[1];
+		ScoreBoardPool pool = new ScoreBoardPool(ScoreBoardFactory.IMPL, 4, true) {
+
+			@Override
+			protected void leakDetected(Throwable acquisition) {
+				leak[0] = acquisition;
+			}
+
+		};
+		pool.release(pool.acquire());
+		acquireAndDrop(pool);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (pool.getLeaks() == 0 && System.nanoTime() < deadline) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertEquals(1, pool.getLeaks());
+		assertEquals(0, pool.getLeased());
+		// the stack trace of the acquisition
+		assertTrue(acquiredBy(leak[0], "acquireAndDrop"));
+	}
+
+	private static boolean acquiredBy(Throwable acquisition, String method) {
+		for (StackTraceElement element : acquisition.getStackTrace()) {
+			if (element.getMethodName().equals(method)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void acquireAndDrop(ScoreBoardPool pool) {
+		pool.acquire();
+	}
+
+}
\ No newline at end of file
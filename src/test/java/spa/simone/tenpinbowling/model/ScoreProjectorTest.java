@@ -0,0 +1,125 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks the {@link ScoreProjector} against the enumeration of all the ways
+ * to end a game, from random positions of the last two frames.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class ScoreProjectorTest {
+
+	private static final int CASES = 400;
+
+	@Test
+	public void projectsANewGame() throws OutOfRangeException {
+		ScoreProjection projection = ScoreProjector.project(new PackedScoreBoard(), 1, 1);
+		assertEquals(0, projection.getMinScore());
+		assertEquals(300, projection.getMaxScore());
+		assertEquals(0, projection.getPinsToReach(0));
+		assertEquals(1, projection.getPinsToReach(1));
+		assertEquals(120, projection.getPinsToReach(300));
+		assertEquals(-1, projection.getPinsToReach(301));
+	}
+
+	@Test
+	public void projectsLikeTheEnumeration() throws OutOfRangeException {
+		Random random = new Random(7);
+		for (int i = 0; i < CASES; i++) {
+			PackedScoreBoard board = new PackedScoreBoard();
+			int[] position = { 1, 1 };
+			int stopFrame = 9 + random.nextInt(2);
+			int stopShot = random.nextInt(3);
+			while (position[0] <= 10
+					&& (position[0] < stopFrame || position[0] == stopFrame && position[1] <= stopShot)) {
+				// a strike one ball out of four
+				int pins = random.nextInt(4) == 0 ? 10 : random.nextInt(11);
+				if (board.trySetPins(position[0], position[1], pins) == ValidationResult.VALID) {
+					position = next(board, position[0], position[1]);
+				}
+			}
+			ScoreProjection projection = ScoreProjector.project(board, position[0], position[1]);
+			// the fewest pins to end the game with each score
+			int[] fewest = new int[301];
+			Arrays.fill(fewest, Integer.MAX_VALUE);
+			enumerate(board, position[0], position[1], 0, fewest);
+			int min = 300;
+			int max = 0;
+			for (int score = 0; score <= 300; score++) {
+				if (fewest[score] != Integer.MAX_VALUE) {
+					min = Math.min(min, score);
+					max = score;
+				}
+			}
+			String at = " at " + position[0] + "/" + position[1] + " of " + board.serializeScoreBoard();
+			assertEquals("min" + at, min, projection.getMinScore());
+			assertEquals("max" + at, max, projection.getMaxScore());
+			for (int target = 0; target <= 302; target++) {
+				int pins = Integer.MAX_VALUE;
+				for (int score = target; score <= 300; score++) {
+					pins = Math.min(pins, fewest[score]);
+				}
+				assertEquals("pins to reach " + target + at, pins == Integer.MAX_VALUE ? -1 : pins,
+						projection.getPinsToReach(target));
+			}
+		}
+	}
+
+	private static void enumerate(PackedScoreBoard board, int frame, int shot, int pins,
+			int[] fewest) throws OutOfRangeException {
+		if (frame > 10) {
+			int score = board.getFinalScore();
+			fewest[score] = Math.min(fewest[score], pins);
+			return;
+		}
+		for (int p = 0; p <= 10; p++) {
+			PackedScoreBoard copy = new PackedScoreBoard(board);
+			if (copy.trySetPins(frame, shot, p) == ValidationResult.VALID) {
+				int[] position = next(copy, frame, shot);
+				enumerate(copy, position[0], position[1], pins + p, fewest);
+			}
+		}
+	}
+
+	/*
+	 * The frame and the shot of the ball after the given one.
+	 */
+	private static int[] next(ScoreBoard board, int frame, int shot) throws OutOfRangeException {
+		if (frame < 10) {
+			if (shot == 1 && !board.isStrike(frame)) {
+				return new int[] { frame, 2 };
+			}
+			return new int[] { frame + 1, 1 };
+		}
+		if (shot == 1) {
+			return new int[] { 10, 2 };
+		}
+		if (shot == 2 && (board.isStrikeOnLastFrame() || board.isSpareOnLastFrame())) {
+			return new int[] { 10, 3 };
+		}
+		return new int[] { 11, 1 };
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.Games;
+
+/**
+ * Checks that {@link TableScoreBoard} scores and validates every ball as
+ * {@link ScoreBoardImpl}, on random games and random invalid balls.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class TableScoreBoardTest {
+
+	private static final int GAMES = 20000;
+
+	@Test
+	public void scoresLikeScoreBoardImpl() throws ScoreBoardException {
+		Random random = new Random(42);
+		for (int game = 0; game < GAMES; game++) {
+			byte[] shots = Games.random(random);
+			ScoreBoardImpl expected = Games.play(new ScoreBoardImpl(), shots);
+			TableScoreBoard actual = Games.play(new TableScoreBoard(), shots);
+			assertSameGame(expected, actual);
+		}
+	}
+
+	@Test
+	public void scoresLikeScoreBoardImplAfterEveryBall() throws ScoreBoardException {
+		Random random = new Random(7);
+		for (int game = 0; game < GAMES / 10; game++) {
+			byte[] shots = Games.random(random);
+			ScoreBoardImpl expected = new ScoreBoardImpl();
+			TableScoreBoard actual = new TableScoreBoard();
+			for (int frame = 1; frame <= 10; frame++) {
+				for (int shot = 1; shot <= (frame < 10 ? 2 : 3); shot++) {
+					int pins = shots[Util.getIndex(frame - 1, shot - 1)];
+					if (expected.trySetPins(frame, shot, pins) == ValidationResult.VALID) {
+						assertEquals(ValidationResult.VALID, actual.trySetPins(frame, shot, pins));
+						assertSameGame(expected, actual);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void rejectsTheBallsOfScoreBoardImpl() throws ScoreBoardException {
+		Random random = new Random(3);
+		for (int game = 0; game < GAMES; game++) {
+			ScoreBoardImpl expected = new ScoreBoardImpl();
+			TableScoreBoard actual = new TableScoreBoard();
+			for (int ball = 0; ball < 30; ball++) {
+				int frame = random.nextInt(12);
+				int shot = random.nextInt(5);
+				int pins = random.nextInt(13) - 1;
+				if (random.nextBoolean()) {
+					assertEquals(expected.trySetPins(frame, shot, pins),
+							actual.trySetPins(frame, shot, pins));
+				} else {
+					assertEquals(message(expected, frame, shot, pins), message(actual, frame, shot, pins));
+				}
+				assertArrayEquals(Games.shots(expected), Games.shots(actual));
+			}
+			assertSameGame(expected, actual);
+		}
+	}
+
+	/*
+	 * The message of the exception of setPins, or null if the ball is valid.
+	 */
+	private static String message(ScoreBoard board, int frame, int shot, int pins) {
+		try {
+			board.setPins(frame, shot, pins);
+			return null;
+		} catch (ScoreBoardException e) {
+			return e.getClass().getName() + ": " + e.getMessage();
+		}
+	}
+
+	private static void assertSameGame(ScoreBoard expected, ScoreBoard actual)
+			throws OutOfRangeException {
+		expected.computeFinalScore();
+		actual.computeFinalScore();
+		assertEquals(expected.getFinalScore(), actual.getFinalScore());
+		assertEquals(expected.getStrikes(), actual.getStrikes());
+		assertEquals(expected.getSpares(), actual.getSpares());
+		for (int frame = 1; frame <= 10; frame++) {
+			assertEquals(expected.getScoreOf(frame), actual.getScoreOf(frame));
+			assertEquals(expected.getSumOf(frame), actual.getSumOf(frame));
+			assertEquals(expected.isStrike(frame), actual.isStrike(frame));
+			assertEquals(expected.isSpare(frame), actual.isSpare(frame));
+			assertEquals(expected.isOpen(frame), actual.isOpen(frame));
+		}
+		assertEquals(expected.isStrikeOnLastFrame(), actual.isStrikeOnLastFrame());
+		assertEquals(expected.isSpareOnLastFrame(), actual.isSpareOnLastFrame());
+		assertEquals(expected.isDoubleOnLastFrame(), actual.isDoubleOnLastFrame());
+		assertEquals(expected.isTripleOnLastFrame(), actual.isTripleOnLastFrame());
+		assertEquals(expected.isStrikeAndSpareOnLastFrame(), actual.isStrikeAndSpareOnLastFrame());
+		assertEquals(expected.isSpareAndStrikeOnLastFrame(), actual.isSpareAndStrikeOnLastFrame());
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,115 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.Games;
+
+/**
+ * Checks that {@link ScoreBoard#trySetPins(int, int, int)} accepts and
+ * rejects the same balls of {@link ScoreBoard#setPins(int, int, int)}, with
+ * the reason matching the exception, on every implementation.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class TrySetPinsTest {
+
+	private static final int GAMES = 2000;
+	private static final int BALLS = 40;
+
+	private static final Map<ValidationResult, Class<? extends ScoreBoardException>> EXCEPTIONS =
+			new EnumMap<>(ValidationResult.class);
+
+	static {
+		EXCEPTIONS.put(ValidationResult.INVALID_FRAME, OutOfRangeException.class);
+		EXCEPTIONS.put(ValidationResult.INVALID_SHOT, OutOfRangeException.class);
+		EXCEPTIONS.put(ValidationResult.NO_THIRD_SHOT, OutOfRangeException.class);
+		EXCEPTIONS.put(ValidationResult.INVALID_PINS, OutOfRangeException.class);
+		EXCEPTIONS.put(ValidationResult.STRIKE_VIOLATION, StrikeViolationException.class);
+		EXCEPTIONS.put(ValidationResult.INVALID_TOTAL_SUM, InvalidTotalSumException.class);
+		EXCEPTIONS.put(ValidationResult.NO_BONUS_SHOT, OutOfRangeException.class);
+	}
+
+	@Test
+	public void scoreBoardImpl() throws ScoreBoardException {
+		check(ScoreBoardFactory.IMPL);
+	}
+
+	@Test
+	public void packedScoreBoard() throws ScoreBoardException {
+		check(ScoreBoardFactory.PACKED);
+	}
+
+	@Test
+	public void tableScoreBoard() throws ScoreBoardException {
+		check(ScoreBoardFactory.TABLE);
+	}
+
+	@Test
+	public void concurrentScoreBoard() throws ScoreBoardException {
+		check(ScoreBoardFactory.CONCURRENT);
+	}
+
+	@Test
+	public void versionedScoreBoard() throws ScoreBoardException {
+		check(ScoreBoardFactory.VERSIONED);
+	}
+
+	private static void check(ScoreBoardFactory factory) throws ScoreBoardException {
+		Random random = new Random(5);
+		Map<ValidationResult, Integer> results = new EnumMap<>(ValidationResult.class);
+		for (int game = 0; game < GAMES; game++) {
+			ScoreBoard thrown = factory.create();
+			ScoreBoard tried = factory.create();
+			for (int ball = 0; ball < BALLS; ball++) {
+				// some balls out of range, most in range and some of them valid
+				int frame = random.nextInt(13) - 1;
+				int shot = random.nextInt(5) - 1;
+				int pins = random.nextInt(14) - 1;
+				ScoreBoardException exception = null;
+				try {
+					thrown.setPins(frame, shot, pins);
+				} catch (ScoreBoardException e) {
+					exception = e;
+				}
+				ValidationResult result = tried.trySetPins(frame, shot, pins);
+				if (exception == null) {
+					assertSame(ValidationResult.VALID, result);
+				} else {
+					assertSame(result + " for " + exception, EXCEPTIONS.get(result),
+							exception.getClass());
+				}
+				Integer count = results.get(result);
+				results.put(result, count == null ? 1 : count + 1);
+				assertArrayEquals(Games.shots(thrown), Games.shots(tried));
+				assertEquals(thrown.getFinalScore(), tried.getFinalScore());
+			}
+		}
+		// every reason was met
+		assertEquals(ValidationResult.values().length, results.size());
+	}
+
+}
\ No newline at end of file
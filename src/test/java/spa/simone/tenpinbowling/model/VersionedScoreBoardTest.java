@@ -0,0 +1,138 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.Games;
+
+/**
+ * Checks that every version of a {@link VersionedScoreBoard}, and its scores,
+ * are the ones of a {@link ScoreBoardImpl} replaying the same balls,
+ * corrections and resets.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class VersionedScoreBoardTest {
+
+	private static final int GAMES = 5000;
+
+	@Test
+	public void keepsEveryVersion() throws ScoreBoardException {
+		Random random = new Random(1);
+		for (int game = 0; game < GAMES; game++) {
+			VersionedScoreBoard board = new VersionedScoreBoard();
+			ScoreBoardImpl expected = new ScoreBoardImpl();
+			List<byte[]> versions = new ArrayList<>();
+			List<Integer> scores = new ArrayList<>();
+			versions.add(Games.shots(expected));
+			scores.add(0);
+			// past a few checkpoints
+			int changes = random.nextInt(5 * VersionedScoreBoard.CHECKPOINT);
+			for (int i = 0; i < changes; i++) {
+				if (random.nextInt(50) == 0) {
+					board.reset();
+					expected.reset();
+					assertAudit(board, 0, 0, 0, 0);
+				} else {
+					int frame = random.nextInt(10) + 1;
+					int shot = random.nextInt(frame == 10 ? 3 : 2) + 1;
+					int pins = random.nextInt(11);
+					ValidationResult result = expected.trySetPins(frame, shot, pins);
+					assertSame(result, board.trySetPins(frame, shot, pins));
+					if (result != ValidationResult.VALID) {
+						continue;
+					}
+					int before = versions.get(versions.size() - 1)[Util.getIndex(frame - 1, shot - 1)];
+					assertAudit(board, frame, shot, pins, before);
+				}
+				expected.computeFinalScore();
+				versions.add(Games.shots(expected));
+				scores.add(expected.getFinalScore());
+				assertEquals(versions.size() - 1, board.getVersion());
+				assertArrayEquals(versions.get(versions.size() - 1), Games.shots(board));
+				for (int frame = 1; frame <= 10; frame++) {
+					assertEquals(expected.getScoreOf(frame), board.getScoreOf(frame));
+				}
+				assertEquals(expected.getFinalScore(), board.getFinalScore());
+				assertEquals(expected.getStrikes(), board.getStrikes());
+				assertEquals(expected.getSpares(), board.getSpares());
+			}
+			for (int version = 0; version < versions.size(); version++) {
+				ScoreBoard snapshot = board.snapshot(version);
+				assertArrayEquals(versions.get(version), Games.shots(snapshot));
+				assertEquals((int) scores.get(version), snapshot.getFinalScore());
+			}
+		}
+	}
+
+	@Test
+	public void snapshotsAreReadOnly() throws ScoreBoardException {
+		VersionedScoreBoard board = new VersionedScoreBoard(new PlayerRegistry());
+		board.setPlayerName("Ann");
+		board.setPins(1, 1, 7);
+		ScoreBoard snapshot = board.snapshot(0);
+		assertEquals("Ann", snapshot.getPlayerName());
+		assertSame(board.getPlayerRegistry(), snapshot.getPlayerRegistry());
+		try {
+			snapshot.setPins(1, 1, 1);
+			fail("changed a version");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			snapshot.reset();
+			fail("reset a version");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		assertEquals(7, board.snapshot().getShot(1, 1));
+		for (int version : new int[] { -1, 2 }) {
+			try {
+				board.snapshot(version);
+				fail("read the version " + version);
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+		try {
+			board.getChangedFrame(0);
+			fail("the first version has no change");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private static void assertAudit(VersionedScoreBoard board, int frame, int shot, int pins,
+			int before) {
+		int version = board.getVersion();
+		assertEquals(frame, board.getChangedFrame(version));
+		assertEquals(shot, board.getChangedShot(version));
+		assertEquals(pins, board.getPinsAfter(version));
+		assertEquals(before, board.getPinsBefore(version));
+	}
+
+}
\ No newline at end of file
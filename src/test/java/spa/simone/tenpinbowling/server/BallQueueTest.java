@@ -0,0 +1,99 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Checks the {@link BallQueue}.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class BallQueueTest {
+
+	@Test
+	public void keepsTheOrderAndRejectsWhenFull() {
+		BallQueue queue = new BallQueue(4);
+		assertTrue(queue.isEmpty());
+		assertEquals(-1, queue.poll());
+		for (int lap = 0; lap < 3; lap++) {
+			for (int pins = 0; pins < 4; pins++) {
+				assertTrue(queue.offer(pins));
+			}
+			assertFalse(queue.offer(9));
+			for (int pins = 0; pins < 4; pins++) {
+				assertFalse(queue.isEmpty());
+				assertEquals(pins, queue.poll());
+			}
+			assertTrue(queue.isEmpty());
+			assertEquals(-1, queue.poll());
+		}
+		assertTrue(queue.offer(-7));
+		assertEquals(-7, (int) queue.poll());
+	}
+
+	@Test
+	public void losesNoBallOfConcurrentProducers() throws InterruptedException {
+		final int producers = 4;
+		final int balls = 100000;
+		final BallQueue queue = new BallQueue(64);
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			final int producer = p;
+			threads.add(new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int i = 0; i < balls; i++) {
+						// the producer in the high bits, its sequence in the low ones
+						while (!queue.offer(producer << 24 | i)) {
+							Thread.yield();
+						}
+					}
+				}
+
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		int[] next = new int[producers];
+		for (int taken = 0; taken < producers * balls;) {
+			long ball = queue.poll();
+			if (ball < 0) {
+				Thread.yield();
+				continue;
+			}
+			int producer = (int) ball >>> 24;
+			assertEquals("ball of producer " + producer, next[producer], (int) ball & 0xFFFFFF);
+			next[producer]++;
+			taken++;
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(queue.isEmpty());
+	}
+
+}
\ No newline at end of file
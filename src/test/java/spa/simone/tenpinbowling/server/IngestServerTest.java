@@ -0,0 +1,291 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.server;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.Games;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardFactory;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+import spa.simone.tenpinbowling.model.Util;
+
+/**
+ * Checks that the {@link IngestServer} replies to every event as the
+ * scoreboards do, whatever the split of the events in the stream, and that
+ * it scores the games of concurrent controllers.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class IngestServerTest {
+
+	private static final int LANES = 4;
+	private static final int PLAYERS = 2;
+	private static final int EVENTS = 200000;
+
+	@Test
+	public void repliesLikeTheScoreBoards() throws IOException, InterruptedException,
+			ScoreBoardException {
+		Random random = new Random(42);
+		final byte[] events = new byte[EVENTS * IngestServer.EVENT_SIZE];
+		byte[] expected = new byte[EVENTS];
+		// one more lane and player than the server has
+		ScoreBoard[][] boards = new ScoreBoard[LANES + 1][PLAYERS + 1];
+		for (ScoreBoard[] lane : boards) {
+			for (int player = 0; player < lane.length; player++) {
+				lane[player] = new ScoreBoardImpl();
+			}
+		}
+		for (int i = 0; i < EVENTS; i++) {
+			int lane = random.nextInt(LANES + 1);
+			int player = random.nextInt(PLAYERS + 1);
+			int frame = random.nextInt(40) == 0 ? 0 : random.nextInt(11) + 1;
+			int shot = random.nextInt(3) + 1;
+			int pins = random.nextInt(12);
+			int offset = i * IngestServer.EVENT_SIZE;
+			events[offset] = (byte) (lane >>> 8);
+			events[offset + 1] = (byte) lane;
+			events[offset + 2] = (byte) player;
+			events[offset + 3] = (byte) frame;
+			events[offset + 4] = (byte) shot;
+			events[offset + 5] = (byte) pins;
+			if (lane == LANES || player == PLAYERS) {
+				expected[i] = (byte) IngestServer.UNKNOWN_PLAYER;
+			} else if (frame == 0) {
+				boards[lane][player].reset();
+			} else {
+				expected[i] = (byte) boards[lane][player].trySetPins(frame, shot, pins).ordinal();
+			}
+		}
+		IngestServer server = server(ScoreBoardFactory.PACKED);
+		try (final Socket socket = connect(server)) {
+			final AtomicReference<IOException> failure = new AtomicReference<>();
+			// the events are sent while the replies are read, split at random
+			Thread writer = new Thread() {
+
+				@Override
+				public void run() {
+					Random random = new Random(7);
+					try {
+						OutputStream out = socket.getOutputStream();
+						for (int offset = 0; offset < events.length;) {
+							int length = Math.min(random.nextInt(2000) + 1, events.length - offset);
+							out.write(events, offset, length);
+							offset += length;
+						}
+					} catch (IOException e) {
+						failure.set(e);
+					}
+				}
+
+			};
+			writer.start();
+			byte[] replies = read(socket, EVENTS);
+			writer.join();
+			assertEquals(null, failure.get());
+			assertArrayEquals(expected, replies);
+			int valid = 0;
+			for (byte reply : replies) {
+				if (reply == 0) {
+					valid++;
+				}
+			}
+			assertEquals(valid, server.getAccepted());
+			assertEquals(EVENTS - valid, server.getRejected());
+		} finally {
+			server.close();
+		}
+		// the scoreboards are read after the selector thread has stopped
+		for (int lane = 0; lane < LANES; lane++) {
+			for (int player = 0; player < PLAYERS; player++) {
+				assertArrayEquals(Games.shots(boards[lane][player]),
+						Games.shots(server.getScoreBoard(lane, player)));
+			}
+		}
+	}
+
+	@Test
+	public void repliesToASlowPipeliningController() throws IOException, InterruptedException {
+		try (IngestServer server = server(ScoreBoardFactory.PACKED);
+				Socket socket = connect(server)) {
+			// a reply that never comes fails the read
+			socket.setSoTimeout(5000);
+			final OutputStream out = socket.getOutputStream();
+			final AtomicReference<IOException> failure = new AtomicReference<>();
+			Random random = new Random(3);
+			for (int round = 0; round < 10; round++) {
+				// more replies than the socket buffers hold, so they back up in the
+				// server
+				int events = 500000 + random.nextInt(500000);
+				final byte[] bytes = new byte[events * IngestServer.EVENT_SIZE];
+				for (int i = 0; i < events; i++) {
+					event(bytes, i, 0, 0, 0, 0, 0);
+				}
+				// all the events are sent before the first reply is read
+				Thread writer = new Thread() {
+
+					@Override
+					public void run() {
+						try {
+							out.write(bytes);
+						} catch (IOException e) {
+							failure.set(e);
+						}
+					}
+
+				};
+				long start = System.nanoTime();
+				writer.start();
+				Thread.sleep(100);
+				assertArrayEquals(new byte[events], read(socket, events));
+				// no reply waits for more events to wake up the server
+				assertTrue("The replies were late",
+						System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+				writer.join();
+				assertEquals(null, failure.get());
+			}
+		}
+	}
+
+	@Test
+	public void scoresTheGamesOfEveryController() throws IOException, InterruptedException,
+			ScoreBoardException {
+		final byte[][][] games = new byte[LANES][PLAYERS][];
+		try (final IngestServer server = server(ScoreBoardFactory.CONCURRENT)) {
+			final AtomicReference<Throwable> failure = new AtomicReference<>();
+			Thread[] controllers = new Thread[LANES];
+			for (int lane = 0; lane < LANES; lane++) {
+				final int number = lane;
+				controllers[lane] = new Thread() {
+
+					@Override
+					public void run() {
+						try (Socket socket = connect(server)) {
+							Random random = new Random(number);
+							for (int game = 0; game < 200; game++) {
+								for (int player = 0; player < PLAYERS; player++) {
+									games[number][player] = Games.random(random);
+								}
+								play(socket, number, games[number]);
+							}
+						} catch (Throwable e) {
+							failure.set(e);
+						}
+					}
+
+				};
+				controllers[lane].start();
+			}
+			for (Thread controller : controllers) {
+				controller.join();
+			}
+			assertEquals(null, failure.get());
+			assertEquals(0, server.getRejected());
+			for (int lane = 0; lane < LANES; lane++) {
+				for (int player = 0; player < PLAYERS; player++) {
+					ScoreBoard expected = Games.play(new ScoreBoardImpl(), games[lane][player]);
+					expected.computeFinalScore();
+					assertEquals(expected.getFinalScore(), server.getScoreBoard(lane, player)
+							.getFinalScore());
+				}
+			}
+		}
+	}
+
+	private static IngestServer server(ScoreBoardFactory factory) throws IOException {
+		IngestServer server = new IngestServer(new InetSocketAddress("127.0.0.1", 0), LANES,
+				PLAYERS, factory);
+		server.start();
+		return server;
+	}
+
+	private static Socket connect(IngestServer server) throws IOException {
+		Socket socket = new Socket(server.getAddress().getAddress(), server.getAddress().getPort());
+		socket.setTcpNoDelay(true);
+		return socket;
+	}
+
+	private static byte[] read(Socket socket, int length) throws IOException {
+		byte[] bytes = new byte[length];
+		InputStream in = socket.getInputStream();
+		for (int offset = 0; offset < length;) {
+			int n = in.read(bytes, offset, length - offset);
+			if (n < 0) {
+				throw new IOException("The server closed the connection");
+			}
+			offset += n;
+		}
+		return bytes;
+	}
+
+	/*
+	 * Resets the scoreboards of a lane and plays a game for each player, frame
+	 * by frame, and checks that every event is accepted.
+	 */
+	private static void play(Socket socket, int lane, byte[][] games) throws IOException {
+		byte[] events = new byte[(PLAYERS + PLAYERS * 21) * IngestServer.EVENT_SIZE];
+		int n = 0;
+		for (int player = 0; player < PLAYERS; player++) {
+			n = event(events, n, lane, player, 0, 0, 0);
+		}
+		for (int frame = 1; frame <= 10; frame++) {
+			for (int player = 0; player < PLAYERS; player++) {
+				byte[] shots = games[player];
+				int first = shots[Util.getIndex(frame - 1, 0)];
+				int second = shots[Util.getIndex(frame - 1, 1)];
+				n = event(events, n, lane, player, frame, 1, first);
+				if (frame < 10 && first == 10) {
+					continue;
+				}
+				n = event(events, n, lane, player, frame, 2, second);
+				if (frame == 10 && (first == 10 || first + second == 10)) {
+					n = event(events, n, lane, player, frame, 3, shots[20]);
+				}
+			}
+		}
+		socket.getOutputStream().write(events, 0, n * IngestServer.EVENT_SIZE);
+		byte[] replies = read(socket, n);
+		assertArrayEquals(new byte[n], replies);
+	}
+
+	private static int event(byte[] events, int n, int lane, int player, int frame, int shot,
+			int pins) {
+		int offset = n * IngestServer.EVENT_SIZE;
+		events[offset] = (byte) (lane >>> 8);
+		events[offset + 1] = (byte) lane;
+		events[offset + 2] = (byte) player;
+		events[offset + 3] = (byte) frame;
+		events[offset + 4] = (byte) shot;
+		events[offset + 5] = (byte) pins;
+		return n + 1;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,204 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import spa.simone.tenpinbowling.Games;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+import spa.simone.tenpinbowling.model.Util;
+import spa.simone.tenpinbowling.store.BallLog;
+
+/**
+ * Checks that the games of a {@link Lane} and of a {@link LaneServer} with a
+ * {@link BallLog} are resumed after a crash, with their players and their
+ * balls.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class LaneRecoveryTest {
+
+	private static final List<String> PLAYERS = Arrays.asList("Ann", "Bob", "Cat");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void resumesTheGameAfterEveryBall() throws IOException, ScoreBoardException {
+		Random random = new Random(42);
+		for (int round = 0; round < 50; round++) {
+			File directory = folder.newFolder();
+			byte[][] games = games(random);
+			BallLog log = BallLog.open(directory, 5);
+			Lane lane = new Lane(3, PLAYERS, null, log, 9);
+			int balls = random.nextInt(40);
+			for (int ball = 0; ball < balls && !lane.isOver(); ball++) {
+				roll(lane, games);
+			}
+			// the log is not closed, as after a crash
+			try (BallLog recovered = BallLog.open(directory, 5)) {
+				assertEquals(9, recovered.getLatestGame(3));
+				Lane resumed = Lane.recover(recovered, 3, 9, null);
+				assertEquals(lane.getFrame(), resumed.getFrame());
+				assertEquals(lane.getPlayer(), resumed.getPlayer());
+				assertEquals(lane.getShot(), resumed.getShot());
+				for (int player = 0; player < PLAYERS.size(); player++) {
+					assertEquals(PLAYERS.get(player), resumed.getPlayers().get(player).getPlayerName());
+				}
+				while (!resumed.isOver()) {
+					roll(resumed, games);
+				}
+				assertScores(resumed, games);
+			} finally {
+				log.close();
+			}
+		}
+	}
+
+	@Test
+	public void serverResumesTheUnfinishedGames() throws IOException, InterruptedException,
+			ScoreBoardException {
+		File directory = folder.newFolder();
+		Random random = new Random(7);
+		byte[][][] games = new byte[4][][];
+		try (BallLog log = BallLog.open(directory, 100)) {
+			LaneServer server = new LaneServer(2, new Strict(), null, log);
+			for (int lane = 0; lane < games.length; lane++) {
+				games[lane] = games(random);
+				server.open(lane, PLAYERS);
+				// the lane 0 finishes its game
+				int balls = lane == 0 ? Integer.MAX_VALUE : 10 * lane;
+				Lane game = new Lane(lane, PLAYERS);
+				for (int ball = 0; ball < balls && !game.isOver(); ball++) {
+					server.submit(lane, next(game, games[lane]));
+					roll(game, games[lane]);
+				}
+			}
+			assertTrue(server.shutdown(10, TimeUnit.SECONDS));
+		}
+		try (BallLog log = BallLog.open(directory, 100)) {
+			LaneServer server = new LaneServer(2, new Strict(), null, log);
+			List<Lane> recovered = server.recover();
+			assertEquals(games.length - 1, recovered.size());
+			for (Lane lane : recovered) {
+				assertEquals(10 * lane.getNumber(), balls(log, lane));
+				while (!lane.isOver()) {
+					int position = position(lane);
+					server.submit(lane.getNumber(), next(lane, games[lane.getNumber()]));
+					waitFor(lane, position);
+				}
+				assertScores(lane, games[lane.getNumber()]);
+			}
+			// a new game follows the recorded ones
+			server.open(0, PLAYERS);
+			assertEquals(1, log.getLatestGame(0));
+			assertTrue(server.shutdown(10, TimeUnit.SECONDS));
+		}
+	}
+
+	/*
+	 * A listener that fails the test on a rejected or failed ball.
+	 */
+	private static class Strict implements LaneListener {
+
+		@Override
+		public void ballScored(Lane lane, int player, int frame, int shot, int pins) {
+		}
+
+		@Override
+		public void ballRejected(Lane lane, int pins, ScoreBoardException e) {
+			throw new AssertionError("A legal ball was rejected: " + e);
+		}
+
+		@Override
+		public void ballFailed(Lane lane, int pins, RuntimeException e) {
+			throw new AssertionError("A legal ball failed: " + e, e);
+		}
+
+		@Override
+		public void gameOver(Lane lane) {
+		}
+
+	}
+
+	private static byte[][] games(Random random) {
+		byte[][] games = new byte[PLAYERS.size()][];
+		for (int player = 0; player < games.length; player++) {
+			games[player] = Games.random(random);
+		}
+		return games;
+	}
+
+	/*
+	 * The pins of the next ball of the lane.
+	 */
+	private static int next(Lane lane, byte[][] games) {
+		return games[lane.getPlayer()][Util.getIndex(lane.getFrame() - 1, lane.getShot() - 1)];
+	}
+
+	private static void roll(Lane lane, byte[][] games) throws ScoreBoardException {
+		lane.roll(next(lane, games));
+	}
+
+	private static int balls(BallLog log, Lane lane) {
+		int balls = 0;
+		int game = log.getLatestGame(lane.getNumber());
+		for (int player = 0; player < lane.getPlayers().size(); player++) {
+			balls += log.getBalls(lane.getNumber(), game, player);
+		}
+		return balls;
+	}
+
+	private static int position(Lane lane) {
+		return lane.getFrame() << 16 | lane.getPlayer() << 8 | lane.getShot();
+	}
+
+	/*
+	 * Waits for the worker to score the ball submitted at the position.
+	 */
+	private static void waitFor(Lane lane, int position) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (position(lane) == position) {
+			if (System.nanoTime() > deadline) {
+				throw new AssertionError("The ball was not scored");
+			}
+			Thread.sleep(1);
+		}
+	}
+
+	private static void assertScores(Lane lane, byte[][] games) throws ScoreBoardException {
+		for (int player = 0; player < games.length; player++) {
+			ScoreBoardImpl expected = Games.play(new ScoreBoardImpl(), games[player]);
+			expected.computeFinalScore();
+			assertEquals(expected.getFinalScore(), lane.getPlayers().get(player).getFinalScore());
+		}
+	}
+
+}
\ No newline at end of file
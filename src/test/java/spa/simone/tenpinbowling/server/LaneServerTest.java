@@ -0,0 +1,204 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.Games;
+import spa.simone.tenpinbowling.model.PlayerRegistry;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+import spa.simone.tenpinbowling.model.Util;
+import spa.simone.tenpinbowling.stats.SeasonAggregator;
+import spa.simone.tenpinbowling.stats.SeasonStatistics;
+
+/**
+ * Checks that the {@link LaneServer} scores the balls of many lanes in order,
+ * that a failing ball does not stall its lane, and that the players of a
+ * {@link Lane} do not stay in the default registry.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class LaneServerTest {
+
+	private static final int LANES = 32;
+
+	@Test
+	public void scoresEveryLaneInOrder() throws InterruptedException, ScoreBoardException {
+		Counter counter = new Counter(-1);
+		LaneServer server = new LaneServer(4, counter);
+		Random random = new Random(42);
+		byte[][] games = new byte[LANES][];
+		Lane[] lanes = new Lane[LANES];
+		int balls = 0;
+		for (int lane = 0; lane < LANES; lane++) {
+			games[lane] = Games.random(random);
+			lanes[lane] = server.open(lane, Arrays.asList("Player" + lane));
+		}
+		for (int lane = 0; lane < LANES; lane++) {
+			for (int pins : balls(games[lane])) {
+				server.submit(lane, pins);
+				balls++;
+			}
+		}
+		assertTrue(server.shutdown(10, TimeUnit.SECONDS));
+		assertEquals(balls, counter.scored.get());
+		assertEquals(LANES, counter.over.get());
+		for (int lane = 0; lane < LANES; lane++) {
+			assertTrue(lanes[lane].isOver());
+			ScoreBoardImpl expected = Games.play(new ScoreBoardImpl(), games[lane]);
+			assertEquals(expected.getFinalScore(), lanes[lane].getPlayers().get(0).getFinalScore());
+		}
+	}
+
+	@Test
+	public void aFailingBallDoesNotStallTheLane() throws InterruptedException {
+		// the listener throws on the first ball, while the others are queued
+		Counter counter = new Counter(0);
+		LaneServer server = new LaneServer(1, counter);
+		Lane lane = server.open(0, Arrays.asList("Player"));
+		for (int ball = 0; ball < 12; ball++) {
+			server.submit(0, 10);
+		}
+		assertTrue(server.shutdown(10, TimeUnit.SECONDS));
+		assertEquals(1, counter.failed.get());
+		assertTrue(lane.isOver());
+		assertEquals(300, lane.getPlayers().get(0).getFinalScore());
+	}
+
+	@Test
+	public void aBallSubmittedWhileTheLaneOpensIsScored() throws InterruptedException {
+		Counter counter = new Counter(-1);
+		final LaneServer server = new LaneServer(2, counter);
+		final int lanes = 2000;
+		Thread opener = new Thread() {
+
+			@Override
+			public void run() {
+				for (int lane = 0; lane < lanes; lane++) {
+					server.open(lane, Arrays.asList("Player"));
+				}
+			}
+
+		};
+		opener.start();
+		for (int lane = 0; lane < lanes; lane++) {
+			// the first ball is submitted as soon as the lane is known
+			for (;;) {
+				try {
+					server.submit(lane, 10);
+					break;
+				} catch (IllegalStateException e) {
+					Thread.yield();
+				}
+			}
+		}
+		opener.join();
+		assertTrue(server.shutdown(10, TimeUnit.SECONDS));
+		assertEquals(0, counter.failed.get());
+		assertEquals(lanes, counter.scored.get());
+	}
+
+	@Test
+	public void lanesDoNotGrowTheDefaultRegistry() throws ScoreBoardException {
+		int players = PlayerRegistry.getDefault().size();
+		Random random = new Random(5);
+		List<ScoreBoard> boards = new ArrayList<>();
+		for (int game = 0; game < 100; game++) {
+			Lane lane = new Lane(0, Arrays.asList("Ann", "Player" + game));
+			byte[][] games = { Games.random(random), Games.random(random) };
+			while (!lane.isOver()) {
+				lane.roll(games[lane.getPlayer()][Util.getIndex(lane.getFrame() - 1,
+						lane.getShot() - 1)]);
+			}
+			boards.addAll(lane.getPlayers());
+		}
+		// the players of every lane are kept by name
+		SeasonStatistics statistics = SeasonAggregator.aggregateSequentially(boards);
+		assertEquals(101, statistics.getPlayers().size());
+		assertEquals(100, statistics.getPlayers().get("Ann").getGames());
+		assertEquals(players, PlayerRegistry.getDefault().size());
+	}
+
+	/*
+	 * The balls of a game, in the order they are thrown.
+	 */
+	private static int[] balls(byte[] shots) {
+		int[] balls = new int[21];
+		int n = 0;
+		for (int frame = 1; frame <= 10; frame++) {
+			int first = shots[Util.getIndex(frame - 1, 0)];
+			int second = shots[Util.getIndex(frame - 1, 1)];
+			balls[n++] = first;
+			if (frame < 10 && first == 10) {
+				continue;
+			}
+			balls[n++] = second;
+			if (frame == 10 && (first == 10 || first + second == 10)) {
+				balls[n++] = shots[20];
+			}
+		}
+		return Arrays.copyOf(balls, n);
+	}
+
+	private static class Counter implements LaneListener {
+
+		private final int failing;
+		private final AtomicInteger scored = new AtomicInteger();
+		private final AtomicInteger failed = new AtomicInteger();
+		private final AtomicInteger over = new AtomicInteger();
+
+		Counter(int failing) {
+			this.failing = failing;
+		}
+
+		@Override
+		public void ballScored(Lane lane, int player, int frame, int shot, int pins) {
+			if (scored.getAndIncrement() == failing) {
+				throw new IllegalStateException("The listener failed");
+			}
+		}
+
+		@Override
+		public void ballRejected(Lane lane, int pins, ScoreBoardException e) {
+			throw new AssertionError("A legal ball was rejected: " + e);
+		}
+
+		@Override
+		public void ballFailed(Lane lane, int pins, RuntimeException e) {
+			failed.incrementAndGet();
+		}
+
+		@Override
+		public void gameOver(Lane lane) {
+			over.incrementAndGet();
+		}
+
+	}
+
+}
\ No newline at end of file
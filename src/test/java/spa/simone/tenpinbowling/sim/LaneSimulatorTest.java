@@ -0,0 +1,146 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.sim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+import spa.simone.tenpinbowling.model.ScoreBoardFactory;
+
+/**
+ * Checks that the {@link LaneSimulator} plays legal games in the frame/shot
+ * order of the interactive game, and that a {@link Bowler} rolls at its
+ * rates.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class LaneSimulatorTest {
+
+	private static final int GAMES = 2000;
+
+	@Test
+	public void playsLegalGamesInOrder() throws ScoreBoardException {
+		Random random = new Random(42);
+		for (int players = 1; players <= 4; players++) {
+			Bowler[] bowlers = new Bowler[players];
+			ScoreBoard[] boards = new ScoreBoard[players];
+			for (int player = 0; player < players; player++) {
+				// the skills out of [0-1] are clamped
+				bowlers[player] = Bowler.ofSkill(0.5 + random.nextGaussian());
+				boards[player] = ScoreBoardFactory.PACKED.create();
+			}
+			LaneSimulator lane = new LaneSimulator(boards, bowlers, new Random(players));
+			long totalScore = 0;
+			for (int game = 0; game < GAMES; game++) {
+				totalScore += play(lane, boards);
+			}
+			assertEquals(GAMES * players, lane.getGames());
+			assertEquals(totalScore, lane.getTotalScore());
+		}
+	}
+
+	@Test
+	public void aPerfectBowlerScores300() throws ScoreBoardException {
+		ScoreBoard[] boards = { new ScoreBoardImpl() };
+		LaneSimulator lane = new LaneSimulator(boards, new Bowler[] { new Bowler(1, 1) },
+				new Random(1));
+		assertEquals(300, play(lane, boards));
+		// a spare in every frame, with a first ball of 0 to 9 pins
+		lane = new LaneSimulator(boards, new Bowler[] { new Bowler(0, 1) }, new Random(1));
+		int score = play(lane, boards);
+		assertTrue(score >= 100 && score <= 190);
+	}
+
+	@Test
+	public void bowlersRollAtTheirRates() {
+		Random random = new Random(7);
+		Bowler bowler = new Bowler(0.3, 0.6);
+		int strikes = 0;
+		int spares = 0;
+		int balls = 100000;
+		for (int i = 0; i < balls; i++) {
+			int first = bowler.roll(random, 10);
+			assertTrue(first >= 0 && first <= 10);
+			if (first == 10) {
+				strikes++;
+				continue;
+			}
+			int second = bowler.roll(random, 10 - first);
+			assertTrue(second >= 0 && second <= 10 - first);
+			if (first + second == 10) {
+				spares++;
+			}
+		}
+		assertEquals(0.3, (double) strikes / balls, 0.01);
+		assertEquals(0.6, (double) spares / (balls - strikes), 0.01);
+		assertEquals(0.02, Bowler.ofSkill(-1).getStrikeRate(), 1e-9);
+		assertEquals(0.95, Bowler.ofSkill(2).getSpareRate(), 1e-9);
+	}
+
+	/*
+	 * Plays a game on the lane, checking the position of every ball, and
+	 * returns the sum of the final scores.
+	 */
+	private static int play(LaneSimulator lane, ScoreBoard[] boards) throws ScoreBoardException {
+		ScoreBoard[] expected = new ScoreBoard[boards.length];
+		for (int player = 0; player < boards.length; player++) {
+			expected[player] = new ScoreBoardImpl();
+		}
+		for (int frame = 1; frame <= 10; frame++) {
+			for (int player = 0; player < boards.length; player++) {
+				int first = roll(lane, expected, player, frame, 1);
+				if (frame < 10 && first == 10) {
+					continue;
+				}
+				int second = roll(lane, expected, player, frame, 2);
+				if (frame == 10 && (first == 10 || first + second == 10)) {
+					roll(lane, expected, player, frame, 3);
+				}
+			}
+		}
+		int score = 0;
+		for (int player = 0; player < boards.length; player++) {
+			expected[player].computeFinalScore();
+			score += expected[player].getFinalScore();
+			// a new game
+			assertEquals(0, boards[player].getShot(1, 1));
+		}
+		return score;
+	}
+
+	private static int roll(LaneSimulator lane, ScoreBoard[] expected, int player, int frame,
+			int shot) throws ScoreBoardException {
+		assertEquals(player, lane.getPlayer());
+		assertEquals(frame, lane.getFrame());
+		assertEquals(shot, lane.getShot());
+		int pins = lane.nextPins();
+		assertEquals(pins, lane.nextPins());
+		// a ball against the rules throws
+		lane.getScoreBoard().setPins(frame, shot, pins);
+		expected[player].setPins(frame, shot, pins);
+		lane.advance();
+		return pins;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.sim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Checks that the {@link LoadGenerator} plays legal balls on every
+ * scoreboard, as fast as possible and at a fixed rate.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class LoadGeneratorTest {
+
+	private static final Pattern BALLS = Pattern.compile("^(\\d+) balls in ");
+
+	@Test
+	public void playsEveryScoreBoard() throws InterruptedException {
+		for (String name : new String[] { "impl", "packed", "table", "concurrent", "versioned" }) {
+			// a broken rule throws an IllegalStateException
+			String report = new LoadGenerator(LoadGenerator.factory(name), 8, 4, 0, 2, 0.5, 1, 1)
+					.run(0.05, 0.2);
+			assertTrue(report, balls(report) > 0);
+		}
+	}
+
+	@Test
+	public void playsAtTheRate() throws InterruptedException {
+		String report = new LoadGenerator(LoadGenerator.factory("packed"), 8, 4, 2000, 2, 0.5, 0.2,
+				1).run(0.1, 0.5);
+		// about 1000 balls, with room for a slow machine
+		long balls = balls(report);
+		assertTrue(report, balls > 250 && balls < 2000);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void refusesAnUnknownScoreBoard() {
+		LoadGenerator.factory("abacus");
+	}
+
+	private static long balls(String report) {
+		Matcher matcher = BALLS.matcher(report);
+		assertTrue(report, matcher.find());
+		return Long.parseLong(matcher.group(1));
+	}
+
+}
\ No newline at end of file
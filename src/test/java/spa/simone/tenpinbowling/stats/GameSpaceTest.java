@@ -0,0 +1,170 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.stats;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.Games;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+
+/**
+ * Checks the counts of the {@link GameSpace} against an independent count
+ * frame by frame, and its draws against the counts.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class GameSpaceTest {
+
+	private static final int SAMPLES = 200000;
+
+	@Test
+	public void countsLikeAFrameByFrameCount() {
+		long[] expected = count(1, 0, 0, new HashMap<Integer, long[]>());
+		long games = 0;
+		for (int score = 0; score <= 300; score++) {
+			assertEquals("score " + score, expected[score], Games.SPACE.getScoreCount(score));
+			games += expected[score];
+		}
+		assertEquals(games, Games.SPACE.getGames());
+		assertEquals(6796126483946781696L, Games.SPACE.getGames());
+		assertEquals(1, Games.SPACE.getScoreCount(300));
+		assertEquals(1, Games.SPACE.getScoreCount(299));
+	}
+
+	@Test
+	public void drawsTheScoresWithTheirProbability() throws ScoreBoardException {
+		Random random = new Random(3);
+		byte[] shots = new byte[21];
+		long[] drawn = new long[301];
+		for (int i = 0; i < SAMPLES; i++) {
+			int score = Games.SPACE.sample(random, shots);
+			if (i % 100 == 0) {
+				ScoreBoardImpl board = Games.play(new ScoreBoardImpl(), shots);
+				board.computeFinalScore();
+				assertEquals(board.getFinalScore(), score);
+			}
+			drawn[score]++;
+		}
+		// the scores expected at least 20 times, the others are too rare
+		double chiSquare = 0;
+		int degrees = -1;
+		for (int score = 0; score <= 300; score++) {
+			double expected = SAMPLES * Games.SPACE.getProbability(score);
+			if (expected >= 20) {
+				chiSquare += (drawn[score] - expected) * (drawn[score] - expected) / expected;
+				degrees++;
+			}
+		}
+		assertTrue(chiSquare + " with " + degrees + " degrees of freedom",
+				chiSquare < critical(degrees));
+	}
+
+	@Test
+	public void drawsTheGamesOfAScoreUniformly() throws ScoreBoardException {
+		Random random = new Random(5);
+		byte[] shots = new byte[21];
+		int score = 290;
+		Map<String, Integer> drawn = new HashMap<>();
+		for (int i = 0; i < SAMPLES / 10; i++) {
+			assertEquals(score, Games.SPACE.sample(random, score, shots));
+			ScoreBoardImpl board = Games.play(new ScoreBoardImpl(), shots);
+			board.computeFinalScore();
+			assertEquals(score, board.getFinalScore());
+			assertArrayEquals(shots, Games.shots(board));
+			String game = Arrays.toString(shots);
+			Integer count = drawn.get(game);
+			drawn.put(game, count == null ? 1 : count + 1);
+		}
+		long games = Games.SPACE.getScoreCount(score);
+		assertEquals(games, drawn.size());
+		double expected = (double) SAMPLES / 10 / games;
+		double chiSquare = 0;
+		for (int count : drawn.values()) {
+			chiSquare += (count - expected) * (count - expected) / expected;
+		}
+		assertTrue(chiSquare + " with " + (games - 1) + " degrees of freedom",
+				chiSquare < critical((int) games - 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void refusesAnImpossibleScore() {
+		Games.SPACE.sample(new Random(), 301, new byte[21]);
+	}
+
+	/*
+	 * A bound that a chi-square with the degrees of freedom exceeds with a
+	 * probability well below 0.001.
+	 */
+	private static double critical(int degrees) {
+		return degrees + 5 * Math.sqrt(2.0 * degrees);
+	}
+
+	/*
+	 * The number of games with each number of points from the frame, where the
+	 * next ball counts 1 + first times and the one after it 1 + second times,
+	 * because of the strikes and the spares before the frame.
+	 */
+	private static long[] count(int frame, int first, int second, Map<Integer, long[]> memo) {
+		int key = (frame << 4) | (first << 2) | second;
+		long[] counts = memo.get(key);
+		if (counts != null) {
+			return counts;
+		}
+		counts = new long[301];
+		for (int a = 0; a <= 10; a++) {
+			if (frame == 10) {
+				for (int b = 0; b <= (a == 10 ? 10 : 10 - a); b++) {
+					int points = a * (1 + first) + b * (1 + second);
+					if (a == 10 || a + b == 10) {
+						// the Validator accepts any bonus ball
+						for (int c = 0; c <= 10; c++) {
+							counts[points + c]++;
+						}
+					} else {
+						counts[points]++;
+					}
+				}
+			} else if (a == 10) {
+				add(counts, 10 * (1 + first), count(frame + 1, second + 1, 1, memo));
+			} else {
+				for (int b = 0; b <= 10 - a; b++) {
+					int points = a * (1 + first) + b * (1 + second);
+					add(counts, points, count(frame + 1, a + b == 10 ? 1 : 0, 0, memo));
+				}
+			}
+		}
+		memo.put(key, counts);
+		return counts;
+	}
+
+	private static void add(long[] counts, int points, long[] following) {
+		for (int score = 0; score + points <= 300; score++) {
+			counts[score + points] += following[score];
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.stats;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.Games;
+import spa.simone.tenpinbowling.model.PackedScoreBoard;
+import spa.simone.tenpinbowling.model.PlayerRegistry;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+
+/**
+ * Checks that the {@link SeasonAggregator} computes the same statistics
+ * however the games are split, and that they are the ones of the games.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class SeasonStatisticsTest {
+
+	// about a dozen parts on four workers
+	private static final int GAMES = 50000;
+	private static final int PLAYERS = 37;
+
+	@Test
+	public void parallelIsSequential() throws ScoreBoardException {
+		Random random = new Random(3);
+		List<ScoreBoard> boards = games(random, new PlayerRegistry());
+		String sequential = SeasonAggregator.aggregateSequentially(boards).serializeStatistics();
+		SeasonAggregator aggregator = new SeasonAggregator(new ForkJoinPool(4));
+		try {
+			assertEquals(sequential, aggregator.aggregate(boards).serializeStatistics());
+			Collections.shuffle(boards, random);
+			assertEquals(sequential, aggregator.aggregate(boards).serializeStatistics());
+		} finally {
+			aggregator.shutdown();
+		}
+	}
+
+	@Test
+	public void countsTheGamesOfEachPlayer() throws ScoreBoardException {
+		List<ScoreBoard> boards = games(new Random(5), new PlayerRegistry());
+		SeasonStatistics statistics = SeasonAggregator.aggregateSequentially(boards);
+		assertEquals(PLAYERS, statistics.getPlayers().size());
+		for (int player = 0; player < PLAYERS; player++) {
+			long games = 0;
+			long total = 0;
+			long strikes = 0;
+			long spares = 0;
+			int high = 0;
+			int low = 300;
+			for (int i = player; i < GAMES; i += PLAYERS) {
+				ScoreBoard board = boards.get(i);
+				games++;
+				total += board.getFinalScore();
+				strikes += board.getStrikes();
+				spares += board.getSpares();
+				high = Math.max(high, board.getFinalScore());
+				low = Math.min(low, board.getFinalScore());
+			}
+			GameStatistics expected = statistics.getPlayers().get("P" + player);
+			assertEquals(games, expected.getGames());
+			assertEquals(total, expected.getTotalScore());
+			assertEquals(strikes, expected.getStrikes());
+			assertEquals(spares, expected.getSpares());
+			assertEquals(high, expected.getHighGame());
+			assertEquals(low, expected.getLowGame());
+		}
+		assertEquals(GAMES, statistics.getAll().getGames());
+		long histogram = 0;
+		for (long bucket : statistics.getAll().getHistogram(50)) {
+			histogram += bucket;
+		}
+		assertEquals(GAMES, histogram);
+	}
+
+	@Test
+	public void mergesThePlayersOfAnotherRegistryByName() throws ScoreBoardException {
+		Random random = new Random(7);
+		List<ScoreBoard> first = games(random, new PlayerRegistry());
+		List<ScoreBoard> second = games(random, new PlayerRegistry());
+		SeasonStatistics statistics = SeasonAggregator.aggregateSequentially(first);
+		statistics.merge(SeasonAggregator.aggregateSequentially(second));
+		List<ScoreBoard> all = new ArrayList<>(first);
+		all.addAll(second);
+		assertEquals(SeasonAggregator.aggregateSequentially(all).serializeStatistics(),
+				statistics.serializeStatistics());
+		assertEquals(PLAYERS, statistics.getPlayers().size());
+	}
+
+	/*
+	 * Random games of the players, in turn.
+	 */
+	private static List<ScoreBoard> games(Random random, PlayerRegistry registry)
+			throws ScoreBoardException {
+		List<ScoreBoard> boards = new ArrayList<>(GAMES);
+		for (int i = 0; i < GAMES; i++) {
+			PackedScoreBoard board = Games.play(new PackedScoreBoard(registry), Games.random(random));
+			board.setPlayerName("P" + i % PLAYERS);
+			boards.add(board);
+		}
+		return boards;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,199 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.store;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import spa.simone.tenpinbowling.Games;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+import spa.simone.tenpinbowling.model.ValidationResult;
+
+/**
+ * Checks that the {@link BallLog} rebuilds the games recorded through
+ * {@link JournaledScoreBoard}, after a restart or a crash.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class BallLogTest {
+
+	private static final int GAMES = 200;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void replaysTheGamesAfterACrash() throws IOException, ScoreBoardException {
+		File directory = folder.newFolder();
+		BallLog log = BallLog.open(directory, Integer.MAX_VALUE);
+		ScoreBoard[] boards = play(log, new Random(42));
+		// the log is not closed: every event was written when it was recorded
+		try (BallLog recovered = BallLog.open(directory, Integer.MAX_VALUE)) {
+			assertGames(recovered, boards);
+		} finally {
+			log.close();
+		}
+	}
+
+	@Test
+	public void snapshotsKeepTheGames() throws IOException, ScoreBoardException {
+		File directory = folder.newFolder();
+		ScoreBoard[] boards;
+		try (BallLog log = BallLog.open(directory, 7)) {
+			boards = play(log, new Random(7));
+		}
+		assertTrue(new File(directory, "balls.snapshot").exists());
+		try (BallLog log = BallLog.open(directory, 7)) {
+			assertGames(log, boards);
+		}
+		// the events after the snapshot are replayed again
+		try (BallLog log = BallLog.open(directory, Integer.MAX_VALUE)) {
+			assertGames(log, boards);
+		}
+	}
+
+	@Test
+	public void discardsATornEvent() throws IOException, ScoreBoardException {
+		File directory = folder.newFolder();
+		ScoreBoard[] boards;
+		try (BallLog log = BallLog.open(directory, Integer.MAX_VALUE)) {
+			boards = play(log, new Random(3));
+		}
+		// a write interrupted by a crash
+		try (FileOutputStream out = new FileOutputStream(new File(directory, "balls.log"), true)) {
+			out.write(new byte[] { 0, 0, 0 });
+		}
+		try (BallLog log = BallLog.open(directory, Integer.MAX_VALUE)) {
+			assertGames(log, boards);
+			log.appendReset(0, 0, 0);
+			boards[0] = new ScoreBoardImpl();
+		}
+		try (BallLog log = BallLog.open(directory, Integer.MAX_VALUE)) {
+			assertGames(log, boards);
+		}
+	}
+
+	@Test
+	public void rejectedBallIsNotRecorded() throws IOException, ScoreBoardException {
+		File directory = folder.newFolder();
+		ScoreBoardImpl delegate = new ScoreBoardImpl();
+		try (BallLog log = BallLog.open(directory, Integer.MAX_VALUE)) {
+			ScoreBoard board = new JournaledScoreBoard(delegate, log, 1, 2, 3);
+			board.setPins(1, 1, 7);
+			try {
+				board.setPins(1, 2, 5);
+				fail("recorded a frame of 12 pins");
+			} catch (ScoreBoardException e) {
+				// expected
+			}
+			assertEquals(ValidationResult.INVALID_TOTAL_SUM, board.trySetPins(1, 2, 4));
+			assertEquals(0, delegate.getShot(1, 2));
+			assertEquals(1, log.getBalls(1, 2, 3));
+		}
+		try (BallLog log = BallLog.open(directory, Integer.MAX_VALUE)) {
+			assertEquals(1, log.getBalls(1, 2, 3));
+			assertEquals(7, log.getScoreBoard(1, 2, 3).getFinalScore());
+		}
+	}
+
+	@Test
+	public void namesSurviveARestart() throws IOException {
+		File directory = folder.newFolder();
+		try (BallLog log = BallLog.open(directory, Integer.MAX_VALUE)) {
+			new JournaledScoreBoard(new ScoreBoardImpl(), log, 0, 0, 0).setPlayerName("Simone");
+			new JournaledScoreBoard(new ScoreBoardImpl(), log, 0, 0, 1).setPlayerName("Zo\u00eb");
+			new JournaledScoreBoard(new ScoreBoardImpl(), log, 0, 0, 2).setPlayerName(null);
+		}
+		try (BallLog log = BallLog.open(directory, Integer.MAX_VALUE)) {
+			assertEquals(3, log.getPlayers(0, 0));
+			assertEquals("Simone", log.getPlayerName(0, 0, 0));
+			assertEquals("Zo\u00eb", log.getScoreBoard(0, 0, 1).getPlayerName());
+			assertNull(log.getPlayerName(0, 0, 2));
+			assertEquals(0, log.getLatestGame(0));
+		}
+	}
+
+	@Test
+	public void delayedEventsAreWrittenWithinTheDelay() throws IOException, InterruptedException,
+			ScoreBoardException {
+		File directory = folder.newFolder();
+		File file = new File(directory, "balls.log");
+		try (BallLog log = BallLog.open(directory, Integer.MAX_VALUE, 10, TimeUnit.MILLISECONDS)) {
+			log.append(0, 0, 0, 1, 1, 10);
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (file.length() < BallLog.EVENT_SIZE && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+			assertEquals(BallLog.EVENT_SIZE, file.length());
+		}
+	}
+
+	@Test
+	public void delayedEventsAreWrittenByFlush() throws IOException, ScoreBoardException {
+		File directory = folder.newFolder();
+		File file = new File(directory, "balls.log");
+		try (BallLog log = BallLog.open(directory, Integer.MAX_VALUE, 1, TimeUnit.HOURS)) {
+			log.append(0, 0, 0, 1, 1, 10);
+			assertEquals(0, file.length());
+			log.flush();
+			assertEquals(BallLog.EVENT_SIZE, file.length());
+		}
+	}
+
+	/*
+	 * Plays random games through journaled scoreboards, on 8 lanes.
+	 */
+	private static ScoreBoard[] play(BallLog log, Random random) throws ScoreBoardException {
+		ScoreBoard[] boards = new ScoreBoard[GAMES];
+		for (int i = 0; i < GAMES; i++) {
+			boards[i] = new JournaledScoreBoard(new ScoreBoardImpl(), log, i % 8, i / 8, 0);
+			boards[i].setPlayerName("Player" + i);
+			Games.play(boards[i], Games.random(random));
+		}
+		return boards;
+	}
+
+	private static void assertGames(BallLog log, ScoreBoard[] boards) throws ScoreBoardException {
+		for (int i = 0; i < GAMES; i++) {
+			ScoreBoard recorded = log.getScoreBoard(i % 8, i / 8, 0);
+			if (boards[i].getPlayerName() == null) {
+				assertNull(recorded);
+				continue;
+			}
+			assertEquals(boards[i].getPlayerName(), recorded.getPlayerName());
+			assertArrayEquals(Games.shots(boards[i]), Games.shots(recorded));
+			boards[i].computeFinalScore();
+			assertEquals(boards[i].getFinalScore(), recorded.getFinalScore());
+		}
+	}
+
+}
\ No newline at end of file
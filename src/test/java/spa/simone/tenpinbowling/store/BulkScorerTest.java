@@ -0,0 +1,69 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.store;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import spa.simone.tenpinbowling.Games;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+
+/**
+ * Checks that {@link BulkScorer} scores the games as {@link ScoreBoardImpl}.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class BulkScorerTest {
+
+	// not a multiple of the lanes of a vector, so that the tail is scored too
+	private static final int GAMES = 10007;
+
+	@Test
+	public void scoresLikeScoreBoardImpl() throws ScoreBoardException {
+		Random random = new Random(42);
+		ScoreBoardImpl[] boards = new ScoreBoardImpl[GAMES];
+		byte[][] shots = new byte[BulkScorer.SHOTS][GAMES];
+		for (int i = 0; i < GAMES; i++) {
+			byte[] game = Games.random(random);
+			boards[i] = Games.play(new ScoreBoardImpl(), game);
+			boards[i].computeFinalScore();
+			for (int index = 0; index < BulkScorer.SHOTS; index++) {
+				shots[index][i] = game[index];
+			}
+		}
+		// the results start at an offset
+		int[] finalScores = new int[GAMES + 3];
+		int[] strikes = new int[GAMES + 3];
+		int[] spares = new int[GAMES + 3];
+		int[][] frameScores = new int[10][GAMES];
+		BulkScorer.score(shots, GAMES, finalScores, strikes, spares, 3);
+		BulkScorer.scoreFrames(shots, GAMES, frameScores);
+		for (int i = 0; i < GAMES; i++) {
+			assertEquals(boards[i].getFinalScore(), finalScores[i + 3]);
+			assertEquals(boards[i].getStrikes(), strikes[i + 3]);
+			assertEquals(boards[i].getSpares(), spares[i + 3]);
+			for (int frame = 1; frame <= 10; frame++) {
+				assertEquals(boards[i].getScoreOf(frame), frameScores[frame - 1][i]);
+			}
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.store;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import spa.simone.tenpinbowling.Games;
+import spa.simone.tenpinbowling.model.ConcurrentScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+
+/**
+ * Checks that the games appended by {@link GameArchiveWriter} are read back
+ * by {@link GameArchive}.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class GameArchiveTest {
+
+	// more than the records buffered by the writer
+	private static final int GAMES = 3000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void readsBackTheAppendedGames() throws IOException, ScoreBoardException {
+		File file = new File(folder.getRoot(), "games.archive");
+		ScoreBoard[] boards = new ScoreBoard[GAMES];
+		Random random = new Random(42);
+		try (GameArchiveWriter writer = GameArchiveWriter.open(file)) {
+			append(writer, boards, 0, GAMES / 2, random);
+		}
+		// the records written after the last flush are discarded
+		GameArchiveWriter writer = GameArchiveWriter.open(file);
+		assertEquals(GAMES / 2, writer.size());
+		append(writer, boards, GAMES / 2, GAMES, random);
+		writer.flush();
+		writer.append(new ScoreBoardImpl());
+		assertGames(GameArchive.open(file), boards);
+		writer.close();
+		writer = GameArchiveWriter.open(file);
+		writer.close();
+		assertEquals(GAMES + 1, GameArchive.open(file).size());
+	}
+
+	private static void append(GameArchiveWriter writer, ScoreBoard[] boards, int from, int to,
+			Random random) throws IOException, ScoreBoardException {
+		for (int i = from; i < to; i++) {
+			ScoreBoard board = i % 2 == 0 ? new ScoreBoardImpl() : new ConcurrentScoreBoard();
+			board.setPlayerName("Player" + i);
+			boards[i] = Games.play(board, Games.random(random));
+			boards[i].computeFinalScore();
+			assertEquals(i, writer.append(boards[i]));
+		}
+	}
+
+	private static void assertGames(GameArchive archive, ScoreBoard[] boards)
+			throws ScoreBoardException {
+		assertEquals(boards.length, archive.size());
+		for (int i = 0; i < boards.length; i++) {
+			byte[] shots = Games.shots(boards[i]);
+			for (int index = 0; index < GameStore.SHOTS; index++) {
+				assertEquals(shots[index], archive.getPins(i, index));
+			}
+			assertArrayEquals(shots, Games.shots(archive.getScoreBoard(i)));
+			assertEquals(boards[i].getPlayerName().hashCode(), archive.getNameHash(i));
+			assertEquals(boards[i].getFinalScore(), archive.getFinalScore(i));
+			assertEquals(boards[i].getStrikes(), archive.getStrikes(i));
+			assertEquals(boards[i].getSpares(), archive.getSpares(i));
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+/**
+ * This file is part of Ten-Pin Bowling project.
+ *
+ * Ten-Pin Bowling is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *	
+ * Ten-Pin Bowling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *	
+ * You should have received a copy of the GNU General Public License
+ * along with this project. If not, see <http://www.gnu.org/licenses/>.
+ */
+package spa.simone.tenpinbowling.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import spa.simone.tenpinbowling.Games;
+import spa.simone.tenpinbowling.model.ScoreBoard;
+import spa.simone.tenpinbowling.model.ScoreBoardException;
+import spa.simone.tenpinbowling.model.ScoreBoardImpl;
+
+/**
+ * Checks the {@link GameStore} against {@link ScoreBoardImpl}, and the
+ * reopening of a mapped store.
+ * 
+ * @author Simone Spaccarotella {spa.simone@gmail.com}
+ */
+public class GameStoreTest {
+
+	private static final int GAMES = 10000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void scoresLikeScoreBoardImpl() throws ScoreBoardException {
+		try (GameStore store = GameStore.allocate(GAMES)) {
+			ScoreBoard[] boards = fill(store, new Random(42));
+			assertScores(store, boards);
+		}
+	}
+
+	@Test
+	public void reopenedStoreKeepsItsGames() throws IOException, ScoreBoardException {
+		File file = folder.newFile();
+		ScoreBoard[] boards;
+		try (GameStore store = GameStore.open(file, GAMES)) {
+			boards = fill(store, new Random(7));
+		}
+		try (GameStore store = GameStore.open(file, GAMES)) {
+			assertEquals(GAMES, store.size());
+			assertScores(store, boards);
+		}
+	}
+
+	@Test
+	public void openRejectsAnotherCapacity() throws IOException {
+		File file = folder.newFile();
+		GameStore.open(file, GAMES).close();
+		try {
+			GameStore.open(file, GAMES + 1);
+			fail("opened a store with another capacity");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void openRejectsATruncatedFile() throws IOException {
+		File file = folder.newFile();
+		GameStore.open(file, GAMES).close();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(raf.length() / 2);
+		}
+		try {
+			GameStore.open(file, GAMES);
+			fail("opened a truncated store");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void getPinsRejectsAnInvalidShot() {
+		try (GameStore store = GameStore.allocate(2)) {
+			store.add(new ScoreBoardImpl());
+			store.add(new ScoreBoardImpl());
+			for (int index : new int[] { -1, GameStore.SHOTS }) {
+				try {
+					store.getPins(0, index);
+					fail("read the shot " + index);
+				} catch (IndexOutOfBoundsException e) {
+					// expected
+				}
+			}
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void closedStoreRejectsGames() {
+		GameStore store = GameStore.allocate(1);
+		store.close();
+		store.add(new ScoreBoardImpl());
+	}
+
+	private static ScoreBoard[] fill(GameStore store, Random random) throws ScoreBoardException {
+		ScoreBoard[] boards = new ScoreBoard[GAMES];
+		for (int i = 0; i < GAMES; i++) {
+			boards[i] = Games.play(new ScoreBoardImpl(), Games.random(random));
+			assertEquals(i, store.add(boards[i]));
+		}
+		return boards;
+	}
+
+	private static void assertScores(GameStore store, ScoreBoard[] boards) throws ScoreBoardException {
+		int[] finalScores = new int[GAMES];
+		int[] strikes = new int[GAMES];
+		int[] spares = new int[GAMES];
+		store.scoreAll(finalScores, strikes, spares);
+		for (int i = 0; i < GAMES; i++) {
+			byte[] shots = Games.shots(boards[i]);
+			for (int index = 0; index < GameStore.SHOTS; index++) {
+				assertEquals(shots[index], store.getPins(i, index));
+			}
+			assertEquals(boards[i].getFinalScore(), finalScores[i]);
+			assertEquals(boards[i].getStrikes(), strikes[i]);
+			assertEquals(boards[i].getSpares(), spares[i]);
+		}
+	}
+
+}
\ No newline at end of file